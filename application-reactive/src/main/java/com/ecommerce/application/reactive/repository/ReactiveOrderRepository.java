@@ -0,0 +1,91 @@
+package com.ecommerce.application.reactive.repository;
+
+import com.ecommerce.domain.Order;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * ReactiveOrderRepository interface - non-blocking operations for Order entity
+ * Orders are published with their user id, order products and products (id, name) set.
+ * This interface will be implemented in the infrastructure layer
+ */
+public interface ReactiveOrderRepository {
+    
+    /**
+     * Insert a new order with its order products, in one transaction
+     * @param order the order to save (user and products resolved)
+     * @return the saved order with generated ids
+     */
+    Mono<Order> saveOrder(Order order);
+    
+    /**
+     * Find an order with its order products by id
+     * @param id the order id
+     * @return the order, empty if not found
+     */
+    Mono<Order> findOrderWithProductsById(Long id);
+    
+    /**
+     * Find only the header of an order (id, user id, date, total and status), without order products
+     * @param id the order id
+     * @return the order header, empty if not found
+     */
+    Mono<Order> findOrderHeaderById(Long id);
+    
+    /**
+     * Find all orders with their order products, read with a single query
+     * @return the orders, ordered by id
+     */
+    Flux<Order> findAllOrders();
+    
+    /**
+     * Find orders after a given id (keyset pagination)
+     * @param afterId the id of the last order of the previous page, or null for the first page
+     * @param limit the maximum number of orders to return
+     * @return the orders, ordered by id
+     */
+    Flux<Order> findOrdersAfterId(Long afterId, int limit);
+    
+    /**
+     * Find orders after a given (orderDate, id) keyset, oldest first
+     * @param afterDate the order date of the last order of the previous page, or null for the first page
+     * @param afterId the id of the last order of the previous page, or null for the first page
+     * @param limit the maximum number of orders to return
+     * @return the orders, ordered by order date then id
+     */
+    Flux<Order> findOrdersByOrderDateAfter(LocalDateTime afterDate, Long afterId, int limit);
+    
+    /**
+     * Find orders before a given (orderDate, id) keyset, newest first
+     * @param beforeDate the order date of the last order of the previous page, or null for the first page
+     * @param beforeId the id of the last order of the previous page, or null for the first page
+     * @param limit the maximum number of orders to return
+     * @return the orders, ordered by order date then id, descending
+     */
+    Flux<Order> findOrdersByOrderDateBefore(LocalDateTime beforeDate, Long beforeId, int limit);
+    
+    /**
+     * Find the orders of a user with their order products, read with a single query
+     * @param userId the user id
+     * @return the orders, ordered by id
+     */
+    Flux<Order> findByUserId(Long userId);
+    
+    /**
+     * Set the status of an order if it still has the expected status, with a single conditional update
+     * @param id the order id
+     * @param expectedStatus the status the order must have
+     * @param status the new status
+     * @return true if the status was changed, false if the order does not exist or has another status
+     */
+    Mono<Boolean> compareAndSetStatus(Long id, Order.OrderStatus expectedStatus, Order.OrderStatus status);
+    
+    /**
+     * Delete an order with its order products, in one transaction
+     * @param id the order id
+     * @return completes when the order is deleted
+     */
+    Mono<Void> deleteById(Long id);
+}
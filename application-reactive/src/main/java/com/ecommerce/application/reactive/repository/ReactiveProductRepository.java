@@ -0,0 +1,87 @@
+package com.ecommerce.application.reactive.repository;
+
+import com.ecommerce.domain.Product;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * ReactiveProductRepository interface - non-blocking operations for Product entity
+ * Stock is reserved and released in the products table itself, with conditional updates.
+ * This interface will be implemented in the infrastructure layer
+ */
+public interface ReactiveProductRepository {
+    
+    /**
+     * Insert a product without id, or update an existing one
+     * @param product the product to save
+     * @return the saved product with generated id
+     */
+    Mono<Product> saveProduct(Product product);
+    
+    /**
+     * Find a product by id
+     * @param id the product id
+     * @return the product, empty if not found
+     */
+    Mono<Product> findProductById(Long id);
+    
+    /**
+     * Find all products
+     * @return the products, ordered by id
+     */
+    Flux<Product> findAllProducts();
+    
+    /**
+     * Find products by a set of ids in a single query
+     * @param ids the product ids
+     * @return the products found (missing ids are skipped)
+     */
+    Flux<Product> findProductsByIds(Collection<Long> ids);
+    
+    /**
+     * Find products after a given id (keyset pagination)
+     * @param afterId the id of the last product of the previous page, or null for the first page
+     * @param limit the maximum number of products to return
+     * @return the products, ordered by id
+     */
+    Flux<Product> findProductsAfterId(Long afterId, int limit);
+    
+    /**
+     * Find products whose name contains the text, ignoring case
+     * @param name the text to search for
+     * @return the products found, ordered by id
+     */
+    Flux<Product> findByNameContaining(String name);
+    
+    /**
+     * Reserve stock for every product of a request, or for none of them, in one transaction
+     * @param quantities the quantity to reserve, by product id
+     * @return completes when the stock is reserved, or fails with IllegalArgumentException if a
+     *         product does not have enough stock
+     */
+    Mono<Void> reserveStock(Map<Long, Integer> quantities);
+    
+    /**
+     * Return previously reserved stock, in one transaction
+     * @param quantities the quantity to release, by product id
+     * @return completes when the stock is released
+     */
+    Mono<Void> releaseStock(Map<Long, Integer> quantities);
+    
+    /**
+     * Delete a product by id
+     * @param id the product id
+     * @return completes when the product is deleted
+     */
+    Mono<Void> deleteById(Long id);
+    
+    /**
+     * Check if a product exists by id
+     * @param id the product id
+     * @return true if exists, false otherwise
+     */
+    Mono<Boolean> existsById(Long id);
+}
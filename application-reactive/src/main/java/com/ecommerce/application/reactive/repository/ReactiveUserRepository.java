@@ -0,0 +1,70 @@
+package com.ecommerce.application.reactive.repository;
+
+import com.ecommerce.domain.User;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveUserRepository interface - non-blocking operations for User entity
+ * Every method returns without waiting for the database: results are published when the driver
+ * delivers them, and a Flux reads rows only as fast as its subscriber requests them.
+ * This interface will be implemented in the infrastructure layer
+ */
+public interface ReactiveUserRepository {
+    
+    /**
+     * Insert a user without id, or update an existing one
+     * @param user the user to save
+     * @return the saved user with generated id
+     */
+    Mono<User> saveUser(User user);
+    
+    /**
+     * Find a user by id
+     * @param id the user id
+     * @return the user, empty if not found
+     */
+    Mono<User> findUserById(Long id);
+    
+    /**
+     * Find all users
+     * @return the users, ordered by id
+     */
+    Flux<User> findAllUsers();
+    
+    /**
+     * Find users after a given id (keyset pagination)
+     * @param afterId the id of the last user of the previous page, or null for the first page
+     * @param limit the maximum number of users to return
+     * @return the users, ordered by id
+     */
+    Flux<User> findUsersAfterId(Long afterId, int limit);
+    
+    /**
+     * Find a user by email
+     * @param email the user email
+     * @return the user, empty if not found
+     */
+    Mono<User> findUserByEmail(String email);
+    
+    /**
+     * Check if a user with the email exists
+     * @param email the email
+     * @return true if exists, false otherwise
+     */
+    Mono<Boolean> existsByEmail(String email);
+    
+    /**
+     * Delete a user by id
+     * @param id the user id
+     * @return completes when the user is deleted
+     */
+    Mono<Void> deleteById(Long id);
+    
+    /**
+     * Check if a user exists by id
+     * @param id the user id
+     * @return true if exists, false otherwise
+     */
+    Mono<Boolean> existsById(Long id);
+}
@@ -0,0 +1,243 @@
+package com.ecommerce.application.reactive.service;
+
+import com.ecommerce.application.pagination.CursorPage;
+import com.ecommerce.application.pagination.OrderSort;
+import com.ecommerce.application.reactive.repository.ReactiveOrderRepository;
+import com.ecommerce.application.reactive.repository.ReactiveProductRepository;
+import com.ecommerce.application.reactive.repository.ReactiveUserRepository;
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.OrderProduct;
+import com.ecommerce.domain.Product;
+import com.ecommerce.domain.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ReactiveOrderService - business logic for Order entity on non-blocking repositories
+ * Same rules as OrderService: the stock of every line is reserved before the order is saved (in the
+ * products table), statuses move by compare-and-set, and cancelled or deleted unshipped orders give
+ * their stock back. The read models of OrderService (sales reports, user order summaries) are not
+ * updated; rebuild them after placing orders here.
+ */
+@Service
+public class ReactiveOrderService {
+    
+    private final ReactiveOrderRepository orderRepository;
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveProductRepository productRepository;
+    
+    @Autowired
+    public ReactiveOrderService(ReactiveOrderRepository orderRepository, ReactiveUserRepository userRepository,
+                                ReactiveProductRepository productRepository) {
+        this.orderRepository = orderRepository;
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+    }
+    
+    /**
+     * Place a new order with all its lines
+     * The user is loaded by id and all referenced products with a single query, the lines are
+     * validated in memory, the stock of every line is reserved (or none, if a product is short)
+     * and the order is inserted with its order products in one transaction.
+     * @param order the order to place (user and products only need their ids set)
+     * @return the placed order with generated ids
+     */
+    public Mono<Order> placeOrder(Order order) {
+        if (order.getUser() == null || order.getUser().getId() == null) {
+            return Mono.error(new IllegalArgumentException("Order user cannot be null"));
+        }
+        Set<Long> productIds = new HashSet<>();
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            if (orderProduct.getProduct() != null && orderProduct.getProduct().getId() != null) {
+                productIds.add(orderProduct.getProduct().getId());
+            }
+        }
+        Mono<Map<Long, Product>> products = productIds.isEmpty()
+                ? Mono.just(Map.of())
+                : productRepository.findProductsByIds(productIds).collectMap(Product::getId);
+        
+        return userRepository.findUserById(order.getUser().getId())
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException(
+                        "User with id " + order.getUser().getId() + " does not exist")))
+                .zipWith(products)
+                .flatMap(userAndProducts -> {
+                    prepareOrder(order, userAndProducts.getT1(), userAndProducts.getT2());
+                    Map<Long, Integer> reservedStock = heldStock(order);
+                    return reserveStock(reservedStock)
+                            .then(orderRepository.saveOrder(order)
+                                    .onErrorResume(e -> releaseStock(reservedStock).then(Mono.error(e))));
+                });
+    }
+    
+    /**
+     * Get order by id, with its order products
+     * @param id the order id
+     * @return the order, empty if not found
+     */
+    public Mono<Order> getOrderById(Long id) {
+        return orderRepository.findOrderWithProductsById(id);
+    }
+    
+    /**
+     * Get all orders, with their order products
+     * @return the orders, ordered by id, read as the subscriber requests them
+     */
+    public Flux<Order> getAllOrders() {
+        return orderRepository.findAllOrders();
+    }
+    
+    /**
+     * Get a page of orders using keyset pagination
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the page size (capped at CursorPage.MAX_LIMIT)
+     * @param sort the sort order of the listing
+     * @return the page of orders and the cursor of the next page
+     */
+    public Mono<CursorPage<Order>> getOrdersPage(String after, Integer limit, OrderSort sort) {
+        return Mono.defer(() -> {
+            int pageSize = CursorPage.normalizeLimit(limit);
+            if (sort == null || sort == OrderSort.ID) {
+                Long afterId = after == null ? null : CursorPage.parseIdCursor(after);
+                return orderRepository.findOrdersAfterId(afterId, pageSize + 1).collectList()
+                        .map(orders -> CursorPage.of(orders, pageSize, order -> String.valueOf(order.getId())));
+            }
+            
+            LocalDateTime cursorDate = null;
+            Long cursorId = null;
+            if (after != null) {
+                String[] keyset = OrderSort.decodeOrderDateCursor(after);
+                cursorDate = LocalDateTime.parse(keyset[0]);
+                cursorId = CursorPage.parseIdCursor(keyset[1]);
+            }
+            Flux<Order> orders = sort == OrderSort.ORDER_DATE
+                    ? orderRepository.findOrdersByOrderDateAfter(cursorDate, cursorId, pageSize + 1)
+                    : orderRepository.findOrdersByOrderDateBefore(cursorDate, cursorId, pageSize + 1);
+            return orders.collectList().map(page -> CursorPage.of(page, pageSize,
+                    order -> OrderSort.encodeOrderDateCursor(order.getOrderDate(), order.getId())));
+        });
+    }
+    
+    /**
+     * Get the orders of a user, with their order products
+     * @param userId the user id
+     * @return the orders of the user, ordered by id
+     */
+    public Flux<Order> getOrdersByUser(Long userId) {
+        return orderRepository.findByUserId(userId);
+    }
+    
+    /**
+     * Update order status
+     * The transition must be allowed by the order status state machine (OrderStatus.canTransitionTo)
+     * and is applied as a compare-and-set on the status read; when another update changed the status
+     * in between, the status is read and checked again. Cancelling an order releases its stock.
+     * @param orderId the order id
+     * @param status the new status
+     * @return the updated order; fails with IllegalArgumentException if the order does not exist or the
+     *         status is null, IllegalStateException if the status of the order does not allow the transition
+     */
+    public Mono<Order> updateOrderStatus(Long orderId, Order.OrderStatus status) {
+        if (status == null) {
+            return Mono.error(new IllegalArgumentException("Order status cannot be null"));
+        }
+        // Statuses only move forward, so this retries at most once per transition made concurrently
+        return orderRepository.findOrderHeaderById(orderId)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Order with id " + orderId + " does not exist")))
+                .flatMap(header -> {
+                    if (!header.getStatus().canTransitionTo(status)) {
+                        return Mono.error(new IllegalStateException("Order with id " + orderId + " cannot move from "
+                                + header.getStatus() + " to " + status));
+                    }
+                    return orderRepository.compareAndSetStatus(orderId, header.getStatus(), status)
+                            .flatMap(changed -> changed
+                                    ? orderRepository.findOrderWithProductsById(orderId)
+                                            .flatMap(order -> status == Order.OrderStatus.CANCELLED
+                                                    ? releaseStock(lineQuantities(order)).thenReturn(order)
+                                                    : Mono.just(order))
+                                    : updateOrderStatus(orderId, status));
+                });
+    }
+    
+    /**
+     * Delete order by id
+     * @param id the order id
+     * @return completes when the order is deleted
+     */
+    public Mono<Void> deleteOrder(Long id) {
+        return orderRepository.findOrderWithProductsById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Order with id " + id + " does not exist")))
+                .flatMap(order -> orderRepository.deleteById(id)
+                        // Not shipped yet, so its stock goes back to the products
+                        .then(Mono.defer(() -> releaseStock(heldStock(order)))));
+    }
+    
+    /**
+     * Get the stock an order holds: the quantity of each of its products while it is not shipped
+     * @param order the order
+     * @return the quantities, by product id
+     */
+    private Map<Long, Integer> heldStock(Order order) {
+        if (order.getStatus() != null && order.getStatus() != Order.OrderStatus.PENDING
+                && order.getStatus() != Order.OrderStatus.CONFIRMED) {
+            return Map.of();
+        }
+        return lineQuantities(order);
+    }
+    
+    private Map<Long, Integer> lineQuantities(Order order) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            quantities.merge(orderProduct.getProduct().getId(), orderProduct.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+    
+    private Mono<Void> reserveStock(Map<Long, Integer> quantities) {
+        return quantities.isEmpty() ? Mono.empty() : productRepository.reserveStock(quantities);
+    }
+    
+    private Mono<Void> releaseStock(Map<Long, Integer> quantities) {
+        return quantities.isEmpty() ? Mono.empty() : productRepository.releaseStock(quantities);
+    }
+    
+    /**
+     * Resolve the user and products of a new order and validate it
+     * @param order the order to prepare
+     * @param user the user of the order
+     * @param products the products that may be referenced, by id
+     */
+    private void prepareOrder(Order order, User user, Map<Long, Product> products) {
+        order.setUser(user);
+        if (order.getOrderDate() == null) {
+            order.setOrderDate(LocalDateTime.now());
+        }
+        
+        List<OrderProduct> orderProducts = new ArrayList<>(order.getOrderProducts());
+        order.setOrderProducts(new ArrayList<>());
+        order.setTotalAmount(BigDecimal.ZERO);
+        for (OrderProduct orderProduct : orderProducts) {
+            Long productId = orderProduct.getProduct() != null ? orderProduct.getProduct().getId() : null;
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new IllegalArgumentException("Product with id " + productId + " does not exist");
+            }
+            orderProduct.setProduct(product);
+            orderProduct.setPrice(product.getPrice());
+            if (orderProduct.getQuantity() == null || orderProduct.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Order product quantity must be greater than zero");
+            }
+            order.addOrderProduct(orderProduct);
+        }
+    }
+}
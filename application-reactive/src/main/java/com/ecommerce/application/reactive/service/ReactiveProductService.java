@@ -0,0 +1,135 @@
+package com.ecommerce.application.reactive.service;
+
+import com.ecommerce.application.pagination.CursorPage;
+import com.ecommerce.application.reactive.repository.ReactiveProductRepository;
+import com.ecommerce.application.service.ProductService;
+import com.ecommerce.domain.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * ReactiveProductService - business logic for Product entity on non-blocking repositories
+ * Same rules as ProductService. The stock shown is the stock left in the products table, where
+ * orders placed through the reactive services reserve it; searches are name searches in the database.
+ */
+@Service
+public class ReactiveProductService {
+    
+    private final ReactiveProductRepository productRepository;
+    
+    @Autowired
+    public ReactiveProductService(ReactiveProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+    
+    /**
+     * Create a new product
+     * @param product the product to create
+     * @return the created product with generated id
+     */
+    public Mono<Product> createProduct(Product product) {
+        return Mono.defer(() -> {
+            validateProduct(product);
+            return productRepository.saveProduct(product);
+        });
+    }
+    
+    /**
+     * Get product by id
+     * @param id the product id
+     * @return the product, empty if not found
+     */
+    public Mono<Product> getProductById(Long id) {
+        return productRepository.findProductById(id);
+    }
+    
+    /**
+     * Get all products
+     * @return the products, ordered by id, read as the subscriber requests them
+     */
+    public Flux<Product> getAllProducts() {
+        return productRepository.findAllProducts();
+    }
+    
+    /**
+     * Get a page of products using keyset pagination
+     * @param after the id of the last product of the previous page, or null for the first page
+     * @param limit the page size (capped at CursorPage.MAX_LIMIT)
+     * @return the page of products and the cursor of the next page
+     */
+    public Mono<CursorPage<Product>> getProductsPage(String after, Integer limit) {
+        return Mono.defer(() -> {
+            int pageSize = CursorPage.normalizeLimit(limit);
+            Long afterId = after == null ? null : CursorPage.parseIdCursor(after);
+            return productRepository.findProductsAfterId(afterId, pageSize + 1).collectList()
+                    .map(products -> CursorPage.of(products, pageSize, product -> String.valueOf(product.getId())));
+        });
+    }
+    
+    /**
+     * Search products by name
+     * @param name the text to search for
+     * @param limit the maximum number of products to return, may be null (ProductService.DEFAULT_SEARCH_LIMIT);
+     * limits above ProductService.MAX_SEARCH_LIMIT are lowered to it
+     * @return the products whose name contains the text, all products if it is blank
+     */
+    public Flux<Product> searchProductsByName(String name, Integer limit) {
+        return Flux.defer(() -> {
+            if (limit != null && limit <= 0) {
+                return Flux.error(new IllegalArgumentException("Search limit must be greater than zero"));
+            }
+            int searchLimit = limit == null ? ProductService.DEFAULT_SEARCH_LIMIT
+                    : Math.min(limit, ProductService.MAX_SEARCH_LIMIT);
+            if (name == null || name.trim().isEmpty()) {
+                return getAllProducts().take(searchLimit);
+            }
+            return productRepository.findByNameContaining(name.trim()).take(searchLimit);
+        });
+    }
+    
+    /**
+     * Update product
+     * @param product the product to update
+     * @return the updated product
+     */
+    public Mono<Product> updateProduct(Product product) {
+        if (product.getId() == null) {
+            return Mono.error(new IllegalArgumentException("Product id cannot be null for update"));
+        }
+        return productRepository.existsById(product.getId())
+                .flatMap(exists -> {
+                    if (!exists) {
+                        return Mono.error(new IllegalArgumentException("Product with id " + product.getId() + " does not exist"));
+                    }
+                    if (product.getPrice() == null || product.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
+                        return Mono.error(new IllegalArgumentException("Product price must be greater than zero"));
+                    }
+                    return productRepository.saveProduct(product);
+                });
+    }
+    
+    /**
+     * Delete product by id
+     * @param id the product id
+     * @return completes when the product is deleted
+     */
+    public Mono<Void> deleteProduct(Long id) {
+        return productRepository.existsById(id)
+                .flatMap(exists -> exists
+                        ? productRepository.deleteById(id)
+                        : Mono.error(new IllegalArgumentException("Product with id " + id + " does not exist")));
+    }
+    
+    private void validateProduct(Product product) {
+        if (product.getName() == null || product.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Product name cannot be null or empty");
+        }
+        if (product.getPrice() == null || product.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Product price must be greater than zero");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.ecommerce.application.reactive.service;
+
+import com.ecommerce.application.pagination.CursorPage;
+import com.ecommerce.application.reactive.repository.ReactiveUserRepository;
+import com.ecommerce.domain.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveUserService - business logic for User entity on non-blocking repositories
+ * Same rules as UserService; validation errors are published as IllegalArgumentException
+ */
+@Service
+public class ReactiveUserService {
+    
+    private final ReactiveUserRepository userRepository;
+    
+    @Autowired
+    public ReactiveUserService(ReactiveUserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+    
+    /**
+     * Create a new user
+     * @param user the user to create
+     * @return the created user with generated id
+     */
+    public Mono<User> createUser(User user) {
+        return Mono.defer(() -> {
+            validateUser(user);
+            return userRepository.existsByEmail(user.getEmail());
+        }).flatMap(exists -> exists
+                ? Mono.error(new IllegalArgumentException("User with email " + user.getEmail() + " already exists"))
+                : userRepository.saveUser(user));
+    }
+    
+    /**
+     * Get user by id
+     * @param id the user id
+     * @return the user, empty if not found
+     */
+    public Mono<User> getUserById(Long id) {
+        return userRepository.findUserById(id);
+    }
+    
+    /**
+     * Get all users
+     * @return the users, ordered by id, read as the subscriber requests them
+     */
+    public Flux<User> getAllUsers() {
+        return userRepository.findAllUsers();
+    }
+    
+    /**
+     * Get a page of users using keyset pagination
+     * @param after the id of the last user of the previous page, or null for the first page
+     * @param limit the page size (capped at CursorPage.MAX_LIMIT)
+     * @return the page of users and the cursor of the next page
+     */
+    public Mono<CursorPage<User>> getUsersPage(String after, Integer limit) {
+        return Mono.defer(() -> {
+            int pageSize = CursorPage.normalizeLimit(limit);
+            Long afterId = after == null ? null : CursorPage.parseIdCursor(after);
+            return userRepository.findUsersAfterId(afterId, pageSize + 1).collectList()
+                    .map(users -> CursorPage.of(users, pageSize, user -> String.valueOf(user.getId())));
+        });
+    }
+    
+    /**
+     * Get user by email
+     * @param email the user email
+     * @return the user, empty if not found
+     */
+    public Mono<User> getUserByEmail(String email) {
+        return userRepository.findUserByEmail(email);
+    }
+    
+    /**
+     * Update user
+     * @param user the user to update
+     * @return the updated user
+     */
+    public Mono<User> updateUser(User user) {
+        if (user.getId() == null) {
+            return Mono.error(new IllegalArgumentException("User id cannot be null for update"));
+        }
+        return userRepository.existsById(user.getId())
+                .flatMap(exists -> exists
+                        ? userRepository.saveUser(user)
+                        : Mono.error(new IllegalArgumentException("User with id " + user.getId() + " does not exist")));
+    }
+    
+    /**
+     * Delete user by id
+     * @param id the user id
+     * @return completes when the user is deleted
+     */
+    public Mono<Void> deleteUser(Long id) {
+        return userRepository.existsById(id)
+                .flatMap(exists -> exists
+                        ? userRepository.deleteById(id)
+                        : Mono.error(new IllegalArgumentException("User with id " + id + " does not exist")));
+    }
+    
+    private void validateUser(User user) {
+        if (user.getName() == null || user.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("User name cannot be null or empty");
+        }
+        if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
+            throw new IllegalArgumentException("User email cannot be null or empty");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.application.inventory;
+
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Inventory interface - available stock of the products, reserved when orders are placed
+ * and released when they are cancelled
+ * This interface will be implemented in the infrastructure layer
+ */
+public interface Inventory {
+    
+    /**
+     * Reserve stock for every product of a request, or for none of them
+     * @param quantities the quantity to reserve, by product id
+     * @throws IllegalArgumentException if a product does not exist or does not have enough stock
+     */
+    void reserve(Map<Long, Integer> quantities);
+    
+    /**
+     * Return previously reserved stock
+     * @param quantities the quantity to release, by product id
+     */
+    void release(Map<Long, Integer> quantities);
+    
+    /**
+     * Get the stock of a product that can still be reserved
+     * @param productId the product id
+     * @return the available stock, empty if the inventory does not track the product (yet)
+     */
+    OptionalInt availableStock(Long productId);
+    
+    /**
+     * Replace the available stock of a product, e.g. after it was restocked
+     * The new stock is written to the products table as well, before this method returns.
+     * @param productId the product id
+     * @param stockQuantity the new available stock
+     */
+    void setStock(Long productId, int stockQuantity);
+    
+    /**
+     * Get a counter that changes whenever the available stock of a product changes
+     * @return a value that only grows, comparable between calls on this node
+     */
+    long stockVersion();
+    
+    /**
+     * Stop tracking a deleted product
+     * @param productId the product id
+     */
+    void remove(Long productId);
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.application.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * CursorPage - a single page of a keyset (cursor) paginated listing
+ * The next cursor is null when there are no more items to read
+ */
+public final class CursorPage<T> {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Build a page from a repository result fetched with limit + 1 rows
+     * @param fetched the rows read from the repository (at most limit + 1)
+     * @param limit the requested page size
+     * @param cursorOf extracts the cursor token of an item
+     * @return the page, with a next cursor only if an extra row was read
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int limit, Function<T, String> cursorOf) {
+        if (fetched.size() <= limit) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, limit);
+        return new CursorPage<>(items, cursorOf.apply(items.get(limit - 1)));
+    }
+
+    /**
+     * Normalize a requested page size to the range [1, MAX_LIMIT]
+     * @param limit the requested page size, may be null
+     * @return the page size to use
+     */
+    public static int normalizeLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Parse a numeric id cursor
+     * @param cursor the cursor token
+     * @return the id it refers to
+     */
+    public static Long parseIdCursor(String cursor) {
+        try {
+            return Long.valueOf(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Map the items of this page keeping the same cursor
+     * @param mapper the item mapper
+     * @return the mapped page
+     */
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
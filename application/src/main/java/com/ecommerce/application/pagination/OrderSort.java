@@ -0,0 +1,45 @@
+package com.ecommerce.application.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * OrderSort - sort orders supported by the paginated order listing
+ * Every sort is backed by a keyset (ties on orderDate are broken by id)
+ */
+public enum OrderSort {
+    ID,
+    ORDER_DATE,
+    ORDER_DATE_DESC;
+
+    /**
+     * Encode the (orderDate, id) keyset of an order as an opaque cursor token
+     * @param orderDate the order date of the last order of a page
+     * @param id the id of the last order of a page
+     * @return the cursor token
+     */
+    public static String encodeOrderDateCursor(LocalDateTime orderDate, Long id) {
+        String keyset = orderDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(keyset.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode an (orderDate, id) cursor token
+     * @param cursor the cursor token
+     * @return the order date and id parts of the keyset
+     */
+    public static String[] decodeOrderDateCursor(String cursor) {
+        try {
+            String[] keyset = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (keyset.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            LocalDateTime.parse(keyset[0]);
+            return keyset;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
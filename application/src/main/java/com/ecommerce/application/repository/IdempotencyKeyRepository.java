@@ -0,0 +1,43 @@
+package com.ecommerce.application.repository;
+
+import com.ecommerce.domain.idempotency.IdempotencyKey;
+
+import java.util.Optional;
+
+/**
+ * IdempotencyKeyRepository interface - defines operations on the idempotency keys of requests
+ * Keys expire after a time-to-live chosen by the implementation; an expired key is treated as absent.
+ * This interface will be implemented in the infrastructure layer
+ */
+public interface IdempotencyKeyRepository {
+
+    /**
+     * Reserve a key for a request about to run, atomically
+     * @param key the idempotency key
+     * @param requestHash the hash of the request
+     * @return true if the key was reserved, false if a live key already exists (running or completed)
+     */
+    boolean reserveKey(String key, String requestHash);
+
+    /**
+     * Find a live key
+     * @param key the idempotency key
+     * @return Optional containing the key, empty if it does not exist or has expired
+     */
+    Optional<IdempotencyKey> findKey(String key);
+
+    /**
+     * Record the response of the request of a reserved key
+     * @param key the idempotency key
+     * @param responseStatus the HTTP status of the response
+     * @param responseBody the body of the response
+     */
+    void completeKey(String key, int responseStatus, String responseBody);
+
+    /**
+     * Drop a reserved key whose request failed, so it can be retried
+     * Completed keys are left untouched.
+     * @param key the idempotency key
+     */
+    void releaseKey(String key);
+}
@@ -4,8 +4,11 @@ import com.ecommerce.domain.Order;
 import com.ecommerce.domain.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * OrderRepository interface - defines operations for Order entity
@@ -15,11 +18,22 @@ public interface OrderRepository {
     
     /**
      * Save an order
+     * An order read before it was last written (its version is not the stored one) is not saved.
      * @param order the order to save
      * @return the saved order with generated id
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the order was written since
+     * it was read, or no longer exists
      */
     Order saveOrder(Order order);
     
+    /**
+     * Save a batch of new orders and their order products in a single transaction,
+     * using JDBC batch inserts
+     * @param orders the orders to save
+     * @return the saved orders with generated ids
+     */
+    List<Order> saveAllOrders(List<Order> orders);
+    
     /**
      * Find an order by id
      * @param id the order id
@@ -27,12 +41,94 @@ public interface OrderRepository {
      */
     Optional<Order> findOrderById(Long id);
     
+    /**
+     * Find an order by id with its order products and products loaded in the same query
+     * @param id the order id
+     * @return Optional containing the order if found
+     */
+    Optional<Order> findOrderWithProductsById(Long id);
+    
+    /**
+     * Find the header of an order (user id, order date, total and status), without loading its lines
+     * @param id the order id
+     * @return Optional containing the order header if found
+     */
+    Optional<Order> findOrderHeaderById(Long id);
+    
+    /**
+     * Find orders by id with their order products and products loaded in the same query
+     * @param ids the order ids
+     * @return the orders found, in no particular order
+     */
+    List<Order> findOrdersWithProductsByIds(Collection<Long> ids);
+    
+    /**
+     * Change the status of an order only if it still has the expected status, as one conditional
+     * update (compare-and-set), without loading the order; the order's version is incremented
+     * @param id the order id
+     * @param expectedStatus the status the order must have
+     * @param status the new status
+     * @return true if the order was updated, false if it does not exist or has another status
+     */
+    boolean compareAndSetStatus(Long id, Order.OrderStatus expectedStatus, Order.OrderStatus status);
+    
+    /**
+     * Move the orders that have one of the expected statuses to a status, set-based and atomically:
+     * the orders are locked while they are checked, so none changes between the check and the update.
+     * Orders that do not exist or have another status are left unchanged; the versions of the moved
+     * orders are incremented.
+     * @param ids the order ids (at most 1000, the largest IN list all databases accept)
+     * @param expectedStatuses the statuses the orders may have
+     * @param status the new status
+     * @return the headers of the orders that were moved, with the status they had before
+     */
+    List<Order> updateStatuses(Collection<Long> ids, Set<Order.OrderStatus> expectedStatuses, Order.OrderStatus status);
+    
     /**
      * Find all orders
      * @return list of all orders
      */
     List<Order> findAllOrders();
     
+    /**
+     * Find all orders with their order products and products loaded in a single query
+     * @return list of all orders
+     */
+    List<Order> findAllOrdersWithProducts();
+    
+    /**
+     * Stream all orders, with their order products and products, through a database cursor.
+     * Orders are handed to the consumer one at a time and released afterwards.
+     * @param consumer receives each order, ordered by id
+     */
+    void forEachOrder(Consumer<Order> consumer);
+    
+    /**
+     * Find a page of orders ordered by id (keyset pagination)
+     * @param afterId the last id of the previous page, or null for the first page
+     * @param limit the maximum number of orders to return
+     * @return list of orders with id greater than afterId
+     */
+    List<Order> findOrdersAfterId(Long afterId, int limit);
+    
+    /**
+     * Find a page of orders ordered by order date ascending, then id (keyset pagination)
+     * @param afterDate the order date of the last order of the previous page, or null for the first page
+     * @param afterId the id of the last order of the previous page
+     * @param limit the maximum number of orders to return
+     * @return list of orders placed after the given keyset
+     */
+    List<Order> findOrdersByOrderDateAfter(LocalDateTime afterDate, Long afterId, int limit);
+    
+    /**
+     * Find a page of orders ordered by order date descending, then id descending (keyset pagination)
+     * @param beforeDate the order date of the last order of the previous page, or null for the first page
+     * @param beforeId the id of the last order of the previous page
+     * @param limit the maximum number of orders to return
+     * @return list of orders placed before the given keyset
+     */
+    List<Order> findOrdersByOrderDateBefore(LocalDateTime beforeDate, Long beforeId, int limit);
+    
     /**
      * Find orders by user
      * @param user the user
@@ -40,6 +136,29 @@ public interface OrderRepository {
      */
     List<Order> findByUser(User user);
     
+    /**
+     * Find the most recent orders of a user, without their order products
+     * @param userId the user id
+     * @param limit the maximum number of orders to return
+     * @return the orders ordered by order date descending, then id descending
+     */
+    List<Order> findRecentOrdersByUser(Long userId, int limit);
+    
+    /**
+     * Find orders by user with their order products and products loaded in a single query
+     * @param user the user
+     * @return list of orders for the user
+     */
+    List<Order> findByUserWithProducts(User user);
+    
+    /**
+     * Stream the orders of a user, with their order products and products, through a database cursor.
+     * Orders are handed to the consumer one at a time and released afterwards.
+     * @param user the user
+     * @param consumer receives each order of the user
+     */
+    void forEachByUser(User user, Consumer<Order> consumer);
+    
     /**
      * Find orders by date range
      * @param startDate the start date
@@ -48,6 +167,16 @@ public interface OrderRepository {
      */
     List<Order> findByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate);
     
+    /**
+     * Stream orders in a date range, with their order products and products, through a database cursor.
+     * Orders are handed to the consumer one at a time and released afterwards, so memory use
+     * does not depend on the number of orders in the range.
+     * @param startDate the start date
+     * @param endDate the end date
+     * @param consumer receives each order, ordered by id
+     */
+    void forEachByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate, Consumer<Order> consumer);
+    
     /**
      * Delete an order by id
      * @param id the order id
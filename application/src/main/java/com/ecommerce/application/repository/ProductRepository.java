@@ -1,8 +1,10 @@
 package com.ecommerce.application.repository;
 
 import com.ecommerce.domain.Product;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * ProductRepository interface - defines operations for Product entity
@@ -17,6 +19,13 @@ public interface ProductRepository {
      */
     Product saveProduct(Product product);
     
+    /**
+     * Save new products in a single transaction, inserted in JDBC batches
+     * @param products the products to save
+     * @return the saved products with generated ids
+     */
+    List<Product> saveAllProducts(List<Product> products);
+    
     /**
      * Find a product by id
      * @param id the product id
@@ -31,11 +40,41 @@ public interface ProductRepository {
     List<Product> findAllProducts();
     
     /**
-     * Find products by name containing the given string
+     * Stream all products through a database cursor, handing them to the consumer one at a time
+     * and releasing them afterwards, so memory use does not depend on the number of products
+     * @param consumer receives each product, ordered by id
+     */
+    void forEachProduct(Consumer<Product> consumer);
+    
+    /**
+     * Find products by a set of ids in a single query
+     * @param ids the product ids
+     * @return list of the products found (missing ids are skipped)
+     */
+    List<Product> findProductsByIds(Collection<Long> ids);
+    
+    /**
+     * Find a page of products ordered by id (keyset pagination)
+     * @param afterId the last id of the previous page, or null for the first page
+     * @param limit the maximum number of products to return
+     * @return list of products with id greater than afterId
+     */
+    List<Product> findProductsAfterId(Long afterId, int limit);
+    
+    /**
+     * Find products by name containing the given string, ordered by id
      * @param name the name to search for
-     * @return list of products matching the name
+     * @param limit the maximum number of products to return
+     * @return list of products matching the name, at most limit
+     */
+    List<Product> findByNameContaining(String name, int limit);
+    
+    /**
+     * Update only the stock quantity of a product
+     * @param id the product id
+     * @param stockQuantity the new stock quantity
      */
-    List<Product> findByNameContaining(String name);
+    void updateStockQuantity(Long id, int stockQuantity);
     
     /**
      * Delete a product by id
@@ -0,0 +1,66 @@
+package com.ecommerce.application.repository;
+
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.analytics.DailySales;
+import com.ecommerce.domain.analytics.ProductSales;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * SalesAnalyticsRepository interface - defines operations on the sales read model
+ * (revenue, orders and units per day, units and revenue per day and product)
+ * This interface will be implemented in the infrastructure layer
+ */
+public interface SalesAnalyticsRepository {
+    
+    /**
+     * Apply the contribution of changed orders to the read model in a single transaction:
+     * the removed orders are subtracted and the added orders added, each on the day it was placed.
+     * A changed order is passed as its state before the change (removed) and after it (added).
+     * @param removedOrders the orders whose sales are withdrawn
+     * @param addedOrders the orders whose sales are recorded
+     */
+    void applyChanges(Collection<Order> removedOrders, Collection<Order> addedOrders);
+    
+    /**
+     * Record the sales of new orders
+     * @param orders the orders
+     */
+    default void addOrders(Collection<Order> orders) {
+        applyChanges(List.of(), orders);
+    }
+    
+    /**
+     * Withdraw the sales of cancelled or deleted orders
+     * @param orders the orders
+     */
+    default void removeOrders(Collection<Order> orders) {
+        applyChanges(orders, List.of());
+    }
+    
+    /**
+     * Find the days with sales in a range
+     * @param from the first day
+     * @param to the last day (inclusive)
+     * @return the days with sales, ordered by day
+     */
+    List<DailySales> findDailySales(LocalDate from, LocalDate to);
+    
+    /**
+     * Find the best selling products in a range of days
+     * @param from the first day
+     * @param to the last day (inclusive)
+     * @param limit the maximum number of products to return
+     * @return the products ordered by units sold, descending
+     */
+    List<ProductSales> findTopProductSales(LocalDate from, LocalDate to, int limit);
+    
+    /**
+     * Recompute the whole read model from the orders
+     * Used to initialise it and to repair it after an incremental update was lost.
+     * @return the number of days with sales after the rebuild
+     */
+    long rebuild();
+}
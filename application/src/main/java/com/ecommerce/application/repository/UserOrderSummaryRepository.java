@@ -0,0 +1,39 @@
+package com.ecommerce.application.repository;
+
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.analytics.UserOrderSummary;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * UserOrderSummaryRepository interface - defines operations on the per-user order summaries
+ * (number of orders, lifetime value and number of orders per status)
+ * This interface will be implemented in the infrastructure layer
+ */
+public interface UserOrderSummaryRepository {
+    
+    /**
+     * Apply the contribution of changed orders to their users' summaries in a single transaction:
+     * the removed orders are subtracted and the added orders added. Only the user, status and total
+     * of the orders are read, so their lines do not need to be loaded.
+     * A changed order is passed as its state before the change (removed) and after it (added).
+     * @param removedOrders the orders (or previous states) withdrawn from the summaries
+     * @param addedOrders the orders (or new states) added to the summaries
+     */
+    void applyChanges(Collection<Order> removedOrders, Collection<Order> addedOrders);
+    
+    /**
+     * Find the summary of a user
+     * @param userId the user id
+     * @return Optional containing the summary, empty if the user never had an order
+     */
+    Optional<UserOrderSummary> findSummaryByUserId(Long userId);
+    
+    /**
+     * Recompute every summary from the orders
+     * Used to initialise the summaries and to repair them after an incremental update was lost.
+     * @return the number of users with orders
+     */
+    long rebuild();
+}
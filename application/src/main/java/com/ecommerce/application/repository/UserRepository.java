@@ -1,8 +1,10 @@
 package com.ecommerce.application.repository;
 
 import com.ecommerce.domain.User;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * UserRepository interface - defines operations for User entity
@@ -17,6 +19,20 @@ public interface UserRepository {
      */
     User saveUser(User user);
     
+    /**
+     * Save new users in a single transaction, inserted in JDBC batches
+     * @param users the users to save
+     * @return the saved users with generated ids
+     */
+    List<User> saveAllUsers(List<User> users);
+    
+    /**
+     * Find which of the given emails belong to a user, with a single query
+     * @param emails the emails (at most 1000, the largest IN list all databases accept)
+     * @return the emails that belong to a user
+     */
+    List<String> findExistingEmails(Collection<String> emails);
+    
     /**
      * Find a user by id
      * @param id the user id
@@ -30,6 +46,28 @@ public interface UserRepository {
      */
     List<User> findAllUsers();
     
+    /**
+     * Stream all users through a database cursor, handing them to the consumer one at a time
+     * and releasing them afterwards, so memory use does not depend on the number of users
+     * @param consumer receives each user, ordered by id
+     */
+    void forEachUser(Consumer<User> consumer);
+    
+    /**
+     * Find users by a set of ids in a single query
+     * @param ids the user ids
+     * @return list of the users found (missing ids are skipped)
+     */
+    List<User> findUsersByIds(Collection<Long> ids);
+    
+    /**
+     * Find a page of users ordered by id (keyset pagination)
+     * @param afterId the last id of the previous page, or null for the first page
+     * @param limit the maximum number of users to return
+     * @return list of users with id greater than afterId
+     */
+    List<User> findUsersAfterId(Long afterId, int limit);
+    
     /**
      * Find a user by email
      * @param email the user email
@@ -37,6 +75,13 @@ public interface UserRepository {
      */
     Optional<User> findUserByEmail(String email);
     
+    /**
+     * Check if a user has the given email, without loading the user
+     * @param email the user email
+     * @return true if a user has the email, false otherwise
+     */
+    boolean existsByEmail(String email);
+    
     /**
      * Delete a user by id
      * @param id the user id
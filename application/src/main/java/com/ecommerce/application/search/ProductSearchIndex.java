@@ -0,0 +1,45 @@
+package com.ecommerce.application.search;
+
+import com.ecommerce.domain.Product;
+
+import java.util.List;
+
+/**
+ * ProductSearchIndex interface - full-text index over product names and descriptions
+ * This interface will be implemented in the infrastructure layer
+ */
+public interface ProductSearchIndex {
+    
+    /**
+     * Add a product to the index, replacing any previous version of it
+     * @param product the product to index
+     */
+    void index(Product product);
+    
+    /**
+     * Add products to the index, replacing any previous versions of them; for bulk writes, where
+     * indexing the products one at a time would rewrite the postings of common terms once per product
+     * @param products the products to index
+     */
+    void indexAll(List<Product> products);
+    
+    /**
+     * Remove a product from the index
+     * @param productId the product id
+     */
+    void remove(Long productId);
+    
+    /**
+     * Search products matching every term of the query, best matches first
+     * @param query the search text
+     * @param limit the maximum number of ids to return
+     * @return ids of the matching products ordered by relevance
+     */
+    List<Long> search(String query, int limit);
+    
+    /**
+     * Check if the index has finished its initial load and can answer searches
+     * @return true if the index is ready, false otherwise
+     */
+    boolean isReady();
+}
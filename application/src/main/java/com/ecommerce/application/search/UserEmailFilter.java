@@ -0,0 +1,48 @@
+package com.ecommerce.application.search;
+
+import java.util.Locale;
+
+/**
+ * UserEmailFilter interface - probabilistic set of the emails of registered users
+ * A miss means no user has the email, so the database need not be asked; a hit only means a user may
+ * have it and must be confirmed by the repository. Emails are compared normalized (see normalize).
+ * This interface will be implemented in the infrastructure layer
+ */
+public interface UserEmailFilter {
+
+    /**
+     * Normalize an email for the filter: trimmed and lower-cased, so the filter can only answer
+     * "maybe" for more emails than the repository's exact match, never fewer
+     * @param email the email
+     * @return the normalized email
+     */
+    static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Add the email of a created or updated user
+     * @param email the user email
+     * @return true if the email was not in the filter before (false can also be a false positive)
+     */
+    boolean add(String email);
+
+    /**
+     * Record that an email added before may no longer belong to a user (user deleted or email changed);
+     * the email keeps answering "maybe" until the filter is rebuilt
+     */
+    void markStale();
+
+    /**
+     * Check if a user may have the email
+     * @param email the email
+     * @return false if no user has the email, true if one may have it
+     */
+    boolean mightContain(String email);
+
+    /**
+     * Check if the filter has finished its initial load and can answer lookups
+     * @return true if the filter is ready, false otherwise
+     */
+    boolean isReady();
+}
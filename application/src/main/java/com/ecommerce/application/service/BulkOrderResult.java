@@ -0,0 +1,47 @@
+package com.ecommerce.application.service;
+
+import com.ecommerce.domain.Order;
+
+/**
+ * BulkOrderResult - outcome of a single order of a bulk placement
+ * Either the saved order or the reason it was rejected
+ */
+public class BulkOrderResult {
+
+    private final int index;
+    private final Order order;
+    private final String error;
+
+    private BulkOrderResult(int index, Order order, String error) {
+        this.index = index;
+        this.order = order;
+        this.error = error;
+    }
+
+    public static BulkOrderResult success(int index, Order order) {
+        return new BulkOrderResult(index, order, null);
+    }
+
+    public static BulkOrderResult failure(int index, String error) {
+        return new BulkOrderResult(index, null, error);
+    }
+
+    /**
+     * @return the position of the order in the submitted list
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.application.service;
+
+import com.ecommerce.domain.Order;
+
+import java.util.List;
+
+/**
+ * BulkStatusUpdateResult - outcome of a bulk order status update
+ * The number of orders moved to the new status and the ids of those that failed the precondition
+ * (the order does not exist or its status does not allow the transition)
+ */
+public class BulkStatusUpdateResult {
+
+    private final Order.OrderStatus status;
+    private final int requested;
+    private final int updated;
+    private final List<Long> failedOrderIds;
+
+    public BulkStatusUpdateResult(Order.OrderStatus status, int requested, int updated, List<Long> failedOrderIds) {
+        this.status = status;
+        this.requested = requested;
+        this.updated = updated;
+        this.failedOrderIds = failedOrderIds;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the number of distinct order ids submitted
+     */
+    public int getRequested() {
+        return requested;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    /**
+     * @return the ids of the orders left unchanged, in the submitted order
+     */
+    public List<Long> getFailedOrderIds() {
+        return failedOrderIds;
+    }
+}
@@ -0,0 +1,102 @@
+package com.ecommerce.application.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * ChunkedImport - runs a bulk import over a stream of rows
+ * Each row is validated as it is read; valid rows are collected into chunks of CHUNK_SIZE, checked
+ * together (e.g. against the database with one query) and saved together. Only one chunk is held at
+ * a time, so memory does not depend on the number of rows. A chunk that cannot be saved fails as a
+ * whole without affecting the others.
+ */
+final class ChunkedImport {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkedImport.class);
+
+    /**
+     * Number of rows checked and saved together (one query, one transaction)
+     */
+    static final int CHUNK_SIZE = 1000;
+
+    /**
+     * Number of rows read between two progress log lines
+     */
+    private static final long PROGRESS_INTERVAL = 100_000;
+
+    /**
+     * Checks the valid rows of a chunk together, recording the rejected ones in the report
+     */
+    @FunctionalInterface
+    interface ChunkValidator<T> {
+        List<ImportRow<T>> validate(List<ImportRow<T>> chunk, ImportReport report);
+    }
+
+    private ChunkedImport() {
+    }
+
+    /**
+     * Import rows
+     * @param entity the name of the imported rows, for the log
+     * @param rows the rows, read one at a time
+     * @param validator validates one row, throwing IllegalArgumentException if it is invalid
+     * @param chunkValidator checks the rows of a chunk together, returning those to save
+     * @param saver saves the values of a chunk
+     * @return the report of the import
+     */
+    static <T> ImportReport run(String entity, Iterator<ImportRow<T>> rows, Consumer<T> validator,
+                                ChunkValidator<T> chunkValidator, Consumer<List<T>> saver) {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport();
+        List<ImportRow<T>> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (rows.hasNext()) {
+            ImportRow<T> row = rows.next();
+            report.rowRead();
+            if (row.getError() != null) {
+                report.failed(row.getLine(), row.getError());
+            } else {
+                try {
+                    validator.accept(row.getValue());
+                    chunk.add(row);
+                } catch (IllegalArgumentException e) {
+                    report.failed(row.getLine(), e.getMessage());
+                }
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                save(chunk, chunkValidator, saver, report);
+                chunk.clear();
+            }
+            if (report.getRows() % PROGRESS_INTERVAL == 0) {
+                log.info("Importing {}: {} rows read, {} imported, {} failed", entity,
+                        report.getRows(), report.getImported(), report.getFailed());
+            }
+        }
+        if (!chunk.isEmpty()) {
+            save(chunk, chunkValidator, saver, report);
+        }
+        log.info("Imported {}: {} rows read, {} imported, {} failed in {} ms", entity,
+                report.getRows(), report.getImported(), report.getFailed(), (System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    private static <T> void save(List<ImportRow<T>> chunk, ChunkValidator<T> chunkValidator,
+                                 Consumer<List<T>> saver, ImportReport report) {
+        List<ImportRow<T>> accepted = chunkValidator.validate(chunk, report);
+        if (accepted.isEmpty()) {
+            return;
+        }
+        try {
+            saver.accept(accepted.stream().map(ImportRow::getValue).toList());
+            report.imported(accepted.size());
+        } catch (RuntimeException e) {
+            for (ImportRow<T> row : accepted) {
+                report.failed(row.getLine(), "Row could not be saved: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.ecommerce.application.service;
+
+import com.ecommerce.application.repository.IdempotencyKeyRepository;
+import com.ecommerce.domain.idempotency.IdempotencyKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * IdempotencyService - executes a request at most once per idempotency key
+ * The first request of a key reserves it, runs and records its response under the key; retries of
+ * the same request get the recorded response without running it again. Duplicates arriving while
+ * the first execution is still running wait for it: on this node on the execution itself, across
+ * nodes (shared key table) by polling the key. Failed executions (exceptions and non-2xx responses)
+ * release the key, so the client can retry them.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    /**
+     * Maximum length of an idempotency key
+     */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * How long a duplicate waits for the first execution of its key before giving up
+     */
+    private static final long MAX_WAIT_MILLIS = 30_000;
+
+    /**
+     * Interval between two lookups of a key being executed by another node
+     */
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    /**
+     * Executions running on this node, by key; completed (with no value) when they finish
+     */
+    private final Map<String, CompletableFuture<Void>> executions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+    }
+
+    /**
+     * Execute a request once per idempotency key
+     * @param key the idempotency key supplied by the client
+     * @param request a canonical representation of the request, compared between executions of a key
+     * @param execution runs the request and returns its response
+     * @return the response of the execution, or the recorded response of an earlier one
+     * @throws IllegalArgumentException if the key is invalid or was used for a different request
+     * @throws IllegalStateException if an earlier execution of the key is still running after the wait
+     */
+    public IdempotentResponse execute(String key, String request, Supplier<IdempotentResponse> execution) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_WAIT_MILLIS);
+
+        while (true) {
+            CompletableFuture<Void> running = new CompletableFuture<>();
+            CompletableFuture<Void> other = executions.putIfAbsent(key, running);
+            if (other != null) {
+                // Wait for the execution of this node, then look the key up again
+                await(other, deadline);
+                continue;
+            }
+            try {
+                return executeOnce(key, requestHash, execution, deadline);
+            } finally {
+                executions.remove(key, running);
+                running.complete(null);
+            }
+        }
+    }
+
+    private IdempotentResponse executeOnce(String key, String requestHash, Supplier<IdempotentResponse> execution,
+                                           long deadline) {
+        while (true) {
+            if (idempotencyKeyRepository.reserveKey(key, requestHash)) {
+                return run(key, execution);
+            }
+
+            Optional<IdempotencyKey> existing = idempotencyKeyRepository.findKey(key);
+            if (existing.isEmpty()) {
+                // Released or expired in the meantime
+                continue;
+            }
+            IdempotencyKey idempotencyKey = existing.get();
+            if (!idempotencyKey.getRequestHash().equals(requestHash)) {
+                throw new IllegalArgumentException("Idempotency key was already used for a different request");
+            }
+            if (idempotencyKey.isCompleted()) {
+                return IdempotentResponse.replayed(idempotencyKey.getResponseStatus(), idempotencyKey.getResponseBody());
+            }
+            // Running on another node
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("A request with this idempotency key is still in progress");
+            }
+            sleep(POLL_INTERVAL_MILLIS);
+        }
+    }
+
+    private IdempotentResponse run(String key, Supplier<IdempotentResponse> execution) {
+        IdempotentResponse response;
+        try {
+            response = execution.get();
+        } catch (RuntimeException e) {
+            idempotencyKeyRepository.releaseKey(key);
+            throw e;
+        }
+
+        if (!response.isSuccessful()) {
+            idempotencyKeyRepository.releaseKey(key);
+            return response;
+        }
+        try {
+            idempotencyKeyRepository.completeKey(key, response.getStatus(), response.getBody());
+        } catch (RuntimeException e) {
+            // The request took effect: keep the key reserved so retries are refused rather than executed again
+            log.warn("Response of idempotency key {} could not be recorded: {}", key, e.getMessage());
+        }
+        return response;
+    }
+
+    private void await(CompletableFuture<Void> running, long deadline) {
+        try {
+            running.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("A request with this idempotency key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a request with the same idempotency key");
+        } catch (ExecutionException e) {
+            // Never completed exceptionally
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a request with the same idempotency key");
+        }
+    }
+
+    private String hash(String request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(request.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
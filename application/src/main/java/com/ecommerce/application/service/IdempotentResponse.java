@@ -0,0 +1,48 @@
+package com.ecommerce.application.service;
+
+/**
+ * IdempotentResponse - response of a request executed under an idempotency key
+ * Either produced by the request itself or replayed from the key of an earlier execution
+ */
+public class IdempotentResponse {
+
+    private final int status;
+    private final String body;
+    private final boolean replayed;
+
+    public IdempotentResponse(int status, String body) {
+        this(status, body, false);
+    }
+
+    private IdempotentResponse(int status, String body, boolean replayed) {
+        this.status = status;
+        this.body = body;
+        this.replayed = replayed;
+    }
+
+    public static IdempotentResponse replayed(int status, String body) {
+        return new IdempotentResponse(status, body, true);
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * @return true if the response was recorded by an earlier execution of the request
+     */
+    public boolean isReplayed() {
+        return replayed;
+    }
+
+    /**
+     * @return true for 2xx responses, the only ones recorded under the key
+     */
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+}
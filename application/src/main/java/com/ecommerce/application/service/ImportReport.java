@@ -0,0 +1,82 @@
+package com.ecommerce.application.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * ImportReport - outcome of a bulk import
+ * Rows read, imported and rejected, with the line and reason of the first MAX_ERRORS rejected rows
+ * (all of them are counted, only these are kept, so a file full of errors does not fill the heap)
+ */
+public class ImportReport {
+
+    /**
+     * Maximum number of rejected rows listed in the report
+     */
+    public static final int MAX_ERRORS = 1000;
+
+    private long rows;
+    private long imported;
+    private long failed;
+    private final List<ImportError> errors = new ArrayList<>();
+
+    void rowRead() {
+        rows++;
+    }
+
+    void imported(int count) {
+        imported += count;
+    }
+
+    void failed(long line, String message) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new ImportError(line, message));
+        }
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return the first rejected rows, by line (rows rejected by a chunk check are recorded after the
+     *         parse errors of later rows)
+     */
+    public List<ImportError> getErrors() {
+        errors.sort(Comparator.comparingLong(ImportError::getLine));
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * ImportError - a rejected row: the line it starts on and why it was rejected
+     */
+    public static class ImportError {
+
+        private final long line;
+        private final String message;
+
+        public ImportError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
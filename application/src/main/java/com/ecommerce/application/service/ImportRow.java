@@ -0,0 +1,44 @@
+package com.ecommerce.application.service;
+
+/**
+ * ImportRow - one row of a bulk import
+ * Either the parsed value or the reason the row could not be parsed, with the line it starts on
+ */
+public final class ImportRow<T> {
+
+    private final long line;
+    private final T value;
+    private final String error;
+
+    private ImportRow(long line, T value, String error) {
+        this.line = line;
+        this.value = value;
+        this.error = error;
+    }
+
+    public static <T> ImportRow<T> of(long line, T value) {
+        return new ImportRow<>(line, value, null);
+    }
+
+    public static <T> ImportRow<T> invalid(long line, String error) {
+        return new ImportRow<>(line, null, error);
+    }
+
+    /**
+     * @return the line of the file the row starts on
+     */
+    public long getLine() {
+        return line;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * @return why the row could not be parsed, null if it was
+     */
+    public String getError() {
+        return error;
+    }
+}
@@ -1,19 +1,41 @@
 package com.ecommerce.application.service;
 
+import com.ecommerce.application.inventory.Inventory;
+import com.ecommerce.application.pagination.CursorPage;
+import com.ecommerce.application.pagination.OrderSort;
 import com.ecommerce.application.repository.OrderRepository;
 import com.ecommerce.application.repository.OrderProductRepository;
 import com.ecommerce.application.repository.UserRepository;
 import com.ecommerce.application.repository.ProductRepository;
+import com.ecommerce.application.repository.SalesAnalyticsRepository;
+import com.ecommerce.application.repository.UserOrderSummaryRepository;
 import com.ecommerce.domain.Order;
 import com.ecommerce.domain.OrderProduct;
 import com.ecommerce.domain.User;
 import com.ecommerce.domain.Product;
+import com.ecommerce.domain.analytics.UserOrderSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * OrderService - implements business logic for Order entity
@@ -21,20 +43,68 @@ import java.util.Optional;
 @Service
 public class OrderService {
     
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+    
+    /**
+     * Number of orders persisted per transaction by createOrders
+     */
+    private static final int BULK_CHUNK_SIZE = 500;
+    
+    /**
+     * Number of recent orders returned with a user's order summary when no limit is given
+     */
+    public static final int DEFAULT_RECENT_ORDERS = 5;
+    
+    /**
+     * Maximum number of recent orders returned with a user's order summary
+     */
+    public static final int MAX_RECENT_ORDERS = 50;
+    
+    /**
+     * Maximum number of orders created by one bulk placement
+     */
+    public static final int MAX_BULK_ORDERS = 10_000;
+    
+    /**
+     * Maximum number of orders moved by one bulk status update
+     */
+    public static final int MAX_BULK_STATUS_ORDERS = 10_000;
+    
+    /**
+     * Number of times an order edit is applied to the order read anew when it was written concurrently
+     */
+    private static final int MAX_ORDER_EDIT_ATTEMPTS = 5;
+    
     private final OrderRepository orderRepository;
     private final OrderProductRepository orderProductRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final SalesAnalyticsRepository salesAnalyticsRepository;
+    private final UserOrderSummaryRepository userOrderSummaryRepository;
+    private final Inventory inventory;
+    
+    /**
+     * Read model updates that failed after their orders were saved: each leaves a read model wrong
+     * until it is rebuilt
+     */
+    private final LongAdder failedSalesUpdates = new LongAdder();
+    private final LongAdder failedSummaryUpdates = new LongAdder();
     
     @Autowired
     public OrderService(OrderRepository orderRepository, 
                        OrderProductRepository orderProductRepository,
                        UserRepository userRepository,
-                       ProductRepository productRepository) {
+                       ProductRepository productRepository,
+                       SalesAnalyticsRepository salesAnalyticsRepository,
+                       UserOrderSummaryRepository userOrderSummaryRepository,
+                       Inventory inventory) {
         this.orderRepository = orderRepository;
         this.orderProductRepository = orderProductRepository;
         this.userRepository = userRepository;
         this.productRepository = productRepository;
+        this.salesAnalyticsRepository = salesAnalyticsRepository;
+        this.userOrderSummaryRepository = userOrderSummaryRepository;
+        this.inventory = inventory;
     }
     
     /**
@@ -56,45 +126,283 @@ public class OrderService {
             throw new IllegalArgumentException("User with id " + order.getUser().getId() + " does not exist");
         }
         
-        // Save the order first
-        Order savedOrder = orderRepository.saveOrder(order);
+        // Validate the order products and reserve their stock before anything is saved
+        if (order.getOrderProducts() != null) {
+            order.getOrderProducts().forEach(this::validateOrderProduct);
+        }
+        Map<Long, Integer> reservedStock = heldStock(order);
+        reserveStock(reservedStock);
         
-        // Save order products if any
-        if (order.getOrderProducts() != null && !order.getOrderProducts().isEmpty()) {
-            for (OrderProduct orderProduct : order.getOrderProducts()) {
-                orderProduct.setOrder(savedOrder);
-                validateOrderProduct(orderProduct);
-                orderProductRepository.save(orderProduct);
+        Order savedOrder;
+        try {
+            // Save the order first
+            savedOrder = orderRepository.saveOrder(order);
+            
+            // Save order products if any
+            if (order.getOrderProducts() != null && !order.getOrderProducts().isEmpty()) {
+                for (OrderProduct orderProduct : order.getOrderProducts()) {
+                    orderProduct.setOrder(savedOrder);
+                    orderProductRepository.save(orderProduct);
+                }
             }
+        } catch (RuntimeException e) {
+            releaseStock(reservedStock);
+            throw e;
         }
         
+        recordChanges(List.of(), List.of(savedOrder));
         return savedOrder;
     }
     
     /**
-     * Get order by id
+     * Place a new order with all its lines
+     * The user is loaded by id and all referenced products with a single query, the lines are
+     * validated in memory and the order is persisted with its order products in one transaction,
+     * so the number of round trips does not depend on the number of lines.
+     * The stock of every line is reserved before the order is saved; if any product is short,
+     * nothing is reserved and the order is rejected.
+     * @param order the order to place (user and products only need their ids set)
+     * @return the placed order with generated ids
+     */
+    public Order placeOrder(Order order) {
+        if (order.getUser() == null || order.getUser().getId() == null) {
+            throw new IllegalArgumentException("Order user cannot be null");
+        }
+        User user = userRepository.findUserById(order.getUser().getId())
+                .orElseThrow(() -> new IllegalArgumentException("User with id " + order.getUser().getId() + " does not exist"));
+        
+        Set<Long> productIds = new HashSet<>();
+        collectProductIds(order, productIds);
+        prepareOrder(order, Map.of(user.getId(), user), findProductsByIds(productIds));
+        
+        Map<Long, Integer> reservedStock = heldStock(order);
+        reserveStock(reservedStock);
+        Order placedOrder;
+        try {
+            placedOrder = orderRepository.saveAllOrders(List.of(order)).get(0);
+        } catch (RuntimeException e) {
+            releaseStock(reservedStock);
+            throw e;
+        }
+        recordChanges(List.of(), List.of(placedOrder));
+        return placedOrder;
+    }
+    
+    /**
+     * Create many orders at once (bulk placement)
+     * Users and products are resolved with one query each and every order is validated in memory
+     * and reserves its stock (an order whose products are short fails on its own).
+     * Valid orders are then persisted in chunks of BULK_CHUNK_SIZE, one transaction per chunk.
+     * A null order (or order product) fails on its own, like any other invalid order.
+     * @param orders the orders to create (users and products only need their ids set), at most MAX_BULK_ORDERS
+     * @return one result per submitted order, in the submitted order
+     * @throws IllegalArgumentException if the list is null or has more than MAX_BULK_ORDERS orders
+     */
+    public List<BulkOrderResult> createOrders(List<Order> orders) {
+        if (orders == null) {
+            throw new IllegalArgumentException("Orders cannot be null");
+        }
+        if (orders.size() > MAX_BULK_ORDERS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_ORDERS + " orders can be created at once");
+        }
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (Order order : orders) {
+            if (order == null) {
+                continue;
+            }
+            if (order.getUser() != null && order.getUser().getId() != null) {
+                userIds.add(order.getUser().getId());
+            }
+            collectProductIds(order, productIds);
+        }
+        
+        Map<Long, User> users = userIds.isEmpty() ? Map.of() : userRepository.findUsersByIds(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Product> products = findProductsByIds(productIds);
+        
+        // Validate every order in memory, keeping the valid ones for persistence
+        BulkOrderResult[] results = new BulkOrderResult[orders.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            try {
+                prepareOrder(orders.get(i), users, products);
+                reserveStock(heldStock(orders.get(i)));
+                validIndexes.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = BulkOrderResult.failure(i, e.getMessage());
+            }
+        }
+        
+        // Persist valid orders chunk by chunk; a failing chunk does not affect the others
+        for (int from = 0; from < validIndexes.size(); from += BULK_CHUNK_SIZE) {
+            List<Integer> chunk = validIndexes.subList(from, Math.min(from + BULK_CHUNK_SIZE, validIndexes.size()));
+            List<Order> savedOrders;
+            try {
+                savedOrders = orderRepository.saveAllOrders(chunk.stream().map(orders::get).toList());
+                for (int i : chunk) {
+                    results[i] = BulkOrderResult.success(i, orders.get(i));
+                }
+            } catch (RuntimeException e) {
+                for (int i : chunk) {
+                    releaseStock(heldStock(orders.get(i)));
+                    results[i] = BulkOrderResult.failure(i, "Order could not be saved: " + e.getMessage());
+                }
+                continue;
+            }
+            recordChanges(List.of(), savedOrders);
+        }
+        
+        return Arrays.asList(results);
+    }
+    
+    /**
+     * Get order by id, with its order products and products already loaded
      * @param id the order id
      * @return Optional containing the order if found
      */
     public Optional<Order> getOrderById(Long id) {
-        return orderRepository.findOrderById(id);
+        return orderRepository.findOrderWithProductsById(id);
     }
     
     /**
-     * Get all orders
+     * Get all orders, with their order products and products already loaded
      * @return list of all orders
      */
     public List<Order> getAllOrders() {
-        return orderRepository.findAllOrders();
+        return orderRepository.findAllOrdersWithProducts();
+    }
+    
+    /**
+     * Get all orders, streaming them one by one to the consumer instead of collecting them
+     * @param consumer receives each order, with its order products and products loaded, ordered by id
+     */
+    public void getAllOrders(Consumer<Order> consumer) {
+        orderRepository.forEachOrder(consumer);
+    }
+    
+    /**
+     * Get a page of orders using keyset pagination, with their order products and products loaded
+     * @param after the cursor returned with the previous page, or null for the first page
+     * @param limit the page size (capped at CursorPage.MAX_LIMIT)
+     * @param sort the sort order of the listing
+     * @return the page of orders and the cursor of the next page
+     */
+    public CursorPage<Order> getOrdersPage(String after, Integer limit, OrderSort sort) {
+        int pageSize = CursorPage.normalizeLimit(limit);
+        if (sort == null || sort == OrderSort.ID) {
+            Long afterId = after == null ? null : CursorPage.parseIdCursor(after);
+            return CursorPage.of(withProducts(orderRepository.findOrdersAfterId(afterId, pageSize + 1)), pageSize,
+                    order -> String.valueOf(order.getId()));
+        }
+        
+        LocalDateTime cursorDate = null;
+        Long cursorId = null;
+        if (after != null) {
+            String[] keyset = OrderSort.decodeOrderDateCursor(after);
+            cursorDate = LocalDateTime.parse(keyset[0]);
+            cursorId = CursorPage.parseIdCursor(keyset[1]);
+        }
+        List<Order> orders = sort == OrderSort.ORDER_DATE
+                ? orderRepository.findOrdersByOrderDateAfter(cursorDate, cursorId, pageSize + 1)
+                : orderRepository.findOrdersByOrderDateBefore(cursorDate, cursorId, pageSize + 1);
+        return CursorPage.of(withProducts(orders), pageSize,
+                order -> OrderSort.encodeOrderDateCursor(order.getOrderDate(), order.getId()));
+    }
+    
+    /**
+     * Load the order products of a page with one query for the whole page
+     * A row limit cannot be combined with fetching a collection in the same query, and the lines
+     * must be loaded before the orders leave the service: with the read replica, no session stays
+     * open for the rest of the request (open-in-view is off).
+     * @param orders the orders of the page, in page order
+     * @return the same orders with their order products and products, in the same order
+     */
+    private List<Order> withProducts(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        Map<Long, Order> loaded = new HashMap<>();
+        for (Order order : orderRepository.findOrdersWithProductsByIds(orders.stream().map(Order::getId).toList())) {
+            loaded.put(order.getId(), order);
+        }
+        return orders.stream()
+                .map(order -> loaded.getOrDefault(order.getId(), order))
+                .toList();
     }
     
     /**
-     * Get orders by user
+     * Get orders by user, with their order products and products already loaded
      * @param user the user
      * @return list of orders for the user
      */
     public List<Order> getOrdersByUser(User user) {
-        return orderRepository.findByUser(user);
+        return orderRepository.findByUserWithProducts(user);
+    }
+    
+    /**
+     * Get orders by user, streaming them one by one to the consumer instead of collecting them
+     * @param user the user
+     * @param consumer receives each order of the user, with its order products and products loaded
+     */
+    public void getOrdersByUser(User user, Consumer<Order> consumer) {
+        orderRepository.forEachByUser(user, consumer);
+    }
+    
+    /**
+     * Get the order summary of a user (number of orders, lifetime value and orders per status)
+     * Read from the summary maintained as orders change, so the cost does not depend on the
+     * number of orders of the user.
+     * @param userId the user id
+     * @return the summary, empty for a user without orders
+     */
+    public UserOrderSummary getUserOrderSummary(Long userId) {
+        Optional<UserOrderSummary> summary = userOrderSummaryRepository.findSummaryByUserId(userId);
+        if (summary.isPresent()) {
+            return summary.get();
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("User with id " + userId + " does not exist");
+        }
+        return UserOrderSummary.empty(userId);
+    }
+    
+    /**
+     * Get the most recent orders of a user, without their order products
+     * @param userId the user id
+     * @param limit the maximum number of orders (DEFAULT_RECENT_ORDERS when null, capped at MAX_RECENT_ORDERS)
+     * @return the orders, most recent first
+     */
+    public List<Order> getRecentOrdersByUser(Long userId, Integer limit) {
+        if (limit != null && limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        int recent = limit == null ? DEFAULT_RECENT_ORDERS : Math.min(limit, MAX_RECENT_ORDERS);
+        return recent == 0 ? List.of() : orderRepository.findRecentOrdersByUser(userId, recent);
+    }
+    
+    /**
+     * Recompute every user order summary from the orders
+     * @return the number of users with orders
+     */
+    public long rebuildUserOrderSummaries() {
+        return userOrderSummaryRepository.rebuild();
+    }
+    
+    /**
+     * Get the number of sales read model updates that failed on this node after their orders were saved
+     * @return a count that only grows; the reports are wrong until they are rebuilt
+     */
+    public long getFailedSalesUpdates() {
+        return failedSalesUpdates.sum();
+    }
+    
+    /**
+     * Get the number of user order summary updates that failed on this node after their orders were saved
+     * @return a count that only grows; the summaries are wrong until they are rebuilt
+     */
+    public long getFailedSummaryUpdates() {
+        return failedSummaryUpdates.sum();
     }
     
     /**
@@ -107,17 +415,37 @@ public class OrderService {
         return orderRepository.findByOrderDateBetween(startDate, endDate);
     }
     
+    /**
+     * Export orders by date range, streaming them one by one to the consumer
+     * @param startDate the start date
+     * @param endDate the end date
+     * @param consumer receives each order with its order products and products loaded
+     */
+    public void exportOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate, Consumer<Order> consumer) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Export start and end dates cannot be null");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Export start date must not be after end date");
+        }
+        orderRepository.forEachByOrderDateBetween(startDate, endDate, consumer);
+    }
+    
     /**
      * Delete order by id
      * @param id the order id
      */
     public void deleteOrder(Long id) {
-        if (!orderRepository.existsById(id)) {
-            throw new IllegalArgumentException("Order with id " + id + " does not exist");
-        }
+        Order order = orderRepository.findOrderWithProductsById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Order with id " + id + " does not exist"));
         
         // Delete the order (order products will be deleted by cascade)
         orderRepository.deleteById(id);
+        if (order.getStatus() == Order.OrderStatus.PENDING || order.getStatus() == Order.OrderStatus.CONFIRMED) {
+            // Not shipped yet, so its stock goes back to the inventory
+            releaseStock(heldStock(order));
+        }
+        recordChanges(List.of(order), List.of());
     }
     
     /**
@@ -128,36 +456,97 @@ public class OrderService {
      * @return the updated order
      */
     public Order addProductToOrder(Long orderId, Long productId, Integer quantity) {
-        // Validate order exists
-        Order order = orderRepository.findOrderById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order with id " + orderId + " does not exist"));
-        
         // Validate product exists
         Product product = productRepository.findProductById(productId)
                 .orElseThrow(() -> new IllegalArgumentException("Product with id " + productId + " does not exist"));
         
-        // Create order product
-        OrderProduct orderProduct = new OrderProduct(order, product, quantity, product.getPrice());
-        validateOrderProduct(orderProduct);
-        
-        // Add to order
-        order.addOrderProduct(orderProduct);
-        
-        return orderRepository.saveOrder(order);
+        return editOrder(orderId, order -> {
+            // Create order product
+            OrderProduct orderProduct = new OrderProduct(order, product, quantity, product.getPrice());
+            validateOrderProduct(orderProduct);
+            
+            // Add to order (merged into the product's line if it is already in the order)
+            order.addOrderProduct(orderProduct);
+        });
     }
     
     /**
      * Update order status
+     * The transition must be allowed by the order status state machine (OrderStatus.canTransitionTo).
+     * The database checks it: the order is moved only if its status is one of the sources of the new
+     * one (OrderStatus.sourcesOf), in one transaction that returns its header with the previous status,
+     * without loading the order. Only a cancelled order's lines are read afterwards, to release its stock.
      * @param orderId the order id
      * @param status the new status
-     * @return the updated order
+     * @return the header of the updated order (without its lines), in its new status
+     * @throws IllegalArgumentException if the order does not exist or the status is null
+     * @throws IllegalStateException if the status of the order does not allow the transition
      */
     public Order updateOrderStatus(Long orderId, Order.OrderStatus status) {
-        Order order = orderRepository.findOrderById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order with id " + orderId + " does not exist"));
+        if (status == null) {
+            throw new IllegalArgumentException("Order status cannot be null");
+        }
+        List<Order> headers = orderRepository.updateStatuses(List.of(orderId), Order.OrderStatus.sourcesOf(status), status);
+        if (headers.isEmpty()) {
+            // Not moved: only now is it worth telling a missing order from a disallowed transition
+            Order current = orderRepository.findOrderHeaderById(orderId)
+                    .orElseThrow(() -> new IllegalArgumentException("Order with id " + orderId + " does not exist"));
+            throw new IllegalStateException("Order with id " + orderId + " cannot move from "
+                    + current.getStatus() + " to " + status);
+        }
+        List<Order> orders = status == Order.OrderStatus.CANCELLED
+                ? orderRepository.findOrdersWithProductsByIds(List.of(orderId))
+                : List.of();
+        recordStatusChanges(headers, status, orders);
+        return headerSnapshot(headers.getFirst(), status);
+    }
+    
+    /**
+     * Update the status of many orders at once (bulk status update)
+     * The ids are processed in chunks of BULK_CHUNK_SIZE, each moved by one set-based update in its own
+     * transaction, without loading the orders (only cancelled orders are read afterwards, for their stock).
+     * Orders that do not exist, or whose status does not allow the transition or is not the expected
+     * one, are left unchanged and reported.
+     * @param orderIds the order ids, at most MAX_BULK_STATUS_ORDERS
+     * @param status the new status
+     * @param expectedStatus the status the orders must have, or null for any status allowed to transition
+     * @return the number of orders moved and the ids of the others
+     * @throws IllegalArgumentException if an id or the status is null, there are too many ids, or the
+     * expected status cannot transition to the new one
+     */
+    public BulkStatusUpdateResult updateOrderStatuses(List<Long> orderIds, Order.OrderStatus status,
+                                                      Order.OrderStatus expectedStatus) {
+        if (orderIds == null || orderIds.contains(null)) {
+            throw new IllegalArgumentException("Order ids cannot be null");
+        }
+        if (status == null) {
+            throw new IllegalArgumentException("Order status cannot be null");
+        }
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(orderIds));
+        if (ids.size() > MAX_BULK_STATUS_ORDERS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_STATUS_ORDERS + " orders can be updated at once");
+        }
+        Set<Order.OrderStatus> sources = Order.OrderStatus.sourcesOf(status);
+        if (expectedStatus != null) {
+            if (!sources.contains(expectedStatus)) {
+                throw new IllegalArgumentException("Orders cannot move from " + expectedStatus + " to " + status);
+            }
+            sources = Set.of(expectedStatus);
+        }
+        
+        Set<Long> updatedIds = new HashSet<>();
+        for (int start = 0; start < ids.size(); start += BULK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(start, Math.min(start + BULK_CHUNK_SIZE, ids.size()));
+            List<Order> headers = orderRepository.updateStatuses(chunk, sources, status);
+            List<Order> orders = status == Order.OrderStatus.CANCELLED && !headers.isEmpty()
+                    ? orderRepository.findOrdersWithProductsByIds(headers.stream().map(Order::getId).toList())
+                    : List.of();
+            recordStatusChanges(headers, status, orders);
+            headers.forEach(header -> updatedIds.add(header.getId()));
+        }
         
-        order.setStatus(status);
-        return orderRepository.saveOrder(order);
+        List<Long> failedIds = ids.stream().filter(id -> !updatedIds.contains(id)).toList();
+        return new BulkStatusUpdateResult(status, ids.size(), updatedIds.size(), failedIds);
     }
     
     /**
@@ -167,16 +556,22 @@ public class OrderService {
      * @return the updated order
      */
     public Order removeProductFromOrder(Long orderId, Long productId) {
-        Order order = orderRepository.findOrderById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order with id " + orderId + " does not exist"));
-        
         Product product = productRepository.findProductById(productId)
                 .orElseThrow(() -> new IllegalArgumentException("Product with id " + productId + " does not exist"));
         
-        // Find and remove the order product
-        order.getOrderProducts().removeIf(op -> op.getProduct().getId().equals(productId));
-        
-        return orderRepository.saveOrder(order);
+        // Remove the product's line, the total is reduced by its subtotal
+        return editOrder(orderId, order -> order.removeProduct(product.getId()));
+    }
+    
+    /**
+     * Change the quantity of a product already in an order
+     * @param orderId the order id
+     * @param productId the product id
+     * @param quantity the new quantity
+     * @return the updated order
+     */
+    public Order updateProductQuantity(Long orderId, Long productId, Integer quantity) {
+        return editOrder(orderId, order -> order.changeQuantity(productId, quantity));
     }
     
     /**
@@ -196,9 +591,293 @@ public class OrderService {
         validateOrderProduct(orderProduct);
         
         // Add to order
+        Order before = snapshot(order);
         order.addOrderProduct(orderProduct);
         
-        return orderRepository.saveOrder(order);
+        return saveChangedOrder(before, order);
+    }
+    
+    /**
+     * Read an order, change it and save it with saveChangedOrder
+     * The save fails when the order was written since it was read (its version changed); the change is
+     * then applied again to the order read anew, so the stock and read model deltas are always computed
+     * from the state the save replaces.
+     * @param orderId the order id
+     * @param change the change, applied to the order read
+     * @return the saved order
+     * @throws IllegalArgumentException if the order does not exist or the change is not valid
+     * @throws IllegalStateException if the order kept being written concurrently
+     */
+    private Order editOrder(Long orderId, Consumer<Order> change) {
+        for (int attempt = 1; ; attempt++) {
+            // With its lines: the snapshot and the change read them once the repository call's session is closed
+            Order order = orderRepository.findOrderWithProductsById(orderId)
+                    .orElseThrow(() -> new IllegalArgumentException("Order with id " + orderId + " does not exist"));
+            Order before = snapshot(order);
+            change.accept(order);
+            try {
+                return saveChangedOrder(before, order);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MAX_ORDER_EDIT_ATTEMPTS) {
+                    throw new IllegalStateException("Order with id " + orderId + " is being changed concurrently", e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Save a changed order, adjusting the stock it holds and moving it in the read models
+     * from its previous state to the new one
+     * Additional stock is reserved before the order is saved and stock no longer needed
+     * is released once it is.
+     * @param before the snapshot of the order taken before the change
+     * @param order the changed order
+     * @return the saved order
+     * @throws IllegalArgumentException if a product does not have enough stock for the change
+     */
+    private Order saveChangedOrder(Order before, Order order) {
+        Map<Long, Integer> heldBefore = heldStock(before);
+        Map<Long, Integer> heldAfter = heldStock(order);
+        Map<Long, Integer> toReserve = new HashMap<>();
+        Map<Long, Integer> toRelease = new HashMap<>();
+        heldAfter.forEach((productId, quantity) -> {
+            int change = quantity - heldBefore.getOrDefault(productId, 0);
+            if (change > 0) {
+                toReserve.put(productId, change);
+            } else if (change < 0) {
+                toRelease.put(productId, -change);
+            }
+        });
+        heldBefore.forEach((productId, quantity) -> {
+            if (!heldAfter.containsKey(productId)) {
+                toRelease.put(productId, quantity);
+            }
+        });
+        
+        reserveStock(toReserve);
+        Order savedOrder;
+        try {
+            savedOrder = orderRepository.saveOrder(order);
+        } catch (RuntimeException e) {
+            releaseStock(toReserve);
+            throw e;
+        }
+        releaseStock(toRelease);
+        recordChanges(List.of(before), List.of(savedOrder));
+        return savedOrder;
+    }
+    
+    /**
+     * Apply saved status changes: release the stock of cancelled orders and move the orders in the
+     * read models (sales only change when an order is cancelled, the user summaries always do)
+     * @param headers the headers of the moved orders, with the status they had before
+     * @param status the new status
+     * @param orders the moved orders with their lines, needed when they were cancelled
+     */
+    private void recordStatusChanges(List<Order> headers, Order.OrderStatus status, Collection<Order> orders) {
+        if (headers.isEmpty()) {
+            return;
+        }
+        if (status != Order.OrderStatus.CANCELLED) {
+            List<Order> moved = new ArrayList<>(headers.size());
+            for (Order header : headers) {
+                moved.add(headerSnapshot(header, status));
+            }
+            recordSummaryChanges(headers, moved);
+            return;
+        }
+        
+        Map<Long, Order.OrderStatus> previousStatuses = new HashMap<>();
+        headers.forEach(header -> previousStatuses.put(header.getId(), header.getStatus()));
+        List<Order> before = new ArrayList<>(orders.size());
+        List<Order> after = new ArrayList<>(orders.size());
+        Map<Long, Integer> toRelease = new HashMap<>();
+        for (Order order : orders) {
+            Order previous = snapshot(order, previousStatuses.get(order.getId()));
+            heldStock(previous).forEach((productId, quantity) -> toRelease.merge(productId, quantity, Integer::sum));
+            Order cancelled = snapshot(order, Order.OrderStatus.CANCELLED);
+            before.add(previous);
+            after.add(cancelled);
+        }
+        releaseStock(toRelease);
+        recordChanges(before, after);
+    }
+    
+    /**
+     * Get the stock an order holds: the quantity of each of its products, none once cancelled
+     * @param order the order
+     * @return the quantities, by product id
+     */
+    private Map<Long, Integer> heldStock(Order order) {
+        if (order.getStatus() == Order.OrderStatus.CANCELLED || order.getOrderProducts() == null) {
+            return Map.of();
+        }
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            if (orderProduct.getProduct() != null && orderProduct.getProduct().getId() != null
+                    && orderProduct.getQuantity() != null) {
+                quantities.merge(orderProduct.getProduct().getId(), orderProduct.getQuantity(), Integer::sum);
+            }
+        }
+        return quantities;
+    }
+    
+    /**
+     * Reserve stock in the inventory
+     * @param quantities the quantities, by product id
+     * @throws IllegalArgumentException if a product does not have enough stock
+     */
+    private void reserveStock(Map<Long, Integer> quantities) {
+        if (!quantities.isEmpty()) {
+            inventory.reserve(quantities);
+        }
+    }
+    
+    /**
+     * Return stock to the inventory
+     * @param quantities the quantities, by product id
+     */
+    private void releaseStock(Map<Long, Integer> quantities) {
+        if (!quantities.isEmpty()) {
+            inventory.release(quantities);
+        }
+    }
+    
+    /**
+     * Copy the part of an order the read models depend on (user, date, status, total and lines)
+     * @param order the order, before it is changed
+     * @return a detached copy of the order
+     */
+    private Order snapshot(Order order) {
+        return snapshot(order, order.getStatus());
+    }
+    
+    /**
+     * Copy an order with its lines, in another status
+     * @param order the order
+     * @param status the status of the copy
+     * @return a detached copy of the order
+     */
+    private Order snapshot(Order order, Order.OrderStatus status) {
+        Order snapshot = headerSnapshot(order, status);
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            snapshot.getOrderProducts().add(new OrderProduct(snapshot, orderProduct.getProduct(),
+                    orderProduct.getQuantity(), orderProduct.getPrice()));
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Copy the header of an order (user, date and total), without its lines, in the given status
+     * @param order the order
+     * @param status the status of the copy
+     * @return a detached copy of the order header
+     */
+    private Order headerSnapshot(Order order, Order.OrderStatus status) {
+        return new Order(order.getId(), order.getUser(), order.getOrderDate(), order.getTotalAmount(), status);
+    }
+    
+    /**
+     * Apply saved order changes to the read models (sales and user order summaries)
+     * The orders are already committed, so a failure is logged rather than failing the request;
+     * the read models are then repaired by SalesReportService.rebuildSalesReports and
+     * rebuildUserOrderSummaries.
+     * @param removedOrders the orders (or previous states) withdrawn from the read models
+     * @param addedOrders the orders (or new states) recorded in the read models
+     */
+    private void recordChanges(Collection<Order> removedOrders, Collection<Order> addedOrders) {
+        try {
+            salesAnalyticsRepository.applyChanges(removedOrders, addedOrders);
+        } catch (RuntimeException e) {
+            failedSalesUpdates.increment();
+            log.warn("Sales read model update failed, rebuild it to repair the reports: {}", e.getMessage());
+        }
+        recordSummaryChanges(removedOrders, addedOrders);
+    }
+    
+    /**
+     * Apply saved order changes to the user order summaries only
+     * @param removedOrders the orders (or previous states) withdrawn from the summaries
+     * @param addedOrders the orders (or new states) added to the summaries
+     */
+    private void recordSummaryChanges(Collection<Order> removedOrders, Collection<Order> addedOrders) {
+        try {
+            userOrderSummaryRepository.applyChanges(removedOrders, addedOrders);
+        } catch (RuntimeException e) {
+            failedSummaryUpdates.increment();
+            log.warn("User order summary update failed, rebuild the summaries to repair them: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Collect the ids of the products referenced by the lines of an order
+     * @param order the order
+     * @param productIds the set the ids are added to
+     */
+    private void collectProductIds(Order order, Set<Long> productIds) {
+        if (order.getOrderProducts() == null) {
+            return;
+        }
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            if (orderProduct != null && orderProduct.getProduct() != null && orderProduct.getProduct().getId() != null) {
+                productIds.add(orderProduct.getProduct().getId());
+            }
+        }
+    }
+    
+    /**
+     * Load products by id with a single query
+     * @param productIds the product ids
+     * @return the products found, by id
+     */
+    private Map<Long, Product> findProductsByIds(Set<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        return productRepository.findProductsByIds(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+    
+    /**
+     * Resolve the user and products of a new order and validate it
+     * @param order the order to prepare
+     * @param users the users that may be referenced, by id
+     * @param products the products that may be referenced, by id
+     */
+    private void prepareOrder(Order order, Map<Long, User> users, Map<Long, Product> products) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        if (order.getUser() == null) {
+            throw new IllegalArgumentException("Order user cannot be null");
+        }
+        User user = users.get(order.getUser().getId());
+        if (user == null) {
+            throw new IllegalArgumentException("User with id " + order.getUser().getId() + " does not exist");
+        }
+        order.setUser(user);
+        if (order.getOrderDate() == null) {
+            order.setOrderDate(LocalDateTime.now());
+        }
+        
+        List<OrderProduct> orderProducts = order.getOrderProducts() == null
+                ? List.of() : new ArrayList<>(order.getOrderProducts());
+        order.setOrderProducts(new ArrayList<>());
+        order.setTotalAmount(BigDecimal.ZERO);
+        for (OrderProduct orderProduct : orderProducts) {
+            if (orderProduct == null) {
+                throw new IllegalArgumentException("Order product cannot be null");
+            }
+            Long productId = orderProduct.getProduct() != null ? orderProduct.getProduct().getId() : null;
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new IllegalArgumentException("Product with id " + productId + " does not exist");
+            }
+            orderProduct.setProduct(product);
+            orderProduct.setPrice(product.getPrice());
+            validateOrderProduct(orderProduct);
+            order.addOrderProduct(orderProduct);
+        }
     }
     
     /**
@@ -1,13 +1,24 @@
 package com.ecommerce.application.service;
 
+import com.ecommerce.application.inventory.Inventory;
+import com.ecommerce.application.pagination.CursorPage;
 import com.ecommerce.application.repository.ProductRepository;
+import com.ecommerce.application.search.ProductSearchIndex;
 import com.ecommerce.domain.Product;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * ProductService - implements business logic for Product entity
@@ -15,11 +26,31 @@ import java.util.Optional;
 @Service
 public class ProductService {
     
+    /**
+     * Number of products returned by a search when the caller does not ask for a limit
+     */
+    public static final int DEFAULT_SEARCH_LIMIT = 100;
+    
+    /**
+     * Largest limit a search accepts; larger limits are lowered to it
+     */
+    public static final int MAX_SEARCH_LIMIT = 1000;
+    
     private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final Inventory inventory;
+    
+    /**
+     * Number of product writes on this node, part of the catalog version
+     */
+    private final AtomicLong catalogChanges = new AtomicLong();
     
     @Autowired
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ProductSearchIndex productSearchIndex,
+                          Inventory inventory) {
         this.productRepository = productRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.inventory = inventory;
     }
     
     /**
@@ -28,15 +59,27 @@ public class ProductService {
      * @return the created product with generated id
      */
     public Product createProduct(Product product) {
-        // Validate product data
-        if (product.getName() == null || product.getName().trim().isEmpty()) {
-            throw new IllegalArgumentException("Product name cannot be null or empty");
-        }
-        if (product.getPrice() == null || product.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Product price must be greater than zero");
-        }
+        validateProduct(product);
         
-        return productRepository.saveProduct(product);
+        Product savedProduct = productRepository.saveProduct(product);
+        productSearchIndex.index(savedProduct);
+        catalogChanges.incrementAndGet();
+        return savedProduct;
+    }
+    
+    /**
+     * Import products in bulk (e.g. catalog onboarding), reading them one at a time
+     * Each product is validated as createProduct does, and valid products are inserted in chunks of
+     * 1000, in JDBC batches and one transaction per chunk.
+     * @param products the products to import, or why a row could not be parsed
+     * @return the number of rows read, imported and rejected, and the reasons of the first rejections
+     */
+    public ImportReport importProducts(Iterator<ImportRow<Product>> products) {
+        return ChunkedImport.run("products", products, this::validateProduct, (chunk, report) -> chunk, chunk -> {
+            productRepository.saveAllProducts(chunk);
+            productSearchIndex.indexAll(chunk);
+            catalogChanges.incrementAndGet();
+        });
     }
     
     /**
@@ -45,7 +88,7 @@ public class ProductService {
      * @return Optional containing the product if found
      */
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findProductById(id);
+        return productRepository.findProductById(id).map(this::withAvailableStock);
     }
     
     /**
@@ -53,19 +96,76 @@ public class ProductService {
      * @return list of all products
      */
     public List<Product> getAllProducts() {
-        return productRepository.findAllProducts();
+        return productRepository.findAllProducts().stream().map(this::withAvailableStock).toList();
+    }
+    
+    /**
+     * Get all products, streaming them one by one to the consumer instead of collecting them
+     * @param consumer receives each product, ordered by id
+     */
+    public void getAllProducts(Consumer<Product> consumer) {
+        productRepository.forEachProduct(product -> consumer.accept(withAvailableStock(product)));
     }
     
     /**
-     * Search products by name
-     * @param name the name to search for
-     * @return list of products matching the name
+     * Get a page of products using keyset pagination
+     * @param after the id of the last product of the previous page, or null for the first page
+     * @param limit the page size (capped at CursorPage.MAX_LIMIT)
+     * @return the page of products and the cursor of the next page
      */
-    public List<Product> searchProductsByName(String name) {
+    public CursorPage<Product> getProductsPage(String after, Integer limit) {
+        int pageSize = CursorPage.normalizeLimit(limit);
+        Long afterId = after == null ? null : CursorPage.parseIdCursor(after);
+        List<Product> products = productRepository.findProductsAfterId(afterId, pageSize + 1).stream()
+                .map(this::withAvailableStock)
+                .toList();
+        return CursorPage.of(products, pageSize, product -> String.valueOf(product.getId()));
+    }
+    
+    /**
+     * Search products by name and description
+     * Answered by the search index (every word must match a word of the product, or the start of one);
+     * falls back to a name search in the database, by id and not ranked, while the index is still loading.
+     * A blank text matches every product: the first ones by id are returned.
+     * @param name the text to search for
+     * @param limit the maximum number of products to return, may be null (DEFAULT_SEARCH_LIMIT);
+     * limits above MAX_SEARCH_LIMIT are lowered to it
+     * @return list of products matching the text, best matches first
+     */
+    public List<Product> searchProductsByName(String name, Integer limit) {
+        int searchLimit = normalizeSearchLimit(limit);
         if (name == null || name.trim().isEmpty()) {
-            return getAllProducts();
+            return productRepository.findProductsAfterId(null, searchLimit).stream()
+                    .map(this::withAvailableStock)
+                    .toList();
+        }
+        if (!productSearchIndex.isReady()) {
+            return productRepository.findByNameContaining(name.trim(), searchLimit).stream()
+                    .map(this::withAvailableStock)
+                    .toList();
+        }
+        
+        List<Long> ids = productSearchIndex.search(name.trim(), searchLimit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> products = productRepository.findProductsByIds(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(this::withAvailableStock)
+                .toList();
+    }
+    
+    private static int normalizeSearchLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_SEARCH_LIMIT;
         }
-        return productRepository.findByNameContaining(name.trim());
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Search limit must be greater than zero");
+        }
+        return Math.min(limit, MAX_SEARCH_LIMIT);
     }
     
     /**
@@ -77,14 +177,25 @@ public class ProductService {
         if (product.getId() == null) {
             throw new IllegalArgumentException("Product id cannot be null for update");
         }
-        if (!productRepository.existsById(product.getId())) {
-            throw new IllegalArgumentException("Product with id " + product.getId() + " does not exist");
-        }
+        Product existing = productRepository.findProductById(product.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Product with id " + product.getId() + " does not exist"));
         if (product.getPrice() == null || product.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Product price must be greater than zero");
         }
         
-        return productRepository.saveProduct(product);
+        // The stock is not saved with the other fields: orders reserve it concurrently, so it is
+        // replaced through the inventory, which writes counter and table together
+        Integer stockQuantity = product.getStockQuantity();
+        product.setStockQuantity(existing.getStockQuantity());
+        Product savedProduct = productRepository.saveProduct(product);
+        if (stockQuantity != null) {
+            // The stock sent with the update replaces what is left to reserve
+            inventory.setStock(savedProduct.getId(), stockQuantity);
+            savedProduct.setStockQuantity(stockQuantity);
+        }
+        productSearchIndex.index(savedProduct);
+        catalogChanges.incrementAndGet();
+        return savedProduct;
     }
     
     /**
@@ -96,5 +207,70 @@ public class ProductService {
             throw new IllegalArgumentException("Product with id " + id + " does not exist");
         }
         productRepository.deleteById(id);
+        productSearchIndex.remove(id);
+        inventory.remove(id);
+        catalogChanges.incrementAndGet();
+    }
+    
+    /**
+     * Get the version of the catalog as served by this node
+     * The version grows with every product write, so the products of a catalog response read at a
+     * version are current as long as the version has not changed, except for their available stock,
+     * which orders change all the time: see isAvailableStockUnchanged and getStockVersion.
+     * Writes made by other nodes are not counted.
+     * @return a value that only grows, comparable between calls on this node
+     */
+    public long getCatalogVersion() {
+        return catalogChanges.get();
+    }
+    
+    /**
+     * Get a version of the available stock of all the products, for responses that show every product
+     * @return a value that grows whenever the available stock of any product changes on this node
+     */
+    public long getStockVersion() {
+        return inventory.stockVersion();
+    }
+    
+    /**
+     * Check that products still have the available stock a response showed for them, so that
+     * reserving the stock of one product only makes the responses showing that product stale
+     * @param productIds the product ids
+     * @param stockQuantities the stock shown for each of them, in the same order
+     * @return true if no product has another available stock now
+     */
+    public boolean isAvailableStockUnchanged(long[] productIds, int[] stockQuantities) {
+        for (int i = 0; i < productIds.length; i++) {
+            OptionalInt available = inventory.availableStock(productIds[i]);
+            // Untracked stock only changes through product writes, which the catalog version counts
+            if (available.isPresent() && available.getAsInt() != stockQuantities[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Show the stock that can still be reserved instead of the last reconciled one
+     * @param product the product as read from the repository
+     * @return a copy of the product with its available stock, or the product itself if the
+     *         inventory does not track it
+     */
+    private Product withAvailableStock(Product product) {
+        OptionalInt available = inventory.availableStock(product.getId());
+        if (available.isEmpty()) {
+            return product;
+        }
+        return new Product(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                available.getAsInt());
+    }
+    
+    private void validateProduct(Product product) {
+        if (product.getName() == null || product.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Product name cannot be null or empty");
+        }
+        if (product.getPrice() == null || product.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Product price must be greater than zero");
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.ecommerce.application.service;
+
+import com.ecommerce.application.repository.SalesAnalyticsRepository;
+import com.ecommerce.domain.analytics.DailySales;
+import com.ecommerce.domain.analytics.ProductSales;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * SalesReportService - implements the sales reports
+ * Reports are read from the sales read model, which OrderService keeps up to date as orders are
+ * placed, changed, cancelled and deleted, so their cost depends on the number of days reported
+ * rather than on the number of orders.
+ */
+@Service
+public class SalesReportService {
+    
+    /**
+     * Longest range of days a report may cover
+     */
+    public static final int MAX_REPORT_DAYS = 3660;
+    
+    /**
+     * Number of products returned by the product report when no limit is given
+     */
+    public static final int DEFAULT_PRODUCT_LIMIT = 10;
+    
+    /**
+     * Maximum number of products returned by the product report
+     */
+    public static final int MAX_PRODUCT_LIMIT = 1000;
+    
+    private final SalesAnalyticsRepository salesAnalyticsRepository;
+    
+    @Autowired
+    public SalesReportService(SalesAnalyticsRepository salesAnalyticsRepository) {
+        this.salesAnalyticsRepository = salesAnalyticsRepository;
+    }
+    
+    /**
+     * Get revenue, number of orders and units sold per day, cancelled orders excluded
+     * @param from the first day
+     * @param to the last day (inclusive)
+     * @return one entry per day of the range, days without sales included
+     */
+    public List<DailySales> getDailySales(LocalDate from, LocalDate to) {
+        long days = validateRange(from, to);
+        
+        List<DailySales> sales = new ArrayList<>((int) days);
+        Iterator<DailySales> salesDays = salesAnalyticsRepository.findDailySales(from, to).iterator();
+        DailySales next = salesDays.hasNext() ? salesDays.next() : null;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (next != null && next.getDay().equals(day)) {
+                sales.add(next);
+                next = salesDays.hasNext() ? salesDays.next() : null;
+            } else {
+                sales.add(DailySales.empty(day));
+            }
+        }
+        return sales;
+    }
+    
+    /**
+     * Get the best selling products of a range of days, cancelled orders excluded
+     * @param from the first day
+     * @param to the last day (inclusive)
+     * @param limit the maximum number of products (DEFAULT_PRODUCT_LIMIT when null, capped at MAX_PRODUCT_LIMIT)
+     * @return the products ordered by units sold, descending
+     */
+    public List<ProductSales> getTopProducts(LocalDate from, LocalDate to, Integer limit) {
+        validateRange(from, to);
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than zero");
+        }
+        int productLimit = limit == null ? DEFAULT_PRODUCT_LIMIT : Math.min(limit, MAX_PRODUCT_LIMIT);
+        return salesAnalyticsRepository.findTopProductSales(from, to, productLimit);
+    }
+    
+    /**
+     * Recompute the sales read model from the orders
+     * @return the number of days with sales
+     */
+    public long rebuildSalesReports() {
+        return salesAnalyticsRepository.rebuild();
+    }
+    
+    /**
+     * Validate a report range
+     * @param from the first day
+     * @param to the last day (inclusive)
+     * @return the number of days of the range
+     */
+    private long validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Report start and end dates cannot be null");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Report start date must not be after end date");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_REPORT_DAYS) {
+            throw new IllegalArgumentException("Report range cannot exceed " + MAX_REPORT_DAYS + " days");
+        }
+        return days;
+    }
+}
@@ -1,12 +1,19 @@
 package com.ecommerce.application.service;
 
+import com.ecommerce.application.pagination.CursorPage;
 import com.ecommerce.application.repository.UserRepository;
+import com.ecommerce.application.search.UserEmailFilter;
 import com.ecommerce.domain.User;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * UserService - implements business logic for User entity
@@ -15,10 +22,12 @@ import java.util.Optional;
 public class UserService {
     
     private final UserRepository userRepository;
+    private final UserEmailFilter userEmailFilter;
     
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserEmailFilter userEmailFilter) {
         this.userRepository = userRepository;
+        this.userEmailFilter = userEmailFilter;
     }
     
     /**
@@ -27,21 +36,31 @@ public class UserService {
      * @return the created user with generated id
      */
     public User createUser(User user) {
-        // Validate user data
-        if (user.getName() == null || user.getName().trim().isEmpty()) {
-            throw new IllegalArgumentException("User name cannot be null or empty");
-        }
-        if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
-            throw new IllegalArgumentException("User email cannot be null or empty");
-        }
+        validateUser(user);
         
         // Check if email already exists
-        Optional<User> existingUser = userRepository.findUserByEmail(user.getEmail());
-        if (existingUser.isPresent()) {
+        if (emailMayBeTaken(user.getEmail()) && userRepository.existsByEmail(user.getEmail())) {
             throw new IllegalArgumentException("User with email " + user.getEmail() + " already exists");
         }
         
-        return userRepository.saveUser(user);
+        User savedUser = userRepository.saveUser(user);
+        userEmailFilter.add(savedUser.getEmail());
+        return savedUser;
+    }
+    
+    /**
+     * Import users in bulk (e.g. a migration), reading them one at a time
+     * Each user is validated as createUser does. Email uniqueness is checked per chunk of 1000 users
+     * with a single query (only for the emails the email filter cannot rule out), duplicates within the
+     * import included, and each chunk is inserted in JDBC batches in one transaction.
+     * @param users the users to import, or why a row could not be parsed
+     * @return the number of rows read, imported and rejected, and the reasons of the first rejections
+     */
+    public ImportReport importUsers(Iterator<ImportRow<User>> users) {
+        return ChunkedImport.run("users", users, this::validateUser, this::rejectTakenEmails, chunk -> {
+            userRepository.saveAllUsers(chunk);
+            chunk.forEach(user -> userEmailFilter.add(user.getEmail()));
+        });
     }
     
     /**
@@ -61,12 +80,36 @@ public class UserService {
         return userRepository.findAllUsers();
     }
     
+    /**
+     * Get all users, streaming them one by one to the consumer instead of collecting them
+     * @param consumer receives each user, ordered by id
+     */
+    public void getAllUsers(Consumer<User> consumer) {
+        userRepository.forEachUser(consumer);
+    }
+    
+    /**
+     * Get a page of users using keyset pagination
+     * @param after the id of the last user of the previous page, or null for the first page
+     * @param limit the page size (capped at CursorPage.MAX_LIMIT)
+     * @return the page of users and the cursor of the next page
+     */
+    public CursorPage<User> getUsersPage(String after, Integer limit) {
+        int pageSize = CursorPage.normalizeLimit(limit);
+        Long afterId = after == null ? null : CursorPage.parseIdCursor(after);
+        return CursorPage.of(userRepository.findUsersAfterId(afterId, pageSize + 1), pageSize,
+                user -> String.valueOf(user.getId()));
+    }
+    
     /**
      * Get user by email
      * @param email the user email
      * @return Optional containing the user if found
      */
     public Optional<User> getUserByEmail(String email) {
+        if (!emailMayBeTaken(email)) {
+            return Optional.empty();
+        }
         return userRepository.findUserByEmail(email);
     }
     
@@ -83,7 +126,12 @@ public class UserService {
             throw new IllegalArgumentException("User with id " + user.getId() + " does not exist");
         }
         
-        return userRepository.saveUser(user);
+        User savedUser = userRepository.saveUser(user);
+        // An email new to the filter means the user's previous email is no longer taken
+        if (savedUser.getEmail() != null && userEmailFilter.add(savedUser.getEmail()) && userEmailFilter.isReady()) {
+            userEmailFilter.markStale();
+        }
+        return savedUser;
     }
     
     /**
@@ -95,5 +143,52 @@ public class UserService {
             throw new IllegalArgumentException("User with id " + id + " does not exist");
         }
         userRepository.deleteById(id);
+        userEmailFilter.markStale();
+    }
+    
+    /**
+     * Check the email filter: a miss means no user has the email and the database is not queried
+     * @param email the email
+     * @return false if no user has the email, true if one may have it (or the filter is not loaded yet)
+     */
+    private void validateUser(User user) {
+        if (user.getName() == null || user.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("User name cannot be null or empty");
+        }
+        if (user.getEmail() == null || user.getEmail().trim().isEmpty()) {
+            throw new IllegalArgumentException("User email cannot be null or empty");
+        }
+    }
+    
+    /**
+     * Reject the users of an import chunk whose email belongs to a user or to an earlier user of the chunk
+     * @param chunk the rows of the chunk
+     * @param report receives the rejected rows
+     * @return the rows to save
+     */
+    private List<ImportRow<User>> rejectTakenEmails(List<ImportRow<User>> chunk, ImportReport report) {
+        Set<String> candidates = new HashSet<>();
+        for (ImportRow<User> row : chunk) {
+            if (emailMayBeTaken(row.getValue().getEmail())) {
+                candidates.add(row.getValue().getEmail());
+            }
+        }
+        Set<String> taken = candidates.isEmpty()
+                ? new HashSet<>() : new HashSet<>(userRepository.findExistingEmails(candidates));
+        
+        List<ImportRow<User>> accepted = new ArrayList<>(chunk.size());
+        for (ImportRow<User> row : chunk) {
+            String email = row.getValue().getEmail();
+            if (!taken.add(email)) {
+                report.failed(row.getLine(), "User with email " + email + " already exists");
+            } else {
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+    
+    private boolean emailMayBeTaken(String email) {
+        return email == null || !userEmailFilter.isReady() || userEmailFilter.mightContain(email);
     }
 } 
\ No newline at end of file
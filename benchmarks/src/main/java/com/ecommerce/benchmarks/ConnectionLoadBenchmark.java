@@ -0,0 +1,157 @@
+package com.ecommerce.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ConnectionLoadBenchmark - compares the MVC API and the WebFlux API under many concurrent connections
+ * For each base URL, N clients (one virtual thread each, on keep-alive connections of their own) send GET
+ * requests back to back for the given time, cycling through the paths; the report has the successful requests,
+ * their throughput and p50/p99/max latency, and the failed requests (connection errors, timeouts and non-2xx
+ * answers) by cause. A warm-up with few connections runs first and is not reported.
+ * Both APIs must run on the same data: e.g. ./run.sh (port 8080) and ./run.sh reactive (port 8081) on the
+ * same database. Clients are spread over one HttpClient per CLIENTS_PER_HTTP_CLIENT, so that the load
+ * generator's selector threads are not the bottleneck; raise ulimit -n above the number of connections.
+ * Usage: java -cp benchmarks/target/benchmarks.jar com.ecommerce.benchmarks.ConnectionLoadBenchmark
+ *        [base URLs, default http://localhost:8080,http://localhost:8081] [connections, default 10000]
+ *        [seconds, default 30] [paths, default /api/products/1,/api/products/page?limit=20,/api/orders/1]
+ */
+public class ConnectionLoadBenchmark {
+
+    private static final int CLIENTS_PER_HTTP_CLIENT = 1000;
+    private static final int WARM_UP_CONNECTIONS = 64;
+    private static final Duration WARM_UP = Duration.ofSeconds(10);
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    public static void main(String[] args) throws Exception {
+        String[] baseUrls = (args.length > 0 ? args[0] : "http://localhost:8080,http://localhost:8081").split(",");
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        String[] paths = (args.length > 3 ? args[3] : "/api/products/1,/api/products/page?limit=20,/api/orders/1").split(",");
+
+        System.out.printf("%d connections for %d s, paths %s%n", connections, duration.toSeconds(), Arrays.toString(paths));
+        System.out.printf("%-28s %10s %9s %10s %9s %9s %9s%n",
+                "base URL", "requests", "errors", "req/s", "p50 (ms)", "p99 (ms)", "max (ms)");
+        for (String baseUrl : baseUrls) {
+            run(baseUrl, paths, WARM_UP_CONNECTIONS, WARM_UP);
+            Result result = run(baseUrl, paths, connections, duration);
+            System.out.printf("%-28s %10d %9d %10.0f %9.1f %9.1f %9.1f%n", baseUrl, result.requests(), result.errors(),
+                    result.requests() / (result.elapsedNanos() / 1e9), millis(result.percentile(0.50)),
+                    millis(result.percentile(0.99)), millis(result.percentile(1.0)));
+            result.errorsByCause().forEach((cause, count) ->
+                    System.out.printf("%-28s %10s %9d  %s%n", "", "", count.sum(), cause));
+        }
+    }
+
+    private static Result run(String baseUrl, String[] paths, int connections, Duration duration) throws Exception {
+        List<HttpRequest> requests = new ArrayList<>();
+        for (String path : paths) {
+            requests.add(HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build());
+        }
+        List<HttpClient> clients = new ArrayList<>();
+        for (int i = 0; i < (connections + CLIENTS_PER_HTTP_CLIENT - 1) / CLIENTS_PER_HTTP_CLIENT; i++) {
+            clients.add(HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(CONNECT_TIMEOUT)
+                    .build());
+        }
+
+        long[][] latencies = new long[connections][];
+        int[] counts = new int[connections];
+        Map<String, LongAdder> errorsByCause = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] window = new long[2];
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < connections; c++) {
+                int worker = c;
+                HttpClient client = clients.get(c / CLIENTS_PER_HTTP_CLIENT);
+                workers.execute(() -> {
+                    long[] own = new long[256];
+                    int count = 0;
+                    try {
+                        start.await();
+                        // Clients start on different paths so that each path is hit evenly from the start
+                        for (int i = worker; System.nanoTime() < window[1]; i++) {
+                            long begin = System.nanoTime();
+                            String cause;
+                            try {
+                                int status = client.send(requests.get(i % requests.size()),
+                                        HttpResponse.BodyHandlers.discarding()).statusCode();
+                                cause = status / 100 == 2 ? null : "HTTP " + status;
+                            } catch (IOException e) {
+                                cause = e.getClass().getSimpleName();
+                            }
+                            if (cause != null) {
+                                errorsByCause.computeIfAbsent(cause, key -> new LongAdder()).increment();
+                                continue;
+                            }
+                            if (count == own.length) {
+                                own = Arrays.copyOf(own, count * 2);
+                            }
+                            own[count++] = System.nanoTime() - begin;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    latencies[worker] = own;
+                    counts[worker] = count;
+                });
+            }
+            window[0] = System.nanoTime();
+            window[1] = window[0] + duration.toNanos();
+            start.countDown();
+        }
+        long elapsed = System.nanoTime() - window[0];
+        clients.forEach(HttpClient::close);
+
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < connections; c++) {
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        return new Result(all, errorsByCause, elapsed);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @param latencies the latencies of the successful requests in nanoseconds, sorted
+     */
+    private record Result(long[] latencies, Map<String, LongAdder> errorsByCause, long elapsedNanos) {
+
+        long requests() {
+            return latencies.length;
+        }
+
+        long errors() {
+            return errorsByCause.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        long percentile(double percentile) {
+            return latencies.length == 0 ? 0 : latencies[Math.max(0, (int) Math.ceil(percentile * latencies.length) - 1)];
+        }
+    }
+}
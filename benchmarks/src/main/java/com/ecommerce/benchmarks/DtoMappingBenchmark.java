@@ -0,0 +1,101 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.benchmarks.support.Catalog;
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.OrderProduct;
+import com.ecommerce.domain.Product;
+import com.ecommerce.domain.User;
+import com.ecommerce.presentation.controller.OrderController;
+import com.ecommerce.presentation.controller.ProductController;
+import com.ecommerce.presentation.controller.UserController;
+import com.ecommerce.presentation.dto.OrderDto;
+import com.ecommerce.presentation.dto.ProductDto;
+import com.ecommerce.presentation.dto.UserDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DtoMappingBenchmark - the controllers' entity to DTO mappings
+ * The convertToDto methods are private to the controllers, so they are bound once through
+ * method handles; invoking a constant handle costs the same as a direct call once compiled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private static final MethodHandle ORDER_TO_DTO = converter(OrderController.class, Order.class, OrderDto.class);
+    private static final MethodHandle PRODUCT_TO_DTO = converter(ProductController.class, Product.class, ProductDto.class);
+    private static final MethodHandle USER_TO_DTO = converter(UserController.class, User.class, UserDto.class);
+
+    @Param({"1", "10", "100"})
+    private int lines;
+
+    private final OrderController orderController = new OrderController();
+    private final ProductController productController = new ProductController();
+    private final UserController userController = new UserController();
+    private Order order;
+    private Product product;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        user = Catalog.user(1);
+        user.setId(1L);
+        Product[] products = new Product[lines];
+        for (int i = 0; i < lines; i++) {
+            products[i] = Catalog.product(random);
+            products[i].setId(i + 1L);
+        }
+        product = products[0];
+        order = Catalog.order(user, products);
+        order.setId(1L);
+        long orderProductId = 1;
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            orderProduct.setId(orderProductId++);
+        }
+    }
+
+    @Benchmark
+    public OrderDto orderToDto() throws Throwable {
+        return (OrderDto) ORDER_TO_DTO.invokeExact(orderController, order);
+    }
+
+    @Benchmark
+    public ProductDto productToDto() throws Throwable {
+        return (ProductDto) PRODUCT_TO_DTO.invokeExact(productController, product);
+    }
+
+    @Benchmark
+    public UserDto userToDto() throws Throwable {
+        return (UserDto) USER_TO_DTO.invokeExact(userController, user);
+    }
+
+    private static MethodHandle converter(Class<?> controller, Class<?> entity, Class<?> dto) {
+        try {
+            return MethodHandles.privateLookupIn(controller, MethodHandles.lookup())
+                    .findVirtual(controller, "convertToDto", MethodType.methodType(dto, entity));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("convertToDto not found on " + controller.getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.domain.Product;
+import com.ecommerce.infrastructure.inmemory.InMemoryProductRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore;
+import com.ecommerce.infrastructure.inventory.StripedInventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InventoryBenchmark - reservations of a single hot product from concurrent threads
+ * Each invocation reserves one unit and releases it, so the stock never runs out. Compare the
+ * striped counter with a lock-protected counter (how a row lock serializes the same work) while
+ * raising the thread count: ./run.sh bench InventoryBenchmark -t 1 / -t 4 / -t max
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryBenchmark {
+
+    @Param({"1", "16"})
+    private int stripes;
+
+    private StripedInventory inventory;
+    private Map<Long, Integer> oneUnit;
+    private long lockedStock;
+
+    @Setup
+    public void setUp() {
+        InMemoryProductRepository productRepository = new InMemoryProductRepository(new InMemoryStore(0, 16));
+        Product hotProduct = productRepository.saveProduct(
+                new Product("Hot product", "Flash sale", new BigDecimal("9.90"), 1_000_000));
+        inventory = new StripedInventory(productRepository, stripes);
+        oneUnit = Map.of(hotProduct.getId(), 1);
+        inventory.reserve(oneUnit);
+        inventory.release(oneUnit);
+        lockedStock = 1_000_000;
+    }
+
+    @Benchmark
+    public void stripedReserveAndRelease() {
+        inventory.reserve(oneUnit);
+        inventory.release(oneUnit);
+    }
+
+    @Benchmark
+    public void lockedReserveAndRelease() {
+        synchronized (this) {
+            if (lockedStock >= 1) {
+                lockedStock--;
+            }
+        }
+        synchronized (this) {
+            lockedStock++;
+        }
+    }
+}
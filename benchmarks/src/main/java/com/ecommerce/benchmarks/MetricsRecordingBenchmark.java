@@ -0,0 +1,47 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.infrastructure.metrics.CallMetrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MetricsRecordingBenchmark - cost of recording one call into a latency histogram
+ * Run with -prof gc to check that the recording path does not allocate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsRecordingBenchmark {
+
+    private CallMetrics metrics;
+    private long nanos;
+
+    @Setup
+    public void setUp() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        metrics = CallMetrics.register(registry, "service.method.calls", "service.method.errors",
+                Tags.of("class", "OrderService", "method", "placeOrder"));
+    }
+
+    @Benchmark
+    public void recordCall() {
+        nanos = (nanos + 7_919) % 50_000_000;
+        metrics.record(nanos, false);
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.benchmarks.support.Catalog;
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.OrderProduct;
+import com.ecommerce.domain.Product;
+import com.ecommerce.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderDomainBenchmark - the Order aggregate: adding, removing and changing lines (each one
+ * updates the total) and line subtotals, for orders of increasing size
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderDomainBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int lines;
+
+    private User user;
+    private Product[] products;
+    private Product extraProduct;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        user = Catalog.user(1);
+        user.setId(1L);
+        products = new Product[lines];
+        for (int i = 0; i < lines; i++) {
+            products[i] = Catalog.product(random);
+            products[i].setId(i + 1L);
+        }
+        extraProduct = Catalog.product(random);
+        extraProduct.setId(lines + 1L);
+        order = Catalog.order(user, products);
+        // Lines are equal by id, so the prepared lines get ids distinct from the transient one
+        long orderProductId = 1;
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            orderProduct.setId(orderProductId++);
+        }
+    }
+
+    /**
+     * Build an order line by line through addOrderProduct
+     */
+    @Benchmark
+    public Order addOrderProducts() {
+        return Catalog.order(user, products);
+    }
+
+    /**
+     * Add a line for a product not yet in the prepared order and remove it again
+     */
+    @Benchmark
+    public BigDecimal addAndRemoveOrderProduct() {
+        OrderProduct orderProduct = new OrderProduct(0L, order, extraProduct, 2, extraProduct.getPrice());
+        order.addOrderProduct(orderProduct);
+        order.removeOrderProduct(orderProduct);
+        return order.getTotalAmount();
+    }
+
+    /**
+     * Change the quantity of a line of the prepared order back and forth
+     */
+    @Benchmark
+    public BigDecimal changeQuantity() {
+        Long productId = products[lines / 2].getId();
+        order.changeQuantity(productId, 5);
+        order.changeQuantity(productId, 1);
+        return order.getTotalAmount();
+    }
+
+    /**
+     * Remove a product's line from the prepared order by product id and add it back
+     */
+    @Benchmark
+    public BigDecimal removeAndAddProduct() {
+        OrderProduct orderProduct = order.removeProduct(products[lines / 2].getId());
+        order.addOrderProduct(orderProduct);
+        return order.getTotalAmount();
+    }
+
+    /**
+     * Subtotal of every line of the prepared order
+     */
+    @Benchmark
+    public void orderProductSubtotals(Blackhole blackhole) {
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            blackhole.consume(orderProduct.getSubtotal());
+        }
+    }
+}
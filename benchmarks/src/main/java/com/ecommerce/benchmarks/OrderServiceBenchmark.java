@@ -0,0 +1,140 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.application.service.BulkOrderResult;
+import com.ecommerce.application.service.OrderService;
+import com.ecommerce.benchmarks.support.Catalog;
+import com.ecommerce.infrastructure.inmemory.InMemoryOrderProductRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryOrderRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryProductRepository;
+import com.ecommerce.infrastructure.inmemory.InMemorySalesAnalyticsRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore;
+import com.ecommerce.infrastructure.inmemory.InMemoryUserOrderSummaryRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryUserRepository;
+import com.ecommerce.infrastructure.inventory.StripedInventory;
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.Product;
+import com.ecommerce.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderServiceBenchmark - OrderService use cases against in-memory repositories, so the
+ * numbers are the application layer's own cost without any database round trip
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    private static final int USERS = 1_000;
+    private static final int PRODUCTS = 10_000;
+    private static final int BULK_SIZE = 100;
+
+    @Param({"1", "10", "50"})
+    private int lines;
+
+    private InMemoryOrderRepository orderRepository;
+    private OrderService orderService;
+    private Long[][] cartProductIds;
+    private Long[] cartUserIds;
+    private Long existingOrderId;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        InMemoryStore store = new InMemoryStore(0, PRODUCTS);
+        InMemoryUserRepository userRepository = new InMemoryUserRepository(store);
+        InMemoryProductRepository productRepository = new InMemoryProductRepository(store);
+        for (int i = 0; i < USERS; i++) {
+            userRepository.saveUser(Catalog.user(i));
+        }
+        for (int i = 0; i < PRODUCTS; i++) {
+            productRepository.saveProduct(Catalog.product(random));
+        }
+        orderRepository = new InMemoryOrderRepository(store);
+        orderService = new OrderService(orderRepository, new InMemoryOrderProductRepository(store),
+                userRepository, productRepository, new InMemorySalesAnalyticsRepository(store),
+                new InMemoryUserOrderSummaryRepository(store),
+                new StripedInventory(productRepository, Runtime.getRuntime().availableProcessors()));
+
+        // A fixed rotation of carts, so every invocation does the same amount of work
+        cartUserIds = new Long[BULK_SIZE];
+        cartProductIds = new Long[BULK_SIZE][lines];
+        for (int i = 0; i < BULK_SIZE; i++) {
+            cartUserIds[i] = 1L + random.nextInt(USERS);
+            for (int j = 0; j < lines; j++) {
+                cartProductIds[i][j] = 1L + random.nextInt(PRODUCTS);
+            }
+        }
+        existingOrderId = orderService.placeOrder(cart(0)).getId();
+    }
+
+    /**
+     * Drop the orders placed by the iteration, so write benchmarks running for millions of invocations
+     * do not grow the heap (and the measurement) from one iteration to the next
+     */
+    @TearDown(Level.Iteration)
+    public void deletePlacedOrders() {
+        orderRepository.forEachOrder(order -> {
+            if (!order.getId().equals(existingOrderId)) {
+                orderRepository.deleteById(order.getId());
+            }
+        });
+    }
+
+    /**
+     * POST /api/orders: resolve the user and products, validate and save one order
+     */
+    @Benchmark
+    public Order placeOrder() {
+        return orderService.placeOrder(cart(0));
+    }
+
+    /**
+     * POST /api/orders/bulk with BULK_SIZE orders
+     */
+    @Benchmark
+    public List<BulkOrderResult> createOrders() {
+        List<Order> orders = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            orders.add(cart(i));
+        }
+        return orderService.createOrders(orders);
+    }
+
+    @Benchmark
+    public Optional<Order> getOrderById() {
+        return orderService.getOrderById(existingOrderId);
+    }
+
+    @Benchmark
+    public List<Order> getOrdersByUser() {
+        User user = new User();
+        user.setId(cartUserIds[0]);
+        return orderService.getOrdersByUser(user);
+    }
+
+    private Order cart(int index) {
+        return Catalog.orderByIds(cartUserIds[index], cartProductIds[index]);
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.application.service.ProductService;
+import com.ecommerce.benchmarks.support.Catalog;
+import com.ecommerce.domain.Product;
+import com.ecommerce.infrastructure.inmemory.InMemoryProductRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore;
+import com.ecommerce.infrastructure.inventory.StripedInventory;
+import com.ecommerce.infrastructure.search.InMemoryProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductServiceBenchmark - ProductService use cases against an in-memory repository and the
+ * in-memory search index, for catalogs of increasing size
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    private int products;
+
+    private ProductService productService;
+    private Product existingProduct;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        InMemoryProductRepository productRepository = new InMemoryProductRepository(new InMemoryStore(0, products));
+        for (int i = 0; i < products; i++) {
+            productRepository.saveProduct(Catalog.product(random));
+        }
+        InMemoryProductSearchIndex searchIndex = new InMemoryProductSearchIndex(productRepository);
+        searchIndex.load();
+        productService = new ProductService(productRepository, searchIndex,
+                new StripedInventory(productRepository, Runtime.getRuntime().availableProcessors()));
+        existingProduct = productRepository.findProductById(1L).orElseThrow();
+    }
+
+    /**
+     * GET /api/products/search through the search index
+     */
+    @Benchmark
+    public List<Product> searchProductsByName(SearchQuery searchQuery) {
+        return productService.searchProductsByName(searchQuery.query, null);
+    }
+
+    @Benchmark
+    public Optional<Product> getProductById() {
+        return productService.getProductById(existingProduct.getId());
+    }
+
+    /**
+     * PUT /api/products/{id}: validate, save and re-index an existing product
+     */
+    @Benchmark
+    public Product updateProduct() {
+        return productService.updateProduct(existingProduct);
+    }
+
+    /**
+     * Search text, kept apart so only the search benchmark runs once per query
+     */
+    @State(Scope.Benchmark)
+    public static class SearchQuery {
+
+        @Param({"smartphone", "capa azul", "modelo 42"})
+        private String query;
+    }
+}
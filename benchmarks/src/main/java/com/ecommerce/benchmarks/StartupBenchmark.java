@@ -0,0 +1,171 @@
+package com.ecommerce.benchmarks;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * StartupBenchmark - compares how fast the API starts on the JVM, on the JVM with Spring AOT and an
+ * AppCDS archive, and as a GraalVM native image
+ * Each run starts the API on a free port and measures the time until /health/ping answers, the startup
+ * time Spring reports, the latency of the first GET /api/products and the resident memory after it.
+ * Needs the artifacts of ./run.sh cds (presentation/target/cds) and ./run.sh native
+ * (presentation/target/ecommerce); modes without their artifact are skipped. Arguments after -- are
+ * passed to the API, e.g. -- --spring.profiles.active=inmemory (profiles must match the AOT build).
+ * Usage: java -cp benchmarks/target/benchmarks.jar com.ecommerce.benchmarks.StartupBenchmark
+ *        [runs] [modes, default jvm,cds,native] [-- application arguments]
+ */
+public class StartupBenchmark {
+
+    private static final Path CDS_DIRECTORY = Path.of("presentation/target/cds");
+    private static final Path JAR = CDS_DIRECTORY.resolve("presentation-1.0-SNAPSHOT.jar");
+    private static final Path ARCHIVE = CDS_DIRECTORY.resolve("application.jsa");
+    private static final Path NATIVE_IMAGE = Path.of("presentation/target/ecommerce");
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+
+    private static final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200)).build();
+
+    public static void main(String[] args) throws Exception {
+        int separator = Arrays.asList(args).indexOf("--");
+        String[] options = separator >= 0 ? Arrays.copyOfRange(args, 0, separator) : args;
+        List<String> applicationArgs = separator >= 0
+                ? List.of(Arrays.copyOfRange(args, separator + 1, args.length)) : List.of();
+        int runs = options.length > 0 ? Integer.parseInt(options[0]) : 3;
+        String[] modes = (options.length > 1 ? options[1] : "jvm,cds,native").split(",");
+
+        System.out.printf("%-8s %6s %14s %14s %16s %10s%n",
+                "mode", "runs", "ready (ms)", "spring (ms)", "1st request (ms)", "RSS (MiB)");
+        for (String mode : modes) {
+            List<String> command = command(mode);
+            if (command == null) {
+                System.out.printf("%-8s skipped: build it first (./run.sh %s)%n", mode, mode);
+                continue;
+            }
+            List<Run> results = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                results.add(run(command, applicationArgs));
+            }
+            System.out.printf("%-8s %6d %14s %14s %16s %10s%n", mode, runs,
+                    median(results, Run::readyMillis), median(results, Run::springMillis),
+                    median(results, Run::firstRequestMillis), median(results, Run::rssMiB));
+        }
+    }
+
+    /**
+     * @return the command line of a mode, or null if its artifact has not been built
+     */
+    private static List<String> command(String mode) {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return switch (mode) {
+            case "jvm" -> Files.exists(JAR) ? List.of(java, "-jar", JAR.toString()) : null;
+            case "cds" -> Files.exists(JAR) && Files.exists(ARCHIVE)
+                    ? List.of(java, "-XX:SharedArchiveFile=" + ARCHIVE, "-Dspring.aot.enabled=true", "-jar", JAR.toString())
+                    : null;
+            case "native" -> Files.isExecutable(NATIVE_IMAGE) ? List.of(NATIVE_IMAGE.toString()) : null;
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        };
+    }
+
+    private static Run run(List<String> command, List<String> applicationArgs) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> commandLine = new ArrayList<>(command);
+        commandLine.add("--server.port=" + port);
+        commandLine.addAll(applicationArgs);
+        Path output = Files.createTempFile("startup-benchmark", ".log");
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(commandLine).redirectErrorStream(true)
+                .redirectOutput(output.toFile()).start();
+        try {
+            URI base = URI.create("http://localhost:" + port);
+            long ready = waitUntilReady(process, base.resolve("/health/ping"), start);
+
+            long requestStart = System.nanoTime();
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(base.resolve("/api/products")).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            long firstRequest = System.nanoTime() - requestStart;
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("GET /api/products answered " + response.statusCode());
+            }
+
+            return new Run(TimeUnit.NANOSECONDS.toMillis(ready), springStartupMillis(output),
+                    TimeUnit.NANOSECONDS.toMillis(firstRequest), residentMemoryMiB(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+            Files.deleteIfExists(output);
+        }
+    }
+
+    private static long waitUntilReady(Process process, URI ping, long start) throws Exception {
+        long deadline = start + STARTUP_TIMEOUT.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(ping).timeout(Duration.ofSeconds(1)).build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("API exited with status " + process.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return System.nanoTime() - start;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("API did not start within " + STARTUP_TIMEOUT);
+    }
+
+    /**
+     * @return the startup time in the "Started ... in X seconds" log line, or -1 if there is none
+     */
+    private static long springStartupMillis(Path output) throws IOException {
+        Matcher matcher = STARTED.matcher(Files.readString(output));
+        return matcher.find() ? Math.round(Double.parseDouble(matcher.group(1)) * 1000) : -1;
+    }
+
+    /**
+     * @return VmRSS of the process in MiB, or -1 where /proc is not available
+     */
+    private static long residentMemoryMiB(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) / 1024;
+                }
+            }
+        } catch (IOException e) {
+            // Not Linux
+        }
+        return -1;
+    }
+
+    private static String median(List<Run> results, ToLongFunction<Run> metric) {
+        long[] values = results.stream().mapToLong(metric).sorted().toArray();
+        long median = values[values.length / 2];
+        return median < 0 ? "-" : String.valueOf(median);
+    }
+
+    private record Run(long readyMillis, long springMillis, long firstRequestMillis, long rssMiB) {
+    }
+}
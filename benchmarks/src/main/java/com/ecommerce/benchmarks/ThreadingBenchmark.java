@@ -0,0 +1,142 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.application.service.OrderService;
+import com.ecommerce.benchmarks.support.Catalog;
+import com.ecommerce.infrastructure.inmemory.InMemoryOrderProductRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryOrderRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryProductRepository;
+import com.ecommerce.infrastructure.inmemory.InMemorySalesAnalyticsRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore;
+import com.ecommerce.infrastructure.inmemory.InMemoryUserOrderSummaryRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryUserRepository;
+import com.ecommerce.infrastructure.inventory.StripedInventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ThreadingBenchmark - platform vs virtual threads under a high-concurrency order workload
+ * Each request places an order through OrderService while holding one of `connections` simulated
+ * JDBC connections for `dbMillis`, then blocks `ioMillis` outside the database (a slow client or a
+ * downstream call). Platform mode runs the requests on 200 threads, Tomcat's default maximum;
+ * virtual mode starts one virtual thread per request, with database access queued on a fair
+ * semaphore as ConnectionLimitingDataSource does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadingBenchmark {
+
+    private static final int REQUESTS = 2_000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int USERS = 1_000;
+    private static final int PRODUCTS = 10_000;
+    private static final int LINES = 5;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"10"})
+    private int connections;
+
+    @Param({"2"})
+    private int dbMillis;
+
+    @Param({"0", "100"})
+    private int ioMillis;
+
+    private OrderService orderService;
+    private Semaphore connectionPermits;
+    private ExecutorService executor;
+    private Long[] cartUserIds;
+    private Long[][] cartProductIds;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        InMemoryStore store = new InMemoryStore(0, PRODUCTS);
+        InMemoryUserRepository userRepository = new InMemoryUserRepository(store);
+        InMemoryProductRepository productRepository = new InMemoryProductRepository(store);
+        for (int i = 0; i < USERS; i++) {
+            userRepository.saveUser(Catalog.user(i));
+        }
+        for (int i = 0; i < PRODUCTS; i++) {
+            productRepository.saveProduct(Catalog.product(random));
+        }
+        orderService = new OrderService(new InMemoryOrderRepository(store), new InMemoryOrderProductRepository(store),
+                userRepository, productRepository, new InMemorySalesAnalyticsRepository(store),
+                new InMemoryUserOrderSummaryRepository(store),
+                new StripedInventory(productRepository, Runtime.getRuntime().availableProcessors()));
+
+        cartUserIds = new Long[REQUESTS];
+        cartProductIds = new Long[REQUESTS][LINES];
+        for (int i = 0; i < REQUESTS; i++) {
+            cartUserIds[i] = 1L + random.nextInt(USERS);
+            for (int j = 0; j < LINES; j++) {
+                cartProductIds[i][j] = 1L + random.nextInt(PRODUCTS);
+            }
+        }
+
+        connectionPermits = new Semaphore(connections, true);
+        executor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * REQUESTS concurrent order placements; the score is requests per second
+     */
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void placeOrders() throws Exception {
+        List<Future<?>> requests = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            int request = i;
+            requests.add(executor.submit(() -> {
+                handle(request);
+                return null;
+            }));
+        }
+        for (Future<?> request : requests) {
+            request.get();
+        }
+    }
+
+    private void handle(int request) throws InterruptedException {
+        connectionPermits.acquire();
+        try {
+            Thread.sleep(dbMillis);
+            orderService.placeOrder(Catalog.orderByIds(cartUserIds[request], cartProductIds[request]));
+        } finally {
+            connectionPermits.release();
+        }
+        Thread.sleep(ioMillis);
+    }
+}
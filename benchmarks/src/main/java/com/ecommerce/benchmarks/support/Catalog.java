@@ -0,0 +1,78 @@
+package com.ecommerce.benchmarks.support;
+
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.OrderProduct;
+import com.ecommerce.domain.Product;
+import com.ecommerce.domain.User;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+/**
+ * Catalog - deterministic test data shared by the benchmarks
+ */
+public final class Catalog {
+
+    private static final String[] WORDS = (
+            "smartphone capa celular notebook mouse teclado monitor cadeira gamer fone bluetooth carregador "
+                    + "cabo usb tela vidro camera bateria preto branco azul vermelho grande pequeno premium pro max mini")
+            .split(" ");
+
+    private Catalog() {
+    }
+
+    /**
+     * Product with a three-word name, a twelve-word description and a price in cents
+     * @param random source of the words and price, seeded by the caller
+     * @return a product without id
+     */
+    public static Product product(Random random) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            name.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        name.append("modelo ").append(random.nextInt(10_000));
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 12; i++) {
+            description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        BigDecimal price = BigDecimal.valueOf(100 + random.nextInt(100_000), 2);
+        return new Product(name.toString(), description.toString().trim(), price, 1_000_000);
+    }
+
+    public static User user(int index) {
+        return new User("user" + index + "@example.com", "User " + index, "secret", "Rua " + index);
+    }
+
+    /**
+     * Order with its lines added through the domain helper, as the services do
+     * @param user the customer
+     * @param products the product of each line
+     * @return an order without ids
+     */
+    public static Order order(User user, Product... products) {
+        Order order = new Order(user);
+        for (int i = 0; i < products.length; i++) {
+            order.addOrderProduct(new OrderProduct(order, products[i], 1 + i % 3, products[i].getPrice()));
+        }
+        return order;
+    }
+
+    /**
+     * Order referencing its user and products by id only, as the controllers build it
+     * @param userId the customer id
+     * @param productIds the product id of each line
+     * @return an unvalidated order
+     */
+    public static Order orderByIds(Long userId, Long... productIds) {
+        User user = new User();
+        user.setId(userId);
+        Order order = new Order(user);
+        for (int i = 0; i < productIds.length; i++) {
+            Product product = new Product();
+            product.setId(productIds[i]);
+            order.getOrderProducts().add(new OrderProduct(order, product, 1 + i % 3, null));
+        }
+        return order;
+    }
+}
@@ -5,18 +5,26 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Order entity - represents an order in the e-commerce system
  * This is a pure POJO with no external dependencies
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_order_date_id", columnList = "orderDate, id"),
+        @Index(name = "idx_orders_user_order_date", columnList = "user_id, orderDate")
+})
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,15 +37,67 @@ public class Order {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal totalAmount;
     
+    // Set on insert, then only changed by the status transitions of OrderRepository (compareAndSetStatus,
+    // updateStatuses), so saving an order loaded before a transition cannot undo it; there is no setter
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private OrderStatus status;
     
+    // Incremented by every write of the order, status transitions included: saving an order read
+    // before another write fails instead of overwriting it
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderProduct> orderProducts = new ArrayList<>();
+    
+    // Lines by product id, built on first use and rebuilt when the line list was changed directly
+    @Transient
+    private Map<Long, OrderProduct> orderProductsByProductId;
+    
+    @Transient
+    private List<OrderProduct> indexedOrderProducts;
+    
+    @Transient
+    private int indexedLineCount;
 
+    /**
+     * Order status and the transitions between statuses
+     * Orders move forward one step at a time (pending, confirmed, shipped, delivered) and can be cancelled
+     * until they are shipped; delivered and cancelled orders are final.
+     */
     public enum OrderStatus {
-        PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED
+        PENDING, CONFIRMED, SHIPPED, DELIVERED, CANCELLED;
+
+        /**
+         * Check if an order in this status may be moved to another status
+         * @param status the new status
+         * @return true if the transition is allowed
+         */
+        public boolean canTransitionTo(OrderStatus status) {
+            return switch (this) {
+                case PENDING -> status == CONFIRMED || status == CANCELLED;
+                case CONFIRMED -> status == SHIPPED || status == CANCELLED;
+                case SHIPPED -> status == DELIVERED;
+                case DELIVERED, CANCELLED -> false;
+            };
+        }
+
+        /**
+         * Get the statuses an order may be moved to a status from
+         * @param status the new status
+         * @return the statuses allowed to transition to it, empty if none
+         */
+        public static Set<OrderStatus> sourcesOf(OrderStatus status) {
+            Set<OrderStatus> sources = EnumSet.noneOf(OrderStatus.class);
+            for (OrderStatus source : values()) {
+                if (source.canTransitionTo(status)) {
+                    sources.add(source);
+                }
+            }
+            return sources;
+        }
     }
 
     // Default constructor
@@ -100,8 +160,12 @@ public class Order {
         return status;
     }
 
-    public void setStatus(OrderStatus status) {
-        this.status = status;
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
     }
 
     public List<OrderProduct> getOrderProducts() {
@@ -109,26 +173,145 @@ public class Order {
     }
 
     public void setOrderProducts(List<OrderProduct> orderProducts) {
-        this.orderProducts = orderProducts;
+        this.orderProducts = orderProducts != null ? orderProducts : new ArrayList<>();
+        this.orderProductsByProductId = null;
+        recalculateTotal();
     }
 
     // Helper methods
-    public void addOrderProduct(OrderProduct orderProduct) {
+    /**
+     * Add a line to the order; a line for a product already in the order is merged into the
+     * existing line, which keeps its price and gets the added quantity.
+     * The total is updated by the line's subtotal instead of being recalculated.
+     * @param orderProduct the line to add
+     * @return the line of the order now holding the product
+     */
+    public OrderProduct addOrderProduct(OrderProduct orderProduct) {
+        Long productId = productIdOf(orderProduct);
+        Map<Long, OrderProduct> index = lineIndex();
+        OrderProduct existing = productId != null ? index.get(productId) : null;
+        if (existing == orderProduct) {
+            return existing;
+        }
+        if (existing != null) {
+            int addedQuantity = Objects.requireNonNullElse(orderProduct.getQuantity(), 0);
+            existing.setQuantity(Objects.requireNonNullElse(existing.getQuantity(), 0) + addedQuantity);
+            addToTotal(subtotalOf(existing.getPrice(), addedQuantity));
+            return existing;
+        }
+        
         orderProducts.add(orderProduct);
         orderProduct.setOrder(this);
-        recalculateTotal();
+        if (productId != null) {
+            index.put(productId, orderProduct);
+        }
+        indexedLineCount = orderProducts.size();
+        addToTotal(subtotalOf(orderProduct.getPrice(), orderProduct.getQuantity()));
+        return orderProduct;
     }
 
+    /**
+     * Remove a line from the order and subtract its subtotal from the total
+     * @param orderProduct the line to remove (matched by identity)
+     */
     public void removeOrderProduct(OrderProduct orderProduct) {
-        orderProducts.remove(orderProduct);
-        orderProduct.setOrder(null);
-        recalculateTotal();
+        // Lines are matched by identity: unsaved lines all have a null id and would be equal
+        for (int i = orderProducts.size() - 1; i >= 0; i--) {
+            if (orderProducts.get(i) == orderProduct) {
+                Map<Long, OrderProduct> index = lineIndex();
+                orderProducts.remove(i);
+                Long productId = productIdOf(orderProduct);
+                if (productId != null && index.get(productId) == orderProduct) {
+                    index.remove(productId);
+                }
+                indexedLineCount = orderProducts.size();
+                orderProduct.setOrder(null);
+                addToTotal(subtotalOf(orderProduct.getPrice(), orderProduct.getQuantity()).negate());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Remove the line of a product
+     * @param productId the product id
+     * @return the removed line, or null if the product is not in the order
+     */
+    public OrderProduct removeProduct(Long productId) {
+        OrderProduct orderProduct = findOrderProduct(productId);
+        if (orderProduct != null) {
+            removeOrderProduct(orderProduct);
+        }
+        return orderProduct;
+    }
+
+    /**
+     * Change the quantity of a product's line, adjusting the total by the difference
+     * @param productId the product id
+     * @param quantity the new quantity
+     * @return the updated line
+     */
+    public OrderProduct changeQuantity(Long productId, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Order product quantity must be greater than zero");
+        }
+        OrderProduct orderProduct = findOrderProduct(productId);
+        if (orderProduct == null) {
+            throw new IllegalArgumentException("Product with id " + productId + " is not in the order");
+        }
+        int previousQuantity = Objects.requireNonNullElse(orderProduct.getQuantity(), 0);
+        orderProduct.setQuantity(quantity);
+        addToTotal(subtotalOf(orderProduct.getPrice(), quantity - previousQuantity));
+        return orderProduct;
+    }
+
+    /**
+     * Line of a product, looked up by product id
+     * @param productId the product id
+     * @return the line, or null if the product is not in the order
+     */
+    public OrderProduct findOrderProduct(Long productId) {
+        return productId != null ? lineIndex().get(productId) : null;
+    }
+
+    private Map<Long, OrderProduct> lineIndex() {
+        if (orderProductsByProductId == null || indexedOrderProducts != orderProducts
+                || indexedLineCount != orderProducts.size()) {
+            Map<Long, OrderProduct> index = new HashMap<>();
+            for (OrderProduct orderProduct : orderProducts) {
+                Long productId = productIdOf(orderProduct);
+                if (productId != null) {
+                    index.putIfAbsent(productId, orderProduct);
+                }
+            }
+            orderProductsByProductId = index;
+            indexedOrderProducts = orderProducts;
+            indexedLineCount = orderProducts.size();
+        }
+        return orderProductsByProductId;
+    }
+
+    private void addToTotal(BigDecimal amount) {
+        this.totalAmount = (totalAmount != null ? totalAmount : BigDecimal.ZERO).add(amount);
     }
 
     private void recalculateTotal() {
-        this.totalAmount = orderProducts.stream()
-                .map(op -> op.getPrice().multiply(BigDecimal.valueOf(op.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderProduct orderProduct : orderProducts) {
+            total = total.add(subtotalOf(orderProduct.getPrice(), orderProduct.getQuantity()));
+        }
+        this.totalAmount = total;
+    }
+
+    private static Long productIdOf(OrderProduct orderProduct) {
+        return orderProduct.getProduct() != null ? orderProduct.getProduct().getId() : null;
+    }
+
+    private static BigDecimal subtotalOf(BigDecimal price, Integer quantity) {
+        if (price == null || quantity == null) {
+            return BigDecimal.ZERO;
+        }
+        return price.multiply(BigDecimal.valueOf(quantity));
     }
 
     // equals, hashCode and toString
@@ -0,0 +1,87 @@
+package com.ecommerce.domain.analytics;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * DailyProductSales - sales read model, one row per day and product
+ * Units sold and revenue of a product in the orders placed that day, cancelled orders excluded.
+ * The product is referenced by id only, so the read model never loads products.
+ */
+@Entity
+@Table(name = "daily_product_sales", indexes = {
+        @Index(name = "idx_daily_product_sales_product", columnList = "product_id, sales_day")
+})
+@IdClass(DailyProductSales.Key.class)
+public class DailyProductSales {
+    @Id
+    @Column(name = "sales_day")
+    private LocalDate day;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private long units;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal revenue;
+
+    // Default constructor
+    public DailyProductSales() {}
+
+    public DailyProductSales(LocalDate day, Long productId, long units, BigDecimal revenue) {
+        this.day = day;
+        this.productId = productId;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    /**
+     * Composite primary key (day, product id)
+     */
+    public static class Key implements Serializable {
+        private LocalDate day;
+        private Long productId;
+
+        public Key() {}
+
+        public Key(LocalDate day, Long productId) {
+            this.day = day;
+            this.productId = productId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(day, key.day) && Objects.equals(productId, key.productId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(day, productId);
+        }
+    }
+}
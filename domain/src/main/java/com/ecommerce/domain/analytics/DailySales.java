@@ -0,0 +1,73 @@
+package com.ecommerce.domain.analytics;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DailySales - sales read model, one row per day
+ * Revenue, number of orders and units sold of the orders placed that day, cancelled orders excluded.
+ * Rows are maintained incrementally as orders change and can be rebuilt from the orders table.
+ */
+@Entity
+@Table(name = "daily_sales")
+public class DailySales {
+    @Id
+    @Column(name = "sales_day")
+    private LocalDate day;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(nullable = false)
+    private long units;
+
+    // Default constructor
+    public DailySales() {}
+
+    public DailySales(LocalDate day, BigDecimal revenue, long orderCount, long units) {
+        this.day = day;
+        this.revenue = revenue;
+        this.orderCount = orderCount;
+        this.units = units;
+    }
+
+    /**
+     * A day without sales
+     * @param day the day
+     * @return a row with zero revenue, orders and units
+     */
+    public static DailySales empty(LocalDate day) {
+        return new DailySales(day, BigDecimal.ZERO, 0, 0);
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    @Override
+    public String toString() {
+        return "DailySales{" +
+                "day=" + day +
+                ", revenue=" + revenue +
+                ", orderCount=" + orderCount +
+                ", units=" + units +
+                '}';
+    }
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.domain.analytics;
+
+import java.math.BigDecimal;
+
+/**
+ * ProductSales - units sold and revenue of a product over a range of days
+ * Aggregated from DailyProductSales; the name is null when the product no longer exists.
+ */
+public class ProductSales {
+
+    private final Long productId;
+    private final String productName;
+    private final long units;
+    private final BigDecimal revenue;
+
+    public ProductSales(Long productId, String productName, long units, BigDecimal revenue) {
+        this.productId = productId;
+        this.productName = productName;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+}
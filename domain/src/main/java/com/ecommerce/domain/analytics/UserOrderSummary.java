@@ -0,0 +1,100 @@
+package com.ecommerce.domain.analytics;
+
+import com.ecommerce.domain.Order;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+/**
+ * UserOrderSummary - order read model, one row per user with orders
+ * Number of orders, lifetime value (cancelled orders excluded) and number of orders per status.
+ * Rows are maintained incrementally as orders change and can be rebuilt from the orders table.
+ */
+@Entity
+@Table(name = "user_order_summaries")
+public class UserOrderSummary {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "lifetime_value", nullable = false, precision = 15, scale = 2)
+    private BigDecimal lifetimeValue;
+
+    @Column(name = "pending_count", nullable = false)
+    private long pendingCount;
+
+    @Column(name = "confirmed_count", nullable = false)
+    private long confirmedCount;
+
+    @Column(name = "shipped_count", nullable = false)
+    private long shippedCount;
+
+    @Column(name = "delivered_count", nullable = false)
+    private long deliveredCount;
+
+    @Column(name = "cancelled_count", nullable = false)
+    private long cancelledCount;
+
+    // Default constructor
+    public UserOrderSummary() {}
+
+    public UserOrderSummary(Long userId, long orderCount, BigDecimal lifetimeValue, long pendingCount,
+                            long confirmedCount, long shippedCount, long deliveredCount, long cancelledCount) {
+        this.userId = userId;
+        this.orderCount = orderCount;
+        this.lifetimeValue = lifetimeValue;
+        this.pendingCount = pendingCount;
+        this.confirmedCount = confirmedCount;
+        this.shippedCount = shippedCount;
+        this.deliveredCount = deliveredCount;
+        this.cancelledCount = cancelledCount;
+    }
+
+    /**
+     * Summary of a user without orders
+     * @param userId the user id
+     * @return a summary with zero orders
+     */
+    public static UserOrderSummary empty(Long userId) {
+        return new UserOrderSummary(userId, 0, BigDecimal.ZERO, 0, 0, 0, 0, 0);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public BigDecimal getLifetimeValue() {
+        return lifetimeValue;
+    }
+
+    /**
+     * Number of orders of the user currently in a status
+     * @param status the status
+     * @return the number of orders
+     */
+    public long getOrderCount(Order.OrderStatus status) {
+        return switch (status) {
+            case PENDING -> pendingCount;
+            case CONFIRMED -> confirmedCount;
+            case SHIPPED -> shippedCount;
+            case DELIVERED -> deliveredCount;
+            case CANCELLED -> cancelledCount;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "UserOrderSummary{" +
+                "userId=" + userId +
+                ", orderCount=" + orderCount +
+                ", lifetimeValue=" + lifetimeValue +
+                '}';
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecommerce.domain.idempotency;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * IdempotencyKey - a client-supplied key of a request that must not be executed twice
+ * The key is reserved before the request runs and completed with its response afterwards,
+ * so a retry of the same request gets the recorded response instead of running it again.
+ * The request hash detects a key reused for a different request.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+public class IdempotencyKey {
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Lob
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Default constructor
+    public IdempotencyKey() {}
+
+    public IdempotencyKey(String key, String requestHash, Integer responseStatus, String responseBody,
+                          LocalDateTime expiresAt) {
+        this.key = key;
+        this.requestHash = requestHash;
+        this.responseStatus = responseStatus;
+        this.responseBody = responseBody;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Key of a request that is still running
+     * @param key the idempotency key
+     * @param requestHash the hash of the request
+     * @param expiresAt the moment the key may be reused
+     * @return a key without response
+     */
+    public static IdempotencyKey reserved(String key, String requestHash, LocalDateTime expiresAt) {
+        return new IdempotencyKey(key, requestHash, null, null, expiresAt);
+    }
+
+    /**
+     * Copy of this key with the response of its request
+     * @param responseStatus the HTTP status of the response
+     * @param responseBody the body of the response
+     * @return the completed key
+     */
+    public IdempotencyKey completed(int responseStatus, String responseBody) {
+        return new IdempotencyKey(key, requestHash, responseStatus, responseBody, expiresAt);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public Integer getResponseStatus() {
+        return responseStatus;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * @return true once the response of the request has been recorded
+     */
+    public boolean isCompleted() {
+        return responseStatus != null;
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return expiresAt.isBefore(now);
+    }
+}
@@ -0,0 +1,155 @@
+package com.ecommerce.infrastructure.inmemory;
+
+import com.ecommerce.application.repository.OrderProductRepository;
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.OrderProduct;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore.StoredLine;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore.StoredOrder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * InMemoryOrderProductRepository - OrderProductRepository on the in-memory store
+ * Lines are stored inside their order, so every write here rewrites the order row (as one atomic
+ * write of the order). Lookups by id use the line table, lookups by product the product → lines index.
+ * Lines read by product reference their order without its lines.
+ */
+public class InMemoryOrderProductRepository implements OrderProductRepository {
+
+    private final InMemoryStore store;
+
+    public InMemoryOrderProductRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Insert a line without id into its order, or replace a line of the order; the order's total is
+     * left as stored
+     * @throws DataIntegrityViolationException if a column is null or the order or product does not exist
+     * @throws OptimisticLockingFailureException if the line has an id that is not a line of the order
+     */
+    @Override
+    public OrderProduct save(OrderProduct orderProduct) {
+        Order order = orderProduct.getOrder();
+        if (order == null || order.getId() == null) {
+            throw new DataIntegrityViolationException("Order product order cannot be null");
+        }
+        long orderId = order.getId();
+        long lineId = orderProduct.getId() != null ? orderProduct.getId() : store.lineSequence.incrementAndGet();
+        StoredLine line = InMemoryOrderRepository.toLine(orderProduct, lineId, orderId);
+
+        store.writeOrder(orderId, current -> {
+            if (current == null) {
+                throw new DataIntegrityViolationException("Order with id " + orderId + " does not exist");
+            }
+            List<StoredLine> lines = new ArrayList<>(current.lines());
+            int index = 0;
+            while (index < lines.size() && lines.get(index).id() != lineId) {
+                index++;
+            }
+            if (index < lines.size()) {
+                lines.set(index, line);
+            } else if (orderProduct.getId() == null) {
+                lines.add(line);
+            } else {
+                throw new OptimisticLockingFailureException(
+                        "Order product with id " + lineId + " is not a line of order " + orderId);
+            }
+            return current.withLines(lines);
+        });
+        orderProduct.setId(lineId);
+        return orderProduct;
+    }
+
+    @Override
+    public List<OrderProduct> findByOrderId(Long orderId) {
+        StoredOrder row = store.orders.get(orderId);
+        return row != null ? store.toOrder(row).getOrderProducts() : List.of();
+    }
+
+    @Override
+    public List<OrderProduct> findByProductId(Long productId) {
+        LongKeyedMap<StoredLine> productLines = store.linesByProduct.get(productId);
+        if (productLines == null) {
+            return List.of();
+        }
+        List<StoredLine> lines = new ArrayList<>(productLines.values());
+        lines.sort(Comparator.comparingLong(StoredLine::id));
+        Map<Long, Order> orders = new HashMap<>();
+        List<OrderProduct> orderProducts = new ArrayList<>(lines.size());
+        for (StoredLine line : lines) {
+            Order order = orders.computeIfAbsent(line.orderId(), this::orderHeader);
+            if (order != null) {
+                orderProducts.add(store.toOrderProduct(line, order));
+            }
+        }
+        return orderProducts;
+    }
+
+    @Override
+    public void deleteByOrderId(Long orderId) {
+        store.writeOrder(orderId, current -> current != null ? current.withLines(List.of()) : null);
+    }
+
+    @Override
+    public void deleteByProductId(Long productId) {
+        LongKeyedMap<StoredLine> productLines = store.linesByProduct.get(productId);
+        if (productLines == null) {
+            return;
+        }
+        for (long orderId : productLines.values().stream().mapToLong(StoredLine::orderId).distinct().toArray()) {
+            store.writeOrder(orderId, current -> current != null ? current.withLines(current.lines().stream()
+                    .filter(line -> line.productId() != productId)
+                    .toList()) : null);
+        }
+    }
+
+    @Override
+    public Optional<OrderProduct> findById(Long id) {
+        StoredLine line = store.lines.get(id);
+        Order order = line != null ? orderHeader(line.orderId()) : null;
+        return order != null ? Optional.of(store.toOrderProduct(line, order)) : Optional.empty();
+    }
+
+    @Override
+    public List<OrderProduct> findAll() {
+        List<OrderProduct> orderProducts = new ArrayList<>();
+        Map<Long, Order> orders = new HashMap<>();
+        long last = store.lineSequence.get();
+        for (long id = 1; id <= last; id++) {
+            StoredLine line = store.lines.get(id);
+            Order order = line != null ? orders.computeIfAbsent(line.orderId(), this::orderHeader) : null;
+            if (order != null) {
+                orderProducts.add(store.toOrderProduct(line, order));
+            }
+        }
+        return orderProducts;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        StoredLine line = store.lines.get(id);
+        if (line != null) {
+            store.writeOrder(line.orderId(), current -> current != null ? current.withLines(current.lines().stream()
+                    .filter(existing -> existing.id() != id)
+                    .toList()) : null);
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return store.lines.containsKey(id);
+    }
+
+    private Order orderHeader(long orderId) {
+        StoredOrder row = store.orders.get(orderId);
+        return row != null ? store.toOrderHeader(row) : null;
+    }
+}
@@ -0,0 +1,311 @@
+package com.ecommerce.infrastructure.inmemory;
+
+import com.ecommerce.application.repository.OrderRepository;
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.OrderProduct;
+import com.ecommerce.domain.User;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore.OrderKey;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore.StoredLine;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore.StoredOrder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * InMemoryOrderRepository - OrderRepository on the in-memory store
+ * Orders by id in a LongKeyedMap, holding their lines (saved and orphan-removed with the order, as the
+ * JPA cascade does). Date ranges and keyset pages walk the order date skip list, a user's orders walk
+ * the user's own skip list, so neither scans the other orders.
+ */
+public class InMemoryOrderRepository implements OrderRepository {
+
+    private final InMemoryStore store;
+
+    public InMemoryOrderRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Insert an order without id, or replace an existing one (but not its status), with its lines: lines
+     * without id are inserted, lines no longer in the order are deleted
+     * @throws DataIntegrityViolationException if a column is null or the user or a product does not exist
+     * @throws OptimisticLockingFailureException if the order or one of its lines has an id that does not exist,
+     * or the order's version is not the stored one
+     */
+    @Override
+    public Order saveOrder(Order order) {
+        if (order.getUser() == null || order.getUser().getId() == null || order.getOrderDate() == null
+                || order.getTotalAmount() == null || order.getStatus() == null) {
+            throw new DataIntegrityViolationException("Order user, date, total amount and status cannot be null");
+        }
+        boolean isNew = order.getId() == null;
+        long id = isNew ? store.orderSequence.incrementAndGet() : order.getId();
+        List<OrderProduct> orderProducts = order.getOrderProducts();
+        long[] lineIds = new long[orderProducts.size()];
+        List<StoredLine> lines = new ArrayList<>(orderProducts.size());
+        for (int i = 0; i < orderProducts.size(); i++) {
+            OrderProduct orderProduct = orderProducts.get(i);
+            lineIds[i] = orderProduct.getId() != null ? orderProduct.getId() : store.lineSequence.incrementAndGet();
+            lines.add(toLine(orderProduct, lineIds[i], id));
+        }
+        StoredOrder row = new StoredOrder(id, order.getUser().getId(), order.getOrderDate(), order.getTotalAmount(),
+                order.getStatus(), 0, List.copyOf(lines));
+
+        StoredOrder saved = store.writeOrder(id, current -> {
+            if (current == null && !isNew) {
+                throw new OptimisticLockingFailureException("Order with id " + id + " does not exist");
+            }
+            if (current != null && !Objects.equals(order.getVersion(), current.version())) {
+                throw new OptimisticLockingFailureException("Order with id " + id + " was changed since it was read");
+            }
+            Map<Long, StoredLine> currentLines = current != null ? current.linesById() : Map.of();
+            for (OrderProduct orderProduct : orderProducts) {
+                if (orderProduct.getId() != null && !currentLines.containsKey(orderProduct.getId())) {
+                    throw new OptimisticLockingFailureException(
+                            "Order product with id " + orderProduct.getId() + " is not a line of order " + id);
+                }
+            }
+            return current != null ? current.replacedBy(row) : row;
+        });
+
+        // Ids are only handed out once the order is stored, so a failed save can be retried as is
+        order.setId(id);
+        order.setVersion(saved.version());
+        for (int i = 0; i < orderProducts.size(); i++) {
+            orderProducts.get(i).setId(lineIds[i]);
+        }
+        return order;
+    }
+
+    @Override
+    public List<Order> saveAllOrders(List<Order> orders) {
+        orders.forEach(this::saveOrder);
+        return orders;
+    }
+
+    @Override
+    public Optional<Order> findOrderById(Long id) {
+        return Optional.ofNullable(store.orders.get(id)).map(store::toOrder);
+    }
+
+    @Override
+    public Optional<Order> findOrderWithProductsById(Long id) {
+        return findOrderById(id);
+    }
+
+    @Override
+    public Optional<Order> findOrderHeaderById(Long id) {
+        return Optional.ofNullable(store.orders.get(id)).map(store::toOrderHeader);
+    }
+
+    @Override
+    public List<Order> findOrdersWithProductsByIds(Collection<Long> ids) {
+        List<Order> orders = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            StoredOrder row = store.orders.get(id);
+            if (row != null) {
+                orders.add(store.toOrder(row));
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Check and replace the row under the order's lock; a status is not indexed, so the indexes are untouched
+     */
+    @Override
+    public boolean compareAndSetStatus(Long id, Order.OrderStatus expectedStatus, Order.OrderStatus status) {
+        boolean[] updated = {false};
+        store.orders.compute(id, current -> {
+            if (current == null || current.status() != expectedStatus) {
+                return current;
+            }
+            updated[0] = true;
+            return current.withStatus(status);
+        });
+        return updated[0];
+    }
+
+    /**
+     * Compare-and-set each order in turn: atomic per order, which is what the callers rely on
+     */
+    @Override
+    public List<Order> updateStatuses(Collection<Long> ids, Set<Order.OrderStatus> expectedStatuses,
+                                      Order.OrderStatus status) {
+        List<Order> headers = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            store.orders.compute(id, current -> {
+                if (current == null || !expectedStatuses.contains(current.status())) {
+                    return current;
+                }
+                headers.add(store.toOrderHeader(current));
+                return current.withStatus(status);
+            });
+        }
+        return headers;
+    }
+
+    @Override
+    public List<Order> findAllOrders() {
+        return findOrdersAfterId(0L, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Order> findAllOrdersWithProducts() {
+        return findAllOrders();
+    }
+
+    /**
+     * Walk the ids in order, materializing one order at a time
+     */
+    @Override
+    public void forEachOrder(Consumer<Order> consumer) {
+        long last = store.orderSequence.get();
+        for (long id = 1; id <= last; id++) {
+            StoredOrder row = store.orders.get(id);
+            if (row != null) {
+                consumer.accept(store.toOrder(row));
+            }
+        }
+    }
+
+    @Override
+    public List<Order> findOrdersAfterId(Long afterId, int limit) {
+        List<Order> orders = new ArrayList<>();
+        long last = store.orderSequence.get();
+        for (long id = afterId == null ? 1 : afterId + 1; id <= last && orders.size() < limit; id++) {
+            StoredOrder row = store.orders.get(id);
+            if (row != null) {
+                orders.add(store.toOrder(row));
+            }
+        }
+        return orders;
+    }
+
+    @Override
+    public List<Order> findOrdersByOrderDateAfter(LocalDateTime afterDate, Long afterId, int limit) {
+        if (afterDate == null) {
+            return collect(store.ordersByDate, limit, null);
+        }
+        // Without an id only later dates qualify, as "id > null" never holds in SQL
+        OrderKey after = afterId != null ? new OrderKey(afterDate, afterId) : OrderKey.last(afterDate);
+        return collect(store.ordersByDate.tailSet(after, false), limit, null);
+    }
+
+    @Override
+    public List<Order> findOrdersByOrderDateBefore(LocalDateTime beforeDate, Long beforeId, int limit) {
+        if (beforeDate == null) {
+            return collect(store.ordersByDate.descendingSet(), limit, null);
+        }
+        OrderKey before = beforeId != null ? new OrderKey(beforeDate, beforeId) : OrderKey.first(beforeDate);
+        return collect(store.ordersByDate.headSet(before, false).descendingSet(), limit, null);
+    }
+
+    @Override
+    public List<Order> findByUser(User user) {
+        return collect(ordersOf(user.getId()), Integer.MAX_VALUE, user.getId());
+    }
+
+    @Override
+    public List<Order> findRecentOrdersByUser(Long userId, int limit) {
+        return collect(ordersOf(userId).descendingSet(), limit, userId);
+    }
+
+    @Override
+    public List<Order> findByUserWithProducts(User user) {
+        return findByUser(user);
+    }
+
+    /**
+     * Walk the user's index, in the order of findByUser, materializing one order at a time
+     */
+    @Override
+    public void forEachByUser(User user, Consumer<Order> consumer) {
+        for (OrderKey key : ordersOf(user.getId())) {
+            StoredOrder row = store.orderAt(key);
+            if (row != null && row.userId() == user.getId()) {
+                consumer.accept(store.toOrder(row));
+            }
+        }
+    }
+
+    @Override
+    public List<Order> findByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        List<Order> orders = new ArrayList<>();
+        forEachByOrderDateBetween(startDate, endDate, orders::add);
+        return orders;
+    }
+
+    /**
+     * Take the ids of the range from the order date index, then materialize one order at a time in id
+     * order, as the port requires: only the ids are held, not the orders
+     */
+    @Override
+    public void forEachByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate, Consumer<Order> consumer) {
+        if (startDate.isAfter(endDate)) {
+            return;
+        }
+        long[] ids = store.ordersByDate.subSet(OrderKey.first(startDate), true, OrderKey.last(endDate), true).stream()
+                .mapToLong(OrderKey::orderId)
+                .sorted()
+                .toArray();
+        for (long id : ids) {
+            StoredOrder row = store.orders.get(id);
+            // The order may have been deleted or moved out of the range since the index was read
+            if (row != null && !row.orderDate().isBefore(startDate) && !row.orderDate().isAfter(endDate)) {
+                consumer.accept(store.toOrder(row));
+            }
+        }
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        store.writeOrder(id, current -> null);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return store.orders.containsKey(id);
+    }
+
+    static StoredLine toLine(OrderProduct orderProduct, long lineId, long orderId) {
+        if (orderProduct.getProduct() == null || orderProduct.getProduct().getId() == null
+                || orderProduct.getQuantity() == null || orderProduct.getPrice() == null) {
+            throw new DataIntegrityViolationException("Order product product, quantity and price cannot be null");
+        }
+        return new StoredLine(lineId, orderId, orderProduct.getProduct().getId(), orderProduct.getQuantity(),
+                orderProduct.getPrice());
+    }
+
+    private NavigableSet<OrderKey> ordersOf(Long userId) {
+        NavigableSet<OrderKey> keys = store.ordersByUser.get(userId);
+        return keys != null ? keys : Collections.emptyNavigableSet();
+    }
+
+    // Materialize the orders of index entries still pointing at them, and of the given user if not null
+    private List<Order> collect(Iterable<OrderKey> keys, int limit, Long userId) {
+        List<Order> orders = new ArrayList<>();
+        for (OrderKey key : keys) {
+            if (orders.size() >= limit) {
+                break;
+            }
+            StoredOrder row = store.orderAt(key);
+            if (row != null && (userId == null || row.userId() == userId)) {
+                orders.add(store.toOrder(row));
+            }
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.infrastructure.inmemory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Registers the in-memory repositories in place of the JPA adapter when the inmemory profile is active
+ * (the profile also turns off the DataSource and JPA, see application-inmemory.properties)
+ */
+@Configuration
+@Profile("inmemory")
+public class InMemoryPersistenceConfig {
+
+    @Bean
+    public InMemoryStore inMemoryStore(
+            @Value("${ecommerce.persistence.inmemory.concurrency:0}") int concurrency,
+            @Value("${ecommerce.persistence.inmemory.initial-capacity:1024}") int initialCapacity) {
+        return new InMemoryStore(concurrency, initialCapacity);
+    }
+
+    @Bean
+    public InMemoryUserRepository inMemoryUserRepository(InMemoryStore store) {
+        return new InMemoryUserRepository(store);
+    }
+
+    @Bean
+    public InMemoryProductRepository inMemoryProductRepository(InMemoryStore store) {
+        return new InMemoryProductRepository(store);
+    }
+
+    @Bean
+    public InMemoryOrderRepository inMemoryOrderRepository(InMemoryStore store) {
+        return new InMemoryOrderRepository(store);
+    }
+
+    @Bean
+    public InMemoryOrderProductRepository inMemoryOrderProductRepository(InMemoryStore store) {
+        return new InMemoryOrderProductRepository(store);
+    }
+
+    @Bean
+    public InMemorySalesAnalyticsRepository inMemorySalesAnalyticsRepository(InMemoryStore store) {
+        return new InMemorySalesAnalyticsRepository(store);
+    }
+
+    @Bean
+    public InMemoryUserOrderSummaryRepository inMemoryUserOrderSummaryRepository(InMemoryStore store) {
+        return new InMemoryUserOrderSummaryRepository(store);
+    }
+}
@@ -0,0 +1,157 @@
+package com.ecommerce.infrastructure.inmemory;
+
+import com.ecommerce.application.repository.ProductRepository;
+import com.ecommerce.domain.Product;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * InMemoryProductRepository - ProductRepository on the in-memory store
+ * Products by id in a LongKeyedMap; a product on an order line cannot be deleted.
+ */
+public class InMemoryProductRepository implements ProductRepository {
+
+    private final InMemoryStore store;
+
+    public InMemoryProductRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Insert a product without id, or replace an existing one
+     * @throws DataIntegrityViolationException if a column is null
+     * @throws OptimisticLockingFailureException if the product has an id that does not exist
+     */
+    @Override
+    public Product saveProduct(Product product) {
+        if (product.getName() == null || product.getDescription() == null || product.getPrice() == null
+                || product.getStockQuantity() == null) {
+            throw new DataIntegrityViolationException("Product name, description, price and stock quantity cannot be null");
+        }
+        boolean isNew = product.getId() == null;
+        long id = isNew ? store.productSequence.incrementAndGet() : product.getId();
+        Product row = InMemoryStore.copyOf(product);
+        row.setId(id);
+
+        store.products.compute(id, current -> {
+            if (current == null && !isNew) {
+                throw new OptimisticLockingFailureException("Product with id " + id + " does not exist");
+            }
+            return row;
+        });
+        product.setId(id);
+        return product;
+    }
+
+    @Override
+    public List<Product> saveAllProducts(List<Product> products) {
+        products.forEach(this::saveProduct);
+        return products;
+    }
+
+    @Override
+    public Optional<Product> findProductById(Long id) {
+        return Optional.ofNullable(store.products.get(id)).map(InMemoryStore::copyOf);
+    }
+
+    @Override
+    public List<Product> findAllProducts() {
+        return findProductsAfterId(0L, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Walk the ids in order, copying one product at a time
+     */
+    @Override
+    public void forEachProduct(Consumer<Product> consumer) {
+        long last = store.productSequence.get();
+        for (long id = 1; id <= last; id++) {
+            Product product = store.products.get(id);
+            if (product != null) {
+                consumer.accept(InMemoryStore.copyOf(product));
+            }
+        }
+    }
+
+    @Override
+    public List<Product> findProductsByIds(Collection<Long> ids) {
+        List<Product> products = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Product product = store.products.get(id);
+            if (product != null) {
+                products.add(InMemoryStore.copyOf(product));
+            }
+        }
+        return products;
+    }
+
+    @Override
+    public List<Product> findProductsAfterId(Long afterId, int limit) {
+        List<Product> products = new ArrayList<>();
+        long last = store.productSequence.get();
+        for (long id = afterId == null ? 1 : afterId + 1; id <= last && products.size() < limit; id++) {
+            Product product = store.products.get(id);
+            if (product != null) {
+                products.add(InMemoryStore.copyOf(product));
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Case-sensitive substring match, as LIKE '%name%'; scans the products in id order until the limit
+     */
+    @Override
+    public List<Product> findByNameContaining(String name, int limit) {
+        List<Product> products = new ArrayList<>();
+        long last = store.productSequence.get();
+        for (long id = 1; id <= last && products.size() < limit; id++) {
+            Product product = store.products.get(id);
+            if (product != null && product.getName().contains(name)) {
+                products.add(InMemoryStore.copyOf(product));
+            }
+        }
+        return products;
+    }
+
+    @Override
+    public void updateStockQuantity(Long id, int stockQuantity) {
+        store.products.compute(id, current -> {
+            if (current == null) {
+                return null;
+            }
+            Product row = InMemoryStore.copyOf(current);
+            row.setStockQuantity(stockQuantity);
+            return row;
+        });
+    }
+
+    /**
+     * @throws DataIntegrityViolationException if the product is on an order line
+     */
+    @Override
+    public void deleteById(Long id) {
+        store.products.compute(id, current -> {
+            if (current == null) {
+                return null;
+            }
+            LongKeyedMap<InMemoryStore.StoredLine> lines = store.linesByProduct.get(id);
+            if (lines != null && !lines.isEmpty()) {
+                throw new DataIntegrityViolationException("Product with id " + id + " is on order lines");
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return store.products.containsKey(id);
+    }
+}
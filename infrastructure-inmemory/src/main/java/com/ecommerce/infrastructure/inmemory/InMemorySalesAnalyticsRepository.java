@@ -0,0 +1,225 @@
+package com.ecommerce.infrastructure.inmemory;
+
+import com.ecommerce.application.repository.SalesAnalyticsRepository;
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.OrderProduct;
+import com.ecommerce.domain.Product;
+import com.ecommerce.domain.analytics.DailySales;
+import com.ecommerce.domain.analytics.ProductSales;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore.StoredLine;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore.StoredOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * InMemorySalesAnalyticsRepository - SalesAnalyticsRepository on the in-memory store
+ * Sales per day in a skip list by day, and per day and product in a LongKeyedMap per day, updated
+ * atomically per row with the netted contribution of the changed orders. Changes run concurrently
+ * with each other; a rebuild waits for them and holds them back while it recomputes the read model
+ * from the stored orders.
+ */
+public class InMemorySalesAnalyticsRepository implements SalesAnalyticsRepository {
+
+    private static final Comparator<ProductSales> BEST_SELLING =
+            Comparator.comparingLong(ProductSales::getUnits).reversed().thenComparing(ProductSales::getProductId);
+
+    private final InMemoryStore store;
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private volatile ConcurrentSkipListMap<LocalDate, DailySales> days = new ConcurrentSkipListMap<>();
+    private volatile ConcurrentSkipListMap<LocalDate, LongKeyedMap<ProductSales>> productsByDay =
+            new ConcurrentSkipListMap<>();
+
+    public InMemorySalesAnalyticsRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void applyChanges(Collection<Order> removedOrders, Collection<Order> addedOrders) {
+        Deltas deltas = new Deltas();
+        for (Order order : removedOrders) {
+            collect(order, -1, deltas);
+        }
+        for (Order order : addedOrders) {
+            collect(order, 1, deltas);
+        }
+        rebuildLock.readLock().lock();
+        try {
+            apply(deltas, days, productsByDay);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<DailySales> findDailySales(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return List.of();
+        }
+        return new ArrayList<>(days.subMap(from, true, to, true).values());
+    }
+
+    @Override
+    public List<ProductSales> findTopProductSales(LocalDate from, LocalDate to, int limit) {
+        if (from.isAfter(to)) {
+            return List.of();
+        }
+        Map<Long, ProductDelta> totals = new HashMap<>();
+        for (LongKeyedMap<ProductSales> products : productsByDay.subMap(from, true, to, true).values()) {
+            for (ProductSales sales : products.values()) {
+                totals.computeIfAbsent(sales.getProductId(), productId -> new ProductDelta())
+                        .add(sales.getUnits(), sales.getRevenue());
+            }
+        }
+        List<ProductSales> bestSelling = new ArrayList<>();
+        totals.forEach((productId, total) -> {
+            if (total.units > 0) {
+                bestSelling.add(new ProductSales(productId, null, total.units, total.revenue));
+            }
+        });
+        bestSelling.sort(BEST_SELLING);
+        // Names of deleted products are null, as with the outer join of the JPA adapter
+        return bestSelling.stream().limit(limit).map(sales -> {
+            Product product = store.products.get(sales.getProductId());
+            return new ProductSales(sales.getProductId(), product != null ? product.getName() : null,
+                    sales.getUnits(), sales.getRevenue());
+        }).toList();
+    }
+
+    /**
+     * Replace the read model with the aggregates of the stored orders
+     */
+    @Override
+    public long rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            Deltas deltas = new Deltas();
+            long last = store.orderSequence.get();
+            for (long id = 1; id <= last; id++) {
+                StoredOrder order = store.orders.get(id);
+                if (order == null || order.status() == Order.OrderStatus.CANCELLED) {
+                    continue;
+                }
+                LocalDate day = order.orderDate().toLocalDate();
+                DayDelta dayDelta = deltas.day(day);
+                dayDelta.add(order.totalAmount(), 1);
+                for (StoredLine line : order.lines()) {
+                    BigDecimal subtotal = line.price().multiply(BigDecimal.valueOf(line.quantity()));
+                    dayDelta.units += line.quantity();
+                    deltas.product(day, line.productId()).add(line.quantity(), subtotal);
+                }
+            }
+            ConcurrentSkipListMap<LocalDate, DailySales> rebuiltDays = new ConcurrentSkipListMap<>();
+            ConcurrentSkipListMap<LocalDate, LongKeyedMap<ProductSales>> rebuiltProducts = new ConcurrentSkipListMap<>();
+            apply(deltas, rebuiltDays, rebuiltProducts);
+            days = rebuiltDays;
+            productsByDay = rebuiltProducts;
+            return rebuiltDays.size();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private static void collect(Order order, int sign, Deltas deltas) {
+        // Cancelled orders are not part of the read model
+        if (order == null || order.getStatus() == Order.OrderStatus.CANCELLED || order.getOrderDate() == null) {
+            return;
+        }
+        LocalDate day = order.getOrderDate().toLocalDate();
+        DayDelta dayDelta = deltas.day(day);
+        dayDelta.add(order.getTotalAmount(), sign);
+        if (order.getOrderProducts() == null) {
+            return;
+        }
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            if (orderProduct.getProduct() == null || orderProduct.getQuantity() == null) {
+                continue;
+            }
+            long units = (long) sign * orderProduct.getQuantity();
+            BigDecimal subtotal = sign > 0 ? orderProduct.getSubtotal() : orderProduct.getSubtotal().negate();
+            dayDelta.units += units;
+            deltas.product(day, orderProduct.getProduct().getId()).add(units, subtotal);
+        }
+    }
+
+    private void apply(Deltas deltas, ConcurrentSkipListMap<LocalDate, DailySales> days,
+                       ConcurrentSkipListMap<LocalDate, LongKeyedMap<ProductSales>> productsByDay) {
+        deltas.days.forEach((day, delta) -> {
+            if (delta.isZero()) {
+                return;
+            }
+            days.merge(day, new DailySales(day, delta.revenue, delta.orders, delta.units),
+                    (a, b) -> new DailySales(day, a.getRevenue().add(b.getRevenue()),
+                            a.getOrderCount() + b.getOrderCount(), a.getUnits() + b.getUnits()));
+        });
+        deltas.products.forEach((day, products) -> {
+            LongKeyedMap<ProductSales> dayProducts = productsByDay.computeIfAbsent(day,
+                    d -> new LongKeyedMap<>(store.concurrency(), 0));
+            products.forEach((productId, delta) -> {
+                if (delta.isZero()) {
+                    return;
+                }
+                dayProducts.compute(productId, current -> current == null
+                        ? new ProductSales(productId, null, delta.units, delta.revenue)
+                        : new ProductSales(productId, null, current.getUnits() + delta.units,
+                                current.getRevenue().add(delta.revenue)));
+            });
+        });
+    }
+
+    /**
+     * Contributions of a set of orders, netted per day and per day and product
+     */
+    private static final class Deltas {
+        private final Map<LocalDate, DayDelta> days = new HashMap<>();
+        private final Map<LocalDate, Map<Long, ProductDelta>> products = new HashMap<>();
+
+        private DayDelta day(LocalDate day) {
+            return days.computeIfAbsent(day, d -> new DayDelta());
+        }
+
+        private ProductDelta product(LocalDate day, long productId) {
+            return products.computeIfAbsent(day, d -> new HashMap<>()).computeIfAbsent(productId, p -> new ProductDelta());
+        }
+    }
+
+    private static final class DayDelta {
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private long orders;
+        private long units;
+
+        private void add(BigDecimal totalAmount, int sign) {
+            if (totalAmount != null) {
+                revenue = sign > 0 ? revenue.add(totalAmount) : revenue.subtract(totalAmount);
+            }
+            orders += sign;
+        }
+
+        private boolean isZero() {
+            return revenue.signum() == 0 && orders == 0 && units == 0;
+        }
+    }
+
+    private static final class ProductDelta {
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private long units;
+
+        private void add(long units, BigDecimal revenue) {
+            this.units += units;
+            this.revenue = this.revenue.add(revenue);
+        }
+
+        private boolean isZero() {
+            return revenue.signum() == 0 && units == 0;
+        }
+    }
+}
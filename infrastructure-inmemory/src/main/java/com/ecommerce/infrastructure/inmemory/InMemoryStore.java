@@ -0,0 +1,316 @@
+package com.ecommerce.infrastructure.inmemory;
+
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.OrderProduct;
+import com.ecommerce.domain.Product;
+import com.ecommerce.domain.User;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * InMemoryStore - tables and indexes of the in-memory persistence adapter
+ * Users, products, orders and order lines are kept by id in LongKeyedMaps, with secondary indexes
+ * maintained on every write: email → user, user → orders and order date → orders (skip lists ordered
+ * by date and id), product → lines. Rows are private: users and products are stored as copies, orders
+ * and lines as immutable records, so callers get detached entities (as from JPA) and their changes only
+ * land through save.
+ * The store enforces what the schema enforces for the JPA adapter: unique emails, non-null columns and
+ * foreign keys (an order needs its user and products, a referenced user or product cannot be deleted),
+ * failing with the same Spring DAO exceptions. Each write is atomic for its row; reads are not
+ * transactional and may see an index entry of a row being written, so index walks check the row.
+ * Ids come from one sequence per table, so they are dense: scans in id order walk the id range.
+ */
+public class InMemoryStore {
+
+    final LongKeyedMap<User> users;
+    final Map<String, Long> userIdsByEmail = new ConcurrentHashMap<>();
+    final LongKeyedMap<Product> products;
+    final LongKeyedMap<StoredOrder> orders;
+    final LongKeyedMap<StoredLine> lines;
+    final LongKeyedMap<LongKeyedMap<StoredLine>> linesByProduct;
+    final LongKeyedMap<NavigableSet<OrderKey>> ordersByUser;
+    final NavigableSet<OrderKey> ordersByDate = new ConcurrentSkipListSet<>();
+
+    final AtomicLong userSequence = new AtomicLong();
+    final AtomicLong productSequence = new AtomicLong();
+    final AtomicLong orderSequence = new AtomicLong();
+    final AtomicLong lineSequence = new AtomicLong();
+
+    private final int concurrency;
+
+    /**
+     * @param concurrency the number of lock segments of each table (0 = four per processor)
+     * @param initialCapacity the expected number of rows of each table
+     */
+    public InMemoryStore(int concurrency, int initialCapacity) {
+        this.concurrency = concurrency > 0 ? concurrency : 4 * Runtime.getRuntime().availableProcessors();
+        this.users = new LongKeyedMap<>(this.concurrency, initialCapacity);
+        this.products = new LongKeyedMap<>(this.concurrency, initialCapacity);
+        this.orders = new LongKeyedMap<>(this.concurrency, initialCapacity);
+        this.lines = new LongKeyedMap<>(this.concurrency, initialCapacity);
+        this.linesByProduct = new LongKeyedMap<>(this.concurrency, initialCapacity);
+        this.ordersByUser = new LongKeyedMap<>(this.concurrency, initialCapacity);
+    }
+
+    /**
+     * Snapshot of the table sizes
+     * @return number of rows per table
+     */
+    public Map<String, Object> statistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("users", users.size());
+        statistics.put("products", products.size());
+        statistics.put("orders", orders.size());
+        statistics.put("orderProducts", lines.size());
+        statistics.put("concurrency", concurrency);
+        return statistics;
+    }
+
+    int concurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Write an order and its lines atomically for the order, maintaining the indexes
+     * Foreign keys are checked under the lock of the referenced user and products, so they cannot be
+     * deleted in between. Lock order: order, then user or product, then index maps.
+     * @param id the order id
+     * @param change computes the new row from the current one (null if absent); null deletes the order
+     * @return the new row, null if the order was deleted
+     * @throws DataIntegrityViolationException if the user or a product of the order does not exist
+     */
+    StoredOrder writeOrder(long id, UnaryOperator<StoredOrder> change) {
+        return orders.compute(id, current -> {
+            StoredOrder next = change.apply(current);
+            reindex(current, next);
+            return next;
+        });
+    }
+
+    private void reindex(StoredOrder current, StoredOrder next) {
+        Map<Long, StoredLine> linesBefore = current != null ? current.linesById() : Map.of();
+        Map<Long, StoredLine> linesAfter = next != null ? next.linesById() : Map.of();
+
+        // Foreign keys first: they are the only step that can fail, and are undone if a later one does
+        List<StoredLine> referenced = new ArrayList<>();
+        try {
+            for (StoredLine line : linesAfter.values()) {
+                StoredLine before = linesBefore.get(line.id());
+                if (before == null || before.productId() != line.productId()) {
+                    referenceProduct(line);
+                    referenced.add(line);
+                }
+            }
+            if (next != null && (current == null || userEntryChanged(current, next))) {
+                referenceUser(next);
+            }
+        } catch (RuntimeException e) {
+            referenced.forEach(this::unindexProductLine);
+            throw e;
+        }
+
+        // New entries are indexed before the old ones are dropped, so a row never disappears from an index
+        for (StoredLine line : linesAfter.values()) {
+            lines.put(line.id(), line);
+            linesByProduct.computeIfAbsent(line.productId(), productId -> new LongKeyedMap<>(1, 4)).put(line.id(), line);
+        }
+        if (next != null) {
+            ordersByDate.add(next.key());
+        }
+        for (StoredLine line : linesBefore.values()) {
+            StoredLine after = linesAfter.get(line.id());
+            if (after == null) {
+                lines.remove(line.id());
+            }
+            if (after == null || after.productId() != line.productId()) {
+                unindexProductLine(line);
+            }
+        }
+        if (current != null && (next == null || !current.key().equals(next.key()))) {
+            ordersByDate.remove(current.key());
+        }
+        if (current != null && (next == null || userEntryChanged(current, next))) {
+            NavigableSet<OrderKey> userOrders = ordersByUser.get(current.userId());
+            if (userOrders != null) {
+                userOrders.remove(current.key());
+            }
+        }
+    }
+
+    // The user index entry of an order changes with its user or its date
+    private static boolean userEntryChanged(StoredOrder current, StoredOrder next) {
+        return current.userId() != next.userId() || !current.key().equals(next.key());
+    }
+
+    private void referenceProduct(StoredLine line) {
+        products.compute(line.productId(), product -> {
+            if (product == null) {
+                throw new DataIntegrityViolationException("Product with id " + line.productId() + " does not exist");
+            }
+            linesByProduct.computeIfAbsent(line.productId(), productId -> new LongKeyedMap<>(1, 4)).put(line.id(), line);
+            return product;
+        });
+    }
+
+    private void referenceUser(StoredOrder order) {
+        users.compute(order.userId(), user -> {
+            if (user == null) {
+                throw new DataIntegrityViolationException("User with id " + order.userId() + " does not exist");
+            }
+            ordersByUser.computeIfAbsent(order.userId(), userId -> new ConcurrentSkipListSet<>()).add(order.key());
+            return user;
+        });
+    }
+
+    private void unindexProductLine(StoredLine line) {
+        LongKeyedMap<StoredLine> productLines = linesByProduct.get(line.productId());
+        if (productLines != null) {
+            productLines.remove(line.id());
+        }
+    }
+
+    /**
+     * Look up the order an index entry points to
+     * @param key the index entry
+     * @return the order, null if it was deleted or moved to another entry since the index was read
+     */
+    StoredOrder orderAt(OrderKey key) {
+        StoredOrder order = orders.get(key.orderId());
+        return order != null && order.key().equals(key) ? order : null;
+    }
+
+    /**
+     * Materialize an order with its lines, referencing the current state of its user and products
+     */
+    Order toOrder(StoredOrder row) {
+        Order order = toOrderHeader(row);
+        Map<Long, Product> products = new HashMap<>();
+        for (StoredLine line : row.lines()) {
+            Product product = products.computeIfAbsent(line.productId(), this::productReference);
+            order.getOrderProducts().add(new OrderProduct(line.id(), order, product, line.quantity(), line.price()));
+        }
+        return order;
+    }
+
+    /**
+     * Materialize an order without its lines
+     */
+    Order toOrderHeader(StoredOrder row) {
+        Order order = new Order(row.id(), userReference(row.userId()), row.orderDate(), row.totalAmount(), row.status());
+        order.setVersion(row.version());
+        return order;
+    }
+
+    OrderProduct toOrderProduct(StoredLine line, Order order) {
+        return new OrderProduct(line.id(), order, productReference(line.productId()), line.quantity(), line.price());
+    }
+
+    // The foreign keys keep referenced rows alive; the bare reference only covers a row deleted mid-read
+    private User userReference(long userId) {
+        User user = users.get(userId);
+        if (user != null) {
+            return copyOf(user);
+        }
+        User reference = new User();
+        reference.setId(userId);
+        return reference;
+    }
+
+    private Product productReference(long productId) {
+        Product product = products.get(productId);
+        if (product != null) {
+            return copyOf(product);
+        }
+        Product reference = new Product();
+        reference.setId(productId);
+        return reference;
+    }
+
+    static User copyOf(User user) {
+        return new User(user.getId(), user.getEmail(), user.getName(), user.getPassword(), user.getAddress());
+    }
+
+    static Product copyOf(Product product) {
+        return new Product(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getStockQuantity());
+    }
+
+    /**
+     * Position of an order in the order date index: by date, then id
+     */
+    record OrderKey(LocalDateTime orderDate, long orderId) implements Comparable<OrderKey> {
+
+        private static final Comparator<OrderKey> ORDER =
+                Comparator.comparing(OrderKey::orderDate).thenComparingLong(OrderKey::orderId);
+
+        static OrderKey first(LocalDateTime orderDate) {
+            return new OrderKey(orderDate, Long.MIN_VALUE);
+        }
+
+        static OrderKey last(LocalDateTime orderDate) {
+            return new OrderKey(orderDate, Long.MAX_VALUE);
+        }
+
+        @Override
+        public int compareTo(OrderKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    /**
+     * Row of an order, holding its lines
+     */
+    record StoredOrder(long id, long userId, LocalDateTime orderDate, BigDecimal totalAmount,
+                       Order.OrderStatus status, long version, List<StoredLine> lines) {
+
+        OrderKey key() {
+            return new OrderKey(orderDate, id);
+        }
+
+        Map<Long, StoredLine> linesById() {
+            Map<Long, StoredLine> linesById = new HashMap<>();
+            for (StoredLine line : lines) {
+                linesById.put(line.id(), line);
+            }
+            return linesById;
+        }
+
+        /**
+         * As a line written through the lines repository in JPA, this does not change the order's version
+         */
+        StoredOrder withLines(List<StoredLine> lines) {
+            return new StoredOrder(id, userId, orderDate, totalAmount, status, version, List.copyOf(lines));
+        }
+
+        StoredOrder withStatus(Order.OrderStatus status) {
+            return new StoredOrder(id, userId, orderDate, totalAmount, status, version + 1, lines);
+        }
+
+        /**
+         * The row saved over this one: as the JPA mapping, the status is not updatable and the version
+         * is incremented
+         */
+        StoredOrder replacedBy(StoredOrder row) {
+            return new StoredOrder(id, row.userId, row.orderDate, row.totalAmount, status, version + 1, row.lines);
+        }
+    }
+
+    /**
+     * Row of an order line
+     */
+    record StoredLine(long id, long orderId, long productId, int quantity, BigDecimal price) {
+    }
+}
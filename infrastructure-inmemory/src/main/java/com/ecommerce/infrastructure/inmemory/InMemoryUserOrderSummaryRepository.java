@@ -0,0 +1,135 @@
+package com.ecommerce.infrastructure.inmemory;
+
+import com.ecommerce.application.repository.UserOrderSummaryRepository;
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.analytics.UserOrderSummary;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore.StoredOrder;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * InMemoryUserOrderSummaryRepository - UserOrderSummaryRepository on the in-memory store
+ * Summaries by user id in a LongKeyedMap, updated atomically per user with the netted contribution of
+ * the changed orders. Changes run concurrently with each other; a rebuild waits for them and holds
+ * them back while it recomputes the summaries from the stored orders.
+ */
+public class InMemoryUserOrderSummaryRepository implements UserOrderSummaryRepository {
+
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+
+    private final InMemoryStore store;
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private volatile LongKeyedMap<UserOrderSummary> summaries;
+
+    public InMemoryUserOrderSummaryRepository(InMemoryStore store) {
+        this.store = store;
+        this.summaries = new LongKeyedMap<>(store.concurrency(), 0);
+    }
+
+    @Override
+    public void applyChanges(Collection<Order> removedOrders, Collection<Order> addedOrders) {
+        Map<Long, SummaryDelta> users = new HashMap<>();
+        for (Order order : removedOrders) {
+            collect(order, -1, users);
+        }
+        for (Order order : addedOrders) {
+            collect(order, 1, users);
+        }
+        users.values().removeIf(SummaryDelta::isZero);
+        if (users.isEmpty()) {
+            return;
+        }
+        rebuildLock.readLock().lock();
+        try {
+            users.forEach((userId, delta) -> apply(summaries, userId, delta));
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<UserOrderSummary> findSummaryByUserId(Long userId) {
+        return Optional.ofNullable(summaries.get(userId));
+    }
+
+    /**
+     * Replace every summary with the aggregates of the stored orders
+     */
+    @Override
+    public long rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            Map<Long, SummaryDelta> users = new HashMap<>();
+            long last = store.orderSequence.get();
+            for (long id = 1; id <= last; id++) {
+                StoredOrder order = store.orders.get(id);
+                if (order != null) {
+                    SummaryDelta delta = users.computeIfAbsent(order.userId(), userId -> new SummaryDelta());
+                    delta.add(order.status(), order.totalAmount(), 1);
+                }
+            }
+            LongKeyedMap<UserOrderSummary> rebuilt = new LongKeyedMap<>(store.concurrency(), users.size());
+            users.forEach((userId, delta) -> apply(rebuilt, userId, delta));
+            summaries = rebuilt;
+            return users.size();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private static void collect(Order order, int sign, Map<Long, SummaryDelta> users) {
+        if (order == null || order.getUser() == null || order.getUser().getId() == null || order.getStatus() == null) {
+            return;
+        }
+        users.computeIfAbsent(order.getUser().getId(), userId -> new SummaryDelta())
+                .add(order.getStatus(), order.getTotalAmount(), sign);
+    }
+
+    private static void apply(LongKeyedMap<UserOrderSummary> summaries, long userId, SummaryDelta delta) {
+        summaries.compute(userId, current -> {
+            UserOrderSummary base = current != null ? current : UserOrderSummary.empty(userId);
+            long[] counts = new long[STATUSES.length];
+            for (Order.OrderStatus status : STATUSES) {
+                counts[status.ordinal()] = base.getOrderCount(status) + delta.statusCounts[status.ordinal()];
+            }
+            return new UserOrderSummary(userId, base.getOrderCount() + delta.orders,
+                    base.getLifetimeValue().add(delta.lifetimeValue),
+                    counts[Order.OrderStatus.PENDING.ordinal()], counts[Order.OrderStatus.CONFIRMED.ordinal()],
+                    counts[Order.OrderStatus.SHIPPED.ordinal()], counts[Order.OrderStatus.DELIVERED.ordinal()],
+                    counts[Order.OrderStatus.CANCELLED.ordinal()]);
+        });
+    }
+
+    private static final class SummaryDelta {
+        private long orders;
+        private BigDecimal lifetimeValue = BigDecimal.ZERO;
+        private final long[] statusCounts = new long[STATUSES.length];
+
+        private void add(Order.OrderStatus status, BigDecimal totalAmount, int sign) {
+            orders += sign;
+            statusCounts[status.ordinal()] += sign;
+            // Cancelled orders do not count towards the lifetime value
+            if (status != Order.OrderStatus.CANCELLED && totalAmount != null) {
+                lifetimeValue = sign > 0 ? lifetimeValue.add(totalAmount) : lifetimeValue.subtract(totalAmount);
+            }
+        }
+
+        private boolean isZero() {
+            if (orders != 0 || lifetimeValue.signum() != 0) {
+                return false;
+            }
+            for (long count : statusCounts) {
+                if (count != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
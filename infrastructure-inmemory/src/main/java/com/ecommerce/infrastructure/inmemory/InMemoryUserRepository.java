@@ -0,0 +1,153 @@
+package com.ecommerce.infrastructure.inmemory;
+
+import com.ecommerce.application.repository.UserRepository;
+import com.ecommerce.domain.User;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * InMemoryUserRepository - UserRepository on the in-memory store
+ * Users by id in a LongKeyedMap, with a unique email index; a user with orders cannot be deleted.
+ */
+public class InMemoryUserRepository implements UserRepository {
+
+    private final InMemoryStore store;
+
+    public InMemoryUserRepository(InMemoryStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Insert a user without id, or replace an existing one
+     * @throws DataIntegrityViolationException if a column is null or the email belongs to another user
+     * @throws OptimisticLockingFailureException if the user has an id that does not exist
+     */
+    @Override
+    public User saveUser(User user) {
+        if (user.getEmail() == null || user.getName() == null || user.getPassword() == null || user.getAddress() == null) {
+            throw new DataIntegrityViolationException("User email, name, password and address cannot be null");
+        }
+        boolean isNew = user.getId() == null;
+        long id = isNew ? store.userSequence.incrementAndGet() : user.getId();
+        User row = InMemoryStore.copyOf(user);
+        row.setId(id);
+
+        store.users.compute(id, current -> {
+            if (current == null && !isNew) {
+                throw new OptimisticLockingFailureException("User with id " + id + " does not exist");
+            }
+            Long owner = store.userIdsByEmail.putIfAbsent(row.getEmail(), id);
+            if (owner != null && owner != id) {
+                throw new DataIntegrityViolationException("Email " + row.getEmail() + " is already in use");
+            }
+            if (current != null && !current.getEmail().equals(row.getEmail())) {
+                store.userIdsByEmail.remove(current.getEmail(), id);
+            }
+            return row;
+        });
+        user.setId(id);
+        return user;
+    }
+
+    @Override
+    public List<User> saveAllUsers(List<User> users) {
+        users.forEach(this::saveUser);
+        return users;
+    }
+
+    @Override
+    public Optional<User> findUserById(Long id) {
+        return Optional.ofNullable(store.users.get(id)).map(InMemoryStore::copyOf);
+    }
+
+    @Override
+    public List<User> findAllUsers() {
+        return findUsersAfterId(0L, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Walk the ids in order, copying one user at a time
+     */
+    @Override
+    public void forEachUser(Consumer<User> consumer) {
+        long last = store.userSequence.get();
+        for (long id = 1; id <= last; id++) {
+            User user = store.users.get(id);
+            if (user != null) {
+                consumer.accept(InMemoryStore.copyOf(user));
+            }
+        }
+    }
+
+    @Override
+    public List<User> findUsersByIds(Collection<Long> ids) {
+        List<User> users = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            User user = store.users.get(id);
+            if (user != null) {
+                users.add(InMemoryStore.copyOf(user));
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public List<User> findUsersAfterId(Long afterId, int limit) {
+        List<User> users = new ArrayList<>();
+        long last = store.userSequence.get();
+        for (long id = afterId == null ? 1 : afterId + 1; id <= last && users.size() < limit; id++) {
+            User user = store.users.get(id);
+            if (user != null) {
+                users.add(InMemoryStore.copyOf(user));
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public Optional<User> findUserByEmail(String email) {
+        Long id = email != null ? store.userIdsByEmail.get(email) : null;
+        return id != null ? findUserById(id).filter(user -> user.getEmail().equals(email)) : Optional.empty();
+    }
+
+    @Override
+    public List<String> findExistingEmails(Collection<String> emails) {
+        return emails.stream().distinct().filter(store.userIdsByEmail::containsKey).toList();
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return email != null && store.userIdsByEmail.containsKey(email);
+    }
+
+    /**
+     * @throws DataIntegrityViolationException if the user has orders
+     */
+    @Override
+    public void deleteById(Long id) {
+        store.users.compute(id, current -> {
+            if (current == null) {
+                return null;
+            }
+            NavigableSet<InMemoryStore.OrderKey> orders = store.ordersByUser.get(id);
+            if (orders != null && !orders.isEmpty()) {
+                throw new DataIntegrityViolationException("User with id " + id + " has orders");
+            }
+            store.userIdsByEmail.remove(current.getEmail(), id);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return store.users.containsKey(id);
+    }
+}
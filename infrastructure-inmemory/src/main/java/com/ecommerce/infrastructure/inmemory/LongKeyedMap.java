@@ -0,0 +1,301 @@
+package com.ecommerce.infrastructure.inmemory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * LongKeyedMap - concurrent hash map with primitive long keys
+ * Keys are kept in long arrays with linear probing (no boxing, no entry objects), split into segments
+ * guarded by a StampedLock each: lookups are optimistic reads that only fall back to the read lock
+ * when a write to the same segment overlapped them, and writes lock a single segment.
+ * Values must not be null.
+ * @param <V> the type of the values
+ */
+final class LongKeyedMap<V> {
+
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+    private static final float LOAD_FACTOR = 0.6f;
+    private static final int MINIMUM_CAPACITY = 8;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    /**
+     * @param concurrency the number of segments, rounded up to a power of two
+     * @param initialCapacity the expected number of entries
+     */
+    LongKeyedMap(int concurrency, int initialCapacity) {
+        int segmentCount = powerOfTwoAtLeast(Math.max(1, concurrency));
+        int segmentCapacity = powerOfTwoAtLeast(
+                Math.max(MINIMUM_CAPACITY, (int) (initialCapacity / segmentCount / LOAD_FACTOR) + 1));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        this.segmentMask = segmentCount - 1;
+    }
+
+    /**
+     * @param key the key
+     * @return the value of the key, null if absent
+     */
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        long hash = hash(key);
+        Segment segment = segmentFor(hash);
+        StampedLock lock = segment.lock;
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Object value = find(segment.table, key, hash);
+            if (lock.validate(stamp)) {
+                return (V) value;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return (V) find(segment.table, key, hash);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return the previous value of the key, null if absent
+     */
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        long hash = hash(key);
+        Segment segment = segmentFor(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            return (V) segment.store(key, hash, value);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return the removed value, null if absent
+     */
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        long hash = hash(key);
+        Segment segment = segmentFor(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            return (V) segment.delete(key, hash);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Replace the value of a key atomically, holding the lock of its segment: writes to the key (and
+     * to the other keys of the segment) wait, lookups are not blocked
+     * @param key the key
+     * @param remapping computes the new value from the current one (null if absent); null removes the key.
+     *                  An exception leaves the key unchanged.
+     * @return the new value, null if the key was removed or stayed absent
+     */
+    @SuppressWarnings("unchecked")
+    V compute(long key, UnaryOperator<V> remapping) {
+        long hash = hash(key);
+        Segment segment = segmentFor(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            V current = (V) find(segment.table, key, hash);
+            V next = remapping.apply(current);
+            if (next != null) {
+                segment.store(key, hash, next);
+            } else if (current != null) {
+                segment.delete(key, hash);
+            }
+            return next;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @param mapping creates the value of an absent key, under the lock of its segment
+     * @return the current or created value
+     */
+    V computeIfAbsent(long key, LongFunction<V> mapping) {
+        V value = get(key);
+        return value != null ? value : compute(key, current -> current != null ? current : mapping.apply(key));
+    }
+
+    /**
+     * @return the number of entries
+     */
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return a snapshot of the values, in no particular order
+     */
+    @SuppressWarnings("unchecked")
+    List<V> values() {
+        List<V> values = new ArrayList<>();
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                for (Object value : segment.table.values) {
+                    if (value != null) {
+                        values.add((V) value);
+                    }
+                }
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return values;
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> 40) & segmentMask];
+    }
+
+    // Multiplying by an odd constant is a bijection on the low bits: dense ids fill the slots evenly
+    private static long hash(long key) {
+        return key * GOLDEN_RATIO;
+    }
+
+    // May run without a lock (optimistic read): bounded by the table size, the result is only used once validated
+    private static Object find(Table table, long key, long hash) {
+        long[] keys = table.keys;
+        Object[] values = table.values;
+        int mask = keys.length - 1;
+        for (int i = (int) hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+            Object value = values[i];
+            if (value == null) {
+                return null;
+            }
+            if (keys[i] == key) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static int powerOfTwoAtLeast(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * Open-addressing table: a slot is free when its value is null. Replaced as a whole on resize,
+     * so a reader always sees key and value arrays of the same length.
+     */
+    private static final class Table {
+        private final long[] keys;
+        private final Object[] values;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+        }
+    }
+
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        private Table table;
+        private int size;
+
+        private Segment(int capacity) {
+            this.table = new Table(capacity);
+        }
+
+        // Write lock held
+        private Object store(long key, long hash, Object value) {
+            if (size + 1 > table.keys.length * LOAD_FACTOR) {
+                resize();
+            }
+            long[] keys = table.keys;
+            Object[] values = table.values;
+            int mask = keys.length - 1;
+            for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+                Object current = values[i];
+                if (current == null) {
+                    keys[i] = key;
+                    values[i] = value;
+                    size++;
+                    return null;
+                }
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return current;
+                }
+            }
+        }
+
+        // Write lock held; backward-shift deletion keeps every probe sequence free of holes
+        private Object delete(long key, long hash) {
+            long[] keys = table.keys;
+            Object[] values = table.values;
+            int mask = keys.length - 1;
+            int hole = -1;
+            for (int i = (int) hash & mask; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    hole = i;
+                    break;
+                }
+            }
+            if (hole < 0) {
+                return null;
+            }
+            Object removed = values[hole];
+            for (int j = (hole + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+                int home = (int) hash(keys[j]) & mask;
+                // The entry at j may fill the hole if the hole lies on its probe sequence (between home and j)
+                if (((j - home) & mask) >= ((j - hole) & mask)) {
+                    keys[hole] = keys[j];
+                    values[hole] = values[j];
+                    hole = j;
+                }
+            }
+            keys[hole] = 0;
+            values[hole] = null;
+            size--;
+            return removed;
+        }
+
+        private void resize() {
+            Table old = table;
+            Table resized = new Table(old.keys.length * 2);
+            int mask = resized.keys.length - 1;
+            for (int i = 0; i < old.keys.length; i++) {
+                if (old.values[i] == null) {
+                    continue;
+                }
+                int slot = (int) hash(old.keys[i]) & mask;
+                while (resized.values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                resized.keys[slot] = old.keys[i];
+                resized.values[slot] = old.values[i];
+            }
+            table = resized;
+        }
+    }
+}
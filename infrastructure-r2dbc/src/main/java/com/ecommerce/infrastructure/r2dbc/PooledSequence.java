@@ -0,0 +1,52 @@
+package com.ecommerce.infrastructure.r2dbc;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * PooledSequence - id allocator on a database sequence, compatible with the pooled optimizer of the JPA adapter
+ * The sequences are incremented by ALLOCATION_SIZE (as the @SequenceGenerator of the entities), and a value v
+ * of the sequence owns the ids v - ALLOCATION_SIZE + 1 to v. Ids are handed out from the block of the last
+ * value read, so only one NEXTVAL round trip is made per ALLOCATION_SIZE rows, and both adapters can insert
+ * into the same tables without colliding. Ids of a block that is dropped (restart, concurrent refill) are lost.
+ */
+class PooledSequence {
+
+    static final int ALLOCATION_SIZE = 50;
+
+    private final DatabaseClient databaseClient;
+    private final String sequenceName;
+    private long next;
+    private long last;
+
+    PooledSequence(DatabaseClient databaseClient, String sequenceName) {
+        this.databaseClient = databaseClient;
+        this.sequenceName = sequenceName;
+    }
+
+    /**
+     * @return the next id, reading the sequence only when the current block is used up
+     */
+    Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            Long id = takeFromBlock();
+            return id != null ? Mono.just(id) : databaseClient.sql("SELECT " + sequenceName + ".NEXTVAL FROM dual")
+                    .map(row -> Rows.getLong(row, 0))
+                    .one()
+                    .map(this::startBlock);
+        });
+    }
+
+    private synchronized Long takeFromBlock() {
+        return next != 0 && next <= last ? next++ : null;
+    }
+
+    /**
+     * Make the block of a sequence value current and take its first id
+     */
+    private synchronized long startBlock(long value) {
+        next = Math.max(1, value - ALLOCATION_SIZE + 1);
+        last = value;
+        return next++;
+    }
+}
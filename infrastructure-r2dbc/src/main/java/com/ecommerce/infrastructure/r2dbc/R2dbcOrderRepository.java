@@ -0,0 +1,257 @@
+package com.ecommerce.infrastructure.r2dbc;
+
+import com.ecommerce.application.reactive.repository.ReactiveOrderRepository;
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.OrderProduct;
+import com.ecommerce.domain.Product;
+import com.ecommerce.domain.User;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * R2dbcOrderRepository - ReactiveOrderRepository on the orders and order_products tables of the JPA adapter
+ * Orders with lines are read with one query joining orders, order_products and products, ordered by order
+ * id, and the rows of each order are grouped while they stream in (bufferUntilChanged), so only the rows of
+ * the current order are held. Pages read their headers first and then the lines of the page with one IN query.
+ */
+@Repository
+public class R2dbcOrderRepository implements ReactiveOrderRepository {
+
+    private static final String SELECT_HEADERS =
+            "SELECT o.id AS order_id, o.user_id, o.order_date, o.total_amount, o.status FROM orders o ";
+
+    private static final String SELECT_ORDERS_WITH_LINES =
+            "SELECT o.id AS order_id, o.user_id, o.order_date, o.total_amount, o.status, "
+                    + "op.id AS line_id, op.product_id, op.quantity, op.price, p.name AS product_name "
+                    + "FROM orders o "
+                    + "LEFT JOIN order_products op ON op.order_id = o.id "
+                    + "LEFT JOIN products p ON p.id = op.product_id ";
+
+    private static final String SELECT_LINES =
+            "SELECT op.order_id, op.id AS line_id, op.product_id, op.quantity, op.price, p.name AS product_name "
+                    + "FROM order_products op JOIN products p ON p.id = op.product_id ";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final PooledSequence orderSequence;
+    private final PooledSequence orderProductSequence;
+
+    public R2dbcOrderRepository(DatabaseClient databaseClient, TransactionalOperator transactionalOperator) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.orderSequence = new PooledSequence(databaseClient, "orders_seq");
+        this.orderProductSequence = new PooledSequence(databaseClient, "order_products_seq");
+    }
+
+    @Override
+    public Mono<Order> saveOrder(Order order) {
+        Mono<Void> insertOrder = orderSequence.nextId().flatMap(id -> databaseClient
+                .sql("INSERT INTO orders (id, user_id, order_date, total_amount, status, version) "
+                        + "VALUES (:id, :userId, :orderDate, :totalAmount, :status, 0)")
+                .bind("id", id)
+                .bind("userId", order.getUser().getId())
+                .bind("orderDate", order.getOrderDate())
+                .bind("totalAmount", order.getTotalAmount())
+                .bind("status", order.getStatus().name())
+                .then()
+                .doOnSuccess(done -> {
+                    order.setId(id);
+                    order.setVersion(0L);
+                }));
+        Flux<Long> insertLines = Flux.fromIterable(order.getOrderProducts())
+                .concatMap(orderProduct -> orderProductSequence.nextId().flatMap(id -> databaseClient
+                        .sql("INSERT INTO order_products (id, order_id, product_id, quantity, price) "
+                                + "VALUES (:id, :orderId, :productId, :quantity, :price)")
+                        .bind("id", id)
+                        .bind("orderId", order.getId())
+                        .bind("productId", orderProduct.getProduct().getId())
+                        .bind("quantity", orderProduct.getQuantity())
+                        .bind("price", orderProduct.getPrice())
+                        .then()
+                        .doOnSuccess(done -> orderProduct.setId(id))
+                        .thenReturn(id)));
+        return insertOrder
+                .thenMany(insertLines)
+                .then(Mono.just(order))
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<Order> findOrderWithProductsById(Long id) {
+        return toOrders(databaseClient.sql(SELECT_ORDERS_WITH_LINES + "WHERE o.id = :id ORDER BY op.id")
+                .bind("id", id))
+                .next();
+    }
+
+    @Override
+    public Mono<Order> findOrderHeaderById(Long id) {
+        return databaseClient.sql(SELECT_HEADERS + "WHERE o.id = :id")
+                .bind("id", id)
+                .map(R2dbcOrderRepository::toHeader)
+                .one();
+    }
+
+    @Override
+    public Flux<Order> findAllOrders() {
+        return toOrders(databaseClient.sql(SELECT_ORDERS_WITH_LINES + "ORDER BY o.id, op.id")
+                .filter(statement -> statement.fetchSize(R2dbcUserRepository.FETCH_SIZE)));
+    }
+
+    @Override
+    public Flux<Order> findOrdersAfterId(Long afterId, int limit) {
+        return withLines(databaseClient.sql(SELECT_HEADERS + "WHERE o.id > :afterId ORDER BY o.id FETCH FIRST :limit ROWS ONLY")
+                .bind("afterId", afterId == null ? 0L : afterId)
+                .bind("limit", limit));
+    }
+
+    @Override
+    public Flux<Order> findOrdersByOrderDateAfter(LocalDateTime afterDate, Long afterId, int limit) {
+        return findOrdersByOrderDate(afterDate, afterId, limit, ">", "ASC");
+    }
+
+    @Override
+    public Flux<Order> findOrdersByOrderDateBefore(LocalDateTime beforeDate, Long beforeId, int limit) {
+        return findOrdersByOrderDate(beforeDate, beforeId, limit, "<", "DESC");
+    }
+
+    /**
+     * Keyset page on (order_date, id), served by idx_orders_order_date_id
+     */
+    private Flux<Order> findOrdersByOrderDate(LocalDateTime date, Long id, int limit, String comparison, String direction) {
+        String keyset = date == null ? "" : "WHERE o.order_date " + comparison + " :date "
+                + "OR (o.order_date = :date AND o.id " + comparison + " :id) ";
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(SELECT_HEADERS + keyset
+                        + "ORDER BY o.order_date " + direction + ", o.id " + direction + " FETCH FIRST :limit ROWS ONLY")
+                .bind("limit", limit);
+        if (date != null) {
+            spec = spec.bind("date", date).bind("id", id);
+        }
+        return withLines(spec);
+    }
+
+    @Override
+    public Flux<Order> findByUserId(Long userId) {
+        return toOrders(databaseClient.sql(SELECT_ORDERS_WITH_LINES + "WHERE o.user_id = :userId ORDER BY o.id, op.id")
+                .bind("userId", userId)
+                .filter(statement -> statement.fetchSize(R2dbcUserRepository.FETCH_SIZE)));
+    }
+
+    /**
+     * UPDATE orders SET status = ?, version = version + 1 WHERE id = ? AND status = ?: of two concurrent
+     * transitions from the same status only one succeeds
+     */
+    @Override
+    public Mono<Boolean> compareAndSetStatus(Long id, Order.OrderStatus expectedStatus, Order.OrderStatus status) {
+        return databaseClient.sql("UPDATE orders SET status = :status, version = version + 1 "
+                        + "WHERE id = :id AND status = :expectedStatus")
+                .bind("status", status.name())
+                .bind("id", id)
+                .bind("expectedStatus", expectedStatus.name())
+                .fetch()
+                .rowsUpdated()
+                .map(updated -> updated > 0);
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM order_products WHERE order_id = :id")
+                .bind("id", id)
+                .then()
+                .then(databaseClient.sql("DELETE FROM orders WHERE id = :id")
+                        .bind("id", id)
+                        .then())
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Group the rows of an orders-with-lines query into orders, one order at a time
+     */
+    private Flux<Order> toOrders(DatabaseClient.GenericExecuteSpec spec) {
+        return spec.map(row -> new OrderRow(toHeader(row), toLine(row)))
+                .all()
+                .bufferUntilChanged(orderRow -> orderRow.order().getId())
+                .map(orderRows -> {
+                    Order order = orderRows.get(0).order();
+                    List<OrderProduct> orderProducts = new ArrayList<>(orderRows.size());
+                    for (OrderRow orderRow : orderRows) {
+                        if (orderRow.orderProduct() != null) {
+                            orderProducts.add(orderRow.orderProduct());
+                        }
+                    }
+                    return withOrderProducts(order, orderProducts);
+                });
+    }
+
+    /**
+     * Read a page of order headers, then the lines of all of them with one query
+     */
+    private Flux<Order> withLines(DatabaseClient.GenericExecuteSpec headers) {
+        return headers.map(R2dbcOrderRepository::toHeader)
+                .all()
+                .collectList()
+                .flatMapMany(orders -> {
+                    if (orders.isEmpty()) {
+                        return Flux.empty();
+                    }
+                    Map<Long, List<OrderProduct>> linesByOrder = new LinkedHashMap<>();
+                    for (Order order : orders) {
+                        linesByOrder.put(order.getId(), new ArrayList<>());
+                    }
+                    return databaseClient.sql(SELECT_LINES + "WHERE op.order_id IN (:orderIds) ORDER BY op.id")
+                            .bind("orderIds", linesByOrder.keySet())
+                            .map(row -> Map.entry(Rows.getLong(row, "order_id"), toLine(row)))
+                            .all()
+                            .doOnNext(line -> linesByOrder.get(line.getKey()).add(line.getValue()))
+                            .thenMany(Flux.fromIterable(orders)
+                                    .map(order -> withOrderProducts(order, linesByOrder.get(order.getId()))));
+                });
+    }
+
+    /**
+     * Set the lines of an order, keeping the stored total
+     */
+    private static Order withOrderProducts(Order order, List<OrderProduct> orderProducts) {
+        BigDecimal totalAmount = order.getTotalAmount();
+        order.setOrderProducts(orderProducts);
+        for (OrderProduct orderProduct : orderProducts) {
+            orderProduct.setOrder(order);
+        }
+        order.setTotalAmount(totalAmount);
+        return order;
+    }
+
+    private static Order toHeader(Readable row) {
+        User user = new User();
+        user.setId(Rows.getLong(row, "user_id"));
+        return new Order(Rows.getLong(row, "order_id"), user, row.get("order_date", LocalDateTime.class),
+                row.get("total_amount", BigDecimal.class), Order.OrderStatus.valueOf(row.get("status", String.class)));
+    }
+
+    /**
+     * @return the order product of a row, null for the row of an order without lines
+     */
+    private static OrderProduct toLine(Readable row) {
+        Long id = Rows.getLong(row, "line_id");
+        if (id == null) {
+            return null;
+        }
+        Product product = new Product();
+        product.setId(Rows.getLong(row, "product_id"));
+        product.setName(row.get("product_name", String.class));
+        return new OrderProduct(id, null, product, Rows.getInteger(row, "quantity"), row.get("price", BigDecimal.class));
+    }
+
+    private record OrderRow(Order order, OrderProduct orderProduct) {
+    }
+}
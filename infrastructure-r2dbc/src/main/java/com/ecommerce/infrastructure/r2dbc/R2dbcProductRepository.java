@@ -0,0 +1,165 @@
+package com.ecommerce.infrastructure.r2dbc;
+
+import com.ecommerce.application.reactive.repository.ReactiveProductRepository;
+import com.ecommerce.domain.Product;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * R2dbcProductRepository - ReactiveProductRepository on the products table of the JPA adapter
+ * Stock is reserved with one conditional UPDATE per product (stock_quantity >= quantity), in product id order
+ * so that concurrent reservations lock the rows in the same order and cannot deadlock.
+ */
+@Repository
+public class R2dbcProductRepository implements ReactiveProductRepository {
+
+    private static final String SELECT_PRODUCTS = "SELECT id, name, description, price, stock_quantity FROM products ";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final PooledSequence productSequence;
+
+    public R2dbcProductRepository(DatabaseClient databaseClient, TransactionalOperator transactionalOperator) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.productSequence = new PooledSequence(databaseClient, "products_seq");
+    }
+
+    @Override
+    public Mono<Product> saveProduct(Product product) {
+        if (product.getId() != null) {
+            return databaseClient.sql("UPDATE products SET name = :name, description = :description, price = :price, "
+                            + "stock_quantity = :stockQuantity WHERE id = :id")
+                    .bind("name", product.getName())
+                    .bind("description", product.getDescription())
+                    .bind("price", product.getPrice())
+                    .bind("stockQuantity", product.getStockQuantity())
+                    .bind("id", product.getId())
+                    .then()
+                    .thenReturn(product);
+        }
+        return productSequence.nextId().flatMap(id -> databaseClient
+                .sql("INSERT INTO products (id, name, description, price, stock_quantity) "
+                        + "VALUES (:id, :name, :description, :price, :stockQuantity)")
+                .bind("id", id)
+                .bind("name", product.getName())
+                .bind("description", product.getDescription())
+                .bind("price", product.getPrice())
+                .bind("stockQuantity", product.getStockQuantity())
+                .then()
+                .then(Mono.fromSupplier(() -> {
+                    product.setId(id);
+                    return product;
+                })));
+    }
+
+    @Override
+    public Mono<Product> findProductById(Long id) {
+        return databaseClient.sql(SELECT_PRODUCTS + "WHERE id = :id")
+                .bind("id", id)
+                .map(R2dbcProductRepository::toProduct)
+                .one();
+    }
+
+    @Override
+    public Flux<Product> findAllProducts() {
+        return databaseClient.sql(SELECT_PRODUCTS + "ORDER BY id")
+                .filter(statement -> statement.fetchSize(R2dbcUserRepository.FETCH_SIZE))
+                .map(R2dbcProductRepository::toProduct)
+                .all();
+    }
+
+    @Override
+    public Flux<Product> findProductsByIds(Collection<Long> ids) {
+        return databaseClient.sql(SELECT_PRODUCTS + "WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(R2dbcProductRepository::toProduct)
+                .all();
+    }
+
+    @Override
+    public Flux<Product> findProductsAfterId(Long afterId, int limit) {
+        return databaseClient.sql(SELECT_PRODUCTS + "WHERE id > :afterId ORDER BY id FETCH FIRST :limit ROWS ONLY")
+                .bind("afterId", afterId == null ? 0L : afterId)
+                .bind("limit", limit)
+                .map(R2dbcProductRepository::toProduct)
+                .all();
+    }
+
+    /**
+     * LOWER(name) LIKE %text%, with the wildcards of the text escaped
+     */
+    @Override
+    public Flux<Product> findByNameContaining(String name) {
+        String pattern = "%" + name.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return databaseClient.sql(SELECT_PRODUCTS + "WHERE LOWER(name) LIKE :pattern ESCAPE '\\' ORDER BY id")
+                .bind("pattern", pattern)
+                .filter(statement -> statement.fetchSize(R2dbcUserRepository.FETCH_SIZE))
+                .map(R2dbcProductRepository::toProduct)
+                .all();
+    }
+
+    @Override
+    public Mono<Void> reserveStock(Map<Long, Integer> quantities) {
+        return Flux.fromIterable(new TreeMap<>(quantities).entrySet())
+                .concatMap(entry -> databaseClient.sql("UPDATE products SET stock_quantity = stock_quantity - :quantity "
+                                + "WHERE id = :id AND stock_quantity >= :quantity")
+                        .bind("quantity", entry.getValue())
+                        .bind("id", entry.getKey())
+                        .fetch()
+                        .rowsUpdated()
+                        .flatMap(updated -> updated == 0
+                                ? Mono.error(new IllegalArgumentException("Insufficient stock for product with id " + entry.getKey()))
+                                : Mono.just(updated)))
+                .then()
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<Void> releaseStock(Map<Long, Integer> quantities) {
+        return Flux.fromIterable(new TreeMap<>(quantities).entrySet())
+                .concatMap(entry -> databaseClient.sql("UPDATE products SET stock_quantity = stock_quantity + :quantity WHERE id = :id")
+                        .bind("quantity", entry.getValue())
+                        .bind("id", entry.getKey())
+                        .fetch()
+                        .rowsUpdated())
+                .then()
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * A product in orders fails with DataIntegrityViolationException (foreign key of order_products)
+     */
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM products WHERE id = :id")
+                .bind("id", id)
+                .then();
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("SELECT 1 FROM products WHERE id = :id")
+                .bind("id", id)
+                .map(row -> 1)
+                .first()
+                .hasElement();
+    }
+
+    private static Product toProduct(Readable row) {
+        return new Product(Rows.getLong(row, "id"), row.get("name", String.class), row.get("description", String.class),
+                row.get("price", BigDecimal.class), Rows.getInteger(row, "stock_quantity"));
+    }
+}
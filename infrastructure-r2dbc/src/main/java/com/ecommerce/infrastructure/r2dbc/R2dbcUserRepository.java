@@ -0,0 +1,127 @@
+package com.ecommerce.infrastructure.r2dbc;
+
+import com.ecommerce.application.reactive.repository.ReactiveUserRepository;
+import com.ecommerce.domain.User;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2dbcUserRepository - ReactiveUserRepository on the users table of the JPA adapter
+ * Listings are read with a cursor of FETCH_SIZE rows: the driver fetches the next rows only when the
+ * subscriber has requested them, so a slow client slows down the query instead of filling memory.
+ */
+@Repository
+public class R2dbcUserRepository implements ReactiveUserRepository {
+
+    static final int FETCH_SIZE = 100;
+
+    private static final String SELECT_USERS = "SELECT id, email, name, password, address FROM users ";
+
+    private final DatabaseClient databaseClient;
+    private final PooledSequence userSequence;
+
+    public R2dbcUserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+        this.userSequence = new PooledSequence(databaseClient, "users_seq");
+    }
+
+    /**
+     * Insert a user without id, or update an existing one
+     * A duplicate email fails with DataIntegrityViolationException.
+     */
+    @Override
+    public Mono<User> saveUser(User user) {
+        if (user.getId() != null) {
+            return databaseClient.sql("UPDATE users SET email = :email, name = :name, password = :password, "
+                            + "address = :address WHERE id = :id")
+                    .bind("email", user.getEmail())
+                    .bind("name", user.getName())
+                    .bind("password", user.getPassword())
+                    .bind("address", user.getAddress())
+                    .bind("id", user.getId())
+                    .then()
+                    .thenReturn(user);
+        }
+        return userSequence.nextId().flatMap(id -> databaseClient
+                .sql("INSERT INTO users (id, email, name, password, address) VALUES (:id, :email, :name, :password, :address)")
+                .bind("id", id)
+                .bind("email", user.getEmail())
+                .bind("name", user.getName())
+                .bind("password", user.getPassword())
+                .bind("address", user.getAddress())
+                .then()
+                .then(Mono.fromSupplier(() -> {
+                    user.setId(id);
+                    return user;
+                })));
+    }
+
+    @Override
+    public Mono<User> findUserById(Long id) {
+        return databaseClient.sql(SELECT_USERS + "WHERE id = :id")
+                .bind("id", id)
+                .map(R2dbcUserRepository::toUser)
+                .one();
+    }
+
+    @Override
+    public Flux<User> findAllUsers() {
+        return databaseClient.sql(SELECT_USERS + "ORDER BY id")
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(R2dbcUserRepository::toUser)
+                .all();
+    }
+
+    @Override
+    public Flux<User> findUsersAfterId(Long afterId, int limit) {
+        return databaseClient.sql(SELECT_USERS + "WHERE id > :afterId ORDER BY id FETCH FIRST :limit ROWS ONLY")
+                .bind("afterId", afterId == null ? 0L : afterId)
+                .bind("limit", limit)
+                .map(R2dbcUserRepository::toUser)
+                .all();
+    }
+
+    @Override
+    public Mono<User> findUserByEmail(String email) {
+        return databaseClient.sql(SELECT_USERS + "WHERE email = :email")
+                .bind("email", email)
+                .map(R2dbcUserRepository::toUser)
+                .one();
+    }
+
+    @Override
+    public Mono<Boolean> existsByEmail(String email) {
+        return databaseClient.sql("SELECT 1 FROM users WHERE email = :email")
+                .bind("email", email)
+                .map(row -> 1)
+                .first()
+                .hasElement();
+    }
+
+    /**
+     * A user with orders fails with DataIntegrityViolationException (foreign key of orders)
+     */
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM users WHERE id = :id")
+                .bind("id", id)
+                .then();
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("SELECT 1 FROM users WHERE id = :id")
+                .bind("id", id)
+                .map(row -> 1)
+                .first()
+                .hasElement();
+    }
+
+    private static User toUser(Readable row) {
+        return new User(Rows.getLong(row, "id"), row.get("email", String.class), row.get("name", String.class),
+                row.get("password", String.class), row.get("address", String.class));
+    }
+}
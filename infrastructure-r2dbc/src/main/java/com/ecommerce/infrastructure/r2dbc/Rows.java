@@ -0,0 +1,29 @@
+package com.ecommerce.infrastructure.r2dbc;
+
+import io.r2dbc.spi.Readable;
+
+/**
+ * Rows - reads the NUMBER columns of the schema as Java integers
+ * NUMBER(19) and NUMBER(10) columns (and NEXTVAL) come back as BigDecimal from H2 in Oracle mode, and not
+ * every driver converts them to Long or Integer, so they are read as Number and narrowed here.
+ */
+final class Rows {
+
+    private Rows() {
+    }
+
+    static Long getLong(Readable row, String column) {
+        Number value = (Number) row.get(column);
+        return value != null ? value.longValue() : null;
+    }
+
+    static Long getLong(Readable row, int index) {
+        Number value = (Number) row.get(index);
+        return value != null ? value.longValue() : null;
+    }
+
+    static Integer getInteger(Readable row, String column) {
+        Number value = (Number) row.get(column);
+        return value != null ? value.intValue() : null;
+    }
+}
@@ -0,0 +1,42 @@
+-- Schema of the JPA adapter (the tables Hibernate creates for the domain entities), for databases the
+-- MVC application has not created. Sequences are incremented by the allocationSize of the entities.
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE products_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE order_products_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE users (
+    id NUMBER(19) NOT NULL PRIMARY KEY,
+    email VARCHAR2(255) NOT NULL UNIQUE,
+    name VARCHAR2(255) NOT NULL,
+    password VARCHAR2(255) NOT NULL,
+    address VARCHAR2(255) NOT NULL
+);
+
+CREATE TABLE products (
+    id NUMBER(19) NOT NULL PRIMARY KEY,
+    name VARCHAR2(255) NOT NULL,
+    description VARCHAR2(1000) NOT NULL,
+    price NUMBER(10, 2) NOT NULL,
+    stock_quantity NUMBER(10) NOT NULL
+);
+
+CREATE TABLE orders (
+    id NUMBER(19) NOT NULL PRIMARY KEY,
+    user_id NUMBER(19) NOT NULL REFERENCES users (id),
+    order_date TIMESTAMP(6) NOT NULL,
+    total_amount NUMBER(10, 2) NOT NULL,
+    status VARCHAR2(255) NOT NULL,
+    version NUMBER(19) NOT NULL
+);
+
+CREATE TABLE order_products (
+    id NUMBER(19) NOT NULL PRIMARY KEY,
+    order_id NUMBER(19) NOT NULL REFERENCES orders (id),
+    product_id NUMBER(19) NOT NULL REFERENCES products (id),
+    quantity NUMBER(10) NOT NULL,
+    price NUMBER(10, 2) NOT NULL
+);
+
+CREATE INDEX idx_orders_order_date_id ON orders (order_date, id);
+CREATE INDEX idx_orders_user_order_date ON orders (user_id, order_date);
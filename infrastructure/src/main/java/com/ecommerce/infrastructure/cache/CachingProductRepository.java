@@ -0,0 +1,258 @@
+package com.ecommerce.infrastructure.cache;
+
+import com.ecommerce.application.repository.ProductRepository;
+import com.ecommerce.domain.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * CachingProductRepository - near-cache decorator around the ProductRepository port
+ * Lookups by id are served from a size- and time-bounded in-memory cache; writes go to the
+ * delegate and then refresh (save) or invalidate (delete) the cached entry.
+ * Cached products are detached snapshots: callers always receive their own copy.
+ * Loads and writes of the same id are serialized by striped locks rather than inside the cache's
+ * compute, which would hold a monitor (and pin a virtual thread to its carrier) during the query.
+ * Bulk loads take the stripes of all their missing ids (in stripe order, so two bulk loads cannot
+ * deadlock), so a row read before a concurrent write is never cached over the written one.
+ */
+public class CachingProductRepository implements ProductRepository {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final ProductRepository delegate;
+    private final Cache<Long, Product> cache;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    public CachingProductRepository(ProductRepository delegate, long maximumSize, Duration expireAfterWrite) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Product saveProduct(Product product) {
+        if (product.getId() == null) {
+            Product saved = delegate.saveProduct(product);
+            cache.put(saved.getId(), copyOf(saved));
+            return saved;
+        }
+        ReentrantLock lock = lockFor(product.getId());
+        lock.lock();
+        try {
+            Product saved = delegate.saveProduct(product);
+            cache.put(saved.getId(), copyOf(saved));
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * New products are not cached: a bulk load would evict the products being read
+     */
+    @Override
+    public List<Product> saveAllProducts(List<Product> products) {
+        return delegate.saveAllProducts(products);
+    }
+
+    @Override
+    public Optional<Product> findProductById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Product cached = cache.getIfPresent(id);
+        if (cached == null) {
+            ReentrantLock lock = lockFor(id);
+            lock.lock();
+            try {
+                // Another caller may have loaded or saved the product while this one waited
+                cached = cache.policy().getIfPresentQuietly(id);
+                if (cached == null) {
+                    long start = System.nanoTime();
+                    cached = delegate.findProductById(id).map(this::copyOf).orElse(null);
+                    loads.increment();
+                    loadNanos.add(System.nanoTime() - start);
+                    if (cached != null) {
+                        cache.put(id, cached);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return Optional.ofNullable(cached).map(this::copyOf);
+    }
+
+    @Override
+    public List<Product> findProductsByIds(Collection<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.remove(null);
+        Map<Long, Product> products = new HashMap<>(cache.getAllPresent(distinctIds));
+        List<Long> missing = distinctIds.stream().filter(id -> !products.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            products.putAll(loadAll(missing));
+        }
+        return distinctIds.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(this::copyOf)
+                .toList();
+    }
+
+    /**
+     * Load products missing from the cache while holding the stripes of their ids, as findProductById does
+     * for one id: a write of one of them waits for the load, then refreshes or invalidates what it cached
+     */
+    private Map<Long, Product> loadAll(List<Long> missing) {
+        int[] stripes = missing.stream().mapToInt(CachingProductRepository::stripeOf).distinct().sorted().toArray();
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+        }
+        try {
+            // Another caller may have loaded or saved some of them while this one waited
+            Map<Long, Product> loaded = new HashMap<>();
+            List<Long> toLoad = new ArrayList<>(missing.size());
+            for (Long id : missing) {
+                Product cached = cache.policy().getIfPresentQuietly(id);
+                if (cached != null) {
+                    loaded.put(id, cached);
+                } else {
+                    toLoad.add(id);
+                }
+            }
+            if (!toLoad.isEmpty()) {
+                long start = System.nanoTime();
+                for (Product product : delegate.findProductsByIds(toLoad)) {
+                    Product cached = copyOf(product);
+                    cache.put(cached.getId(), cached);
+                    loaded.put(cached.getId(), cached);
+                }
+                loads.increment();
+                loadNanos.add(System.nanoTime() - start);
+            }
+            return loaded;
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                locks[stripes[i]].unlock();
+            }
+        }
+    }
+
+    @Override
+    public List<Product> findAllProducts() {
+        return delegate.findAllProducts();
+    }
+
+    @Override
+    public void forEachProduct(Consumer<Product> consumer) {
+        delegate.forEachProduct(consumer);
+    }
+
+    @Override
+    public List<Product> findProductsAfterId(Long afterId, int limit) {
+        return delegate.findProductsAfterId(afterId, limit);
+    }
+
+    @Override
+    public List<Product> findByNameContaining(String name, int limit) {
+        return delegate.findByNameContaining(name, limit);
+    }
+
+    @Override
+    public void updateStockQuantity(Long id, int stockQuantity) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            delegate.updateStockQuantity(id, stockQuantity);
+            cache.asMap().computeIfPresent(id, (key, cached) -> new Product(cached.getId(), cached.getName(),
+                    cached.getDescription(), cached.getPrice(), stockQuantity));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            delegate.deleteById(id);
+        } finally {
+            cache.invalidate(id);
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return (id != null && cache.getIfPresent(id) != null) || delegate.existsById(id);
+    }
+
+    /**
+     * Drop every cached product
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Snapshot of the cache statistics
+     * @return size, hits, misses, hit rate and evictions since startup
+     */
+    public Map<String, Object> statistics() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("size", cache.estimatedSize());
+        statistics.put("hits", stats.hitCount());
+        statistics.put("misses", stats.missCount());
+        statistics.put("hitRate", stats.hitRate());
+        statistics.put("evictions", stats.evictionCount());
+        // Loads run under the striped locks, outside the cache, so they are timed here
+        long loadCount = loads.sum();
+        statistics.put("loads", loadCount);
+        statistics.put("averageLoadMillis", loadCount == 0 ? 0.0 : loadNanos.sum() / (double) loadCount / 1_000_000.0);
+        return statistics;
+    }
+
+    private ReentrantLock lockFor(Long id) {
+        return locks[stripeOf(id)];
+    }
+
+    private static int stripeOf(Long id) {
+        return Math.floorMod(Long.hashCode(id), LOCK_STRIPES);
+    }
+
+    private Product copyOf(Product product) {
+        return new Product(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getStockQuantity()
+        );
+    }
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.infrastructure.cache;
+
+import com.ecommerce.infrastructure.repository.ProductRepositoryImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+/**
+ * Registers the product near-cache as the primary ProductRepository,
+ * so services receive it instead of the JPA repository
+ */
+@Configuration
+@ConditionalOnProperty(name = "ecommerce.cache.products.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductCacheConfig {
+
+    @Bean
+    @Primary
+    public CachingProductRepository cachingProductRepository(
+            ProductRepositoryImpl productRepositoryImpl,
+            @Value("${ecommerce.cache.products.maximum-size:100000}") long maximumSize,
+            @Value("${ecommerce.cache.products.expire-after-write:10m}") Duration expireAfterWrite) {
+        return new CachingProductRepository(productRepositoryImpl, maximumSize, expireAfterWrite);
+    }
+}
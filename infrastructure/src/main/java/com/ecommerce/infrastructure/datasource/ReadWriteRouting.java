@@ -0,0 +1,84 @@
+package com.ecommerce.infrastructure.datasource;
+
+/**
+ * ReadWriteRouting - which database the connections of the current thread come from
+ * Service calls set the route for their duration (ReadWriteRoutingInterceptor); connections
+ * obtained without a route come from the primary. A web request can additionally pin its reads
+ * to the primary (read-your-writes after a recent write) and be told when it writes.
+ */
+public final class ReadWriteRouting {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Route> ROUTE = new ThreadLocal<>();
+    private static final ThreadLocal<RequestState> REQUEST = new ThreadLocal<>();
+
+    private ReadWriteRouting() {}
+
+    /**
+     * Start routing a web request
+     * @param readFromPrimary whether the client wrote recently, so its reads must see the primary
+     * @param onFirstWrite called once, when the request first calls a writing service method
+     */
+    public static void beginRequest(boolean readFromPrimary, Runnable onFirstWrite) {
+        REQUEST.set(new RequestState(readFromPrimary, onFirstWrite));
+    }
+
+    /**
+     * Stop routing the web request of the current thread
+     */
+    public static void endRequest() {
+        REQUEST.remove();
+    }
+
+    /**
+     * @return the route of the current thread, PRIMARY when none is set
+     */
+    static Route currentRoute() {
+        Route route = ROUTE.get();
+        return route == null ? Route.PRIMARY : route;
+    }
+
+    static boolean isRouted() {
+        return ROUTE.get() != null;
+    }
+
+    static void route(Route route) {
+        ROUTE.set(route);
+    }
+
+    static void clearRoute() {
+        ROUTE.remove();
+    }
+
+    /**
+     * @return true if the reads of the current request must go to the primary
+     */
+    static boolean readsFromPrimary() {
+        RequestState request = REQUEST.get();
+        return request != null && request.readFromPrimary;
+    }
+
+    /**
+     * Record that the current request writes: its later reads go to the primary
+     */
+    static void recordWrite() {
+        RequestState request = REQUEST.get();
+        if (request != null && !request.wrote) {
+            request.wrote = true;
+            request.readFromPrimary = true;
+            request.onFirstWrite.run();
+        }
+    }
+
+    private static final class RequestState {
+        private boolean readFromPrimary;
+        private boolean wrote;
+        private final Runnable onFirstWrite;
+
+        private RequestState(boolean readFromPrimary, Runnable onFirstWrite) {
+            this.readFromPrimary = readFromPrimary;
+            this.onFirstWrite = onFirstWrite;
+        }
+    }
+}
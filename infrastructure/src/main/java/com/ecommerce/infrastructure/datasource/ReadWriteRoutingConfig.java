@@ -0,0 +1,78 @@
+package com.ecommerce.infrastructure.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+
+/**
+ * Read replica (ecommerce.datasource.replica.enabled=true): two connection pools, "primary" configured
+ * by spring.datasource.* and "replica" by ecommerce.datasource.replica.*, behind a routing DataSource
+ * that the JPA repositories use. Read-only service calls are routed to the replica, everything else
+ * to the primary. Both pools publish their metrics (hikaricp_connections_*, tagged with the pool name).
+ */
+@Configuration
+@ConditionalOnProperty(name = "ecommerce.datasource.replica.enabled", havingValue = "true")
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(
+            @Qualifier("primaryDataSourceProperties") DataSourceProperties properties,
+            ObjectProvider<MeterRegistry> registryProvider) {
+        return pool(properties, "primary", registryProvider);
+    }
+
+    @Bean
+    @ConfigurationProperties("ecommerce.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("ecommerce.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Qualifier("replicaDataSourceProperties") DataSourceProperties properties,
+            ObjectProvider<MeterRegistry> registryProvider) {
+        return pool(properties, "replica", registryProvider);
+    }
+
+    @Bean
+    @Primary
+    public ReadWriteRoutingDataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource);
+    }
+
+    @Bean
+    public static ReadWriteRoutingPostProcessor readWriteRoutingPostProcessor(ObjectProvider<MeterRegistry> registryProvider) {
+        return new ReadWriteRoutingPostProcessor(registryProvider);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String poolName,
+                                         ObjectProvider<MeterRegistry> registryProvider) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(poolName);
+        MeterRegistry registry = registryProvider.getIfAvailable();
+        if (registry != null) {
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.infrastructure.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * ReadWriteRoutingDataSource - hands out connections of the primary or of the replica pool,
+ * following the route of the current thread (ReadWriteRouting)
+ * The route is read when a connection is obtained. Hibernate obtains one when a repository call
+ * starts its transaction and keeps it until its EntityManager closes, so the route only holds per
+ * repository call with open-in-view off (ReadWriteRoutingEnvironmentPostProcessor): an EntityManager
+ * open for the whole request would keep the connection of its first call. A service call routed
+ * to the replica thus uses it for all its queries.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+        setTargetDataSources(Map.of(ReadWriteRouting.Route.PRIMARY, primary, ReadWriteRouting.Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        // No route falls back to the primary; an unknown one is a bug, not a reason to write to the primary
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ReadWriteRouting.currentRoute();
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public DataSource getReplica() {
+        return replica;
+    }
+}
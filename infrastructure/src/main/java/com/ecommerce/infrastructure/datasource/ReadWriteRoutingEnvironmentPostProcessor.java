@@ -0,0 +1,28 @@
+package com.ecommerce.infrastructure.datasource;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * ReadWriteRoutingEnvironmentPostProcessor - turns open-in-view off when the read replica is enabled
+ * With open-in-view, a request's EntityManager keeps the first connection it obtains until the request
+ * ends, so the route of its first service call would serve all the others (a write after a get* would
+ * go to the replica). Without it, every repository call obtains a connection of the route current then.
+ * Takes precedence over spring.jpa.open-in-view set elsewhere, which would break the routing.
+ */
+public class ReadWriteRoutingEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String OPEN_IN_VIEW = "spring.jpa.open-in-view";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (environment.getProperty("ecommerce.datasource.replica.enabled", Boolean.class, false)) {
+            environment.getPropertySources().addFirst(
+                    new MapPropertySource("readWriteRouting", Map.of(OPEN_IN_VIEW, false)));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecommerce.infrastructure.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * ReadWriteRoutingInterceptor - routes a service call to the replica when it only reads
+ * Methods named get* and search* read; any other method is a write and goes to the primary,
+ * as do the reads of a request that wrote (now or recently, see ReadWriteRouting). The outermost
+ * service call decides: services it calls keep its route.
+ */
+public class ReadWriteRoutingInterceptor implements MethodInterceptor {
+
+    private static final List<String> READ_METHOD_PREFIXES = List.of("get", "search");
+
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReadWriteRoutingInterceptor(MeterRegistry registry) {
+        this.writes = routeCounter(registry, "primary", "write");
+        this.replicaReads = routeCounter(registry, "replica", "read");
+        this.primaryReads = routeCounter(registry, "primary", "read-your-writes");
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (ReadWriteRouting.isRouted() || invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+
+        ReadWriteRouting.Route route;
+        if (!isReadMethod(invocation.getMethod())) {
+            // Recorded before the call, while the response can still carry the stickiness
+            ReadWriteRouting.recordWrite();
+            route = ReadWriteRouting.Route.PRIMARY;
+            increment(writes);
+        } else if (ReadWriteRouting.readsFromPrimary()) {
+            route = ReadWriteRouting.Route.PRIMARY;
+            increment(primaryReads);
+        } else {
+            route = ReadWriteRouting.Route.REPLICA;
+            increment(replicaReads);
+        }
+
+        ReadWriteRouting.route(route);
+        try {
+            return invocation.proceed();
+        } finally {
+            ReadWriteRouting.clearRoute();
+        }
+    }
+
+    static boolean isReadMethod(Method method) {
+        return READ_METHOD_PREFIXES.stream().anyMatch(prefix -> method.getName().startsWith(prefix));
+    }
+
+    private static Counter routeCounter(MeterRegistry registry, String pool, String reason) {
+        return registry == null ? null : Counter.builder("datasource.routing.calls")
+                .description("Service calls routed to each pool")
+                .tags("pool", pool, "reason", reason)
+                .register(registry);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.infrastructure.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
+import org.springframework.core.Ordered;
+
+/**
+ * ReadWriteRoutingPostProcessor - routes the calls of the application services between the primary
+ * and the replica (ReadWriteRoutingInterceptor)
+ * Runs before the timing post-processor, whose advice then lands in front and times the routed call.
+ * Reports the proxy class as the bean type so Spring AOT generates it at build time.
+ */
+public class ReadWriteRoutingPostProcessor implements SmartInstantiationAwareBeanPostProcessor, Ordered {
+
+    private static final String SERVICE_PACKAGE = "com.ecommerce.application.service";
+
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private ReadWriteRoutingInterceptor interceptor;
+
+    public ReadWriteRoutingPostProcessor(ObjectProvider<MeterRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        if (!SERVICE_PACKAGE.equals(targetClass.getPackageName())) {
+            return bean;
+        }
+
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(interceptor());
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor());
+        return proxyFactory.getProxy(targetClass.getClassLoader());
+    }
+
+    @Override
+    public Class<?> determineBeanType(Class<?> beanClass, String beanName) {
+        if (!SERVICE_PACKAGE.equals(beanClass.getPackageName()) || Advised.class.isAssignableFrom(beanClass)) {
+            return beanClass;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTargetClass(beanClass);
+        proxyFactory.setProxyTargetClass(true);
+        return proxyFactory.getProxyClass(beanClass.getClassLoader());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+
+    private ReadWriteRoutingInterceptor interceptor() {
+        if (interceptor == null) {
+            interceptor = new ReadWriteRoutingInterceptor(registryProvider.getIfAvailable());
+        }
+        return interceptor;
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.infrastructure.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+/**
+ * Virtual-thread mode (spring.threads.virtual.enabled=true): wraps the DataSource so that no more
+ * requests than the pool has connections use the database at the same time
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "ecommerce.datasource.connection-limit.enabled", havingValue = "true", matchIfMissing = true)
+@ImportRuntimeHints(VirtualThreadDataSourceConfig.ConnectionProxyHints.class)
+public class VirtualThreadDataSourceConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // With a replica, each pool is limited on its own rather than the routing DataSource in front
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource
+                        || bean instanceof ReadWriteRoutingDataSource) {
+                    return bean;
+                }
+                // The limit follows the pool size unless configured explicitly
+                int maxConnections = environment.getProperty("ecommerce.datasource.connection-limit.max-connections",
+                        Integer.class, dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10);
+                Duration acquireTimeout = environment.getProperty("ecommerce.datasource.connection-limit.acquire-timeout",
+                        Duration.class, Duration.ofSeconds(30));
+                return new ConnectionLimitingDataSource(dataSource, maxConnections, acquireTimeout);
+            }
+        };
+    }
+
+    /**
+     * Native image: connections handed out by ConnectionLimitingDataSource are JDK proxies of Connection
+     */
+    static class ConnectionProxyHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.proxies().registerJdkProxy(Connection.class);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.infrastructure.health;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * DatabaseHealth - snapshot of the last database probe, one result per connection pool
+ * The first pool decides whether the database is up ("database", or "primary" with a read replica).
+ */
+public final class DatabaseHealth {
+
+    private static final DatabaseHealth NOT_PROBED = new DatabaseHealth(null, 0, Map.of());
+
+    private final Instant checkedAt;
+    private final int consecutiveFailures;
+    private final Map<String, PoolHealth> pools;
+
+    DatabaseHealth(Instant checkedAt, int consecutiveFailures, Map<String, PoolHealth> pools) {
+        this.checkedAt = checkedAt;
+        this.consecutiveFailures = consecutiveFailures;
+        this.pools = pools;
+    }
+
+    /**
+     * @return the snapshot before the first probe has finished
+     */
+    static DatabaseHealth notProbed() {
+        return NOT_PROBED;
+    }
+
+    public boolean isProbed() {
+        return checkedAt != null;
+    }
+
+    public boolean isUp() {
+        PoolHealth primary = getPrimary();
+        return primary != null && primary.isUp();
+    }
+
+    /**
+     * @return when the probe finished, or null if no probe has finished yet
+     */
+    public Instant getCheckedAt() {
+        return checkedAt;
+    }
+
+    /**
+     * @param now the current time
+     * @return time since the probe finished, or null if no probe has finished yet
+     */
+    public Duration getAge(Instant now) {
+        return checkedAt != null ? Duration.between(checkedAt, now) : null;
+    }
+
+    /**
+     * @return number of probes in a row, up to this one, in which the database was down
+     */
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * @return the pool that decides the status, or null before the first probe
+     */
+    public PoolHealth getPrimary() {
+        return pools.isEmpty() ? null : pools.values().iterator().next();
+    }
+
+    /**
+     * @return results by pool name, in probe order
+     */
+    public Map<String, PoolHealth> getPools() {
+        return pools;
+    }
+
+    /**
+     * @return threads waiting for a connection, summed over the pools
+     */
+    public int getWaitingThreads() {
+        int waiting = 0;
+        for (PoolHealth pool : pools.values()) {
+            waiting += pool.getWaitingThreads();
+        }
+        return waiting;
+    }
+}
@@ -0,0 +1,234 @@
+package com.ecommerce.infrastructure.health;
+
+import com.ecommerce.infrastructure.datasource.ConnectionLimitingDataSource;
+import com.ecommerce.infrastructure.datasource.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DatabaseHealthMonitor - probes the database in the background and keeps the last result
+ * Each probe takes one connection per pool, validates it and samples the pool's connection counts;
+ * health endpoints read the last snapshot instead of opening connections themselves, so polling them
+ * costs no connection and never waits for a slow database. Probes run on a single thread, one at a
+ * time, and go straight to the pool, past the virtual-thread connection limit.
+ */
+public class DatabaseHealthMonitor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseHealthMonitor.class);
+
+    private final Map<String, DataSource> pools;
+    private final int validationTimeoutSeconds;
+    private final Duration maxStaleness;
+    private final int failureThreshold;
+    private final int maxWaitingThreads;
+    private final boolean livenessIncludesDatabase;
+    // Written and read by the probing thread only
+    private final Map<String, Map<String, Object>> metadata = new HashMap<>();
+    private volatile DatabaseHealth health = DatabaseHealth.notProbed();
+    private ScheduledExecutorService prober;
+
+    /**
+     * @param dataSource the application's DataSource; with a read replica both pools are probed
+     * @param validationTimeout how long a connection may take to answer the validation (whole seconds)
+     * @param maxStaleness age after which the last probe no longer counts and the node is not ready
+     * @param failureThreshold probes in a row with the database down before the node is not ready
+     * @param maxWaitingThreads threads waiting for a connection above which the node is not ready
+     *                          (negative: pool saturation does not affect readiness)
+     * @param livenessIncludesDatabase whether liveness also fails when the node is not ready
+     */
+    public DatabaseHealthMonitor(DataSource dataSource, Duration validationTimeout, Duration maxStaleness,
+                                 int failureThreshold, int maxWaitingThreads, boolean livenessIncludesDatabase) {
+        // Probe order: the first pool decides the status
+        this.pools = new LinkedHashMap<>();
+        if (dataSource instanceof ReadWriteRoutingDataSource routingDataSource) {
+            pools.put("primary", routingDataSource.getPrimary());
+            pools.put("replica", routingDataSource.getReplica());
+        } else {
+            pools.put("database", dataSource);
+        }
+        // Connection.isValid takes whole seconds and 0 means no timeout
+        this.validationTimeoutSeconds = (int) Math.max(1, validationTimeout.toSeconds());
+        this.maxStaleness = maxStaleness;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.maxWaitingThreads = maxWaitingThreads;
+        this.livenessIncludesDatabase = livenessIncludesDatabase;
+    }
+
+    /**
+     * @return the last probe result, without touching the database
+     */
+    public DatabaseHealth getHealth() {
+        return health;
+    }
+
+    /**
+     * Reasons for the node not to receive traffic: no recent probe, the database down in the last
+     * failure-threshold probes, or more threads waiting for a connection than allowed
+     * @param now the current time
+     * @return the reasons, empty if the node is ready
+     */
+    public List<String> readinessProblems(Instant now) {
+        DatabaseHealth current = health;
+        List<String> problems = new ArrayList<>();
+        if (!current.isProbed()) {
+            problems.add("Database not probed yet");
+            return problems;
+        }
+        Duration age = current.getAge(now);
+        if (age.compareTo(maxStaleness) > 0) {
+            problems.add("Last database probe is " + age.toMillis() + " ms old");
+        }
+        if (current.getConsecutiveFailures() >= failureThreshold) {
+            problems.add("Database down in the last " + current.getConsecutiveFailures() + " probes");
+        }
+        if (maxWaitingThreads >= 0 && current.getWaitingThreads() > maxWaitingThreads) {
+            problems.add(current.getWaitingThreads() + " threads waiting for a database connection");
+        }
+        return problems;
+    }
+
+    /**
+     * Reasons to restart the node: none, unless liveness is configured to include the database
+     * @param now the current time
+     * @return the reasons, empty if the node is alive
+     */
+    public List<String> livenessProblems(Instant now) {
+        return livenessIncludesDatabase ? readinessProblems(now) : List.of();
+    }
+
+    /**
+     * Probe every pool and publish the result; called by the probing thread
+     * @return the new snapshot
+     */
+    public DatabaseHealth probe() {
+        Map<String, PoolHealth> results = new LinkedHashMap<>();
+        pools.forEach((name, pool) -> results.put(name, probe(name, pool)));
+        DatabaseHealth previous = health;
+        boolean up = results.values().iterator().next().isUp();
+        DatabaseHealth current = new DatabaseHealth(Instant.now(), up ? 0 : previous.getConsecutiveFailures() + 1,
+                Collections.unmodifiableMap(results));
+        // Log changes only: the probe runs every interval
+        boolean wasUp = !previous.isProbed() || previous.isUp();
+        if (wasUp && !up) {
+            log.warn("Database is down: {}", current.getPrimary().toMap().get("error"));
+        } else if (!wasUp && up) {
+            log.info("Database is up again after {} failed probes", previous.getConsecutiveFailures());
+        }
+        health = current;
+        return current;
+    }
+
+    /**
+     * Start probing in the background; until the first probe finishes the node is not ready
+     * @param interval the time between the end of a probe and the start of the next
+     */
+    public void start(Duration interval) {
+        prober = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("database-health-probe").daemon(true).factory());
+        prober.scheduleWithFixedDelay(this::probe, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (prober != null) {
+            prober.shutdownNow();
+        }
+    }
+
+    private PoolHealth probe(String name, DataSource pool) {
+        // Counts before the probe takes its own connection
+        Map<String, Object> connections = connections(pool);
+        int waitingThreads = waitingThreads(connections);
+        DataSource target = pool instanceof ConnectionLimitingDataSource limited ? limited.getTargetDataSource() : pool;
+        Map<String, Object> poolMetadata = metadata.getOrDefault(name, Map.of());
+        long start = System.nanoTime();
+        long acquired = start;
+        try (Connection connection = target.getConnection()) {
+            acquired = System.nanoTime();
+            boolean valid = connection.isValid(validationTimeoutSeconds);
+            long validated = System.nanoTime();
+            if (!metadata.containsKey(name)) {
+                poolMetadata = metadata(connection.getMetaData());
+                metadata.put(name, poolMetadata);
+            }
+            if (!valid) {
+                return PoolHealth.down(millis(start, acquired), poolMetadata, connections, waitingThreads,
+                        "Connection is not valid", null, null);
+            }
+            return PoolHealth.up(millis(start, acquired), millis(acquired, validated), poolMetadata,
+                    connections, waitingThreads);
+        } catch (SQLException e) {
+            return PoolHealth.down(millis(start, acquired == start ? System.nanoTime() : acquired), poolMetadata,
+                    connections, waitingThreads, e.getMessage(), e.getErrorCode(), e.getSQLState());
+        } catch (RuntimeException e) {
+            return PoolHealth.down(millis(start, acquired == start ? System.nanoTime() : acquired), poolMetadata,
+                    connections, waitingThreads, String.valueOf(e.getMessage()), null, null);
+        }
+    }
+
+    private static Map<String, Object> metadata(DatabaseMetaData databaseMetaData) throws SQLException {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        putIfNotNull(metadata, "url", databaseMetaData.getURL());
+        putIfNotNull(metadata, "driver", databaseMetaData.getDriverName());
+        putIfNotNull(metadata, "version", databaseMetaData.getDatabaseProductVersion());
+        putIfNotNull(metadata, "username", databaseMetaData.getUserName());
+        return Collections.unmodifiableMap(metadata);
+    }
+
+    private static Map<String, Object> connections(DataSource pool) {
+        Map<String, Object> connections = new LinkedHashMap<>();
+        try {
+            if (pool.isWrapperFor(HikariDataSource.class)) {
+                HikariDataSource hikari = pool.unwrap(HikariDataSource.class);
+                connections.put("max", hikari.getMaximumPoolSize());
+                // The pool starts with the first connection request
+                HikariPoolMXBean hikariPool = hikari.getHikariPoolMXBean();
+                if (hikariPool != null) {
+                    connections.put("active", hikariPool.getActiveConnections());
+                    connections.put("idle", hikariPool.getIdleConnections());
+                    connections.put("waiting", hikariPool.getThreadsAwaitingConnection());
+                }
+            }
+        } catch (SQLException e) {
+            // Not a Hikari pool: no connection counts
+        }
+        if (pool instanceof ConnectionLimitingDataSource limited) {
+            connections.put("limit", limited.getMaxConnections());
+            connections.put("limitAvailable", limited.getAvailableConnections());
+            connections.put("limitWaiting", limited.getWaitingCallers());
+        }
+        return connections;
+    }
+
+    private static int waitingThreads(Map<String, Object> connections) {
+        return (int) connections.getOrDefault("waiting", 0) + (int) connections.getOrDefault("limitWaiting", 0);
+    }
+
+    private static void putIfNotNull(Map<String, Object> map, String key, Object value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+
+    private static long millis(long fromNanos, long toNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(toNanos - fromNanos);
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.infrastructure.health;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Registers the background database probe behind the health endpoints (not in the inmemory profile,
+ * which has no database)
+ */
+@Configuration
+@Profile("!inmemory")
+public class HealthConfig {
+
+    @Bean(destroyMethod = "close")
+    public DatabaseHealthMonitor databaseHealthMonitor(
+            DataSource dataSource,
+            @Value("${ecommerce.health.interval:1s}") Duration interval,
+            @Value("${ecommerce.health.validation-timeout:2s}") Duration validationTimeout,
+            @Value("${ecommerce.health.readiness.max-staleness:5s}") Duration maxStaleness,
+            @Value("${ecommerce.health.readiness.failure-threshold:1}") int failureThreshold,
+            @Value("${ecommerce.health.readiness.max-waiting-threads:-1}") int maxWaitingThreads,
+            @Value("${ecommerce.health.liveness.include-database:false}") boolean livenessIncludesDatabase) {
+        DatabaseHealthMonitor monitor = new DatabaseHealthMonitor(dataSource, validationTimeout, maxStaleness,
+                failureThreshold, maxWaitingThreads, livenessIncludesDatabase);
+        monitor.start(interval);
+        return monitor;
+    }
+}
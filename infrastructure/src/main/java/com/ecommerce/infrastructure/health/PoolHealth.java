@@ -0,0 +1,100 @@
+package com.ecommerce.infrastructure.health;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * PoolHealth - result of probing one connection pool
+ * Immutable: the monitor replaces it on every probe, so readers never see a partially written result.
+ */
+public final class PoolHealth {
+
+    private final boolean up;
+    private final long acquireMillis;
+    private final long latencyMillis;
+    private final Map<String, Object> metadata;
+    private final Map<String, Object> connections;
+    private final int waitingThreads;
+    private final String error;
+    private final Integer errorCode;
+    private final String sqlState;
+
+    private PoolHealth(boolean up, long acquireMillis, long latencyMillis, Map<String, Object> metadata,
+                       Map<String, Object> connections, int waitingThreads,
+                       String error, Integer errorCode, String sqlState) {
+        this.up = up;
+        this.acquireMillis = acquireMillis;
+        this.latencyMillis = latencyMillis;
+        this.metadata = Map.copyOf(metadata);
+        this.connections = Map.copyOf(connections);
+        this.waitingThreads = waitingThreads;
+        this.error = error;
+        this.errorCode = errorCode;
+        this.sqlState = sqlState;
+    }
+
+    /**
+     * A pool whose connection was acquired and validated
+     * @param acquireMillis time to get a connection from the pool
+     * @param latencyMillis time of the validation round trip
+     * @param metadata url, driver, version and user of the database
+     * @param connections connection counts of the pool
+     * @param waitingThreads threads waiting for a connection
+     */
+    static PoolHealth up(long acquireMillis, long latencyMillis, Map<String, Object> metadata,
+                         Map<String, Object> connections, int waitingThreads) {
+        return new PoolHealth(true, acquireMillis, latencyMillis, metadata, connections, waitingThreads,
+                null, null, null);
+    }
+
+    /**
+     * A pool that could not give a valid connection
+     * @param error the reason
+     * @param errorCode vendor error code, or null
+     * @param sqlState SQL state, or null
+     */
+    static PoolHealth down(long acquireMillis, Map<String, Object> metadata, Map<String, Object> connections,
+                           int waitingThreads, String error, Integer errorCode, String sqlState) {
+        return new PoolHealth(false, acquireMillis, 0, metadata, connections, waitingThreads,
+                error, errorCode, sqlState);
+    }
+
+    public boolean isUp() {
+        return up;
+    }
+
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public int getWaitingThreads() {
+        return waitingThreads;
+    }
+
+    public Map<String, Object> getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * @return the probe result as response fields: status, timings, database metadata, connection counts
+     * and, when down, the error
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("status", up ? "UP" : "DOWN");
+        pool.putAll(metadata);
+        pool.put("acquireMillis", acquireMillis);
+        if (up) {
+            pool.put("latencyMillis", latencyMillis);
+        }
+        pool.put("connections", connections);
+        if (error != null) {
+            pool.put("error", error);
+        }
+        if (errorCode != null) {
+            pool.put("errorCode", errorCode);
+            pool.put("sqlState", sqlState);
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.infrastructure.idempotency;
+
+import com.ecommerce.infrastructure.repository.IdempotencyKeyRepositoryImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+/**
+ * Selects where idempotency keys are kept (ecommerce.idempotency.store):
+ * "memory" registers the in-memory store as the primary IdempotencyKeyRepository, so services receive
+ * it instead of the JPA repository; "database" keeps the JPA repository and purges expired keys
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "ecommerce.idempotency.store", havingValue = "memory", matchIfMissing = true)
+    public InMemoryIdempotencyKeyRepository inMemoryIdempotencyKeyRepository(
+            @Value("${ecommerce.idempotency.maximum-size:100000}") long maximumSize,
+            @Value("${ecommerce.idempotency.ttl:24h}") Duration timeToLive) {
+        return new InMemoryIdempotencyKeyRepository(maximumSize, timeToLive);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "ecommerce.idempotency.store", havingValue = "database")
+    public IdempotencyKeyPurger idempotencyKeyPurger(
+            IdempotencyKeyRepositoryImpl idempotencyKeyRepositoryImpl,
+            @Value("${ecommerce.idempotency.purge-interval:10m}") Duration purgeInterval) {
+        IdempotencyKeyPurger purger = new IdempotencyKeyPurger(idempotencyKeyRepositoryImpl);
+        purger.start(purgeInterval);
+        return purger;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.infrastructure.idempotency;
+
+import com.ecommerce.infrastructure.repository.IdempotencyKeyRepositoryImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IdempotencyKeyPurger - deletes expired keys from the key table in the background
+ * Expired keys are already ignored on lookup and replaced on reservation; purging only bounds the table.
+ */
+public class IdempotencyKeyPurger implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyKeyPurger.class);
+
+    private final IdempotencyKeyRepositoryImpl idempotencyKeyRepository;
+    private ScheduledExecutorService purger;
+
+    public IdempotencyKeyPurger(IdempotencyKeyRepositoryImpl idempotencyKeyRepository) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+    }
+
+    /**
+     * Delete the expired keys
+     * @return the number of keys deleted
+     */
+    public int purge() {
+        try {
+            return idempotencyKeyRepository.deleteExpiredKeys(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.warn("Expired idempotency keys could not be purged: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Start purging in the background
+     * @param interval the time between two purges
+     */
+    public void start(Duration interval) {
+        purger = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("idempotency-key-purger").daemon(true).factory());
+        purger.scheduleWithFixedDelay(this::purge, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.infrastructure.idempotency;
+
+import com.ecommerce.application.repository.IdempotencyKeyRepository;
+import com.ecommerce.domain.idempotency.IdempotencyKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * InMemoryIdempotencyKeyRepository - idempotency keys of this node, bounded by size and time
+ * Keys expire a time-to-live after they were reserved; when the size bound is reached the least
+ * recently used keys are evicted first, after which a retry of their request would run again.
+ * Keys are not shared between nodes: behind a load balancer use the key table instead.
+ */
+public class InMemoryIdempotencyKeyRepository implements IdempotencyKeyRepository {
+
+    private final Cache<String, IdempotencyKey> keys;
+    private final Duration timeToLive;
+
+    public InMemoryIdempotencyKeyRepository(long maximumSize, Duration timeToLive) {
+        this.keys = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        this.timeToLive = timeToLive;
+    }
+
+    @Override
+    public boolean reserveKey(String key, String requestHash) {
+        IdempotencyKey reserved = IdempotencyKey.reserved(key, requestHash, LocalDateTime.now().plus(timeToLive));
+        return keys.asMap().putIfAbsent(key, reserved) == null;
+    }
+
+    @Override
+    public Optional<IdempotencyKey> findKey(String key) {
+        return Optional.ofNullable(keys.getIfPresent(key));
+    }
+
+    @Override
+    public void completeKey(String key, int responseStatus, String responseBody) {
+        keys.asMap().computeIfPresent(key, (k, reserved) -> reserved.completed(responseStatus, responseBody));
+    }
+
+    @Override
+    public void releaseKey(String key) {
+        keys.asMap().computeIfPresent(key, (k, reserved) -> reserved.isCompleted() ? reserved : null);
+    }
+
+    /**
+     * Snapshot of the key store
+     * @return number of keys, hits (replayed or waiting duplicates) and evictions since startup
+     */
+    public Map<String, Object> statistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("size", keys.estimatedSize());
+        statistics.put("hits", keys.stats().hitCount());
+        statistics.put("evictions", keys.stats().evictionCount());
+        return statistics;
+    }
+}
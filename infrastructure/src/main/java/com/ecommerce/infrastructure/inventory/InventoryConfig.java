@@ -0,0 +1,27 @@
+package com.ecommerce.infrastructure.inventory;
+
+import com.ecommerce.application.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Registers the striped in-memory inventory and starts its reconciliation with the products table
+ */
+@Configuration
+public class InventoryConfig {
+
+    @Bean(destroyMethod = "close")
+    public StripedInventory stripedInventory(
+            ProductRepository productRepository,
+            @Value("${ecommerce.inventory.stripes:0}") int stripes,
+            @Value("${ecommerce.inventory.reconcile-interval:1s}") Duration reconcileInterval) {
+        // One stripe per core by default: enough to keep concurrent reservations apart
+        int stripeCount = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+        StripedInventory inventory = new StripedInventory(productRepository, stripeCount);
+        inventory.startReconciliation(reconcileInterval);
+        return inventory;
+    }
+}
@@ -0,0 +1,134 @@
+package com.ecommerce.infrastructure.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * StockCounter - available stock of one product, split across striped cells
+ * Each cell holds part of the stock and sits on its own cache line. A reservation takes units from
+ * the caller's cell with a compare-and-set, falling back to the other cells, so concurrent
+ * reservations of a hot product rarely touch the same memory. A cell never goes below zero, so the
+ * sum of the cells never does either: stock cannot be oversold. Only when no single cell can
+ * satisfy a reservation are the cells drained and redistributed, under a lock.
+ */
+final class StockCounter {
+
+    // 8 longs = 64 bytes between two cells, so they never share a cache line
+    private static final int PADDING = 8;
+
+    private final int stripes;
+    private final AtomicLongArray cells;
+    private final ReentrantLock rebalanceLock = new ReentrantLock();
+
+    // Stock last written to the products table, only touched by the reconciler
+    private long reconciledStock;
+
+    StockCounter(int stripes, long stock) {
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        this.reconciledStock = stock;
+        distribute(stock);
+    }
+
+    /**
+     * Take units from the counter
+     * @param quantity the number of units
+     * @return true if the units were reserved, false if there is not enough stock
+     */
+    boolean tryReserve(long quantity) {
+        int home = homeStripe();
+        for (int i = 0; i < stripes; i++) {
+            int index = ((home + i) % stripes) * PADDING;
+            long available;
+            while ((available = cells.get(index)) >= quantity) {
+                if (cells.compareAndSet(index, available, available - quantity)) {
+                    return true;
+                }
+            }
+        }
+        return reserveAcrossStripes(quantity);
+    }
+
+    /**
+     * Return units to the counter
+     * @param quantity the number of units
+     */
+    void release(long quantity) {
+        cells.getAndAdd(homeStripe() * PADDING, quantity);
+    }
+
+    /**
+     * @return the stock that can still be reserved (a moment-in-time sum of the cells)
+     */
+    long available() {
+        long available = 0;
+        for (int i = 0; i < stripes; i++) {
+            available += cells.get(i * PADDING);
+        }
+        return available;
+    }
+
+    /**
+     * Replace the stock, discarding what the cells held
+     * @param stock the new stock
+     */
+    void set(long stock) {
+        rebalanceLock.lock();
+        try {
+            drain();
+            distribute(stock);
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    long reconciledStock() {
+        return reconciledStock;
+    }
+
+    void reconciled(long stock) {
+        this.reconciledStock = stock;
+    }
+
+    /**
+     * Slow path: gather the stock of every cell, take the reservation from the total and spread
+     * the rest again. Concurrent reservations find empty cells meanwhile and queue on the lock.
+     */
+    private boolean reserveAcrossStripes(long quantity) {
+        rebalanceLock.lock();
+        try {
+            long available = drain();
+            boolean reserved = available >= quantity;
+            distribute(reserved ? available - quantity : available);
+            return reserved;
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    private long drain() {
+        long drained = 0;
+        for (int i = 0; i < stripes; i++) {
+            drained += cells.getAndSet(i * PADDING, 0);
+        }
+        return drained;
+    }
+
+    // Added rather than set, so units released into a cell meanwhile are kept
+    private void distribute(long stock) {
+        long share = stock / stripes;
+        long remainder = stock % stripes;
+        for (int i = 0; i < stripes; i++) {
+            long units = share + (i < remainder ? 1 : 0);
+            if (units != 0) {
+                cells.getAndAdd(i * PADDING, units);
+            }
+        }
+    }
+
+    private int homeStripe() {
+        // Spread thread ids (sequential for both platform and virtual threads) over the stripes
+        long id = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) ((id >>> 32) % stripes);
+    }
+}
@@ -0,0 +1,234 @@
+package com.ecommerce.infrastructure.inventory;
+
+import com.ecommerce.application.inventory.Inventory;
+import com.ecommerce.application.repository.ProductRepository;
+import com.ecommerce.domain.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * StripedInventory - in-memory inventory with one striped StockCounter per product
+ * Reservations and releases never touch the database, so a flash sale on one product does not
+ * serialize on its row lock. A product's counter is loaded from the products table the first time
+ * it is reserved; a background reconciler then writes the available stock of changed counters back
+ * to the table every interval (and once more on shutdown).
+ * The counters are authoritative for the node they live on: stock must not be reserved by more
+ * than one node at a time, and the table lags the counters by up to one interval.
+ */
+public class StripedInventory implements Inventory, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(StripedInventory.class);
+
+    private final ProductRepository productRepository;
+    private final int stripes;
+    private final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    // Striped like the counters, so versioning the stock does not bring back a shared hot spot
+    private final LongAdder stockChanges = new LongAdder();
+    private ScheduledExecutorService reconciler;
+
+    public StripedInventory(ProductRepository productRepository, int stripes) {
+        this.productRepository = productRepository;
+        this.stripes = stripes;
+    }
+
+    @Override
+    public void reserve(Map<Long, Integer> quantities) {
+        loadMissingCounters(quantities.keySet());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            StockCounter counter = counters.get(entry.getKey());
+            if (counter == null) {
+                releaseBefore(quantities, entry.getKey());
+                throw new IllegalArgumentException("Product with id " + entry.getKey() + " does not exist");
+            }
+            if (!counter.tryReserve(entry.getValue())) {
+                releaseBefore(quantities, entry.getKey());
+                throw new IllegalArgumentException("Insufficient stock for product with id " + entry.getKey());
+            }
+        }
+        stockChanges.increment();
+    }
+
+    @Override
+    public void release(Map<Long, Integer> quantities) {
+        // A counter may be gone (restart) or never loaded on this node: load it from the table,
+        // which already has the reservation reconciled, so the release is not lost
+        loadMissingCounters(quantities.keySet());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            StockCounter counter = counters.get(entry.getKey());
+            if (counter != null) {
+                counter.release(entry.getValue());
+            }
+        }
+        stockChanges.increment();
+    }
+
+    @Override
+    public OptionalInt availableStock(Long productId) {
+        StockCounter counter = counters.get(productId);
+        return counter == null ? OptionalInt.empty() : OptionalInt.of((int) counter.available());
+    }
+
+    @Override
+    public void setStock(Long productId, int stockQuantity) {
+        // Counter and table change together under the reconcile lock, so a reconciliation cannot
+        // write a stale available stock over the new one; reservations made after the counter is
+        // set leave it unreconciled and are written by the next reconciliation
+        reconcileLock.lock();
+        try {
+            loadMissingCounters(List.of(productId));
+            StockCounter counter = counters.get(productId);
+            if (counter == null) {
+                return;
+            }
+            counter.set(stockQuantity);
+            productRepository.updateStockQuantity(productId, stockQuantity);
+            counter.reconciled(stockQuantity);
+        } finally {
+            reconcileLock.unlock();
+            stockChanges.increment();
+        }
+    }
+
+    @Override
+    public long stockVersion() {
+        return stockChanges.sum();
+    }
+
+    @Override
+    public void remove(Long productId) {
+        counters.remove(productId);
+        stockChanges.increment();
+    }
+
+    /**
+     * Write the available stock of every counter changed since the last reconciliation
+     * to the products table
+     * @return the number of products updated
+     */
+    public int reconcile() {
+        reconcileLock.lock();
+        try {
+            int updated = 0;
+            for (Map.Entry<Long, StockCounter> entry : counters.entrySet()) {
+                if (reconcile(entry.getKey(), entry.getValue())) {
+                    updated++;
+                }
+            }
+            return updated;
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private boolean reconcile(Long productId, StockCounter counter) {
+        long available = counter.available();
+        if (available == counter.reconciledStock()) {
+            return false;
+        }
+        try {
+            productRepository.updateStockQuantity(productId, (int) available);
+            counter.reconciled(available);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Stock of product {} could not be reconciled: {}", productId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Start reconciling the counters with the products table in the background
+     * @param interval the time between two reconciliations
+     */
+    public void startReconciliation(Duration interval) {
+        reconciler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("inventory-reconciler").daemon(true).factory());
+        reconciler.scheduleWithFixedDelay(this::reconcile, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the reconciler and write the final stock back
+     */
+    @Override
+    public void close() {
+        if (reconciler != null) {
+            reconciler.shutdown();
+            try {
+                reconciler.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        reconcile();
+    }
+
+    /**
+     * Snapshot of the inventory
+     * @return number of tracked products, stripes per product and products awaiting reconciliation
+     */
+    public Map<String, Object> statistics() {
+        long unreconciled = counters.values().stream()
+                .filter(counter -> counter.available() != counter.reconciledStock())
+                .count();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("trackedProducts", counters.size());
+        statistics.put("stripes", stripes);
+        statistics.put("unreconciledProducts", unreconciled);
+        return statistics;
+    }
+
+    /**
+     * Load the counters of the products not tracked yet, with a single query
+     * A counter is published with putIfAbsent rather than computed inside the map, so the query
+     * never runs while holding a map lock; a counter loaded twice concurrently is discarded.
+     */
+    private void loadMissingCounters(Collection<Long> productIds) {
+        List<Long> missing = null;
+        for (Long productId : productIds) {
+            if (!counters.containsKey(productId)) {
+                if (missing == null) {
+                    missing = new ArrayList<>();
+                }
+                missing.add(productId);
+            }
+        }
+        if (missing == null) {
+            return;
+        }
+        for (Product product : productRepository.findProductsByIds(missing)) {
+            int stock = product.getStockQuantity() == null ? 0 : product.getStockQuantity();
+            counters.putIfAbsent(product.getId(), new StockCounter(stripes, stock));
+        }
+    }
+
+    /**
+     * Undo a partial reservation: release the products reserved before the one that failed,
+     * in the same (stable) iteration order of the request
+     */
+    private void releaseBefore(Map<Long, Integer> quantities, Long failedProductId) {
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (entry.getKey().equals(failedProductId)) {
+                return;
+            }
+            StockCounter counter = counters.get(entry.getKey());
+            if (counter != null) {
+                counter.release(entry.getValue());
+            }
+        }
+    }
+}
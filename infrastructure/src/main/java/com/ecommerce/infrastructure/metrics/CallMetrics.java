@@ -0,0 +1,65 @@
+package com.ecommerce.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CallMetrics - latency histogram and error counter of one instrumented operation
+ * Meters are registered once per operation and kept, so recording a call only updates them:
+ * no tag lookup and no allocation on the request path.
+ */
+public final class CallMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    private final Timer timer;
+    private final Counter errors;
+
+    private CallMetrics(Timer timer, Counter errors) {
+        this.timer = timer;
+        this.errors = errors;
+    }
+
+    /**
+     * Register the meters of an operation
+     * @param registry the registry to register in
+     * @param timerName name of the latency timer (p50/p99/p999, count, sum and max)
+     * @param errorsName name of the error counter
+     * @param tags tags identifying the operation
+     * @return the operation's metrics
+     */
+    public static CallMetrics register(MeterRegistry registry, String timerName, String errorsName, Tags tags) {
+        Timer timer = Timer.builder(timerName)
+                .tags(tags)
+                .publishPercentiles(PERCENTILES)
+                .percentilePrecision(2)
+                .register(registry);
+        Counter errors = Counter.builder(errorsName)
+                .tags(tags)
+                .register(registry);
+        return new CallMetrics(timer, errors);
+    }
+
+    /**
+     * Record one call
+     * @param nanos duration of the call
+     * @param failed whether the call failed
+     */
+    public void record(long nanos, boolean failed) {
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Count a failure without recording a duration
+     */
+    public void recordError() {
+        errors.increment();
+    }
+}
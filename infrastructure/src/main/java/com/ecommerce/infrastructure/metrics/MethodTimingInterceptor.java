@@ -0,0 +1,67 @@
+package com.ecommerce.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * MethodTimingInterceptor - times the calls of one instrumented bean
+ * The metrics of each method are resolved on its first call and cached by Method.
+ */
+class MethodTimingInterceptor implements MethodInterceptor {
+
+    private final Map<Method, Object> metricsByMethod = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+    private final String timerName;
+    private final String errorsName;
+    private final Function<Method, Tags> tagsOf;
+    // Marks methods that are not instrumented (Object methods, non-port methods of adapters)
+    private final Object untimed = new Object();
+
+    /**
+     * @param tagsOf tags of a method's metrics, or null if the method is not instrumented
+     */
+    MethodTimingInterceptor(MeterRegistry registry, String timerName, String errorsName, Function<Method, Tags> tagsOf) {
+        this.registry = registry;
+        this.timerName = timerName;
+        this.errorsName = errorsName;
+        this.tagsOf = tagsOf;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        Object metrics = metricsByMethod.get(method);
+        if (metrics == null) {
+            metrics = metricsByMethod.computeIfAbsent(method, this::metricsFor);
+        }
+        if (metrics == untimed) {
+            return invocation.proceed();
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            ((CallMetrics) metrics).record(System.nanoTime() - start, failed);
+        }
+    }
+
+    private Object metricsFor(Method method) {
+        if (method.getDeclaringClass() == Object.class || !Modifier.isPublic(method.getModifiers())) {
+            return untimed;
+        }
+        Tags tags = tagsOf.apply(method);
+        return tags != null ? CallMetrics.register(registry, timerName, errorsName, tags) : untimed;
+    }
+}
@@ -0,0 +1,131 @@
+package com.ecommerce.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * MethodTimingPostProcessor - instruments the application services and the adapters of the
+ * application ports (repositories, search index)
+ * Services get one timer per public method, tagged with class and method; adapters get one timer
+ * per port method, tagged with port, adapter bean and method, so a cache decorator and the JPA
+ * repository behind it show up separately. The timing advice is added in front of any existing
+ * advice (Spring Data repositories are already proxies), otherwise the bean is wrapped in a
+ * class-based proxy. The proxy class is also reported as the bean type, so Spring AOT generates it at
+ * build time (native images cannot define classes at runtime).
+ */
+public class MethodTimingPostProcessor implements SmartInstantiationAwareBeanPostProcessor, Ordered {
+
+    private static final String SERVICE_PACKAGE = "com.ecommerce.application.service";
+    private static final Set<String> PORT_PACKAGES = Set.of(
+            "com.ecommerce.application.repository", "com.ecommerce.application.search");
+
+    private final ObjectProvider<MeterRegistry> registryProvider;
+
+    public MethodTimingPostProcessor(ObjectProvider<MeterRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        MethodTimingInterceptor interceptor;
+        if (SERVICE_PACKAGE.equals(targetClass.getPackageName())) {
+            String className = targetClass.getSimpleName();
+            interceptor = new MethodTimingInterceptor(registryProvider.getObject(), "service.method.calls",
+                    "service.method.errors", method -> Tags.of("class", className, "method", method.getName()));
+        } else if (interfacesOf(bean.getClass()).stream().anyMatch(MethodTimingPostProcessor::isPort)) {
+            Set<Class<?>> interfaces = interfacesOf(bean.getClass());
+            interceptor = new MethodTimingInterceptor(registryProvider.getObject(), "port.calls", "port.errors",
+                    method -> {
+                        Class<?> port = portOf(interfaces, method);
+                        return port == null ? null
+                                : Tags.of("port", port.getSimpleName(), "adapter", beanName, "method", method.getName());
+                    });
+        } else {
+            return bean;
+        }
+
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, interceptor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        if (Proxy.isProxyClass(bean.getClass())) {
+            proxyFactory.setInterfaces(ClassUtils.getAllInterfaces(bean));
+        } else {
+            // Class-based, so callers injecting the concrete class and @EventListener methods keep working
+            proxyFactory.setProxyTargetClass(true);
+        }
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy(targetClass.getClassLoader());
+    }
+
+    @Override
+    public Class<?> determineBeanType(Class<?> beanClass, String beanName) {
+        boolean instrumented = SERVICE_PACKAGE.equals(beanClass.getPackageName())
+                || interfacesOf(beanClass).stream().anyMatch(MethodTimingPostProcessor::isPort);
+        if (!instrumented || Advised.class.isAssignableFrom(beanClass) || Proxy.isProxyClass(beanClass)
+                || beanClass.isInterface()) {
+            return beanClass;
+        }
+        // Same proxy configuration as postProcessAfterInitialization, so both resolve the same class
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTargetClass(beanClass);
+        proxyFactory.setProxyTargetClass(true);
+        return proxyFactory.getProxyClass(beanClass.getClassLoader());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    /**
+     * @return the interfaces of the class and its superclasses, including inherited interfaces
+     * (Spring Data repositories implement the ports through their *RepositoryImpl interfaces)
+     */
+    private static Set<Class<?>> interfacesOf(Class<?> type) {
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>(ClassUtils.getAllInterfacesForClassAsSet(type));
+        while (!pending.isEmpty()) {
+            Class<?> next = pending.pop();
+            if (interfaces.add(next)) {
+                pending.addAll(Arrays.asList(next.getInterfaces()));
+            }
+        }
+        return interfaces;
+    }
+
+    private static boolean isPort(Class<?> type) {
+        return type.isInterface() && PORT_PACKAGES.contains(type.getPackageName());
+    }
+
+    /**
+     * @return the port interface declaring the method's signature, or null if it is not a port method
+     */
+    private static Class<?> portOf(Set<Class<?>> interfaces, Method method) {
+        for (Class<?> type : interfaces) {
+            if (isPort(type) && Arrays.stream(type.getMethods()).anyMatch(portMethod ->
+                    portMethod.getName().equals(method.getName())
+                            && Arrays.equals(portMethod.getParameterTypes(), method.getParameterTypes()))) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
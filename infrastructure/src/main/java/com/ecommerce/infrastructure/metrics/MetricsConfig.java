@@ -0,0 +1,28 @@
+package com.ecommerce.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Latency metrics of services and port adapters, kept in a Prometheus registry
+ * (the web layer adds the per-endpoint metrics and the /metrics scrape endpoint)
+ */
+@Configuration
+@ConditionalOnProperty(name = "ecommerce.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfig {
+
+    @Bean
+    public PrometheusMeterRegistry prometheusMeterRegistry() {
+        return new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    }
+
+    @Bean
+    public static MethodTimingPostProcessor methodTimingPostProcessor(ObjectProvider<MeterRegistry> registryProvider) {
+        return new MethodTimingPostProcessor(registryProvider);
+    }
+}
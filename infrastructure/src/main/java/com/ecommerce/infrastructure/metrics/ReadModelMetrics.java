@@ -0,0 +1,32 @@
+package com.ecommerce.infrastructure.metrics;
+
+import com.ecommerce.application.service.OrderService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * ReadModelMetrics - counters of the read model updates OrderService could not apply after saving
+ * the orders (tagged by read model), read from the service's own counts at each scrape
+ * Any increase means the reports or the user order summaries are wrong until they are rebuilt.
+ */
+@Component
+@ConditionalOnProperty(name = "ecommerce.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class ReadModelMetrics {
+
+    public ReadModelMetrics(MeterRegistry registry, OrderService orderService) {
+        register(registry, orderService, "sales", OrderService::getFailedSalesUpdates);
+        register(registry, orderService, "user_order_summaries", OrderService::getFailedSummaryUpdates);
+    }
+
+    private static void register(MeterRegistry registry, OrderService orderService, String readModel,
+                                 ToDoubleFunction<OrderService> failures) {
+        FunctionCounter.builder("read.model.update.failures", orderService, failures)
+                .description("Read model updates that failed after their orders were saved")
+                .tag("read_model", readModel)
+                .register(registry);
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.application.repository.IdempotencyKeyRepository;
+import com.ecommerce.domain.idempotency.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepositoryImpl extends JpaRepository<IdempotencyKey, String>, IdempotencyKeyRepository,
+                                                      IdempotencyKeyWriter {
+    
+    @Override
+    default Optional<IdempotencyKey> findKey(String key) {
+        LocalDateTime now = LocalDateTime.now();
+        return findById(key).filter(idempotencyKey -> !idempotencyKey.isExpired(now));
+    }
+    
+    @Override
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyKey k SET k.responseStatus = :responseStatus, k.responseBody = :responseBody " +
+           "WHERE k.key = :key")
+    void completeKey(@Param("key") String key, @Param("responseStatus") int responseStatus,
+                     @Param("responseBody") String responseBody);
+    
+    @Override
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyKey k WHERE k.key = :key AND k.responseStatus IS NULL")
+    void releaseKey(@Param("key") String key);
+    
+    /**
+     * Delete the keys expired before a moment
+     * @param now the moment
+     * @return the number of keys deleted
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyKey k WHERE k.expiresAt < :now")
+    int deleteExpiredKeys(@Param("now") LocalDateTime now);
+}
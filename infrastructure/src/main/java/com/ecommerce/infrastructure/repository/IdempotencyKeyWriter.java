@@ -0,0 +1,10 @@
+package com.ecommerce.infrastructure.repository;
+
+/**
+ * IdempotencyKeyWriter - custom fragment of IdempotencyKeyRepositoryImpl for the key reservation
+ * Implemented by IdempotencyKeyWriterImpl, which inserts the key and reports a duplicate as false
+ */
+public interface IdempotencyKeyWriter {
+
+    boolean reserveKey(String key, String requestHash);
+}
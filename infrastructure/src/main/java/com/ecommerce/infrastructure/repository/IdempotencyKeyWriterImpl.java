@@ -0,0 +1,55 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.idempotency.IdempotencyKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+public class IdempotencyKeyWriterImpl implements IdempotencyKeyWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Duration timeToLive;
+
+    public IdempotencyKeyWriterImpl(PlatformTransactionManager transactionManager,
+                                    @Value("${ecommerce.idempotency.ttl:24h}") Duration timeToLive) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Insert the key, replacing an expired one. A live key is looked up first, so retries do not
+     * fail on the insert; the primary key decides between concurrent reservations, whose losers get false.
+     */
+    @Override
+    public boolean reserveKey(String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                IdempotencyKey existing = entityManager.find(IdempotencyKey.class, key);
+                if (existing != null) {
+                    if (!existing.isExpired(now)) {
+                        return false;
+                    }
+                    entityManager.remove(existing);
+                    entityManager.flush();
+                }
+                entityManager.persist(IdempotencyKey.reserved(key, requestHash, now.plus(timeToLive)));
+                entityManager.flush();
+                return true;
+            }));
+        } catch (RuntimeException e) {
+            if (ReadModelTransactions.isUniqueKeyViolation(e)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.infrastructure.repository;
+
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Enables the JPA adapter (entities and Spring Data repositories of this package), unless the
+ * in-memory adapter replaces it (inmemory profile)
+ */
+@Configuration
+@Profile("!inmemory")
+@EntityScan("com.ecommerce.domain")
+@EnableJpaRepositories("com.ecommerce.infrastructure.repository")
+public class JpaRepositoryConfig {
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.Order;
+
+import java.util.List;
+
+/**
+ * OrderBatchRepository - custom fragment of OrderRepositoryImpl for batched writes
+ * Implemented by OrderBatchRepositoryImpl, which has direct access to the EntityManager
+ */
+public interface OrderBatchRepository {
+
+    Order saveOrder(Order order);
+
+    List<Order> saveAllOrders(List<Order> orders);
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.OrderProduct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public class OrderBatchRepositoryImpl implements OrderBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Persist a new order (no version yet, as for JpaRepository.save) or merge a detached one.
+     * The merged copy references the products of its lines through proxies: they are loaded
+     * (batch fetched) before the transaction ends, so the order can be read without a session.
+     */
+    @Override
+    @Transactional
+    public Order saveOrder(Order order) {
+        if (order.getVersion() == null) {
+            entityManager.persist(order);
+            return order;
+        }
+        Order merged = entityManager.merge(order);
+        for (OrderProduct orderProduct : merged.getOrderProducts()) {
+            Hibernate.initialize(orderProduct.getProduct());
+        }
+        return merged;
+    }
+
+    /**
+     * Persist the orders (order products are cascaded) and flush them as JDBC batches.
+     * The persistence context is cleared afterwards so it does not grow across chunks.
+     */
+    @Override
+    @Transactional
+    public List<Order> saveAllOrders(List<Order> orders) {
+        for (Order order : orders) {
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return orders;
+    }
+}
@@ -3,17 +3,21 @@ package com.ecommerce.infrastructure.repository;
 import com.ecommerce.application.repository.OrderRepository;
 import com.ecommerce.domain.Order;
 import com.ecommerce.domain.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrderRepositoryImpl extends JpaRepository<Order, Long>, OrderRepository {
+public interface OrderRepositoryImpl extends JpaRepository<Order, Long>, OrderRepository, OrderBatchRepository,
+                                             OrderStreamRepository, OrderStatusRepository {
     
     @Override
     default List<Order> findAllOrders() {
@@ -21,27 +25,81 @@ public interface OrderRepositoryImpl extends JpaRepository<Order, Long>, OrderRe
     }
     
     @Override
-    default Optional<Order> findOrderById(Long id) {
-        return findById(id);
+    default List<Order> findOrdersAfterId(Long afterId, int limit) {
+        return findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(limit));
+    }
+    
+    @Override
+    default List<Order> findOrdersByOrderDateAfter(LocalDateTime afterDate, Long afterId, int limit) {
+        if (afterDate == null) {
+            return findAllByOrderByOrderDateAscIdAsc(Limit.of(limit));
+        }
+        return findOrderDateKeysetAsc(afterDate, afterId, Limit.of(limit));
+    }
+    
+    @Override
+    default List<Order> findOrdersByOrderDateBefore(LocalDateTime beforeDate, Long beforeId, int limit) {
+        if (beforeDate == null) {
+            return findAllByOrderByOrderDateDescIdDesc(Limit.of(limit));
+        }
+        return findOrderDateKeysetDesc(beforeDate, beforeId, Limit.of(limit));
     }
     
     @Override
-    default Order saveOrder(Order order) {
-        return save(order);
+    default List<Order> findRecentOrdersByUser(Long userId, int limit) {
+        return findByUserIdOrderByOrderDateDescIdDesc(userId, Limit.of(limit));
     }
     
     @Override
-    default void deleteById(Long id) {
-        deleteById(id);
+    default Optional<Order> findOrderById(Long id) {
+        return findById(id);
     }
     
     List<Order> findByUser(User user);
     
+    @Override
+    @EntityGraph(attributePaths = {"orderProducts", "orderProducts.product"})
+    @Query("SELECT o FROM Order o")
+    List<Order> findAllOrdersWithProducts();
+    
+    @Override
+    @EntityGraph(attributePaths = {"orderProducts", "orderProducts.product"})
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findOrderWithProductsById(@Param("id") Long id);
+    
+    @Override
+    @EntityGraph(attributePaths = {"orderProducts", "orderProducts.product"})
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids")
+    List<Order> findOrdersWithProductsByIds(@Param("ids") Collection<Long> ids);
+    
+    @Override
+    @EntityGraph(attributePaths = {"orderProducts", "orderProducts.product"})
+    @Query("SELECT o FROM Order o WHERE o.user = :user")
+    List<Order> findByUserWithProducts(@Param("user") User user);
+    
     List<Order> findByUserOrderByOrderDateDesc(User user);
     
+    List<Order> findByUserIdOrderByOrderDateDescIdDesc(Long userId, Limit limit);
+    
     @Query("SELECT o FROM Order o WHERE o.orderDate BETWEEN :startDate AND :endDate")
     List<Order> findOrdersByDateRange(@Param("startDate") LocalDateTime startDate, 
                                      @Param("endDate") LocalDateTime endDate);
     
     List<Order> findByStatus(Order.OrderStatus status);
+    
+    List<Order> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
+    List<Order> findAllByOrderByOrderDateAscIdAsc(Limit limit);
+    
+    List<Order> findAllByOrderByOrderDateDescIdDesc(Limit limit);
+    
+    @Query("SELECT o FROM Order o WHERE o.orderDate > :orderDate OR (o.orderDate = :orderDate AND o.id > :id) " +
+           "ORDER BY o.orderDate ASC, o.id ASC")
+    List<Order> findOrderDateKeysetAsc(@Param("orderDate") LocalDateTime orderDate,
+                                       @Param("id") Long id, Limit limit);
+    
+    @Query("SELECT o FROM Order o WHERE o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<Order> findOrderDateKeysetDesc(@Param("orderDate") LocalDateTime orderDate,
+                                        @Param("id") Long id, Limit limit);
 } 
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.Order;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * OrderStatusRepository - custom fragment of OrderRepositoryImpl for status changes without loading orders
+ * Implemented by OrderStatusRepositoryImpl, which has direct access to the EntityManager
+ */
+public interface OrderStatusRepository {
+
+    Optional<Order> findOrderHeaderById(Long id);
+
+    boolean compareAndSetStatus(Long id, Order.OrderStatus expectedStatus, Order.OrderStatus status);
+
+    List<Order> updateStatuses(Collection<Long> ids, Set<Order.OrderStatus> expectedStatuses, Order.OrderStatus status);
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public class OrderStatusRepositoryImpl implements OrderStatusRepository {
+
+    // Scalar columns only: neither the order entity, nor its user, nor its lines are loaded
+    private static final String SELECT_HEADERS =
+            "SELECT o.id, o.user.id, o.orderDate, o.totalAmount, o.status FROM Order o ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Order> findOrderHeaderById(Long id) {
+        return entityManager.createQuery(SELECT_HEADERS + "WHERE o.id = :id", Object[].class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst()
+                .map(OrderStatusRepositoryImpl::toHeader);
+    }
+
+    /**
+     * UPDATE orders SET status = ?, version = version + 1 WHERE id = ? AND status = ?: the database applies
+     * the check and the write atomically, so of two concurrent transitions from the same status only one succeeds
+     */
+    @Override
+    @Transactional
+    public boolean compareAndSetStatus(Long id, Order.OrderStatus expectedStatus, Order.OrderStatus status) {
+        return entityManager.createQuery(
+                        "UPDATE Order o SET o.status = :status, o.version = o.version + 1 "
+                                + "WHERE o.id = :id AND o.status = :expectedStatus")
+                .setParameter("status", status)
+                .setParameter("id", id)
+                .setParameter("expectedStatus", expectedStatus)
+                .executeUpdate() == 1;
+    }
+
+    /**
+     * Two statements for the whole chunk: a SELECT ... FOR UPDATE of the orders in an expected status,
+     * which tells the moved orders and their previous status apart, then one UPDATE of the locked ids
+     * that checks their status again in its WHERE
+     */
+    @Override
+    @Transactional
+    public List<Order> updateStatuses(Collection<Long> ids, Set<Order.OrderStatus> expectedStatuses,
+                                      Order.OrderStatus status) {
+        if (ids.isEmpty() || expectedStatuses.isEmpty()) {
+            return List.of();
+        }
+        List<Order> headers = entityManager.createQuery(
+                        SELECT_HEADERS + "WHERE o.id IN :ids AND o.status IN :expectedStatuses", Object[].class)
+                .setParameter("ids", ids)
+                .setParameter("expectedStatuses", expectedStatuses)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultStream()
+                .map(OrderStatusRepositoryImpl::toHeader)
+                .toList();
+        if (!headers.isEmpty()) {
+            entityManager.createQuery("UPDATE Order o SET o.status = :status, o.version = o.version + 1 "
+                            + "WHERE o.id IN :ids AND o.status IN :expectedStatuses")
+                    .setParameter("status", status)
+                    .setParameter("ids", headers.stream().map(Order::getId).toList())
+                    .setParameter("expectedStatuses", expectedStatuses)
+                    .executeUpdate();
+        }
+        return headers;
+    }
+
+    private static Order toHeader(Object[] row) {
+        User user = new User();
+        user.setId((Long) row[1]);
+        return new Order((Long) row[0], user, (LocalDateTime) row[2], (BigDecimal) row[3], (Order.OrderStatus) row[4]);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.User;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * OrderStreamRepository - custom fragment of OrderRepositoryImpl for cursor-based reads
+ * Implemented by OrderStreamRepositoryImpl, which has direct access to the EntityManager
+ */
+public interface OrderStreamRepository {
+
+    void forEachOrder(Consumer<Order> consumer);
+
+    void forEachByUser(User user, Consumer<Order> consumer);
+
+    void forEachByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate, Consumer<Order> consumer);
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class OrderStreamRepositoryImpl implements OrderStreamRepository {
+
+    /**
+     * Rows fetched per round trip by the JDBC cursor, and orders loaded per chunk
+     */
+    private static final int FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachOrder(Consumer<Order> consumer) {
+        forEachChunk(entityManager.createQuery("SELECT o.id FROM Order o ORDER BY o.id", Long.class), consumer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachByUser(User user, Consumer<Order> consumer) {
+        forEachChunk(entityManager.createQuery(
+                        "SELECT o.id FROM Order o WHERE o.user = :user ORDER BY o.id", Long.class)
+                .setParameter("user", user), consumer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachByOrderDateBetween(LocalDateTime startDate, LocalDateTime endDate, Consumer<Order> consumer) {
+        forEachChunk(entityManager.createQuery(
+                        "SELECT o.id FROM Order o WHERE o.orderDate BETWEEN :startDate AND :endDate ORDER BY o.id",
+                        Long.class)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate), consumer);
+    }
+
+    /**
+     * Walk the order ids selected by the query with a forward-only cursor and load the orders chunk by chunk,
+     * lines and products included. The persistence context is cleared after every chunk,
+     * so it never holds more than FETCH_SIZE orders.
+     */
+    private void forEachChunk(TypedQuery<Long> idQuery, Consumer<Order> consumer) {
+        try (Stream<Long> ids = idQuery.setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE).getResultStream()) {
+            List<Long> chunk = new ArrayList<>(FETCH_SIZE);
+            Iterator<Long> iterator = ids.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == FETCH_SIZE) {
+                    consumeChunk(chunk, consumer);
+                    chunk.clear();
+                }
+            }
+            consumeChunk(chunk, consumer);
+        }
+    }
+
+    private void consumeChunk(List<Long> ids, Consumer<Order> consumer) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        entityManager.createQuery(
+                        "SELECT o FROM Order o LEFT JOIN FETCH o.orderProducts op LEFT JOIN FETCH op.product " +
+                        "WHERE o.id IN :ids ORDER BY o.id", Order.class)
+                .setParameter("ids", ids)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList()
+                .forEach(consumer);
+        entityManager.clear();
+    }
+}
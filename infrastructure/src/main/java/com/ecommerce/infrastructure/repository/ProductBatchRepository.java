@@ -0,0 +1,14 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.Product;
+
+import java.util.List;
+
+/**
+ * ProductBatchRepository - custom fragment of ProductRepositoryImpl for batched writes
+ * Implemented by ProductBatchRepositoryImpl, which has direct access to the EntityManager
+ */
+public interface ProductBatchRepository {
+
+    List<Product> saveAllProducts(List<Product> products);
+}
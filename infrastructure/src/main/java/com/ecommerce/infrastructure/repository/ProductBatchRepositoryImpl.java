@@ -0,0 +1,29 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public class ProductBatchRepositoryImpl implements ProductBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Persist the products and flush them as JDBC batches.
+     * The persistence context is cleared afterwards so it does not grow across chunks.
+     */
+    @Override
+    @Transactional
+    public List<Product> saveAllProducts(List<Product> products) {
+        for (Product product : products) {
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return products;
+    }
+}
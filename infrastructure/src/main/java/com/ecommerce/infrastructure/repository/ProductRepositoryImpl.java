@@ -2,20 +2,42 @@ package com.ecommerce.infrastructure.repository;
 
 import com.ecommerce.application.repository.ProductRepository;
 import com.ecommerce.domain.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepositoryImpl extends JpaRepository<Product, Long>, ProductRepository {
+public interface ProductRepositoryImpl extends JpaRepository<Product, Long>, ProductRepository, ProductStreamRepository,
+                                               ProductBatchRepository {
     
     @Override
     default List<Product> findAllProducts() {
         return findAll();
     }
     
+    @Override
+    default List<Product> findProductsByIds(Collection<Long> ids) {
+        return findAllById(ids);
+    }
+    
+    @Override
+    default List<Product> findProductsAfterId(Long afterId, int limit) {
+        return findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(limit));
+    }
+    
+    @Override
+    default List<Product> findByNameContaining(String name, int limit) {
+        return findByNameContainingOrderByIdAsc(name, Limit.of(limit));
+    }
+    
     @Override
     default Optional<Product> findProductById(Long id) {
         return findById(id);
@@ -27,9 +49,14 @@ public interface ProductRepositoryImpl extends JpaRepository<Product, Long>, Pro
     }
     
     @Override
-    default void deleteById(Long id) {
-        deleteById(id);
-    }
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.stockQuantity = :stockQuantity WHERE p.id = :id")
+    void updateStockQuantity(@Param("id") Long id, @Param("stockQuantity") int stockQuantity);
     
     List<Product> findByNameContainingIgnoreCase(String name);
+    
+    List<Product> findByNameContainingOrderByIdAsc(String name, Limit limit);
+    
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 } 
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.Product;
+
+import java.util.function.Consumer;
+
+/**
+ * ProductStreamRepository - custom fragment of ProductRepositoryImpl for cursor-based reads
+ * Implemented by ProductStreamRepositoryImpl, which has direct access to the EntityManager
+ */
+public interface ProductStreamRepository {
+
+    void forEachProduct(Consumer<Product> consumer);
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class ProductStreamRepositoryImpl implements ProductStreamRepository {
+
+    /**
+     * Rows fetched per round trip by the JDBC cursor
+     */
+    private static final int FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Walk the products with a forward-only cursor, detaching each one once the consumer is done with it,
+     * so the persistence context does not grow with the number of products
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachProduct(Consumer<Product> consumer) {
+        try (Stream<Product> products = entityManager.createQuery("SELECT p FROM Product p ORDER BY p.id", Product.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            products.forEach(product -> {
+                consumer.accept(product);
+                entityManager.detach(product);
+            });
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.infrastructure.repository;
+
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+
+/**
+ * ReadModelTransactions - runs the MERGE statements of the read models
+ * A MERGE whose row does not exist yet can race with a concurrent MERGE inserting the same key;
+ * the loser fails on the primary key and is retried once, when the row exists and is updated instead.
+ */
+final class ReadModelTransactions {
+
+    private static final int MAX_ATTEMPTS = 2;
+
+    private ReadModelTransactions() {}
+
+    /**
+     * Run an update in its own transaction, retrying it when it lost an insert race
+     * @param transactionTemplate the template the transaction is started with
+     * @param update the update, rolled back as a whole before it is retried
+     */
+    static void executeWithRetry(TransactionTemplate transactionTemplate, Runnable update) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> update.run());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_ATTEMPTS || !isUniqueKeyViolation(e)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if the exception (or one of its causes) is a primary or unique key violation
+     */
+    static boolean isUniqueKeyViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLIntegrityConstraintViolationException
+                    || cause instanceof org.hibernate.exception.ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
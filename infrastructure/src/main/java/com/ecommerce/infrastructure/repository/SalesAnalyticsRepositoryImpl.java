@@ -0,0 +1,34 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.application.repository.SalesAnalyticsRepository;
+import com.ecommerce.domain.analytics.DailySales;
+import com.ecommerce.domain.analytics.ProductSales;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesAnalyticsRepositoryImpl extends JpaRepository<DailySales, LocalDate>, SalesAnalyticsRepository,
+                                                      SalesAnalyticsWriter {
+    
+    @Override
+    @Query("SELECT d FROM DailySales d WHERE d.day BETWEEN :from AND :to ORDER BY d.day")
+    List<DailySales> findDailySales(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    @Override
+    default List<ProductSales> findTopProductSales(LocalDate from, LocalDate to, int limit) {
+        return findTopProductSales(from, to, Limit.of(limit));
+    }
+    
+    @Query("SELECT new com.ecommerce.domain.analytics.ProductSales(s.productId, p.name, SUM(s.units), SUM(s.revenue)) " +
+           "FROM DailyProductSales s LEFT JOIN Product p ON p.id = s.productId " +
+           "WHERE s.day BETWEEN :from AND :to " +
+           "GROUP BY s.productId, p.name HAVING SUM(s.units) > 0 " +
+           "ORDER BY SUM(s.units) DESC, s.productId")
+    List<ProductSales> findTopProductSales(@Param("from") LocalDate from, @Param("to") LocalDate to, Limit limit);
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.Order;
+
+import java.util.Collection;
+
+/**
+ * SalesAnalyticsWriter - custom fragment of SalesAnalyticsRepositoryImpl for the read model updates
+ * Implemented by SalesAnalyticsWriterImpl, which issues the MERGE and INSERT ... SELECT statements
+ */
+public interface SalesAnalyticsWriter {
+
+    void applyChanges(Collection<Order> removedOrders, Collection<Order> addedOrders);
+
+    long rebuild();
+}
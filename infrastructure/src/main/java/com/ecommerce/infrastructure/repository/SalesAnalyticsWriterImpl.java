@@ -0,0 +1,181 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.OrderProduct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class SalesAnalyticsWriterImpl implements SalesAnalyticsWriter {
+
+    // Parameters are cast so the source row has declared types on every database
+    private static final String MERGE_DAILY_SALES =
+            "MERGE INTO daily_sales t " +
+            "USING (SELECT CAST(? AS DATE) AS sales_day, CAST(? AS NUMBER(15, 2)) AS revenue, " +
+            "CAST(? AS NUMBER(19)) AS order_count, CAST(? AS NUMBER(19)) AS units FROM dual) s " +
+            "ON (t.sales_day = s.sales_day) " +
+            "WHEN MATCHED THEN UPDATE SET t.revenue = t.revenue + s.revenue, " +
+            "t.order_count = t.order_count + s.order_count, t.units = t.units + s.units " +
+            "WHEN NOT MATCHED THEN INSERT (sales_day, revenue, order_count, units) " +
+            "VALUES (s.sales_day, s.revenue, s.order_count, s.units)";
+
+    private static final String MERGE_DAILY_PRODUCT_SALES =
+            "MERGE INTO daily_product_sales t " +
+            "USING (SELECT CAST(? AS DATE) AS sales_day, CAST(? AS NUMBER(19)) AS product_id, " +
+            "CAST(? AS NUMBER(19)) AS units, CAST(? AS NUMBER(15, 2)) AS revenue FROM dual) s " +
+            "ON (t.sales_day = s.sales_day AND t.product_id = s.product_id) " +
+            "WHEN MATCHED THEN UPDATE SET t.units = t.units + s.units, t.revenue = t.revenue + s.revenue " +
+            "WHEN NOT MATCHED THEN INSERT (sales_day, product_id, units, revenue) " +
+            "VALUES (s.sales_day, s.product_id, s.units, s.revenue)";
+
+    private static final String REBUILD_DAILY_PRODUCT_SALES =
+            "INSERT INTO daily_product_sales (sales_day, product_id, units, revenue) " +
+            "SELECT TRUNC(o.order_date), op.product_id, SUM(op.quantity), SUM(op.price * op.quantity) " +
+            "FROM orders o JOIN order_products op ON op.order_id = o.id " +
+            "WHERE o.status <> 'CANCELLED' " +
+            "GROUP BY TRUNC(o.order_date), op.product_id";
+
+    private static final String REBUILD_DAILY_SALES =
+            "INSERT INTO daily_sales (sales_day, revenue, order_count, units) " +
+            "SELECT d.sales_day, d.revenue, d.order_count, COALESCE(u.units, 0) " +
+            "FROM (SELECT TRUNC(o.order_date) AS sales_day, SUM(o.total_amount) AS revenue, COUNT(*) AS order_count " +
+            "      FROM orders o WHERE o.status <> 'CANCELLED' GROUP BY TRUNC(o.order_date)) d " +
+            "LEFT JOIN (SELECT sales_day, SUM(units) AS units FROM daily_product_sales GROUP BY sales_day) u " +
+            "ON u.sales_day = d.sales_day";
+
+    private static final Comparator<DayProduct> DAY_PRODUCT_ORDER =
+            Comparator.comparing(DayProduct::day).thenComparing(DayProduct::productId);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public SalesAnalyticsWriterImpl(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Net the contributions of the orders per day and per (day, product) in memory, then apply them
+     * with one batched MERGE per table. Rows are merged in key order so that concurrent updates
+     * lock them in the same order.
+     */
+    @Override
+    public void applyChanges(Collection<Order> removedOrders, Collection<Order> addedOrders) {
+        Map<LocalDate, DayDelta> days = new TreeMap<>();
+        Map<DayProduct, ProductDelta> products = new TreeMap<>(DAY_PRODUCT_ORDER);
+        for (Order order : removedOrders) {
+            collect(order, -1, days, products);
+        }
+        for (Order order : addedOrders) {
+            collect(order, 1, days, products);
+        }
+        days.values().removeIf(DayDelta::isZero);
+        products.values().removeIf(ProductDelta::isZero);
+        if (days.isEmpty() && products.isEmpty()) {
+            return;
+        }
+
+        ReadModelTransactions.executeWithRetry(transactionTemplate, () -> merge(days, products));
+    }
+
+    /**
+     * Replace the read model with aggregates computed by the database from the orders,
+     * in a single transaction
+     */
+    @Override
+    public long rebuild() {
+        Long days = transactionTemplate.execute(status -> {
+            entityManager.createNativeQuery("DELETE FROM daily_product_sales").executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM daily_sales").executeUpdate();
+            entityManager.createNativeQuery(REBUILD_DAILY_PRODUCT_SALES).executeUpdate();
+            return (long) entityManager.createNativeQuery(REBUILD_DAILY_SALES).executeUpdate();
+        });
+        return days == null ? 0 : days;
+    }
+
+    private void collect(Order order, int sign, Map<LocalDate, DayDelta> days, Map<DayProduct, ProductDelta> products) {
+        // Cancelled orders are not part of the read model
+        if (order == null || order.getStatus() == Order.OrderStatus.CANCELLED || order.getOrderDate() == null) {
+            return;
+        }
+        LocalDate day = order.getOrderDate().toLocalDate();
+        DayDelta dayDelta = days.computeIfAbsent(day, d -> new DayDelta());
+        if (order.getTotalAmount() != null) {
+            dayDelta.revenue = sign > 0 ? dayDelta.revenue.add(order.getTotalAmount())
+                    : dayDelta.revenue.subtract(order.getTotalAmount());
+        }
+        dayDelta.orders += sign;
+        if (order.getOrderProducts() == null) {
+            return;
+        }
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            if (orderProduct.getProduct() == null || orderProduct.getQuantity() == null) {
+                continue;
+            }
+            long units = (long) sign * orderProduct.getQuantity();
+            BigDecimal subtotal = orderProduct.getSubtotal();
+            dayDelta.units += units;
+            ProductDelta productDelta = products.computeIfAbsent(
+                    new DayProduct(day, orderProduct.getProduct().getId()), k -> new ProductDelta());
+            productDelta.units += units;
+            productDelta.revenue = sign > 0 ? productDelta.revenue.add(subtotal) : productDelta.revenue.subtract(subtotal);
+        }
+    }
+
+    private void merge(Map<LocalDate, DayDelta> days, Map<DayProduct, ProductDelta> products) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(MERGE_DAILY_SALES)) {
+                for (Map.Entry<LocalDate, DayDelta> entry : days.entrySet()) {
+                    statement.setObject(1, entry.getKey());
+                    statement.setBigDecimal(2, entry.getValue().revenue);
+                    statement.setLong(3, entry.getValue().orders);
+                    statement.setLong(4, entry.getValue().units);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(MERGE_DAILY_PRODUCT_SALES)) {
+                for (Map.Entry<DayProduct, ProductDelta> entry : products.entrySet()) {
+                    statement.setObject(1, entry.getKey().day());
+                    statement.setLong(2, entry.getKey().productId());
+                    statement.setLong(3, entry.getValue().units);
+                    statement.setBigDecimal(4, entry.getValue().revenue);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private record DayProduct(LocalDate day, Long productId) {}
+
+    private static final class DayDelta {
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private long orders;
+        private long units;
+
+        private boolean isZero() {
+            return revenue.signum() == 0 && orders == 0 && units == 0;
+        }
+    }
+
+    private static final class ProductDelta {
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private long units;
+
+        private boolean isZero() {
+            return revenue.signum() == 0 && units == 0;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.User;
+
+import java.util.List;
+
+/**
+ * UserBatchRepository - custom fragment of UserRepositoryImpl for batched writes
+ * Implemented by UserBatchRepositoryImpl, which has direct access to the EntityManager
+ */
+public interface UserBatchRepository {
+
+    List<User> saveAllUsers(List<User> users);
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public class UserBatchRepositoryImpl implements UserBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Persist the users and flush them as JDBC batches.
+     * The persistence context is cleared afterwards so it does not grow across chunks.
+     */
+    @Override
+    @Transactional
+    public List<User> saveAllUsers(List<User> users) {
+        for (User user : users) {
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return users;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.application.repository.UserOrderSummaryRepository;
+import com.ecommerce.domain.analytics.UserOrderSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserOrderSummaryRepositoryImpl extends JpaRepository<UserOrderSummary, Long>, UserOrderSummaryRepository,
+                                                        UserOrderSummaryWriter {
+    
+    @Override
+    default Optional<UserOrderSummary> findSummaryByUserId(Long userId) {
+        return findById(userId);
+    }
+}
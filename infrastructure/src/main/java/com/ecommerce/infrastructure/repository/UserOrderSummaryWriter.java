@@ -0,0 +1,16 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.Order;
+
+import java.util.Collection;
+
+/**
+ * UserOrderSummaryWriter - custom fragment of UserOrderSummaryRepositoryImpl for the summary updates
+ * Implemented by UserOrderSummaryWriterImpl, which issues the MERGE and INSERT ... SELECT statements
+ */
+public interface UserOrderSummaryWriter {
+
+    void applyChanges(Collection<Order> removedOrders, Collection<Order> addedOrders);
+
+    long rebuild();
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class UserOrderSummaryWriterImpl implements UserOrderSummaryWriter {
+
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+
+    // Parameters are cast so the source row has declared types on every database
+    private static final String MERGE_SUMMARY =
+            "MERGE INTO user_order_summaries t " +
+            "USING (SELECT CAST(? AS NUMBER(19)) AS user_id, CAST(? AS NUMBER(19)) AS order_count, " +
+            "CAST(? AS NUMBER(15, 2)) AS lifetime_value, CAST(? AS NUMBER(19)) AS pending_count, " +
+            "CAST(? AS NUMBER(19)) AS confirmed_count, CAST(? AS NUMBER(19)) AS shipped_count, " +
+            "CAST(? AS NUMBER(19)) AS delivered_count, CAST(? AS NUMBER(19)) AS cancelled_count FROM dual) s " +
+            "ON (t.user_id = s.user_id) " +
+            "WHEN MATCHED THEN UPDATE SET t.order_count = t.order_count + s.order_count, " +
+            "t.lifetime_value = t.lifetime_value + s.lifetime_value, " +
+            "t.pending_count = t.pending_count + s.pending_count, " +
+            "t.confirmed_count = t.confirmed_count + s.confirmed_count, " +
+            "t.shipped_count = t.shipped_count + s.shipped_count, " +
+            "t.delivered_count = t.delivered_count + s.delivered_count, " +
+            "t.cancelled_count = t.cancelled_count + s.cancelled_count " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, order_count, lifetime_value, pending_count, confirmed_count, " +
+            "shipped_count, delivered_count, cancelled_count) " +
+            "VALUES (s.user_id, s.order_count, s.lifetime_value, s.pending_count, s.confirmed_count, " +
+            "s.shipped_count, s.delivered_count, s.cancelled_count)";
+
+    private static final String REBUILD_SUMMARIES =
+            "INSERT INTO user_order_summaries (user_id, order_count, lifetime_value, pending_count, " +
+            "confirmed_count, shipped_count, delivered_count, cancelled_count) " +
+            "SELECT o.user_id, COUNT(*), " +
+            "COALESCE(SUM(CASE WHEN o.status <> 'CANCELLED' THEN o.total_amount END), 0), " +
+            "SUM(CASE WHEN o.status = 'PENDING' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN o.status = 'CONFIRMED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN o.status = 'SHIPPED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN o.status = 'DELIVERED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN o.status = 'CANCELLED' THEN 1 ELSE 0 END) " +
+            "FROM orders o GROUP BY o.user_id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public UserOrderSummaryWriterImpl(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Net the contributions of the orders per user in memory, then apply them with one batched MERGE,
+     * in user id order so that concurrent updates lock the rows in the same order
+     */
+    @Override
+    public void applyChanges(Collection<Order> removedOrders, Collection<Order> addedOrders) {
+        Map<Long, SummaryDelta> users = new TreeMap<>();
+        for (Order order : removedOrders) {
+            collect(order, -1, users);
+        }
+        for (Order order : addedOrders) {
+            collect(order, 1, users);
+        }
+        users.values().removeIf(SummaryDelta::isZero);
+        if (users.isEmpty()) {
+            return;
+        }
+        ReadModelTransactions.executeWithRetry(transactionTemplate, () -> merge(users));
+    }
+
+    /**
+     * Replace every summary with aggregates computed by the database from the orders,
+     * in a single transaction
+     */
+    @Override
+    public long rebuild() {
+        Long users = transactionTemplate.execute(status -> {
+            entityManager.createNativeQuery("DELETE FROM user_order_summaries").executeUpdate();
+            return (long) entityManager.createNativeQuery(REBUILD_SUMMARIES).executeUpdate();
+        });
+        return users == null ? 0 : users;
+    }
+
+    private void collect(Order order, int sign, Map<Long, SummaryDelta> users) {
+        if (order == null || order.getUser() == null || order.getUser().getId() == null || order.getStatus() == null) {
+            return;
+        }
+        SummaryDelta delta = users.computeIfAbsent(order.getUser().getId(), id -> new SummaryDelta());
+        delta.orders += sign;
+        delta.statusCounts[order.getStatus().ordinal()] += sign;
+        // Cancelled orders do not count towards the lifetime value
+        if (order.getStatus() != Order.OrderStatus.CANCELLED && order.getTotalAmount() != null) {
+            delta.lifetimeValue = sign > 0 ? delta.lifetimeValue.add(order.getTotalAmount())
+                    : delta.lifetimeValue.subtract(order.getTotalAmount());
+        }
+    }
+
+    private void merge(Map<Long, SummaryDelta> users) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(MERGE_SUMMARY)) {
+                for (Map.Entry<Long, SummaryDelta> entry : users.entrySet()) {
+                    SummaryDelta delta = entry.getValue();
+                    statement.setLong(1, entry.getKey());
+                    statement.setLong(2, delta.orders);
+                    statement.setBigDecimal(3, delta.lifetimeValue);
+                    statement.setLong(4, delta.statusCounts[Order.OrderStatus.PENDING.ordinal()]);
+                    statement.setLong(5, delta.statusCounts[Order.OrderStatus.CONFIRMED.ordinal()]);
+                    statement.setLong(6, delta.statusCounts[Order.OrderStatus.SHIPPED.ordinal()]);
+                    statement.setLong(7, delta.statusCounts[Order.OrderStatus.DELIVERED.ordinal()]);
+                    statement.setLong(8, delta.statusCounts[Order.OrderStatus.CANCELLED.ordinal()]);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private static final class SummaryDelta {
+        private long orders;
+        private BigDecimal lifetimeValue = BigDecimal.ZERO;
+        private final long[] statusCounts = new long[STATUSES.length];
+
+        private boolean isZero() {
+            if (orders != 0 || lifetimeValue.signum() != 0) {
+                return false;
+            }
+            for (long count : statusCounts) {
+                if (count != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
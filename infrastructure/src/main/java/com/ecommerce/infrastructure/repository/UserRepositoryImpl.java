@@ -2,25 +2,44 @@ package com.ecommerce.infrastructure.repository;
 
 import com.ecommerce.application.repository.UserRepository;
 import com.ecommerce.domain.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepositoryImpl extends JpaRepository<User, Long>, UserRepository {
+public interface UserRepositoryImpl extends JpaRepository<User, Long>, UserRepository, UserStreamRepository,
+                                            UserBatchRepository {
     
     @Override
     default List<User> findAllUsers() {
         return findAll();
     }
     
+    @Override
+    default List<User> findUsersByIds(Collection<Long> ids) {
+        return findAllById(ids);
+    }
+    
+    @Override
+    default List<User> findUsersAfterId(Long afterId, int limit) {
+        return findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(limit));
+    }
+    
     @Override
     default Optional<User> findUserById(Long id) {
         return findById(id);
     }
     
+    @Override
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
     @Override
     default Optional<User> findUserByEmail(String email) {
         return findByEmail(email);
@@ -31,10 +50,11 @@ public interface UserRepositoryImpl extends JpaRepository<User, Long>, UserRepos
         return save(user);
     }
     
+    Optional<User> findByEmail(String email);
+    
+    // Derived exists query: selects one id, no user row
     @Override
-    default void deleteById(Long id) {
-        deleteById(id);
-    }
+    boolean existsByEmail(String email);
     
-    Optional<User> findByEmail(String email);
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 } 
\ No newline at end of file
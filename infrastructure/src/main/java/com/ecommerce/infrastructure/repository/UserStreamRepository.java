@@ -0,0 +1,14 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.User;
+
+import java.util.function.Consumer;
+
+/**
+ * UserStreamRepository - custom fragment of UserRepositoryImpl for cursor-based reads
+ * Implemented by UserStreamRepositoryImpl, which has direct access to the EntityManager
+ */
+public interface UserStreamRepository {
+
+    void forEachUser(Consumer<User> consumer);
+}
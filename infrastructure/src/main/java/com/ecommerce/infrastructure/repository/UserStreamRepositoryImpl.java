@@ -0,0 +1,39 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class UserStreamRepositoryImpl implements UserStreamRepository {
+
+    /**
+     * Rows fetched per round trip by the JDBC cursor
+     */
+    private static final int FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Walk the users with a forward-only cursor, detaching each one once the consumer is done with it,
+     * so the persistence context does not grow with the number of users
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachUser(Consumer<User> consumer) {
+        try (Stream<User> users = entityManager.createQuery("SELECT u FROM User u ORDER BY u.id", User.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            users.forEach(user -> {
+                consumer.accept(user);
+                entityManager.detach(user);
+            });
+        }
+    }
+}
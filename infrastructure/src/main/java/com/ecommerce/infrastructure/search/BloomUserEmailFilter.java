@@ -0,0 +1,296 @@
+package com.ecommerce.infrastructure.search;
+
+import com.ecommerce.application.repository.UserRepository;
+import com.ecommerce.application.search.UserEmailFilter;
+import com.ecommerce.domain.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BloomUserEmailFilter - Bloom filter over the normalized emails of all users
+ * Bits live in an AtomicLongArray and are only ever set (CAS per word), so lookups and adds never lock.
+ * A Bloom filter cannot remove an email: deleted users and changed emails are counted as stale and,
+ * once they pass max-stale-ratio of the emails the filter is sized for (or it holds more emails than
+ * it was sized for), the filter is rebuilt from the repository in the background, sized for twice the
+ * emails it holds. Adds made during a rebuild go to both filters. Until the first load has finished
+ * UserService asks the database for every email.
+ */
+public class BloomUserEmailFilter implements UserEmailFilter, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BloomUserEmailFilter.class);
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final double maxStaleRatio;
+    private final ExecutorService rebuilder;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong staleEntries = new AtomicLong();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private volatile Bits bits;
+    // The filter being loaded by a rebuild, null otherwise
+    private volatile Bits building;
+    private volatile boolean ready;
+
+    /**
+     * @param userRepository the repository the filter is loaded from
+     * @param expectedInsertions the number of emails the filter is sized for at least
+     * @param falsePositiveRate the share of unknown emails that may still answer "maybe" at that size
+     * @param maxStaleRatio stale entries, as a share of the emails the filter is sized for, that trigger a rebuild
+     */
+    public BloomUserEmailFilter(UserRepository userRepository, long expectedInsertions, double falsePositiveRate,
+                                double maxStaleRatio) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be greater than zero");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        this.userRepository = userRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxStaleRatio = maxStaleRatio;
+        this.bits = Bits.forCapacity(expectedInsertions, falsePositiveRate);
+        this.rebuilder = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+                .name("user-email-filter-loader").daemon(true).factory());
+    }
+
+    /**
+     * Load the filter from the repository once the application is ready, in the background
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        requestRebuild();
+    }
+
+    @Override
+    public boolean add(String email) {
+        if (email == null) {
+            return false;
+        }
+        long hash = hash(UserEmailFilter.normalize(email));
+        // Rebuild target first: once it is cleared, bits already points to the rebuilt filter
+        Bits next = building;
+        Bits current = bits;
+        boolean added = current.put(hash);
+        if (next != null && next != current) {
+            next.put(hash);
+        }
+        if (ready && current.insertions.get() > current.capacity) {
+            requestRebuild();
+        }
+        return added;
+    }
+
+    @Override
+    public void markStale() {
+        long stale = staleEntries.incrementAndGet();
+        if (ready && stale > maxStaleRatio * bits.capacity) {
+            requestRebuild();
+        }
+    }
+
+    @Override
+    public boolean mightContain(String email) {
+        if (email == null) {
+            return false;
+        }
+        lookups.increment();
+        boolean hit = bits.mightContain(hash(UserEmailFilter.normalize(email)));
+        if (!hit) {
+            misses.increment();
+        }
+        return hit;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Size, accuracy and use of the filter
+     * @return the statistics by name
+     */
+    public Map<String, Object> statistics() {
+        Bits current = bits;
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("ready", ready);
+        statistics.put("expectedInsertions", expectedInsertions);
+        statistics.put("falsePositiveRate", falsePositiveRate);
+        statistics.put("capacity", current.capacity);
+        statistics.put("insertions", current.insertions.get());
+        statistics.put("staleEntries", staleEntries.get());
+        statistics.put("bits", current.bitCount);
+        statistics.put("hashFunctions", current.hashFunctions);
+        statistics.put("memoryBytes", (long) current.words.length() * Long.BYTES);
+        statistics.put("estimatedFalsePositiveRate", current.estimatedFalsePositiveRate());
+        statistics.put("lookups", lookups.sum());
+        statistics.put("definiteMisses", misses.sum());
+        statistics.put("rebuilds", rebuilds.get());
+        return statistics;
+    }
+
+    @Override
+    public void close() {
+        rebuilder.shutdownNow();
+    }
+
+    private void requestRebuild() {
+        if (rebuilding.compareAndSet(false, true)) {
+            rebuilder.execute(this::rebuild);
+        }
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        // Stale entries marked from here on may still be in the rebuilt filter and are kept
+        long staleAtStart = staleEntries.get();
+        long capacity = Math.max(expectedInsertions, ready ? 2 * bits.insertions.get() : 0);
+        Bits next = Bits.forCapacity(capacity, falsePositiveRate);
+        building = next;
+        try {
+            Long afterId = null;
+            List<User> page;
+            do {
+                page = userRepository.findUsersAfterId(afterId, LOAD_PAGE_SIZE);
+                for (User user : page) {
+                    if (user.getEmail() != null) {
+                        next.put(hash(UserEmailFilter.normalize(user.getEmail())));
+                    }
+                }
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+
+            bits = next;
+            staleEntries.addAndGet(-staleAtStart);
+            ready = true;
+            rebuilds.incrementAndGet();
+            log.info("User email filter loaded: {} emails, {} KiB, estimated false positive rate {} in {} ms",
+                    next.insertions.get(), next.words.length() * Long.BYTES / 1024,
+                    String.format("%.4f", next.estimatedFalsePositiveRate()), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("User email filter could not be loaded, email lookups will use the database", e);
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a of the email's characters, mixed with the MurmurHash3 finalizer
+     */
+    private static long hash(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < email.length(); i++) {
+            hash ^= email.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Bit array and hash count of one filter, sized for a number of emails at a false positive rate
+     */
+    private static final class Bits {
+        private final long capacity;
+        private final long bitCount;
+        private final int hashFunctions;
+        private final AtomicLongArray words;
+        private final AtomicLong setBits = new AtomicLong();
+        private final AtomicLong insertions = new AtomicLong();
+
+        private Bits(long capacity, long bitCount, int hashFunctions) {
+            this.capacity = capacity;
+            this.bitCount = bitCount;
+            this.hashFunctions = hashFunctions;
+            this.words = new AtomicLongArray(Math.toIntExact(bitCount / Long.SIZE));
+        }
+
+        /**
+         * m = -n ln p / (ln 2)^2 bits and k = m / n ln 2 hash functions
+         */
+        private static Bits forCapacity(long capacity, double falsePositiveRate) {
+            double bitsPerEntry = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+            long bitCount = (long) Math.ceil(capacity * bitsPerEntry);
+            bitCount = Math.max(Long.SIZE, (bitCount + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+            int hashFunctions = (int) Math.max(1, Math.round(bitsPerEntry * Math.log(2)));
+            return new Bits(capacity, bitCount, hashFunctions);
+        }
+
+        /**
+         * Set the bits of a hash
+         * @return true if a bit changed, i.e. the email was not in the filter
+         */
+        private boolean put(long hash) {
+            boolean changed = false;
+            // Double hashing: bit i is h1 + i * h2 (Kirsch and Mitzenmacher)
+            long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashFunctions; i++) {
+                long index = ((hash + i * h2) & Long.MAX_VALUE) % bitCount;
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                do {
+                    current = words.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!words.compareAndSet(word, current, current | mask));
+                if ((current & mask) == 0) {
+                    setBits.incrementAndGet();
+                    changed = true;
+                }
+            }
+            if (changed) {
+                insertions.incrementAndGet();
+            }
+            return changed;
+        }
+
+        private boolean mightContain(long hash) {
+            long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashFunctions; i++) {
+                long index = ((hash + i * h2) & Long.MAX_VALUE) % bitCount;
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * (set bits / m)^k: the chance that an unknown email finds all its bits set
+         */
+        private double estimatedFalsePositiveRate() {
+            return Math.pow((double) setBits.get() / bitCount, hashFunctions);
+        }
+    }
+}
@@ -0,0 +1,678 @@
+package com.ecommerce.infrastructure.search;
+
+import com.ecommerce.application.repository.ProductRepository;
+import com.ecommerce.application.search.ProductSearchIndex;
+import com.ecommerce.domain.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * InMemoryProductSearchIndex - inverted index over product names and descriptions
+ * Terms are accent-folded, lower-cased words kept in a sorted dictionary, so a query word matches
+ * both the exact term and every term it is a prefix of (edge n-grams without storing them).
+ * A short word may be the start of thousands of terms: their postings are merged in one pass through a
+ * heap of cursors, and a candidate is checked against such a word through its own terms, so the index
+ * answers every query completely. Each term maps to an immutable, id-sorted postings list; writes replace postings copy-on-write,
+ * so searches never lock. The index is loaded from the repository once the application is ready;
+ * until then ProductService falls back to the database.
+ */
+@Component
+public class InMemoryProductSearchIndex implements ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryProductSearchIndex.class);
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float PREFIX_BOOST = 0.6f;
+    // Above this, probing a candidate scans its own terms instead of binary searching every expansion
+    private static final int MAX_PROBED_EXPANSIONS = 64;
+    private static final int PROBE_RATIO = 16;
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "de", "da", "do", "das", "dos", "em", "com", "para", "por", "um", "uma", "as", "os", "no", "na",
+            "the", "and", "of", "for", "with", "in", "to", "on", "an");
+
+    private final ProductRepository productRepository;
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot = new Snapshot();
+    private volatile boolean ready;
+    // Writes received while the initial load runs, replayed on the loaded snapshot (guarded by writeLock)
+    private List<Runnable> pendingWrites;
+
+    public InMemoryProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Build the index from the repository, reading products page by page
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        synchronized (writeLock) {
+            pendingWrites = new ArrayList<>();
+        }
+        try {
+            Builder builder = new Builder();
+            Long afterId = null;
+            List<Product> page;
+            do {
+                page = productRepository.findProductsAfterId(afterId, LOAD_PAGE_SIZE);
+                for (Product product : page) {
+                    builder.add(product.getId(), termWeights(product));
+                }
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+
+            synchronized (writeLock) {
+                snapshot = builder.build();
+                pendingWrites.forEach(Runnable::run);
+                pendingWrites = null;
+                ready = true;
+            }
+            log.info("Product search index loaded: {} products, {} terms in {} ms",
+                    snapshot.documentTerms.size(), snapshot.terms.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                pendingWrites = null;
+            }
+            log.error("Product search index could not be loaded, searches will use the database", e);
+        }
+    }
+
+    @Override
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        long id = product.getId();
+        Map<String, Float> weights = termWeights(product);
+        synchronized (writeLock) {
+            snapshot.put(id, weights);
+            if (pendingWrites != null) {
+                pendingWrites.add(() -> snapshot.put(id, weights));
+            }
+        }
+    }
+
+    @Override
+    public void indexAll(List<Product> products) {
+        // By id, so each term's new postings come sorted and merge with its postings in one pass
+        TreeMap<Long, Map<String, Float>> documents = new TreeMap<>();
+        for (Product product : products) {
+            if (product != null && product.getId() != null) {
+                documents.put(product.getId(), termWeights(product));
+            }
+        }
+        if (documents.isEmpty()) {
+            return;
+        }
+        synchronized (writeLock) {
+            snapshot.putAll(documents);
+            if (pendingWrites != null) {
+                pendingWrites.add(() -> snapshot.putAll(documents));
+            }
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        if (productId == null) {
+            return;
+        }
+        long id = productId;
+        synchronized (writeLock) {
+            snapshot.remove(id);
+            if (pendingWrites != null) {
+                pendingWrites.add(() -> snapshot.remove(id));
+            }
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = tokenize(query).stream().distinct().toList();
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        int documentCount = Math.max(1, current.documentTerms.size());
+
+        // Resolve every query word to its exact term and the terms it prefixes
+        List<QueryTerm> queryTerms = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            QueryTerm queryTerm = current.expand(token);
+            if (queryTerm == null) {
+                return List.of();
+            }
+            queryTerms.add(queryTerm);
+        }
+        queryTerms.sort((a, b) -> Integer.compare(a.documentFrequency, b.documentFrequency));
+
+        // Candidates come from the rarest word, the other words filter and add to the score
+        QueryTerm rarest = queryTerms.get(0);
+        Matches candidates = rarest.matches(idf(documentCount, rarest.documentFrequency));
+        for (int t = 1; t < queryTerms.size() && candidates.size > 0; t++) {
+            QueryTerm queryTerm = queryTerms.get(t);
+            float termIdf = idf(documentCount, queryTerm.documentFrequency);
+            // A few candidates against long postings are probed by binary search, otherwise both lists are merged
+            if ((long) candidates.size * PROBE_RATIO < queryTerm.documentFrequency) {
+                candidates = candidates.probe(queryTerm, termIdf);
+            } else {
+                candidates = candidates.intersect(queryTerm.matches(termIdf));
+            }
+        }
+        return candidates.top(limit);
+    }
+
+    private static Map<String, Float> termWeights(Product product) {
+        Map<String, Float> weights = new HashMap<>();
+        for (String token : tokenize(product.getName())) {
+            weights.merge(token, NAME_WEIGHT, Float::sum);
+        }
+        for (String token : tokenize(product.getDescription())) {
+            weights.merge(token, DESCRIPTION_WEIGHT, Float::sum);
+        }
+        return weights;
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            // Single letters carry no meaning, single digits do (sizes, versions, models)
+            boolean meaningful = token.length() >= 2 || Character.isDigit(token.charAt(0));
+            if (meaningful && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static float saturate(float weight) {
+        return weight / (weight + 1.2f);
+    }
+
+    private static float idf(int documentCount, int documentFrequency) {
+        return (float) Math.log(1 + (double) documentCount / Math.max(1, documentFrequency));
+    }
+
+    /**
+     * Terms and postings of the index; replaced as a whole by the initial load
+     */
+    private static final class Snapshot {
+
+        private final ConcurrentSkipListMap<String, Postings> terms;
+        private final ConcurrentHashMap<Long, String[]> documentTerms;
+
+        Snapshot() {
+            this(new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>());
+        }
+
+        Snapshot(ConcurrentSkipListMap<String, Postings> terms, ConcurrentHashMap<Long, String[]> documentTerms) {
+            this.terms = terms;
+            this.documentTerms = documentTerms;
+        }
+
+        void put(long id, Map<String, Float> weights) {
+            remove(id);
+            for (Map.Entry<String, Float> weight : weights.entrySet()) {
+                float value = weight.getValue();
+                terms.compute(weight.getKey(), (term, postings) ->
+                        postings == null ? Postings.single(id, value) : postings.with(id, value));
+            }
+            documentTerms.put(id, weights.keySet().toArray(String[]::new));
+        }
+
+        /**
+         * Put documents given in ascending id order, merging the new postings of each term at once
+         */
+        void putAll(SortedMap<Long, Map<String, Float>> documents) {
+            Map<String, PostingsBuffer> additions = new HashMap<>();
+            documents.forEach((id, weights) -> {
+                remove(id);
+                for (Map.Entry<String, Float> weight : weights.entrySet()) {
+                    additions.computeIfAbsent(weight.getKey(), term -> new PostingsBuffer()).append(id, weight.getValue());
+                }
+                documentTerms.put(id, weights.keySet().toArray(String[]::new));
+            });
+            additions.forEach((term, buffer) -> terms.compute(term, (key, postings) ->
+                    postings == null ? buffer.toPostings() : postings.merge(buffer.toPostings())));
+        }
+
+        void remove(long id) {
+            String[] previous = documentTerms.remove(id);
+            if (previous != null) {
+                for (String term : previous) {
+                    terms.computeIfPresent(term, (key, postings) -> postings.without(id));
+                }
+            }
+        }
+
+        /**
+         * @return the word's terms, null if it matches none
+         */
+        QueryTerm expand(String token) {
+            List<Postings> postings = new ArrayList<>();
+            List<Float> boosts = new ArrayList<>();
+            Postings exact = terms.get(token);
+            if (exact != null) {
+                postings.add(exact);
+                boosts.add(1.0f);
+            }
+            for (Postings prefixed : terms.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+                postings.add(prefixed);
+                boosts.add(PREFIX_BOOST);
+            }
+            if (postings.isEmpty()) {
+                return null;
+            }
+            float[] boostArray = new float[boosts.size()];
+            int documentFrequency = 0;
+            for (int i = 0; i < boostArray.length; i++) {
+                boostArray[i] = boosts.get(i);
+                documentFrequency += postings.get(i).ids.length;
+            }
+            return new QueryTerm(this, token, postings.toArray(Postings[]::new), boostArray, documentFrequency);
+        }
+    }
+
+    /**
+     * A query word resolved to the postings of the terms it matches
+     */
+    private static final class QueryTerm {
+
+        private final Snapshot snapshot;
+        private final String token;
+        private final Postings[] postings;
+        private final float[] boosts;
+        private final int documentFrequency;
+
+        QueryTerm(Snapshot snapshot, String token, Postings[] postings, float[] boosts, int documentFrequency) {
+            this.snapshot = snapshot;
+            this.token = token;
+            this.postings = postings;
+            this.boosts = boosts;
+            this.documentFrequency = documentFrequency;
+        }
+
+        /**
+         * Every product matched by the word, in id order; a product matched by several
+         * expansions keeps its best score
+         */
+        Matches matches(float idf) {
+            if (postings.length == 1) {
+                Postings only = postings[0];
+                float[] scores = new float[only.ids.length];
+                for (int j = 0; j < scores.length; j++) {
+                    scores[j] = boosts[0] * saturate(only.weights[j]) * idf;
+                }
+                return new Matches(only.ids, scores, scores.length);
+            }
+            // k-way merge through a min-heap of expansions keyed by their next id: O(n log k), one output array
+            long[] ids = new long[documentFrequency];
+            float[] scores = new float[documentFrequency];
+            int[] positions = new int[postings.length];
+            int[] heap = new int[postings.length];
+            for (int i = 0; i < heap.length; i++) {
+                heap[i] = i;
+            }
+            for (int i = heap.length / 2 - 1; i >= 0; i--) {
+                siftDown(heap, heap.length, i, positions);
+            }
+            int heapSize = heap.length;
+            int n = 0;
+            while (heapSize > 0) {
+                int expansion = heap[0];
+                int position = positions[expansion]++;
+                long id = postings[expansion].ids[position];
+                float score = boosts[expansion] * saturate(postings[expansion].weights[position]) * idf;
+                if (n > 0 && ids[n - 1] == id) {
+                    scores[n - 1] = Math.max(scores[n - 1], score);
+                } else {
+                    ids[n] = id;
+                    scores[n++] = score;
+                }
+                if (positions[expansion] == postings[expansion].ids.length) {
+                    heap[0] = heap[--heapSize];
+                }
+                siftDown(heap, heapSize, 0, positions);
+            }
+            return new Matches(ids, scores, n);
+        }
+
+        float score(long id) {
+            if (postings.length > MAX_PROBED_EXPANSIONS) {
+                return scoreByDocumentTerms(id);
+            }
+            float best = 0;
+            for (int i = 0; i < postings.length; i++) {
+                int index = Arrays.binarySearch(postings[i].ids, id);
+                if (index >= 0) {
+                    best = Math.max(best, boosts[i] * saturate(postings[i].weights[index]));
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Score of a word with many expansions: only the few terms of the product are looked at
+         */
+        private float scoreByDocumentTerms(long id) {
+            String[] documentTerms = snapshot.documentTerms.get(id);
+            if (documentTerms == null) {
+                return 0;
+            }
+            float best = 0;
+            for (String term : documentTerms) {
+                if (!term.startsWith(token)) {
+                    continue;
+                }
+                Postings termPostings = snapshot.terms.get(term);
+                int index = termPostings == null ? -1 : Arrays.binarySearch(termPostings.ids, id);
+                if (index >= 0) {
+                    float boost = term.length() == token.length() ? 1.0f : PREFIX_BOOST;
+                    best = Math.max(best, boost * saturate(termPostings.weights[index]));
+                }
+            }
+            return best;
+        }
+
+        private long head(int expansion, int[] positions) {
+            return postings[expansion].ids[positions[expansion]];
+        }
+
+        private void siftDown(int[] heap, int heapSize, int index, int[] positions) {
+            while (true) {
+                int smallest = 2 * index + 1;
+                if (smallest >= heapSize) {
+                    return;
+                }
+                if (smallest + 1 < heapSize && head(heap[smallest + 1], positions) < head(heap[smallest], positions)) {
+                    smallest++;
+                }
+                if (head(heap[index], positions) <= head(heap[smallest], positions)) {
+                    return;
+                }
+                int swapped = heap[index];
+                heap[index] = heap[smallest];
+                heap[smallest] = swapped;
+                index = smallest;
+            }
+        }
+    }
+
+    /**
+     * Scored products of a search in ascending id order; ids may be shared with a postings list
+     * and are never written to
+     */
+    private static final class Matches {
+
+        private final long[] ids;
+        private final float[] scores;
+        private final int size;
+
+        Matches(long[] ids, float[] scores, int size) {
+            this.ids = ids;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        Matches intersect(Matches other) {
+            int capacity = Math.min(size, other.size);
+            long[] newIds = new long[capacity];
+            float[] newScores = new float[capacity];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < size && j < other.size) {
+                if (ids[i] < other.ids[j]) {
+                    i++;
+                } else if (ids[i] > other.ids[j]) {
+                    j++;
+                } else {
+                    newIds[n] = ids[i];
+                    newScores[n++] = scores[i++] + other.scores[j++];
+                }
+            }
+            return new Matches(newIds, newScores, n);
+        }
+
+        Matches probe(QueryTerm queryTerm, float idf) {
+            long[] newIds = new long[size];
+            float[] newScores = new float[size];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                float score = queryTerm.score(ids[i]);
+                if (score > 0) {
+                    newIds[n] = ids[i];
+                    newScores[n++] = scores[i] + score * idf;
+                }
+            }
+            return new Matches(newIds, newScores, n);
+        }
+
+        /**
+         * The best `limit` products, best first (ties broken by lowest id), selected with a
+         * bounded min-heap of positions whose root is the worst match kept so far
+         */
+        List<Long> top(int limit) {
+            int capacity = Math.min(limit, size);
+            int[] heap = new int[capacity];
+            int heapSize = 0;
+            for (int i = 0; i < size; i++) {
+                if (heapSize < capacity) {
+                    heap[heapSize] = i;
+                    siftUp(heap, heapSize++);
+                } else if (better(i, heap[0])) {
+                    heap[0] = i;
+                    siftDown(heap, heapSize);
+                }
+            }
+            Long[] best = new Long[heapSize];
+            for (int last = heapSize - 1; last >= 0; last--) {
+                best[last] = ids[heap[0]];
+                heap[0] = heap[last];
+                siftDown(heap, last);
+            }
+            return Arrays.asList(best);
+        }
+
+        private boolean better(int a, int b) {
+            return scores[a] > scores[b] || (scores[a] == scores[b] && ids[a] < ids[b]);
+        }
+
+        private void siftUp(int[] heap, int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!better(heap[parent], heap[index])) {
+                    return;
+                }
+                swap(heap, parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int heapSize) {
+            int index = 0;
+            while (true) {
+                int worst = 2 * index + 1;
+                if (worst >= heapSize) {
+                    return;
+                }
+                if (worst + 1 < heapSize && better(heap[worst], heap[worst + 1])) {
+                    worst++;
+                }
+                if (!better(heap[index], heap[worst])) {
+                    return;
+                }
+                swap(heap, index, worst);
+                index = worst;
+            }
+        }
+
+        private static void swap(int[] heap, int a, int b) {
+            int swapped = heap[a];
+            heap[a] = heap[b];
+            heap[b] = swapped;
+        }
+    }
+
+    /**
+     * Immutable postings list of a term: product ids in ascending order and their term weights
+     */
+    private static final class Postings {
+
+        private final long[] ids;
+        private final float[] weights;
+
+        Postings(long[] ids, float[] weights) {
+            this.ids = ids;
+            this.weights = weights;
+        }
+
+        static Postings single(long id, float weight) {
+            return new Postings(new long[]{id}, new float[]{weight});
+        }
+
+        Postings with(long id, float weight) {
+            int index = Arrays.binarySearch(ids, id);
+            if (index >= 0) {
+                float[] newWeights = weights.clone();
+                newWeights[index] = weight;
+                return new Postings(ids, newWeights);
+            }
+            int insertAt = -(index + 1);
+            long[] newIds = new long[ids.length + 1];
+            float[] newWeights = new float[weights.length + 1];
+            System.arraycopy(ids, 0, newIds, 0, insertAt);
+            System.arraycopy(weights, 0, newWeights, 0, insertAt);
+            newIds[insertAt] = id;
+            newWeights[insertAt] = weight;
+            System.arraycopy(ids, insertAt, newIds, insertAt + 1, ids.length - insertAt);
+            System.arraycopy(weights, insertAt, newWeights, insertAt + 1, weights.length - insertAt);
+            return new Postings(newIds, newWeights);
+        }
+
+        /**
+         * Union with postings of other products (ids not in this list)
+         */
+        Postings merge(Postings other) {
+            long[] newIds = new long[ids.length + other.ids.length];
+            float[] newWeights = new float[newIds.length];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < ids.length && j < other.ids.length) {
+                if (ids[i] < other.ids[j]) {
+                    newIds[n] = ids[i];
+                    newWeights[n++] = weights[i++];
+                } else {
+                    newIds[n] = other.ids[j];
+                    newWeights[n++] = other.weights[j++];
+                }
+            }
+            System.arraycopy(ids, i, newIds, n, ids.length - i);
+            System.arraycopy(weights, i, newWeights, n, weights.length - i);
+            n += ids.length - i;
+            System.arraycopy(other.ids, j, newIds, n, other.ids.length - j);
+            System.arraycopy(other.weights, j, newWeights, n, other.weights.length - j);
+            return new Postings(newIds, newWeights);
+        }
+
+        Postings without(long id) {
+            int index = Arrays.binarySearch(ids, id);
+            if (index < 0) {
+                return this;
+            }
+            if (ids.length == 1) {
+                return null;
+            }
+            long[] newIds = new long[ids.length - 1];
+            float[] newWeights = new float[weights.length - 1];
+            System.arraycopy(ids, 0, newIds, 0, index);
+            System.arraycopy(weights, 0, newWeights, 0, index);
+            System.arraycopy(ids, index + 1, newIds, index, ids.length - index - 1);
+            System.arraycopy(weights, index + 1, newWeights, index, weights.length - index - 1);
+            return new Postings(newIds, newWeights);
+        }
+    }
+
+    /**
+     * Accumulates postings during the initial load; products arrive in ascending id order
+     */
+    private static final class Builder {
+
+        private final Map<String, PostingsBuffer> buffers = new HashMap<>();
+        private final ConcurrentHashMap<Long, String[]> documentTerms = new ConcurrentHashMap<>();
+
+        void add(long id, Map<String, Float> weights) {
+            String[] documentTermArray = new String[weights.size()];
+            int i = 0;
+            for (Map.Entry<String, Float> weight : weights.entrySet()) {
+                PostingsBuffer buffer = buffers.computeIfAbsent(weight.getKey(), term -> new PostingsBuffer());
+                buffer.append(id, weight.getValue());
+                documentTermArray[i++] = weight.getKey();
+            }
+            documentTerms.put(id, documentTermArray);
+        }
+
+        Snapshot build() {
+            ConcurrentSkipListMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+            buffers.forEach((term, buffer) -> terms.put(term, buffer.toPostings()));
+            return new Snapshot(terms, documentTerms);
+        }
+    }
+
+    private static final class PostingsBuffer {
+
+        private long[] ids = new long[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void append(long id, float weight) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ids[size] = id;
+            weights[size] = weight;
+            size++;
+        }
+
+        Postings toPostings() {
+            return new Postings(Arrays.copyOf(ids, size), Arrays.copyOf(weights, size));
+        }
+    }
+}
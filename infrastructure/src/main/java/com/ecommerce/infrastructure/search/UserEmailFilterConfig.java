@@ -0,0 +1,22 @@
+package com.ecommerce.infrastructure.search;
+
+import com.ecommerce.application.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the Bloom filter of user emails that lets signups skip the email lookup for new emails
+ */
+@Configuration
+public class UserEmailFilterConfig {
+
+    @Bean(destroyMethod = "close")
+    public BloomUserEmailFilter bloomUserEmailFilter(
+            UserRepository userRepository,
+            @Value("${ecommerce.users.email-filter.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${ecommerce.users.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${ecommerce.users.email-filter.max-stale-ratio:0.1}") double maxStaleRatio) {
+        return new BloomUserEmailFilter(userRepository, expectedInsertions, falsePositiveRate, maxStaleRatio);
+    }
+}
@@ -0,0 +1,11 @@
+-- Local stand-in for the read replica (profile local-replica): links every table of the embedded
+-- "primary" database read-only, so the replica always shows the primary's data and any write routed
+-- to it fails. Runs on every new replica connection, hence IF NOT EXISTS.
+CREATE LINKED TABLE IF NOT EXISTS users('org.h2.Driver', 'jdbc:h2:mem:primary', 'sa', '', 'PUBLIC', 'USERS') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS products('org.h2.Driver', 'jdbc:h2:mem:primary', 'sa', '', 'PUBLIC', 'PRODUCTS') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS orders('org.h2.Driver', 'jdbc:h2:mem:primary', 'sa', '', 'PUBLIC', 'ORDERS') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS order_products('org.h2.Driver', 'jdbc:h2:mem:primary', 'sa', '', 'PUBLIC', 'ORDER_PRODUCTS') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS daily_sales('org.h2.Driver', 'jdbc:h2:mem:primary', 'sa', '', 'PUBLIC', 'DAILY_SALES') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS daily_product_sales('org.h2.Driver', 'jdbc:h2:mem:primary', 'sa', '', 'PUBLIC', 'DAILY_PRODUCT_SALES') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS user_order_summaries('org.h2.Driver', 'jdbc:h2:mem:primary', 'sa', '', 'PUBLIC', 'USER_ORDER_SUMMARIES') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS idempotency_keys('org.h2.Driver', 'jdbc:h2:mem:primary', 'sa', '', 'PUBLIC', 'IDEMPOTENCY_KEYS') READONLY;
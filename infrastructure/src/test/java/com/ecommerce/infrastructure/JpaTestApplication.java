@@ -0,0 +1,15 @@
+package com.ecommerce.infrastructure;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Configuration of the JPA adapter tests: the entities and Spring Data repositories, as enabled by
+ * JpaRepositoryConfig, on the embedded H2 database of @DataJpaTest (test profile)
+ */
+@SpringBootConfiguration
+@EntityScan("com.ecommerce.domain")
+@EnableJpaRepositories("com.ecommerce.infrastructure.repository")
+public class JpaTestApplication {
+}
@@ -0,0 +1,197 @@
+package com.ecommerce.infrastructure;
+
+import com.ecommerce.application.repository.OrderRepository;
+import com.ecommerce.application.repository.ProductRepository;
+import com.ecommerce.application.repository.SalesAnalyticsRepository;
+import com.ecommerce.application.service.BulkOrderResult;
+import com.ecommerce.application.service.OrderService;
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.OrderProduct;
+import com.ecommerce.domain.Product;
+import com.ecommerce.domain.User;
+import com.ecommerce.infrastructure.inmemory.InMemoryOrderProductRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryOrderRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryProductRepository;
+import com.ecommerce.infrastructure.inmemory.InMemorySalesAnalyticsRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore;
+import com.ecommerce.infrastructure.inmemory.InMemoryUserOrderSummaryRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryUserRepository;
+import com.ecommerce.infrastructure.inventory.StripedInventory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * OrderService on the in-memory adapters: concurrent edits of one order each move the stock and the
+ * read models from the state their save replaced, concurrent status changes of one order apply once,
+ * read model updates that fail are counted, and bulk placements report invalid orders at their index
+ */
+class OrderServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int EDITS_PER_THREAD = 50;
+    private static final int STOCK = 10_000;
+    private static final BigDecimal PRICE = new BigDecimal("2.00");
+
+    private InMemoryStore store;
+    private ProductRepository productRepository;
+    private OrderRepository orderRepository;
+    private StripedInventory inventory;
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void createUserAndProduct() {
+        store = new InMemoryStore(0, 16);
+        productRepository = new InMemoryProductRepository(store);
+        orderRepository = new InMemoryOrderRepository(store);
+        user = new InMemoryUserRepository(store).saveUser(new User("alice@example.com", "Alice", "secret", "Street 1"));
+        product = productRepository.saveProduct(new Product("Keyboard", "Mechanical", PRICE, STOCK));
+    }
+
+    @RepeatedTest(3)
+    void concurrentEditsOfAnOrderKeepStockAndReadModelsInStep() throws InterruptedException {
+        OrderService orderService = orderService(new InMemorySalesAnalyticsRepository(store));
+        Long orderId = orderService.placeOrder(orderOf(1)).getId();
+
+        AtomicInteger added = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < EDITS_PER_THREAD; i++) {
+                    try {
+                        orderService.addProductToOrder(orderId, product.getId(), 1);
+                        added.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        // Still written concurrently after every attempt: nothing was changed
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        int quantity = 1 + added.get();
+        Order order = orderRepository.findOrderWithProductsById(orderId).orElseThrow();
+        assertThat(added.get()).isPositive();
+        assertThat(order.getOrderProducts()).singleElement()
+                .extracting(OrderProduct::getQuantity).isEqualTo(quantity);
+        assertThat(order.getTotalAmount()).isEqualByComparingTo(PRICE.multiply(BigDecimal.valueOf(quantity)));
+        assertThat(orderService.getUserOrderSummary(user.getId()).getLifetimeValue())
+                .isEqualByComparingTo(order.getTotalAmount());
+        assertThat(inventory.availableStock(product.getId())).hasValue(STOCK - quantity);
+        assertThat(orderService.getFailedSalesUpdates()).isZero();
+        assertThat(orderService.getFailedSummaryUpdates()).isZero();
+    }
+
+    @Test
+    void concurrentCancelsOfAnOrderReleaseItsStockOnce() throws InterruptedException {
+        OrderService orderService = orderService(new InMemorySalesAnalyticsRepository(store));
+        Long orderId = orderService.placeOrder(orderOf(5)).getId();
+
+        AtomicInteger cancelled = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                    Order header = orderService.updateOrderStatus(orderId, Order.OrderStatus.CANCELLED);
+                    assertThat(header.getStatus()).isEqualTo(Order.OrderStatus.CANCELLED);
+                    cancelled.incrementAndGet();
+                } catch (InterruptedException | IllegalStateException e) {
+                    // Already cancelled by another worker
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat(cancelled.get()).isEqualTo(1);
+        assertThat(inventory.availableStock(product.getId())).hasValue(STOCK);
+        assertThat(orderRepository.findOrderHeaderById(orderId)).get()
+                .extracting(Order::getStatus).isEqualTo(Order.OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void disallowedTransitionsAndMissingOrdersAreRejected() {
+        OrderService orderService = orderService(new InMemorySalesAnalyticsRepository(store));
+        Long orderId = orderService.placeOrder(orderOf(1)).getId();
+
+        assertThatThrownBy(() -> orderService.updateOrderStatus(orderId, Order.OrderStatus.SHIPPED))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> orderService.updateOrderStatus(999_999L, Order.OrderStatus.CONFIRMED))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(orderService.updateOrderStatus(orderId, Order.OrderStatus.CONFIRMED).getStatus())
+                .isEqualTo(Order.OrderStatus.CONFIRMED);
+        assertThat(inventory.availableStock(product.getId())).hasValue(STOCK - 1);
+    }
+
+    @Test
+    void bulkPlacementReportsNullOrdersAndRejectsOversizedBatches() {
+        OrderService orderService = orderService(new InMemorySalesAnalyticsRepository(store));
+        Order withNullLine = orderOf(1);
+        withNullLine.getOrderProducts().add(null);
+
+        List<BulkOrderResult> results = orderService.createOrders(Arrays.asList(orderOf(1), null, withNullLine));
+
+        assertThat(results).extracting(BulkOrderResult::getIndex).containsExactly(0, 1, 2);
+        assertThat(results).extracting(BulkOrderResult::isSuccess).containsExactly(true, false, false);
+        assertThat(inventory.availableStock(product.getId())).hasValue(STOCK - 1);
+        assertThatThrownBy(() -> orderService.createOrders(Collections.nCopies(OrderService.MAX_BULK_ORDERS + 1, orderOf(1))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void failedReadModelUpdatesAreCounted() {
+        OrderService orderService = orderService(new InMemorySalesAnalyticsRepository(store) {
+            @Override
+            public void applyChanges(Collection<Order> removedOrders, Collection<Order> addedOrders) {
+                throw new IllegalStateException("Sales tables are not available");
+            }
+        });
+
+        Long orderId = orderService.placeOrder(orderOf(1)).getId();
+        orderService.addProductToOrder(orderId, product.getId(), 2);
+
+        assertThat(orderService.getFailedSalesUpdates()).isEqualTo(2);
+        assertThat(orderService.getFailedSummaryUpdates()).isZero();
+        assertThat(orderService.getUserOrderSummary(user.getId()).getLifetimeValue())
+                .isEqualByComparingTo(PRICE.multiply(BigDecimal.valueOf(3)));
+    }
+
+    private OrderService orderService(SalesAnalyticsRepository salesAnalyticsRepository) {
+        inventory = new StripedInventory(productRepository, 4);
+        return new OrderService(orderRepository, new InMemoryOrderProductRepository(store),
+                new InMemoryUserRepository(store), productRepository, salesAnalyticsRepository,
+                new InMemoryUserOrderSummaryRepository(store), inventory);
+    }
+
+    private Order orderOf(int quantity) {
+        Order order = new Order(user);
+        order.addOrderProduct(new OrderProduct(order, product, quantity, PRICE));
+        return order;
+    }
+}
@@ -0,0 +1,100 @@
+package com.ecommerce.infrastructure.cache;
+
+import com.ecommerce.domain.Product;
+import com.ecommerce.infrastructure.inmemory.InMemoryProductRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CachingProductRepository on the in-memory adapter: a bulk load that read its rows before a
+ * concurrent write never leaves them cached over that write
+ */
+class CachingProductRepositoryTest {
+
+    private static final long WRITER_WAIT_MILLIS = 200;
+
+    private CountDownLatch rowsRead;
+    private CountDownLatch releaseLoad;
+    private InMemoryProductRepository delegate;
+    private CachingProductRepository repository;
+    private Product keyboard;
+    private Product mouse;
+
+    @BeforeEach
+    void createProducts() {
+        rowsRead = new CountDownLatch(1);
+        releaseLoad = new CountDownLatch(1);
+        delegate = new InMemoryProductRepository(new InMemoryStore(0, 4)) {
+            @Override
+            public List<Product> findProductsByIds(Collection<Long> ids) {
+                List<Product> rows = super.findProductsByIds(ids);
+                rowsRead.countDown();
+                try {
+                    releaseLoad.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rows;
+            }
+        };
+        keyboard = delegate.saveProduct(new Product("Keyboard", "Mechanical", new BigDecimal("100.00"), 10));
+        mouse = delegate.saveProduct(new Product("Mouse", "Wireless", new BigDecimal("50.00"), 20));
+        repository = new CachingProductRepository(delegate, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void stockUpdatedDuringABulkLoadIsNotOverwritten() throws InterruptedException {
+        raceBulkLoadWith(r -> r.updateStockQuantity(keyboard.getId(), 3));
+
+        assertThat(repository.findProductById(keyboard.getId()))
+                .hasValueSatisfying(product -> assertThat(product.getStockQuantity()).isEqualTo(3));
+    }
+
+    @Test
+    void productSavedDuringABulkLoadIsNotOverwritten() throws InterruptedException {
+        raceBulkLoadWith(r -> {
+            Product changed = delegate.findProductById(mouse.getId()).orElseThrow();
+            changed.setPrice(new BigDecimal("45.00"));
+            r.saveProduct(changed);
+        });
+
+        assertThat(repository.findProductById(mouse.getId()))
+                .hasValueSatisfying(product -> assertThat(product.getPrice()).isEqualByComparingTo("45.00"));
+    }
+
+    @Test
+    void productDeletedDuringABulkLoadIsNotResurrected() throws InterruptedException {
+        raceBulkLoadWith(r -> r.deleteById(keyboard.getId()));
+
+        assertThat(repository.findProductById(keyboard.getId())).isEmpty();
+        assertThat(repository.findProductsByIds(List.of(keyboard.getId(), mouse.getId())))
+                .extracting(Product::getId).containsExactly(mouse.getId());
+    }
+
+    /**
+     * Start a bulk read of both products, run the write once the rows were read, and let the read
+     * finish after the write either completed or has waited long enough for the read's locks
+     */
+    private void raceBulkLoadWith(Consumer<CachingProductRepository> write) throws InterruptedException {
+        Thread reader = Thread.ofPlatform().start(() ->
+                repository.findProductsByIds(List.of(keyboard.getId(), mouse.getId())));
+        assertThat(rowsRead.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread writer = Thread.ofPlatform().start(() -> write.accept(repository));
+        writer.join(WRITER_WAIT_MILLIS);
+        releaseLoad.countDown();
+        reader.join();
+        writer.join();
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.infrastructure.datasource;
+
+import com.ecommerce.application.service.UserService;
+import com.ecommerce.domain.User;
+import com.ecommerce.infrastructure.search.UserEmailFilterConfig;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read replica on the embedded H2 databases of the local-replica profile, whose replica fails any write:
+ * a request that reads and then writes sends the write to the primary. The request keeps an EntityManager
+ * open for its duration when open-in-view is on, as the web layer would.
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "local-replica"})
+class ReadWriteRoutingTest {
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan("com.ecommerce.domain")
+    @EnableJpaRepositories("com.ecommerce.infrastructure.repository")
+    @Import({ReadWriteRoutingConfig.class, UserEmailFilterConfig.class, UserService.class})
+    static class ReplicaTestApplication {
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ReadWriteRoutingDataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private Environment environment;
+
+    @Test
+    void openInViewIsOffWithTheReplica() {
+        assertThat(environment.getProperty(ReadWriteRoutingEnvironmentPostProcessor.OPEN_IN_VIEW, Boolean.class))
+                .isFalse();
+    }
+
+    @Test
+    void aWriteAfterAReadInTheSameRequestGoesToThePrimary() {
+        Long userId = userService.createUser(new User("bob@example.com", "Bob", "secret", "Street 1")).getId();
+
+        inRequest(() -> {
+            User user = userService.getUserById(userId).orElseThrow();
+            user.setName("Robert");
+            userService.updateUser(user);
+        });
+
+        String name = new JdbcTemplate(dataSource.getPrimary())
+                .queryForObject("SELECT name FROM users WHERE id = ?", String.class, userId);
+        assertThat(name).isEqualTo("Robert");
+    }
+
+    private void inRequest(Runnable request) {
+        boolean openInView = environment.getProperty(ReadWriteRoutingEnvironmentPostProcessor.OPEN_IN_VIEW,
+                Boolean.class, true);
+        if (openInView) {
+            TransactionSynchronizationManager.bindResource(entityManagerFactory,
+                    new EntityManagerHolder(entityManagerFactory.createEntityManager()));
+        }
+        ReadWriteRouting.beginRequest(false, () -> {});
+        try {
+            request.run();
+        } finally {
+            ReadWriteRouting.endRequest();
+            if (openInView) {
+                ((EntityManagerHolder) TransactionSynchronizationManager.unbindResource(entityManagerFactory))
+                        .getEntityManager().close();
+            }
+        }
+    }
+}
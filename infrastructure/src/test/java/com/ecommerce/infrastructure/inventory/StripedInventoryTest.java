@@ -0,0 +1,151 @@
+package com.ecommerce.infrastructure.inventory;
+
+import com.ecommerce.application.repository.ProductRepository;
+import com.ecommerce.domain.Product;
+import com.ecommerce.infrastructure.inmemory.InMemoryProductRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * StripedInventory on the in-memory products table: concurrent reservations never oversell, and
+ * releases and stock replacements reach products whose counter is not loaded yet
+ */
+class StripedInventoryTest {
+
+    private static final int THREADS = 32;
+    private static final int HOT_STOCK = 20_000;
+    private static final int OTHER_STOCK = HOT_STOCK / 4;
+    private static final int STRIPES = 16;
+    private static final int MAX_CONSECUTIVE_FAILURES = 1_000;
+
+    private ProductRepository productRepository;
+    private Long hotId;
+    private Long otherId;
+
+    @BeforeEach
+    void createProducts() {
+        productRepository = new InMemoryProductRepository(new InMemoryStore(0, 16));
+        hotId = productRepository.saveProduct(
+                new Product("Hot product", "Flash sale", new BigDecimal("9.90"), HOT_STOCK)).getId();
+        otherId = productRepository.saveProduct(
+                new Product("Other product", "Bundle", new BigDecimal("4.90"), OTHER_STOCK)).getId();
+    }
+
+    /**
+     * Many threads place orders for the hot product (alone, or together with a second product) until the
+     * stock is gone, cancelling some of their orders on the way, while the reconciler writes the counters
+     * back. The units held by the surviving orders never exceed the initial stock: with the units left
+     * they add up to it, and the stock seen by any thread is never negative.
+     */
+    @RepeatedTest(3)
+    void concurrentReservationsNeverOversell() throws InterruptedException {
+        StripedInventory inventory = new StripedInventory(productRepository, STRIPES);
+        inventory.startReconciliation(Duration.ofMillis(1));
+
+        AtomicLong hotHeld = new AtomicLong();
+        AtomicLong otherHeld = new AtomicLong();
+        AtomicLong lowestAvailable = new AtomicLong(Long.MAX_VALUE);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                List<Map<Long, Integer>> orders = new ArrayList<>();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                int failures = 0;
+                while (failures < MAX_CONSECUTIVE_FAILURES) {
+                    int hotQuantity = 1 + random.nextInt(3);
+                    Map<Long, Integer> order = random.nextInt(4) == 0
+                            ? Map.of(hotId, hotQuantity, otherId, 1 + random.nextInt(2))
+                            : Map.of(hotId, hotQuantity);
+                    try {
+                        inventory.reserve(order);
+                        orders.add(order);
+                        failures = 0;
+                    } catch (IllegalArgumentException e) {
+                        failures++;
+                    }
+                    // Cancel one order in ten while stock lasts
+                    if (!orders.isEmpty() && failures == 0 && random.nextInt(10) == 0) {
+                        inventory.release(orders.remove(random.nextInt(orders.size())));
+                    }
+                    lowestAvailable.accumulateAndGet(inventory.availableStock(hotId).orElseThrow(), Math::min);
+                }
+                for (Map<Long, Integer> order : orders) {
+                    hotHeld.addAndGet(order.getOrDefault(hotId, 0));
+                    otherHeld.addAndGet(order.getOrDefault(otherId, 0));
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        inventory.close();
+
+        long hotLeft = inventory.availableStock(hotId).orElseThrow();
+        long otherLeft = inventory.availableStock(otherId).orElseThrow();
+        assertThat(lowestAvailable.get()).isNotNegative();
+        assertThat(hotHeld.get()).isLessThanOrEqualTo(HOT_STOCK);
+        assertThat(otherHeld.get()).isLessThanOrEqualTo(OTHER_STOCK);
+        assertThat(hotHeld.get() + hotLeft).isEqualTo(HOT_STOCK);
+        assertThat(otherHeld.get() + otherLeft).isEqualTo(OTHER_STOCK);
+        assertThat(productRepository.findProductById(hotId).orElseThrow().getStockQuantity()).isEqualTo(hotLeft);
+        assertThat(productRepository.findProductById(otherId).orElseThrow().getStockQuantity()).isEqualTo(otherLeft);
+    }
+
+    @Test
+    void reservationFailingOnOneProductReservesNone() {
+        StripedInventory inventory = new StripedInventory(productRepository, STRIPES);
+
+        assertThatThrownBy(() -> inventory.reserve(Map.of(hotId, 1, otherId, OTHER_STOCK + 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(inventory.availableStock(hotId)).hasValue(HOT_STOCK);
+        assertThat(inventory.availableStock(otherId)).hasValue(OTHER_STOCK);
+    }
+
+    @Test
+    void releaseAfterARestartIsNotLost() {
+        StripedInventory before = new StripedInventory(productRepository, STRIPES);
+        before.reserve(Map.of(hotId, 5));
+        before.close();
+
+        StripedInventory after = new StripedInventory(productRepository, STRIPES);
+        after.release(Map.of(hotId, 5));
+        after.close();
+
+        assertThat(after.availableStock(hotId)).hasValue(HOT_STOCK);
+        assertThat(productRepository.findProductById(hotId).orElseThrow().getStockQuantity()).isEqualTo(HOT_STOCK);
+    }
+
+    @Test
+    void setStockReplacesTheCounterAndTheTableTogether() {
+        StripedInventory inventory = new StripedInventory(productRepository, STRIPES);
+
+        inventory.setStock(hotId, 7);
+
+        assertThat(inventory.availableStock(hotId)).hasValue(7);
+        assertThat(productRepository.findProductById(hotId).orElseThrow().getStockQuantity()).isEqualTo(7);
+        inventory.reserve(Map.of(hotId, 7));
+        assertThatThrownBy(() -> inventory.reserve(Map.of(hotId, 1))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.application.repository.OrderRepository;
+import com.ecommerce.application.repository.ProductRepository;
+import com.ecommerce.application.repository.UserRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryOrderRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryProductRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore;
+import com.ecommerce.infrastructure.inmemory.InMemoryUserRepository;
+
+/**
+ * Repository contract of the in-memory adapter, on a fresh store per test
+ */
+class InMemoryRepositoryContractTest extends RepositoryContractTest {
+
+    private final InMemoryStore store = new InMemoryStore(0, 16);
+    private final UserRepository userRepository = new InMemoryUserRepository(store);
+    private final ProductRepository productRepository = new InMemoryProductRepository(store);
+    private final OrderRepository orderRepository = new InMemoryOrderRepository(store);
+
+    @Override
+    protected UserRepository userRepository() {
+        return userRepository;
+    }
+
+    @Override
+    protected ProductRepository productRepository() {
+        return productRepository;
+    }
+
+    @Override
+    protected OrderRepository orderRepository() {
+        return orderRepository;
+    }
+
+    @Override
+    protected void flushAndClear() {
+        // Every write is visible as soon as it returns
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.application.repository.OrderRepository;
+import com.ecommerce.application.repository.ProductRepository;
+import com.ecommerce.application.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Repository contract of the JPA adapter, on H2
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class JpaRepositoryContractTest extends RepositoryContractTest {
+
+    @Autowired
+    private UserRepositoryImpl userRepository;
+
+    @Autowired
+    private ProductRepositoryImpl productRepository;
+
+    @Autowired
+    private OrderRepositoryImpl orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Override
+    protected UserRepository userRepository() {
+        return userRepository;
+    }
+
+    @Override
+    protected ProductRepository productRepository() {
+        return productRepository;
+    }
+
+    @Override
+    protected OrderRepository orderRepository() {
+        return orderRepository;
+    }
+
+    @Override
+    protected void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
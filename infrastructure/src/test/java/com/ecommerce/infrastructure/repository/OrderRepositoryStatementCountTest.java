@@ -0,0 +1,132 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.OrderProduct;
+import com.ecommerce.domain.Product;
+import com.ecommerce.domain.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Order reads load orders, lines and products in a fixed number of round trips, whatever the number
+ * of orders (no N+1): counted with the Hibernate statistics, after reading every field the order
+ * responses write
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class OrderRepositoryStatementCountTest {
+
+    private static final int ORDERS_PER_USER = 5;
+
+    @Autowired
+    private OrderRepositoryImpl orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+    private Long orderId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Product> products = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            products.add(entityManager.persist(new Product("Product " + i, "Description " + i, new BigDecimal("10.00"), 100)));
+        }
+        for (int u = 1; u <= 2; u++) {
+            User owner = entityManager.persist(new User("user" + u + "@example.com", "User " + u, "secret", "Street " + u));
+            for (int o = 0; o < ORDERS_PER_USER; o++) {
+                Order order = new Order(owner);
+                for (Product product : products) {
+                    order.addOrderProduct(new OrderProduct(order, product, 1, product.getPrice()));
+                }
+                orderId = entityManager.persist(order).getId();
+            }
+            user = owner;
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllOrdersLoadsOrdersLinesAndProductsInOneStatement() {
+        List<Order> orders = orderRepository.findAllOrdersWithProducts();
+
+        assertThat(orders).hasSize(2 * ORDERS_PER_USER);
+        orders.forEach(OrderRepositoryStatementCountTest::readAsResponse);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void streamedOrdersAreLoadedWithTheirIdsAndOneStatementPerChunk() {
+        List<Order> orders = new ArrayList<>();
+        orderRepository.forEachOrder(order -> {
+            readAsResponse(order);
+            orders.add(order);
+        });
+
+        assertThat(orders).hasSize(2 * ORDERS_PER_USER);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void getOrderByIdLoadsTheOrderLinesAndProductsInOneStatement() {
+        Optional<Order> order = orderRepository.findOrderWithProductsById(orderId);
+
+        assertThat(order).isPresent();
+        readAsResponse(order.get());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getOrdersByUserLoadsOrdersLinesAndProductsInOneStatement() {
+        List<Order> orders = orderRepository.findByUserWithProducts(user);
+
+        assertThat(orders).hasSize(ORDERS_PER_USER);
+        orders.forEach(OrderRepositoryStatementCountTest::readAsResponse);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void streamedOrdersByUserAreLoadedWithTheirIdsAndOneStatementPerChunk() {
+        List<Order> orders = new ArrayList<>();
+        orderRepository.forEachByUser(user, order -> {
+            readAsResponse(order);
+            orders.add(order);
+        });
+
+        assertThat(orders).hasSize(ORDERS_PER_USER);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    /**
+     * Read what OrderController writes for an order, so lazy loading would show in the count
+     */
+    private static void readAsResponse(Order order) {
+        assertThat(order.getUser().getId()).isNotNull();
+        assertThat(order.getOrderProducts()).hasSize(3);
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            assertThat(orderProduct.getProduct().getName()).startsWith("Product ");
+        }
+    }
+}
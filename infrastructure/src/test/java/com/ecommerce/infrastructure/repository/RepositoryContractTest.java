@@ -0,0 +1,321 @@
+package com.ecommerce.infrastructure.repository;
+
+import com.ecommerce.application.repository.OrderRepository;
+import com.ecommerce.application.repository.ProductRepository;
+import com.ecommerce.application.repository.UserRepository;
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.OrderProduct;
+import com.ecommerce.domain.Product;
+import com.ecommerce.domain.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Behaviour every persistence adapter must share, whatever backs it: status compare-and-set, optimistic
+ * locking of orders, keyset pagination and the lookups served by secondary indexes (email, user, order date)
+ * Subclasses provide the repositories of one adapter; reads after flushAndClear see what a new
+ * transaction would see.
+ * The test methods are declared here, so this is where Spring looks up their transaction (the one of
+ * @DataJpaTest, rolled back after each test); adapters tested without Spring ignore it.
+ */
+@Transactional
+abstract class RepositoryContractTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    protected abstract UserRepository userRepository();
+
+    protected abstract ProductRepository productRepository();
+
+    protected abstract OrderRepository orderRepository();
+
+    /**
+     * Write pending changes and forget the entities read so far
+     */
+    protected abstract void flushAndClear();
+
+    private User alice;
+    private User bob;
+    private Product product;
+
+    @BeforeEach
+    void createUsersAndProduct() {
+        alice = userRepository().saveUser(new User("alice@example.com", "Alice", "secret", "Street 1"));
+        bob = userRepository().saveUser(new User("bob@example.com", "Bob", "secret", "Street 2"));
+        product = productRepository().saveProduct(new Product("Keyboard", "Mechanical", new BigDecimal("50.00"), 10));
+        flushAndClear();
+    }
+
+    // Status compare-and-set
+
+    @Test
+    void compareAndSetStatusChangesTheStatusOnlyFromTheExpectedOne() {
+        Long id = saveOrder(alice, DAY).getId();
+
+        assertThat(orderRepository().compareAndSetStatus(id, Order.OrderStatus.CONFIRMED, Order.OrderStatus.SHIPPED))
+                .isFalse();
+        assertThat(orderRepository().compareAndSetStatus(id, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED))
+                .isTrue();
+        assertThat(orderRepository().compareAndSetStatus(id, Order.OrderStatus.PENDING, Order.OrderStatus.CANCELLED))
+                .isFalse();
+        flushAndClear();
+
+        assertThat(orderRepository().findOrderHeaderById(id)).get()
+                .extracting(Order::getStatus).isEqualTo(Order.OrderStatus.CONFIRMED);
+    }
+
+    @Test
+    void compareAndSetStatusOfAMissingOrderFails() {
+        assertThat(orderRepository().compareAndSetStatus(999_999L, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED))
+                .isFalse();
+    }
+
+    @Test
+    void updateStatusesMovesOnlyOrdersInAnExpectedStatusAndReturnsTheirPreviousStatus() {
+        Long pending = saveOrder(alice, DAY).getId();
+        Long confirmed = saveOrder(alice, DAY).getId();
+        Long shipped = saveOrder(bob, DAY).getId();
+        orderRepository().compareAndSetStatus(confirmed, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED);
+        orderRepository().compareAndSetStatus(shipped, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED);
+        orderRepository().compareAndSetStatus(shipped, Order.OrderStatus.CONFIRMED, Order.OrderStatus.SHIPPED);
+        flushAndClear();
+
+        List<Order> moved = orderRepository().updateStatuses(List.of(pending, confirmed, shipped, 999_999L),
+                EnumSet.of(Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED), Order.OrderStatus.CANCELLED);
+        flushAndClear();
+
+        assertThat(moved).extracting(Order::getId).containsExactlyInAnyOrder(pending, confirmed);
+        assertThat(moved).filteredOn(order -> order.getId().equals(pending))
+                .extracting(Order::getStatus).containsExactly(Order.OrderStatus.PENDING);
+        assertThat(moved).filteredOn(order -> order.getId().equals(confirmed))
+                .extracting(Order::getStatus).containsExactly(Order.OrderStatus.CONFIRMED);
+        assertThat(moved).extracting(order -> order.getUser().getId()).containsOnly(alice.getId());
+        assertThat(statusOf(pending)).isEqualTo(Order.OrderStatus.CANCELLED);
+        assertThat(statusOf(confirmed)).isEqualTo(Order.OrderStatus.CANCELLED);
+        assertThat(statusOf(shipped)).isEqualTo(Order.OrderStatus.SHIPPED);
+    }
+
+    // Optimistic locking
+
+    @Test
+    void savingAnOrderReadBeforeATransitionFailsAndKeepsTheStatus() {
+        Order order = saveOrder(alice, DAY);
+        flushAndClear();
+        Order loaded = orderRepository().findOrderWithProductsById(order.getId()).orElseThrow();
+        orderRepository().compareAndSetStatus(order.getId(), Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED);
+        flushAndClear();
+
+        loaded.setTotalAmount(new BigDecimal("75.00"));
+        assertThatThrownBy(() -> orderRepository().saveOrder(loaded))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        flushAndClear();
+
+        Order saved = orderRepository().findOrderHeaderById(order.getId()).orElseThrow();
+        assertThat(saved.getStatus()).isEqualTo(Order.OrderStatus.CONFIRMED);
+        assertThat(saved.getTotalAmount()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void savingAnOrderReadBeforeAnotherSaveFails() {
+        Long id = saveOrder(alice, DAY).getId();
+        flushAndClear();
+        Order first = orderRepository().findOrderWithProductsById(id).orElseThrow();
+        flushAndClear();
+        Order second = orderRepository().findOrderWithProductsById(id).orElseThrow();
+        flushAndClear();
+
+        first.setTotalAmount(new BigDecimal("75.00"));
+        orderRepository().saveOrder(first);
+        flushAndClear();
+        second.setTotalAmount(new BigDecimal("80.00"));
+        assertThatThrownBy(() -> orderRepository().saveOrder(second))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        flushAndClear();
+
+        Order saved = orderRepository().findOrderWithProductsById(id).orElseThrow();
+        assertThat(saved.getTotalAmount()).isEqualByComparingTo("75.00");
+        saved.setTotalAmount(new BigDecimal("90.00"));
+        orderRepository().saveOrder(saved);
+        flushAndClear();
+        assertThat(orderRepository().findOrderHeaderById(id).orElseThrow().getTotalAmount()).isEqualByComparingTo("90.00");
+    }
+
+    // Keyset pagination
+
+    @Test
+    void ordersAfterIdArePagedByIdWithoutGapsOrDuplicates() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(saveOrder(i % 2 == 0 ? alice : bob, DAY.minusDays(i)).getId());
+        }
+        flushAndClear();
+
+        assertThat(walk(after -> orderRepository().findOrdersAfterId(after == null ? null : after.getId(), 3),
+                Order::getId)).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    void ordersByOrderDateArePagedByDateThenIdInBothDirections() {
+        // Three orders share a date, so only the id tells their keys apart
+        List<Order> orders = new ArrayList<>();
+        orders.add(saveOrder(alice, DAY.plusHours(1)));
+        orders.add(saveOrder(bob, DAY));
+        orders.add(saveOrder(alice, DAY));
+        orders.add(saveOrder(alice, DAY.minusHours(1)));
+        orders.add(saveOrder(bob, DAY));
+        flushAndClear();
+        List<Long> ascending = List.of(orders.get(3).getId(), orders.get(1).getId(), orders.get(2).getId(),
+                orders.get(4).getId(), orders.get(0).getId());
+
+        assertThat(walk(after -> orderRepository().findOrdersByOrderDateAfter(
+                        after == null ? null : after.getOrderDate(), after == null ? null : after.getId(), 2),
+                Order::getId)).containsExactlyElementsOf(ascending);
+        assertThat(walk(before -> orderRepository().findOrdersByOrderDateBefore(
+                        before == null ? null : before.getOrderDate(), before == null ? null : before.getId(), 2),
+                Order::getId)).containsExactlyElementsOf(ascending.reversed());
+    }
+
+    @Test
+    void usersAndProductsAfterIdArePagedById() {
+        List<Long> userIds = new ArrayList<>(List.of(alice.getId(), bob.getId()));
+        List<Long> productIds = new ArrayList<>(List.of(product.getId()));
+        for (int i = 0; i < 4; i++) {
+            userIds.add(userRepository().saveUser(
+                    new User("user" + i + "@example.com", "User " + i, "secret", "Street " + i)).getId());
+            productIds.add(productRepository().saveProduct(
+                    new Product("Product " + i, "Description " + i, new BigDecimal("5.00"), 1)).getId());
+        }
+        flushAndClear();
+
+        assertThat(walk(after -> userRepository().findUsersAfterId(after == null ? null : after.getId(), 4),
+                User::getId)).containsExactlyElementsOf(userIds);
+        assertThat(walk(after -> productRepository().findProductsAfterId(after == null ? null : after.getId(), 4),
+                Product::getId)).containsExactlyElementsOf(productIds);
+    }
+
+    // Secondary indexes
+
+    @Test
+    void emailLookupsFollowEmailChangesAndDeletes() {
+        User user = userRepository().findUserById(alice.getId()).orElseThrow();
+        user.setEmail("alice@example.org");
+        userRepository().saveUser(user);
+        flushAndClear();
+
+        assertThat(userRepository().findUserByEmail("alice@example.com")).isEmpty();
+        assertThat(userRepository().existsByEmail("alice@example.com")).isFalse();
+        assertThat(userRepository().findUserByEmail("alice@example.org")).get()
+                .extracting(User::getId).isEqualTo(alice.getId());
+        assertThat(userRepository().findExistingEmails(List.of("alice@example.com", "alice@example.org",
+                "bob@example.com", "carol@example.com"))).containsExactlyInAnyOrder("alice@example.org", "bob@example.com");
+
+        userRepository().deleteById(bob.getId());
+        flushAndClear();
+
+        assertThat(userRepository().findUserByEmail("bob@example.com")).isEmpty();
+        assertThat(userRepository().existsByEmail("bob@example.com")).isFalse();
+    }
+
+    @Test
+    void ordersOfAUserAreFoundThroughTheUserOnly() {
+        Order first = saveOrder(alice, DAY.minusDays(2));
+        Order second = saveOrder(alice, DAY);
+        Order third = saveOrder(alice, DAY);
+        Order others = saveOrder(bob, DAY.minusDays(1));
+        flushAndClear();
+
+        assertThat(orderRepository().findByUser(alice)).extracting(Order::getId)
+                .containsExactlyInAnyOrder(first.getId(), second.getId(), third.getId());
+        assertThat(orderRepository().findByUserWithProducts(bob)).extracting(Order::getId)
+                .containsExactly(others.getId());
+        List<Long> streamed = new ArrayList<>();
+        orderRepository().forEachByUser(alice, order -> streamed.add(order.getId()));
+        assertThat(streamed).containsExactlyInAnyOrder(first.getId(), second.getId(), third.getId());
+        assertThat(orderRepository().findRecentOrdersByUser(alice.getId(), 2)).extracting(Order::getId)
+                .containsExactly(third.getId(), second.getId());
+
+        orderRepository().deleteById(second.getId());
+        flushAndClear();
+
+        assertThat(orderRepository().findByUser(alice)).extracting(Order::getId)
+                .containsExactlyInAnyOrder(first.getId(), third.getId());
+        assertThat(orderRepository().findRecentOrdersByUser(alice.getId(), 2)).extracting(Order::getId)
+                .containsExactly(third.getId(), first.getId());
+    }
+
+    @Test
+    void ordersByDateRangeIncludeBothEndsAndFollowDateChanges() {
+        Order before = saveOrder(alice, DAY.minusDays(1));
+        Order start = saveOrder(alice, DAY);
+        Order end = saveOrder(bob, DAY.plusDays(1));
+        Order after = saveOrder(bob, DAY.plusDays(2));
+        flushAndClear();
+
+        assertThat(orderRepository().findByOrderDateBetween(DAY, DAY.plusDays(1))).extracting(Order::getId)
+                .containsExactlyInAnyOrder(start.getId(), end.getId());
+
+        Order moved = orderRepository().findOrderWithProductsById(after.getId()).orElseThrow();
+        moved.setOrderDate(DAY.plusHours(6));
+        orderRepository().saveOrder(moved);
+        flushAndClear();
+
+        List<Long> streamed = new ArrayList<>();
+        orderRepository().forEachByOrderDateBetween(DAY, DAY.plusDays(1), order -> streamed.add(order.getId()));
+        assertThat(streamed).containsExactly(start.getId(), end.getId(), after.getId());
+        assertThat(orderRepository().findByOrderDateBetween(DAY.minusDays(1), DAY.minusDays(1)))
+                .extracting(Order::getId).containsExactly(before.getId());
+        assertThat(orderRepository().findByOrderDateBetween(DAY.plusDays(2), DAY.plusDays(3))).isEmpty();
+    }
+
+    @Test
+    void ordersAreLoadedWithTheirLinesAndProducts() {
+        Order order = saveOrder(alice, DAY);
+        flushAndClear();
+
+        Order loaded = orderRepository().findOrderWithProductsById(order.getId()).orElseThrow();
+        assertThat(loaded.getUser().getId()).isEqualTo(alice.getId());
+        assertThat(loaded.getOrderProducts()).singleElement().satisfies(line -> {
+            assertThat(line.getProduct().getName()).isEqualTo("Keyboard");
+            assertThat(line.getQuantity()).isEqualTo(2);
+        });
+        assertThat(loaded.getTotalAmount()).isEqualByComparingTo("100.00");
+    }
+
+    private Order saveOrder(User user, LocalDateTime orderDate) {
+        Order order = new Order(null, user, orderDate, BigDecimal.ZERO, Order.OrderStatus.PENDING);
+        order.addOrderProduct(new OrderProduct(order, product, 2, product.getPrice()));
+        return orderRepository().saveOrder(order);
+    }
+
+    private Order.OrderStatus statusOf(Long orderId) {
+        return orderRepository().findOrderHeaderById(orderId).orElseThrow().getStatus();
+    }
+
+    /**
+     * Read every page, each one after the last element of the previous one
+     */
+    private static <T> List<Long> walk(Function<T, List<T>> page, Function<T, Long> id) {
+        List<Long> ids = new ArrayList<>();
+        T last = null;
+        while (true) {
+            List<T> items = page.apply(last);
+            if (items.isEmpty()) {
+                return ids;
+            }
+            items.forEach(item -> ids.add(id.apply(item)));
+            last = items.getLast();
+        }
+    }
+}
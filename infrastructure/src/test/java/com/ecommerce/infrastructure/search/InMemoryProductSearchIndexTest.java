@@ -0,0 +1,95 @@
+package com.ecommerce.infrastructure.search;
+
+import com.ecommerce.application.repository.ProductRepository;
+import com.ecommerce.application.service.ProductService;
+import com.ecommerce.domain.Product;
+import com.ecommerce.infrastructure.inmemory.InMemoryProductRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore;
+import com.ecommerce.infrastructure.inventory.StripedInventory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * InMemoryProductSearchIndex never answers with part of the matches, even for a word that is the start
+ * of many terms, and ProductService returns every match up to the asked limit
+ */
+class InMemoryProductSearchIndexTest {
+
+    // More distinct words starting with "cabo" than the index probes one expansion at a time
+    private static final int CABLES = 100;
+
+    private ProductRepository productRepository;
+    private InMemoryProductSearchIndex searchIndex;
+    private ProductService productService;
+
+    @BeforeEach
+    void createCatalog() {
+        productRepository = new InMemoryProductRepository(new InMemoryStore(0, 16));
+        for (int i = 0; i < CABLES; i++) {
+            productRepository.saveProduct(new Product("Cabo" + i + " USB", "Cabo de dados", new BigDecimal("19.90"), 10));
+        }
+        productRepository.saveProduct(new Product("Teclado mecanico", "Teclado sem fio", new BigDecimal("199.90"), 10));
+        productRepository.saveProduct(new Product("Teclado compacto", "Teclado USB com cabo", new BigDecimal("149.90"), 10));
+        searchIndex = new InMemoryProductSearchIndex(productRepository);
+        searchIndex.load();
+        productService = new ProductService(productRepository, searchIndex, new StripedInventory(productRepository, 4));
+    }
+
+    @Test
+    void wordStartingManyTermsMatchesThemAll() {
+        assertThat(searchIndex.search("cabo1", 1000)).hasSize(11);
+        assertThat(searchIndex.search("cab", 1000)).hasSize(CABLES + 1);
+        assertThat(searchIndex.search("ca", 1000)).hasSize(CABLES + 1);
+        assertThat(searchIndex.search("cab", 5)).hasSize(5);
+    }
+
+    @Test
+    void candidatesAreCheckedAgainstAWordStartingManyTerms() {
+        // "compacto" is rarer, so its one product is probed against every term starting with "cab"
+        assertThat(searchIndex.search("compacto cab", 1000)).hasSize(1);
+        assertThat(searchIndex.search("mecanico cab", 1000)).isEmpty();
+        assertThat(searchIndex.search("cab usb", 1000)).hasSize(CABLES + 1);
+        assertThat(searchIndex.search("cab dados", 1000)).hasSize(CABLES);
+    }
+
+    @Test
+    void searchReturnsEveryMatchUpToTheLimit() {
+        assertThat(searchIndex.search("tecl", 1000)).hasSize(2);
+        assertThat(searchIndex.search("usb", 1000)).hasSize(CABLES + 1);
+        assertThat(searchIndex.search("usb", 10)).hasSize(10);
+        assertThat(searchIndex.search("monitor", 1000)).isEmpty();
+    }
+
+    @Test
+    void serviceAnswersFromTheIndexOnceLoadedAndFromTheDatabaseBefore() {
+        List<Product> cables = productService.searchProductsByName("Cab", ProductService.MAX_SEARCH_LIMIT);
+        assertThat(cables).hasSize(CABLES + 1);
+
+        ProductService loading = new ProductService(productRepository, new InMemoryProductSearchIndex(productRepository),
+                new StripedInventory(productRepository, 4));
+        assertThat(loading.searchProductsByName("Cabo", 5)).hasSize(5)
+                .allSatisfy(product -> assertThat(product.getName()).startsWith("Cabo"));
+    }
+
+    @Test
+    void blankSearchListsProductsUpToTheLimit() {
+        assertThat(productService.searchProductsByName(" ", null)).hasSize(ProductService.DEFAULT_SEARCH_LIMIT);
+        assertThat(productService.searchProductsByName(null, 3)).extracting(Product::getId).containsExactly(1L, 2L, 3L);
+        assertThatThrownBy(() -> productService.searchProductsByName("", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void serviceSearchLimitDefaultsAndIsCapped() {
+        assertThat(productService.searchProductsByName("usb", null)).hasSize(ProductService.DEFAULT_SEARCH_LIMIT);
+        assertThat(productService.searchProductsByName("usb", 1_000_000)).hasSize(CABLES + 1);
+        assertThatThrownBy(() -> productService.searchProductsByName("usb", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.presentation.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * WebFlux variant of the API on the R2DBC adapter (port 8081), next to EcommerceApplication
+ * Only the reactive packages are scanned, so none of the blocking services and repositories are created.
+ */
+@SpringBootApplication(scanBasePackages = {
+        "com.ecommerce.application.reactive",
+        "com.ecommerce.infrastructure.r2dbc",
+        "com.ecommerce.presentation.reactive"
+})
+public class ReactiveEcommerceApplication {
+    
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveEcommerceApplication.class, args);
+    }
+}
@@ -0,0 +1,128 @@
+package com.ecommerce.presentation.reactive.controller;
+
+import com.ecommerce.application.pagination.OrderSort;
+import com.ecommerce.application.reactive.service.ReactiveOrderService;
+import com.ecommerce.application.reactive.service.ReactiveUserService;
+import com.ecommerce.domain.Order;
+import com.ecommerce.domain.OrderProduct;
+import com.ecommerce.domain.Product;
+import com.ecommerce.domain.User;
+import com.ecommerce.presentation.reactive.dto.OrderDto;
+import com.ecommerce.presentation.reactive.dto.OrderProductDto;
+import com.ecommerce.presentation.reactive.dto.PageDto;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/orders")
+@CrossOrigin(origins = "*")
+public class OrderController {
+    
+    @Autowired
+    private ReactiveOrderService orderService;
+    
+    @Autowired
+    private ReactiveUserService userService;
+    
+    @GetMapping
+    public Flux<OrderDto> getAllOrders() {
+        return orderService.getAllOrders().map(this::convertToDto);
+    }
+    
+    @GetMapping("/page")
+    public Mono<ResponseEntity<PageDto<OrderDto>>> getOrdersPage(@RequestParam(required = false) String after,
+                                                                 @RequestParam(required = false) Integer limit,
+                                                                 @RequestParam(defaultValue = "ID") OrderSort sort) {
+        return orderService.getOrdersPage(after, limit, sort)
+                .map(page -> page.map(this::convertToDto))
+                .map(page -> ResponseEntity.ok(new PageDto<>(page.getItems(), page.getNextCursor())))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+    
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<OrderDto>> getOrderById(@PathVariable Long id) {
+        return orderService.getOrderById(id)
+                .map(this::convertToDto)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping
+    public Mono<ResponseEntity<OrderDto>> createOrder(@Valid @RequestBody OrderDto orderDto) {
+        return orderService.placeOrder(convertToEntity(orderDto))
+                .map(savedOrder -> ResponseEntity.status(HttpStatus.CREATED).body(convertToDto(savedOrder)))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+    
+    @PutMapping("/{id}/status")
+    public Mono<ResponseEntity<OrderDto>> updateOrderStatus(@PathVariable Long id,
+                                                            @RequestParam Order.OrderStatus status) {
+        return orderService.updateOrderStatus(id, status)
+                .map(updatedOrder -> ResponseEntity.ok(convertToDto(updatedOrder)))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()))
+                // The current status does not allow the transition
+                .onErrorResume(IllegalStateException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build()));
+    }
+    
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteOrder(@PathVariable Long id) {
+        return orderService.deleteOrder(id)
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+    
+    /**
+     * Pedidos do usuário como um array JSON escrito enquanto as linhas são lidas; 400 se o usuário não existe
+     */
+    @GetMapping("/user/{userId}")
+    public Mono<ResponseEntity<Flux<OrderDto>>> getOrdersByUser(@PathVariable Long userId) {
+        return userService.getUserById(userId)
+                .map(user -> ResponseEntity.ok(orderService.getOrdersByUser(user.getId()).map(this::convertToDto)))
+                .defaultIfEmpty(ResponseEntity.badRequest().build());
+    }
+    
+    private Order convertToEntity(OrderDto orderDto) {
+        // Only ids are set here, the service resolves users and products
+        User user = new User();
+        user.setId(orderDto.getUserId());
+        Order order = new Order(user);
+        
+        if (orderDto.getOrderProducts() != null) {
+            for (OrderProductDto orderProductDto : orderDto.getOrderProducts()) {
+                Product product = new Product();
+                product.setId(orderProductDto.getProductId());
+                order.getOrderProducts().add(new OrderProduct(order, product, orderProductDto.getQuantity(), null));
+            }
+        }
+        return order;
+    }
+    
+    private OrderDto convertToDto(Order order) {
+        List<OrderProductDto> orderProductDtos = order.getOrderProducts().stream()
+                .map(op -> new OrderProductDto(
+                        op.getId(),
+                        op.getProduct().getId(),
+                        op.getQuantity(),
+                        op.getPrice(),
+                        op.getProduct().getName()
+                ))
+                .collect(Collectors.toList());
+        
+        return new OrderDto(
+                order.getId(),
+                order.getUser().getId(),
+                order.getOrderDate(),
+                order.getTotalAmount(),
+                order.getStatus(),
+                orderProductDtos
+        );
+    }
+}
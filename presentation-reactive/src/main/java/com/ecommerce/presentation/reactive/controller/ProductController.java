@@ -0,0 +1,95 @@
+package com.ecommerce.presentation.reactive.controller;
+
+import com.ecommerce.application.reactive.service.ReactiveProductService;
+import com.ecommerce.domain.Product;
+import com.ecommerce.presentation.reactive.dto.PageDto;
+import com.ecommerce.presentation.reactive.dto.ProductDto;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/products")
+@CrossOrigin(origins = "*")
+public class ProductController {
+    
+    @Autowired
+    private ReactiveProductService productService;
+    
+    @GetMapping
+    public Flux<ProductDto> getAllProducts() {
+        return productService.getAllProducts().map(this::convertToDto);
+    }
+    
+    @GetMapping("/page")
+    public Mono<ResponseEntity<PageDto<ProductDto>>> getProductsPage(@RequestParam(required = false) String after,
+                                                                     @RequestParam(required = false) Integer limit) {
+        return productService.getProductsPage(after, limit)
+                .map(page -> page.map(this::convertToDto))
+                .map(page -> ResponseEntity.ok(new PageDto<>(page.getItems(), page.getNextCursor())))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+    
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ProductDto>> getProductById(@PathVariable Long id) {
+        return productService.getProductById(id)
+                .map(this::convertToDto)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping
+    public Mono<ResponseEntity<ProductDto>> createProduct(@Valid @RequestBody ProductDto productDto) {
+        return productService.createProduct(convertToEntity(productDto))
+                .map(savedProduct -> ResponseEntity.status(HttpStatus.CREATED).body(convertToDto(savedProduct)))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+    
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<ProductDto>> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductDto productDto) {
+        Product product = convertToEntity(productDto);
+        product.setId(id);
+        return productService.updateProduct(product)
+                .map(updatedProduct -> ResponseEntity.ok(convertToDto(updatedProduct)))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+    
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteProduct(@PathVariable Long id) {
+        return productService.deleteProduct(id)
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+    
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Flux<ProductDto>>> searchProductsByName(@RequestParam String name,
+                                                                     @RequestParam(required = false) Integer limit) {
+        if (limit != null && limit <= 0) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return Mono.just(ResponseEntity.ok(productService.searchProductsByName(name, limit).map(this::convertToDto)));
+    }
+    
+    private ProductDto convertToDto(Product product) {
+        return new ProductDto(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getStockQuantity()
+        );
+    }
+    
+    private Product convertToEntity(ProductDto productDto) {
+        return new Product(
+                productDto.getName(),
+                productDto.getDescription(),
+                productDto.getPrice(),
+                productDto.getStockQuantity()
+        );
+    }
+}
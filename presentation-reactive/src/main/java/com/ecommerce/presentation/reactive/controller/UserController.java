@@ -0,0 +1,97 @@
+package com.ecommerce.presentation.reactive.controller;
+
+import com.ecommerce.application.reactive.service.ReactiveUserService;
+import com.ecommerce.domain.User;
+import com.ecommerce.presentation.reactive.dto.PageDto;
+import com.ecommerce.presentation.reactive.dto.UserDto;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin(origins = "*")
+public class UserController {
+    
+    @Autowired
+    private ReactiveUserService userService;
+    
+    /**
+     * Lista todos os usuários como um array JSON escrito enquanto as linhas são lidas
+     */
+    @GetMapping
+    public Flux<UserDto> getAllUsers() {
+        return userService.getAllUsers().map(this::convertToDto);
+    }
+    
+    @GetMapping("/page")
+    public Mono<ResponseEntity<PageDto<UserDto>>> getUsersPage(@RequestParam(required = false) String after,
+                                                               @RequestParam(required = false) Integer limit) {
+        return userService.getUsersPage(after, limit)
+                .map(page -> page.map(this::convertToDto))
+                .map(page -> ResponseEntity.ok(new PageDto<>(page.getItems(), page.getNextCursor())))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+    
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UserDto>> getUserById(@PathVariable Long id) {
+        return userService.getUserById(id)
+                .map(this::convertToDto)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping
+    public Mono<ResponseEntity<UserDto>> createUser(@Valid @RequestBody UserDto userDto) {
+        return userService.createUser(convertToEntity(userDto))
+                .map(savedUser -> ResponseEntity.status(HttpStatus.CREATED).body(convertToDto(savedUser)))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+    
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<UserDto>> updateUser(@PathVariable Long id, @Valid @RequestBody UserDto userDto) {
+        User user = convertToEntity(userDto);
+        user.setId(id);
+        return userService.updateUser(user)
+                .map(updatedUser -> ResponseEntity.ok(convertToDto(updatedUser)))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().build()));
+    }
+    
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteUser(@PathVariable Long id) {
+        return userService.deleteUser(id)
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.notFound().build()));
+    }
+    
+    @GetMapping("/email/{email}")
+    public Mono<ResponseEntity<UserDto>> getUserByEmail(@PathVariable String email) {
+        return userService.getUserByEmail(email)
+                .map(this::convertToDto)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    private UserDto convertToDto(User user) {
+        return new UserDto(
+                user.getId(),
+                user.getEmail(),
+                user.getName(),
+                user.getPassword(),
+                user.getAddress()
+        );
+    }
+    
+    private User convertToEntity(UserDto userDto) {
+        return new User(
+                userDto.getEmail(),
+                userDto.getName(),
+                userDto.getPassword(),
+                userDto.getAddress()
+        );
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecommerce.presentation.reactive.dto;
+
+import com.ecommerce.domain.Order;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class OrderDto {
+    
+    private Long id;
+    
+    @NotNull(message = "ID do usuário é obrigatório")
+    private Long userId;
+    
+    private LocalDateTime orderDate;
+    private BigDecimal totalAmount;
+    private Order.OrderStatus status;
+    private List<OrderProductDto> orderProducts;
+
+    public OrderDto() {}
+
+    public OrderDto(Long id, Long userId, LocalDateTime orderDate, BigDecimal totalAmount, 
+                   Order.OrderStatus status, List<OrderProductDto> orderProducts) {
+        this.id = id;
+        this.userId = userId;
+        this.orderDate = orderDate;
+        this.totalAmount = totalAmount;
+        this.status = status;
+        this.orderProducts = orderProducts;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public void setOrderDate(LocalDateTime orderDate) {
+        this.orderDate = orderDate;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Order.OrderStatus status) {
+        this.status = status;
+    }
+
+    public List<OrderProductDto> getOrderProducts() {
+        return orderProducts;
+    }
+
+    public void setOrderProducts(List<OrderProductDto> orderProducts) {
+        this.orderProducts = orderProducts;
+    }
+} 
\ No newline at end of file
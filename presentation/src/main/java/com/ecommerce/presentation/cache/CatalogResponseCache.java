@@ -0,0 +1,325 @@
+package com.ecommerce.presentation.cache;
+
+import com.ecommerce.application.service.ProductService;
+import com.ecommerce.presentation.dto.ProductDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * CatalogResponseCache - serialized JSON of catalog responses, by request and catalog version
+ * A response is built (query, DTO mapping, Jackson) once per catalog version; until the version
+ * changes, the same request is answered with the cached bytes. The catalog version does not count
+ * stock moves, which every order makes: a response also keeps the available stock it shows for each
+ * of its products, and is rebuilt only once one of them has another one, so an order only makes the
+ * responses containing its products stale. Each response carries a strong ETag
+ * computed from its bytes, so a client revalidating with If-None-Match gets 304 without a body,
+ * and an ETag never matches different content, whatever node or version produced it.
+ * Bodies are either DTOs serialized by the ObjectMapper or written directly to the cached bytes.
+ * The cache is bounded by the total size of the cached responses; a written body larger than the
+ * maximum entry size is not cached but streamed, so it is never held in memory as a whole. The version only counts the writes
+ * of this node, so entries also expire after a while, bounding how long other nodes' writes go unseen.
+ */
+@Component
+public class CatalogResponseCache {
+
+    /**
+     * Writes a response body as JSON
+     */
+    @FunctionalInterface
+    public interface BodyWriter {
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+
+    /**
+     * Opens the stream an uncacheable body is streamed to (the response, once its headers are set)
+     */
+    @FunctionalInterface
+    public interface StreamTarget {
+        OutputStream open() throws IOException;
+    }
+
+    private static final long[] NO_PRODUCTS = new long[0];
+    private static final int[] NO_STOCK = new int[0];
+
+    private final ObjectMapper objectMapper;
+    private final ProductService productService;
+    private final int maximumEntrySize;
+    private final Cache<String, CachedResponse> responses;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder streamed = new LongAdder();
+
+    public CatalogResponseCache(ObjectMapper objectMapper, ProductService productService,
+                                @Value("${ecommerce.cache.catalog-responses.maximum-size:64MB}") DataSize maximumSize,
+                                @Value("${ecommerce.cache.catalog-responses.maximum-entry-size:4MB}") DataSize maximumEntrySize,
+                                @Value("${ecommerce.cache.catalog-responses.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.objectMapper = objectMapper;
+        this.productService = productService;
+        this.maximumEntrySize = (int) Math.min(maximumEntrySize.toBytes(), Math.min(maximumSize.toBytes(), Integer.MAX_VALUE - 8));
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .<String, CachedResponse>weigher((key, response) -> key.length() + response.getBody().length
+                        + 12 * response.productIds.length)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get the response of a request at a catalog version, building it if it is not cached
+     * The version must be read before the response is built, so a cached response is never older
+     * than the version it is stored under.
+     * @param key identifies the request (endpoint and parameters)
+     * @param catalogVersion the current catalog version
+     * @param body builds the response body, empty if there is nothing to return (not cached)
+     * @param shownProducts the products in the body, whose stock the cached response depends on
+     * @return the cached response, empty if the body is empty
+     */
+    public <T> Optional<CachedResponse> get(String key, long catalogVersion, Supplier<Optional<T>> body,
+                                            Function<T, Collection<ProductDto>> shownProducts) {
+        CachedResponse cached = cached(key, catalogVersion);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        // Built outside the cache's compute: concurrent misses may both build, none holds a lock during the query
+        Optional<CachedResponse> built = body.get()
+                .map(value -> serialize(value, catalogVersion, shownProducts.apply(value)));
+        if (built.isPresent()) {
+            store(key, built.get());
+        } else {
+            responses.invalidate(key);
+        }
+        return built;
+    }
+
+    /**
+     * Get the response of a request at a catalog version, writing it if it is not cached
+     * For bodies too large to build as DTOs first: the writer streams the JSON into a buffer of at most
+     * the maximum entry size. A body that fits is cached; once a body outgrows the buffer, the buffered
+     * bytes are written to the target and the rest of the body is streamed to it, without caching.
+     * As for get, the version must be read before the response is written. The stock shown is not
+     * recorded (the body may hold the whole catalog): the version must cover the stock of its products.
+     * @param key identifies the request (endpoint and parameters)
+     * @param catalogVersion the current version of the catalog and of the stock of its products
+     * @param body writes the response body
+     * @param target opened at most once, when the body turns out too large to cache
+     * @return the cached response, empty if the body was streamed to the target
+     */
+    public Optional<CachedResponse> getWritten(String key, long catalogVersion, BodyWriter body, StreamTarget target)
+            throws IOException {
+        CachedResponse cached = cached(key, catalogVersion);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        SpillingOutputStream output = new SpillingOutputStream(maximumEntrySize, target);
+        body.writeTo(output);
+        if (output.spilled()) {
+            output.flush();
+            responses.invalidate(key);
+            streamed.increment();
+            return Optional.empty();
+        }
+        byte[] written = output.buffered();
+        CachedResponse response = new CachedResponse(catalogVersion, written, etagOf(written), NO_PRODUCTS, NO_STOCK);
+        store(key, response);
+        return Optional.of(response);
+    }
+    
+    /**
+     * Snapshot of the cache statistics
+     * @return number of responses, their size, hits, builds (misses and stale responses), bodies streamed
+     *         because they were too large to cache, and evictions since startup
+     */
+    public Map<String, Object> statistics() {
+        long bytes = responses.asMap().values().stream().mapToLong(response -> response.getBody().length).sum();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("size", responses.estimatedSize());
+        statistics.put("bytes", bytes);
+        statistics.put("hits", hits.sum());
+        statistics.put("builds", builds.sum());
+        statistics.put("streamed", streamed.sum());
+        statistics.put("evictions", responses.stats().evictionCount());
+        return statistics;
+    }
+
+    /**
+     * @return the cached response if it is at the version and its products still have the stock it
+     * shows, null otherwise (counted as a build)
+     */
+    private CachedResponse cached(String key, long catalogVersion) {
+        CachedResponse cached = responses.getIfPresent(key);
+        if (cached != null && cached.getCatalogVersion() == catalogVersion
+                && (cached.productIds.length == 0
+                        || productService.isAvailableStockUnchanged(cached.productIds, cached.stockQuantities))) {
+            hits.increment();
+            return cached;
+        }
+        builds.increment();
+        return null;
+    }
+
+    private void store(String key, CachedResponse response) {
+        responses.asMap().merge(key, response,
+                (current, candidate) -> current.getCatalogVersion() > candidate.getCatalogVersion() ? current : candidate);
+    }
+
+    private CachedResponse serialize(Object value, long catalogVersion, Collection<ProductDto> products) {
+        long[] productIds = new long[products.size()];
+        int[] stockQuantities = new int[products.size()];
+        int shown = 0;
+        for (ProductDto product : products) {
+            if (product.getId() != null && product.getStockQuantity() != null) {
+                productIds[shown] = product.getId();
+                stockQuantities[shown++] = product.getStockQuantity();
+            }
+        }
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(value);
+            return new CachedResponse(catalogVersion, bytes, etagOf(bytes),
+                    Arrays.copyOf(productIds, shown), Arrays.copyOf(stockQuantities, shown));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String etagOf(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Buffers up to a limit, then writes the buffer to the target and everything after it directly
+     */
+    private static final class SpillingOutputStream extends OutputStream {
+
+        private final int limit;
+        private final StreamTarget target;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream spill;
+
+        SpillingOutputStream(int limit, StreamTarget target) {
+            this.limit = limit;
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (spill == null && buffer.size() + length > limit) {
+                spill = target.open();
+                buffer.writeTo(spill);
+                buffer = null;
+            }
+            if (spill != null) {
+                spill.write(bytes, offset, length);
+            } else {
+                buffer.write(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (spill != null) {
+                spill.flush();
+            }
+        }
+
+        boolean spilled() {
+            return spill != null;
+        }
+
+        byte[] buffered() {
+            return buffer.toByteArray();
+        }
+    }
+
+    /**
+     * CachedResponse - serialized body of a catalog response and its ETag
+     */
+    public static final class CachedResponse {
+
+        private final long catalogVersion;
+        private final byte[] body;
+        private final String etag;
+        // Available stock shown in the body, by product
+        private final long[] productIds;
+        private final int[] stockQuantities;
+
+        CachedResponse(long catalogVersion, byte[] body, String etag, long[] productIds, int[] stockQuantities) {
+            this.catalogVersion = catalogVersion;
+            this.body = body;
+            this.etag = etag;
+            this.productIds = productIds;
+            this.stockQuantities = stockQuantities;
+        }
+
+        public long getCatalogVersion() {
+            return catalogVersion;
+        }
+
+        /**
+         * @return the serialized JSON, shared between requests: must not be modified
+         */
+        public byte[] getBody() {
+            return body;
+        }
+
+        /**
+         * @return the strong ETag, quoted
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * Check an If-None-Match header against the ETag (weak comparison, as RFC 9110 requires for it)
+         * @param ifNoneMatch the header value, may be null
+         * @return true if the client already has this response
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals("*") || candidate.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.ecommerce.presentation.config;
+
+import com.ecommerce.infrastructure.metrics.CallMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the latency of every controller endpoint (p50/p99/p999) and counts its 4xx and 5xx responses
+ * Metrics are keyed by the handler method resolved by Spring MVC, so each endpoint gets one set of
+ * meters tagged with its HTTP method, URI template and handler; requests matching no handler are not recorded.
+ */
+@Component
+public class EndpointMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+    private final Map<Method, EndpointMetrics> metricsByHandler = new ConcurrentHashMap<>();
+
+    public EndpointMetricsFilter(ObjectProvider<MeterRegistry> registryProvider) {
+        this.registry = registryProvider.getIfAvailable();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return registry == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            EndpointMetrics metrics = metricsFor(request);
+            if (metrics != null) {
+                if (request.isAsyncStarted()) {
+                    // Streaming responses finish after the handler returned: record on completion
+                    request.getAsyncContext().addListener(new AsyncCompletion(metrics, start));
+                } else {
+                    metrics.record(System.nanoTime() - start, failed ? 500 : response.getStatus());
+                }
+            }
+        }
+    }
+
+    private EndpointMetrics metricsFor(HttpServletRequest request) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return null;
+        }
+        EndpointMetrics metrics = metricsByHandler.get(handler.getMethod());
+        if (metrics == null) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Tags tags = Tags.of(
+                    "method", request.getMethod(),
+                    "uri", pattern != null ? pattern.toString() : "UNKNOWN",
+                    "handler", handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName());
+            metrics = metricsByHandler.computeIfAbsent(handler.getMethod(), method -> new EndpointMetrics(
+                    CallMetrics.register(registry, "http.endpoint.requests", "http.endpoint.server.errors", tags),
+                    registry.counter("http.endpoint.client.errors", tags)));
+        }
+        return metrics;
+    }
+
+    private record EndpointMetrics(CallMetrics calls, Counter clientErrors) {
+
+        void record(long nanos, int status) {
+            calls.record(nanos, status >= 500);
+            if (status >= 400 && status < 500) {
+                clientErrors.increment();
+            }
+        }
+    }
+
+    private record AsyncCompletion(EndpointMetrics metrics, long start) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            int status = ((HttpServletResponse) event.getSuppliedResponse()).getStatus();
+            metrics.record(System.nanoTime() - start, status);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            metrics.calls().recordError();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            metrics.calls().recordError();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
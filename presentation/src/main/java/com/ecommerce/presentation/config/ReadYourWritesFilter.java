@@ -0,0 +1,79 @@
+package com.ecommerce.presentation.config;
+
+import com.ecommerce.infrastructure.datasource.ReadWriteRouting;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Read-your-writes with a read replica: a request that writes gets a cookie holding the time until
+ * which the client's reads must go to the primary (ecommerce.datasource.replica.read-your-writes),
+ * so a client reading right after its own write does not see a replica that has not caught up yet.
+ * The cookie carries the deadline itself, so it works whichever node serves the next request.
+ */
+@Component
+@ConditionalOnProperty(name = "ecommerce.datasource.replica.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final String COOKIE_NAME = "read-primary-until";
+
+    private final Duration stickiness;
+
+    public ReadYourWritesFilter(@Value("${ecommerce.datasource.replica.read-your-writes:5s}") Duration stickiness) {
+        this.stickiness = stickiness;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (stickiness.isZero()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        ReadWriteRouting.beginRequest(readPrimaryUntil(request) > now, () -> {
+            // Called before the write runs, so the response is not committed yet
+            ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, String.valueOf(now + stickiness.toMillis()))
+                    .path("/")
+                    .maxAge(stickiness)
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        });
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadWriteRouting.endRequest();
+        }
+    }
+
+    private static long readPrimaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
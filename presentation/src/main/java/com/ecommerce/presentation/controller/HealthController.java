@@ -1,17 +1,27 @@
 package com.ecommerce.presentation.controller;
 
+import com.ecommerce.infrastructure.cache.CachingProductRepository;
+import com.ecommerce.infrastructure.health.DatabaseHealth;
+import com.ecommerce.infrastructure.health.DatabaseHealthMonitor;
+import com.ecommerce.infrastructure.idempotency.InMemoryIdempotencyKeyRepository;
+import com.ecommerce.infrastructure.inmemory.InMemoryStore;
+import com.ecommerce.infrastructure.inventory.StripedInventory;
+import com.ecommerce.infrastructure.search.BloomUserEmailFilter;
+import com.ecommerce.presentation.cache.CatalogResponseCache;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import javax.sql.DataSource;
-import java.sql.Connection;
-import java.sql.SQLException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -19,8 +29,29 @@ import java.util.Map;
 public class HealthController {
     
     @Autowired
-    private DataSource dataSource;
+    private ObjectProvider<DatabaseHealthMonitor> databaseHealthMonitor;
     
+    @Autowired
+    private ObjectProvider<InMemoryStore> inMemoryStore;
+    
+    @Autowired
+    private ObjectProvider<CachingProductRepository> productCache;
+    
+    @Autowired
+    private ObjectProvider<StripedInventory> inventory;
+    
+    @Autowired
+    private ObjectProvider<InMemoryIdempotencyKeyRepository> idempotencyKeys;
+    
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+    
+    @Autowired
+    private ObjectProvider<BloomUserEmailFilter> userEmailFilter;
+    
+    /**
+     * Estado da aplicação e do banco segundo a última verificação em segundo plano (não abre conexão)
+     */
     @GetMapping
     public ResponseEntity<Map<String, Object>> healthCheck() {
         Map<String, Object> healthStatus = new HashMap<>();
@@ -30,34 +61,53 @@ public class HealthController {
         status.put("application", "UP");
         status.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         
-        // Verificar conexão com banco de dados
+        // Banco de dados: última verificação do monitor
         Map<String, Object> database = new HashMap<>();
-        try (Connection connection = dataSource.getConnection()) {
-            if (connection.isValid(5)) { // timeout de 5 segundos
-                database.put("status", "UP");
-                database.put("database", "Oracle XE");
-                database.put("url", connection.getMetaData().getURL());
-                database.put("driver", connection.getMetaData().getDriverName());
-                database.put("version", connection.getMetaData().getDatabaseProductVersion());
-            } else {
-                database.put("status", "DOWN");
-                database.put("error", "Connection is not valid");
+        DatabaseHealthMonitor monitor = databaseHealthMonitor.getIfAvailable();
+        boolean allUp;
+        if (monitor == null) {
+            // Perfil inmemory: sem banco, os dados ficam na memória da API
+            database.put("status", "UP");
+            database.put("database", "In-memory");
+            allUp = true;
+        } else {
+            Instant now = Instant.now();
+            DatabaseHealth health = monitor.getHealth();
+            database.putAll(summary(health, now));
+            if (health.getPrimary() != null) {
+                database.putAll(health.getPrimary().getMetadata());
             }
-        } catch (SQLException e) {
-            database.put("status", "DOWN");
-            database.put("error", e.getMessage());
+            allUp = monitor.readinessProblems(now).isEmpty();
         }
         
         status.put("database", database);
         
         // Determinar status geral
-        boolean allUp = "UP".equals(database.get("status"));
         healthStatus.put("status", allUp ? "UP" : "DOWN");
         healthStatus.put("details", status);
         
         return ResponseEntity.status(allUp ? 200 : 503).body(healthStatus);
     }
     
+    /**
+     * Liveness: a aplicação responde; com ecommerce.health.liveness.include-database=true também exige
+     * que o banco esteja pronto
+     */
+    @GetMapping("/live")
+    public ResponseEntity<Map<String, Object>> liveness() {
+        DatabaseHealthMonitor monitor = databaseHealthMonitor.getIfAvailable();
+        return probeResponse(monitor != null ? monitor.livenessProblems(Instant.now()) : List.of());
+    }
+    
+    /**
+     * Readiness: a última verificação do banco é recente, o banco respondeu e o pool não está saturado
+     */
+    @GetMapping("/ready")
+    public ResponseEntity<Map<String, Object>> readiness() {
+        DatabaseHealthMonitor monitor = databaseHealthMonitor.getIfAvailable();
+        return probeResponse(monitor != null ? monitor.readinessProblems(Instant.now()) : List.of());
+    }
+    
     @GetMapping("/ping")
     public ResponseEntity<Map<String, String>> ping() {
         Map<String, String> response = new HashMap<>();
@@ -66,41 +116,111 @@ public class HealthController {
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> cacheStatistics() {
+        Map<String, Object> cacheStatus = new HashMap<>();
+        CachingProductRepository cache = productCache.getIfAvailable();
+        if (cache != null) {
+            cacheStatus.put("status", "ENABLED");
+            cacheStatus.put("products", cache.statistics());
+        } else {
+            cacheStatus.put("status", "DISABLED");
+        }
+        cacheStatus.put("catalogResponses", catalogResponseCache.statistics());
+        InMemoryIdempotencyKeyRepository keys = idempotencyKeys.getIfAvailable();
+        if (keys != null) {
+            cacheStatus.put("idempotencyKeys", keys.statistics());
+        }
+        BloomUserEmailFilter emailFilter = userEmailFilter.getIfAvailable();
+        if (emailFilter != null) {
+            cacheStatus.put("userEmailFilter", emailFilter.statistics());
+        }
+        return ResponseEntity.ok(cacheStatus);
+    }
+    
+    @GetMapping("/inventory")
+    public ResponseEntity<Map<String, Object>> inventoryStatistics() {
+        Map<String, Object> inventoryStatus = new HashMap<>();
+        StripedInventory stripedInventory = inventory.getIfAvailable();
+        if (stripedInventory != null) {
+            inventoryStatus.put("status", "ENABLED");
+            inventoryStatus.put("inventory", stripedInventory.statistics());
+        } else {
+            inventoryStatus.put("status", "DISABLED");
+        }
+        return ResponseEntity.ok(inventoryStatus);
+    }
+    
+    /**
+     * Detalhes da última verificação do banco: latência, conexões de cada pool e, com virtual threads,
+     * o limite de conexões simultâneas
+     */
     @GetMapping("/database")
     public ResponseEntity<Map<String, Object>> databaseHealth() {
         Map<String, Object> databaseStatus = new HashMap<>();
         
-        try (Connection connection = dataSource.getConnection()) {
-            if (connection.isValid(5)) {
-                databaseStatus.put("status", "UP");
-                databaseStatus.put("database", "Oracle XE");
-                databaseStatus.put("url", connection.getMetaData().getURL());
-                databaseStatus.put("driver", connection.getMetaData().getDriverName());
-                databaseStatus.put("version", connection.getMetaData().getDatabaseProductVersion());
-                databaseStatus.put("username", connection.getMetaData().getUserName());
-                databaseStatus.put("readOnly", connection.isReadOnly());
-                databaseStatus.put("autoCommit", connection.getAutoCommit());
-                
-                // Testar uma query simples
-                try (var stmt = connection.createStatement()) {
-                    stmt.execute("SELECT 1 FROM DUAL");
-                    databaseStatus.put("queryTest", "SUCCESS");
-                } catch (SQLException e) {
-                    databaseStatus.put("queryTest", "FAILED");
-                    databaseStatus.put("queryError", e.getMessage());
-                }
-            } else {
-                databaseStatus.put("status", "DOWN");
-                databaseStatus.put("error", "Connection is not valid");
+        DatabaseHealthMonitor monitor = databaseHealthMonitor.getIfAvailable();
+        if (monitor == null) {
+            // Perfil inmemory: linhas por tabela em vez de conexões
+            databaseStatus.put("status", "UP");
+            databaseStatus.put("database", "In-memory");
+            InMemoryStore store = inMemoryStore.getIfAvailable();
+            if (store != null) {
+                databaseStatus.put("tables", store.statistics());
             }
-        } catch (SQLException e) {
-            databaseStatus.put("status", "DOWN");
-            databaseStatus.put("error", e.getMessage());
-            databaseStatus.put("errorCode", e.getErrorCode());
-            databaseStatus.put("sqlState", e.getSQLState());
+            return ResponseEntity.ok(databaseStatus);
+        }
+        
+        Instant now = Instant.now();
+        DatabaseHealth health = monitor.getHealth();
+        databaseStatus.putAll(summary(health, now));
+        databaseStatus.put("consecutiveFailures", health.getConsecutiveFailures());
+        List<String> problems = monitor.readinessProblems(now);
+        databaseStatus.put("ready", problems.isEmpty());
+        if (!problems.isEmpty()) {
+            databaseStatus.put("problems", problems);
+        }
+        // Com réplica de leitura: um resultado por pool
+        if (health.getPools().size() > 1) {
+            Map<String, Object> pools = new LinkedHashMap<>();
+            health.getPools().forEach((name, pool) -> pools.put(name, pool.toMap()));
+            databaseStatus.put("pools", pools);
+        } else if (health.getPrimary() != null) {
+            databaseStatus.putAll(health.getPrimary().toMap());
         }
         
+        // Modo de threads
+        databaseStatus.put("virtualThreads", Thread.currentThread().isVirtual());
+        
         return ResponseEntity.status("UP".equals(databaseStatus.get("status")) ? 200 : 503)
                            .body(databaseStatus);
     }
-} 
\ No newline at end of file
+    
+    private Map<String, Object> summary(DatabaseHealth health, Instant now) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("database", "Oracle XE");
+        if (!health.isProbed()) {
+            summary.put("status", "UNKNOWN");
+            summary.put("error", "Database not probed yet");
+            return summary;
+        }
+        summary.put("status", health.isUp() ? "UP" : "DOWN");
+        summary.put("checkedAt", LocalDateTime.ofInstant(health.getCheckedAt(), ZoneId.systemDefault())
+                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        summary.put("ageMillis", health.getAge(now).toMillis());
+        if (health.isUp()) {
+            summary.put("latencyMillis", health.getPrimary().getLatencyMillis());
+        }
+        return summary;
+    }
+    
+    private ResponseEntity<Map<String, Object>> probeResponse(List<String> problems) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", problems.isEmpty() ? "UP" : "DOWN");
+        response.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        if (!problems.isEmpty()) {
+            response.put("problems", problems);
+        }
+        return ResponseEntity.status(problems.isEmpty() ? 200 : 503).body(response);
+    }
+}
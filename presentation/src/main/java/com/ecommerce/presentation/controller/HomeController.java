@@ -24,6 +24,7 @@ public class HomeController {
         apiEndpoints.put("users", "/api/users");
         apiEndpoints.put("products", "/api/products");
         apiEndpoints.put("orders", "/api/orders");
+        apiEndpoints.put("reports", "/api/reports");
         response.put("api", apiEndpoints);
         
         // Endpoints de Health Check
@@ -31,6 +32,8 @@ public class HomeController {
         healthEndpoints.put("overall", "/health");
         healthEndpoints.put("ping", "/health/ping");
         healthEndpoints.put("database", "/health/database");
+        healthEndpoints.put("cache", "/health/cache");
+        healthEndpoints.put("metrics", "/metrics");
         response.put("health", healthEndpoints);
         
         // Documentação da API
@@ -0,0 +1,31 @@
+package com.ecommerce.presentation.controller;
+
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class MetricsController {
+    
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8");
+    
+    @Autowired
+    private ObjectProvider<PrometheusMeterRegistry> prometheusRegistry;
+    
+    /**
+     * Métricas no formato texto do Prometheus: latência (p50/p99/p999) e erros por endpoint,
+     * por método de serviço e por chamada às portas (repositórios, índice de busca)
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<String> scrape() {
+        PrometheusMeterRegistry registry = prometheusRegistry.getIfAvailable();
+        if (registry == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(registry.scrape());
+    }
+}
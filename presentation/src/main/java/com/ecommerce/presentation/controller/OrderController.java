@@ -1,18 +1,48 @@
 package com.ecommerce.presentation.controller;
 
+import com.ecommerce.application.pagination.CursorPage;
+import com.ecommerce.application.pagination.OrderSort;
+import com.ecommerce.application.service.BulkOrderResult;
+import com.ecommerce.application.service.BulkStatusUpdateResult;
+import com.ecommerce.application.service.IdempotencyService;
+import com.ecommerce.application.service.IdempotentResponse;
 import com.ecommerce.application.service.OrderService;
 import com.ecommerce.application.service.UserService;
 import com.ecommerce.domain.Order;
+import com.ecommerce.domain.OrderProduct;
+import com.ecommerce.domain.Product;
 import com.ecommerce.domain.User;
+import com.ecommerce.domain.analytics.UserOrderSummary;
+import com.ecommerce.presentation.dto.BulkOrderResponseDto;
+import com.ecommerce.presentation.dto.BulkOrderResultDto;
+import com.ecommerce.presentation.dto.BulkStatusUpdateDto;
+import com.ecommerce.presentation.dto.BulkStatusUpdateResponseDto;
 import com.ecommerce.presentation.dto.OrderDto;
+import com.ecommerce.presentation.dto.OrderHeaderDto;
 import com.ecommerce.presentation.dto.OrderProductDto;
+import com.ecommerce.presentation.dto.PageDto;
+import com.ecommerce.presentation.dto.UserOrderSummaryDto;
+import com.ecommerce.presentation.json.JsonArrayWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -26,13 +56,72 @@ public class OrderController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private JsonArrayWriter jsonArrayWriter;
+    
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    /**
+     * Number of exported orders written between two flushes of the response
+     */
+    private static final int EXPORT_FLUSH_INTERVAL = 100;
+    
     @GetMapping
-    public ResponseEntity<List<OrderDto>> getAllOrders() {
-        List<Order> orders = orderService.getAllOrders();
-        List<OrderDto> orderDtos = orders.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(orderDtos);
+    public void getAllOrders(HttpServletResponse response) throws IOException {
+        jsonArrayWriter.write(response, orderService::getAllOrders, this::writeDto);
+    }
+    
+    @GetMapping("/page")
+    public ResponseEntity<PageDto<OrderDto>> getOrdersPage(@RequestParam(required = false) String after,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           @RequestParam(defaultValue = "ID") OrderSort sort) {
+        try {
+            CursorPage<OrderDto> page = orderService.getOrdersPage(after, limit, sort).map(this::convertToDto);
+            return ResponseEntity.ok(new PageDto<>(page.getItems(), page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        StreamingResponseBody body = outputStream -> {
+            ObjectWriter writer = objectMapper.writerFor(OrderDto.class);
+            int[] written = {0};
+            try {
+                orderService.exportOrdersByDateRange(from, to, order -> {
+                    try {
+                        outputStream.write(writer.writeValueAsBytes(convertToDto(order)));
+                        outputStream.write('\n');
+                        if (++written[0] % EXPORT_FLUSH_INTERVAL == 0) {
+                            outputStream.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            outputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
     
     @GetMapping("/{id}")
@@ -44,22 +133,13 @@ public class OrderController {
     }
     
     @PostMapping
-    public ResponseEntity<OrderDto> createOrder(@Valid @RequestBody OrderDto orderDto) {
+    public ResponseEntity<OrderDto> createOrder(@Valid @RequestBody OrderDto orderDto,
+                                                @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey != null) {
+            return createOrderOnce(orderDto, idempotencyKey);
+        }
         try {
-            User user = userService.getUserById(orderDto.getUserId())
-                    .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
-            
-            Order order = new Order(user);
-            
-            // Adicionar produtos ao pedido
-            if (orderDto.getOrderProducts() != null) {
-                for (OrderProductDto orderProductDto : orderDto.getOrderProducts()) {
-                    orderService.addProductToOrder(order, orderProductDto.getProductId(), 
-                            orderProductDto.getQuantity());
-                }
-            }
-            
-            Order savedOrder = orderService.createOrder(order);
+            Order savedOrder = orderService.placeOrder(convertToEntity(orderDto));
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(convertToDto(savedOrder));
         } catch (IllegalArgumentException e) {
@@ -67,12 +147,101 @@ public class OrderController {
         }
     }
     
+    /**
+     * Place an order at most once per idempotency key: a retry gets the response of the first
+     * request, replayed without calling the services
+     */
+    private ResponseEntity<OrderDto> createOrderOnce(OrderDto orderDto, String idempotencyKey) {
+        try {
+            OrderDto[] created = new OrderDto[1];
+            IdempotentResponse response = idempotencyService.execute(idempotencyKey, toJson(orderDto), () -> {
+                created[0] = convertToDto(orderService.placeOrder(convertToEntity(orderDto)));
+                return new IdempotentResponse(HttpStatus.CREATED.value(), toJson(created[0]));
+            });
+            OrderDto body = response.isReplayed()
+                    ? objectMapper.readValue(response.getBody(), OrderDto.class)
+                    : created[0];
+            return ResponseEntity.status(response.getStatus())
+                    .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(response.isReplayed()))
+                    .body(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkOrderResponseDto> createOrders(@RequestBody List<OrderDto> orderDtos) {
+        // Null elements stay in place: the service reports them as failures at their index
+        List<Order> orders = orderDtos.stream()
+                .map(orderDto -> orderDto == null ? null : convertToEntity(orderDto))
+                .collect(Collectors.toList());
+        
+        long start = System.nanoTime();
+        List<BulkOrderResult> results;
+        try {
+            results = orderService.createOrders(orders);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        
+        List<BulkOrderResultDto> resultDtos = results.stream()
+                .map(result -> new BulkOrderResultDto(
+                        result.getIndex(),
+                        result.isSuccess(),
+                        result.isSuccess() ? result.getOrder().getId() : null,
+                        result.getError()
+                ))
+                .collect(Collectors.toList());
+        int succeeded = (int) results.stream().filter(BulkOrderResult::isSuccess).count();
+        double ordersPerSecond = elapsedNanos > 0 ? succeeded * 1_000_000_000.0 / elapsedNanos : 0;
+        
+        return ResponseEntity.ok(new BulkOrderResponseDto(
+                results.size(),
+                succeeded,
+                results.size() - succeeded,
+                elapsedNanos / 1_000_000,
+                ordersPerSecond,
+                resultDtos
+        ));
+    }
+    
     @PutMapping("/{id}/status")
-    public ResponseEntity<OrderDto> updateOrderStatus(@PathVariable Long id, 
-                                                    @RequestParam Order.OrderStatus status) {
+    public ResponseEntity<OrderHeaderDto> updateOrderStatus(@PathVariable Long id, 
+                                                          @RequestParam Order.OrderStatus status) {
         try {
+            // Only the header is read back, the lines of the order are not loaded
             Order updatedOrder = orderService.updateOrderStatus(id, status);
-            return ResponseEntity.ok(convertToDto(updatedOrder));
+            return ResponseEntity.ok(new OrderHeaderDto(updatedOrder.getId(), updatedOrder.getOrderDate(),
+                    updatedOrder.getTotalAmount(), updatedOrder.getStatus()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            // The current status does not allow the transition
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    @PutMapping("/status/bulk")
+    public ResponseEntity<BulkStatusUpdateResponseDto> updateOrderStatuses(@Valid @RequestBody BulkStatusUpdateDto request) {
+        try {
+            long start = System.nanoTime();
+            BulkStatusUpdateResult result = orderService.updateOrderStatuses(request.getOrderIds(),
+                    request.getStatus(), request.getExpectedStatus());
+            long elapsedNanos = System.nanoTime() - start;
+            
+            return ResponseEntity.ok(new BulkStatusUpdateResponseDto(
+                    result.getStatus(),
+                    result.getRequested(),
+                    result.getUpdated(),
+                    result.getFailedOrderIds().size(),
+                    elapsedNanos / 1_000_000,
+                    result.getFailedOrderIds()
+            ));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -89,16 +258,31 @@ public class OrderController {
     }
     
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<OrderDto>> getOrdersByUser(@PathVariable Long userId) {
+    public void getOrdersByUser(@PathVariable Long userId, HttpServletResponse response) throws IOException {
+        User user = userService.getUserById(userId).orElse(null);
+        if (user == null) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        jsonArrayWriter.write(response, consumer -> orderService.getOrdersByUser(user, consumer), this::writeDto);
+    }
+    
+    @GetMapping("/user/{userId}/summary")
+    public ResponseEntity<UserOrderSummaryDto> getUserOrderSummary(@PathVariable Long userId,
+                                                                   @RequestParam(required = false) Integer recent) {
         try {
-            User user = userService.getUserById(userId)
-                    .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
-            
-            List<Order> orders = orderService.getOrdersByUser(user);
-            List<OrderDto> orderDtos = orders.stream()
-                    .map(this::convertToDto)
+            UserOrderSummary summary = orderService.getUserOrderSummary(userId);
+            List<OrderHeaderDto> recentOrders = orderService.getRecentOrdersByUser(userId, recent).stream()
+                    .map(order -> new OrderHeaderDto(order.getId(), order.getOrderDate(),
+                            order.getTotalAmount(), order.getStatus()))
                     .collect(Collectors.toList());
-            return ResponseEntity.ok(orderDtos);
+            
+            Map<Order.OrderStatus, Long> ordersByStatus = new EnumMap<>(Order.OrderStatus.class);
+            for (Order.OrderStatus status : Order.OrderStatus.values()) {
+                ordersByStatus.put(status, summary.getOrderCount(status));
+            }
+            return ResponseEntity.ok(new UserOrderSummaryDto(userId, summary.getOrderCount(),
+                    summary.getLifetimeValue(), ordersByStatus, recentOrders));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -113,6 +297,22 @@ public class OrderController {
             return ResponseEntity.ok(convertToDto(updatedOrder));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    @PutMapping("/{orderId}/products/{productId}")
+    public ResponseEntity<OrderDto> updateProductQuantity(@PathVariable Long orderId,
+                                                        @PathVariable Long productId,
+                                                        @RequestParam Integer quantity) {
+        try {
+            Order updatedOrder = orderService.updateProductQuantity(orderId, productId, quantity);
+            return ResponseEntity.ok(convertToDto(updatedOrder));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
     
@@ -124,7 +324,62 @@ public class OrderController {
             return ResponseEntity.ok(convertToDto(updatedOrder));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    private String toJson(OrderDto orderDto) {
+        try {
+            return objectMapper.writeValueAsString(orderDto);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private Order convertToEntity(OrderDto orderDto) {
+        // Only ids are set here, the service resolves users and products
+        User user = new User();
+        user.setId(orderDto.getUserId());
+        Order order = new Order(user);
+        
+        if (orderDto.getOrderProducts() != null) {
+            for (OrderProductDto orderProductDto : orderDto.getOrderProducts()) {
+                if (orderProductDto == null) {
+                    // Rejected by the service
+                    order.getOrderProducts().add(null);
+                    continue;
+                }
+                Product product = new Product();
+                product.setId(orderProductDto.getProductId());
+                order.getOrderProducts().add(new OrderProduct(order, product, orderProductDto.getQuantity(), null));
+            }
+        }
+        return order;
+    }
+    
+    /**
+     * Write the JSON of convertToDto(order), in the property order of OrderDto and OrderProductDto
+     */
+    private void writeDto(JsonGenerator generator, Order order) throws IOException {
+        generator.writeStartObject();
+        generator.writePOJOField("id", order.getId());
+        generator.writePOJOField("userId", order.getUser().getId());
+        generator.writePOJOField("orderDate", order.getOrderDate());
+        generator.writePOJOField("totalAmount", order.getTotalAmount());
+        generator.writePOJOField("status", order.getStatus());
+        generator.writeArrayFieldStart("orderProducts");
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            generator.writeStartObject();
+            generator.writePOJOField("id", orderProduct.getId());
+            generator.writePOJOField("productId", orderProduct.getProduct().getId());
+            generator.writePOJOField("quantity", orderProduct.getQuantity());
+            generator.writePOJOField("price", orderProduct.getPrice());
+            generator.writeStringField("productName", orderProduct.getProduct().getName());
+            generator.writeEndObject();
         }
+        generator.writeEndArray();
+        generator.writeEndObject();
     }
     
     private OrderDto convertToDto(Order order) {
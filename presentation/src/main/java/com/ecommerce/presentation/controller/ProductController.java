@@ -1,15 +1,34 @@
 package com.ecommerce.presentation.controller;
 
+import com.ecommerce.application.pagination.CursorPage;
+import com.ecommerce.application.service.ImportReport;
 import com.ecommerce.application.service.ProductService;
 import com.ecommerce.domain.Product;
+import com.ecommerce.presentation.cache.CatalogResponseCache;
+import com.ecommerce.presentation.csv.CsvImportRows;
+import com.ecommerce.presentation.csv.CsvImporter;
+import com.ecommerce.presentation.dto.ImportReportDto;
+import com.ecommerce.presentation.dto.PageDto;
 import com.ecommerce.presentation.dto.ProductDto;
+import com.ecommerce.presentation.json.JsonArrayWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -20,21 +39,66 @@ public class ProductController {
     @Autowired
     private ProductService productService;
     
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+    
+    @Autowired
+    private JsonArrayWriter jsonArrayWriter;
+    
+    @Autowired
+    private CsvImporter csvImporter;
+    
+    private static final List<String> IMPORT_COLUMNS = List.of("name", "description", "price", "stockQuantity");
+    
+    // Catalog reads return the cached JSON of a List<ProductDto>, PageDto<ProductDto> or ProductDto
+    
     @GetMapping
-    public ResponseEntity<List<ProductDto>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        List<ProductDto> productDtos = products.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(productDtos);
+    public ResponseEntity<byte[]> getAllProducts(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletResponse servletResponse) throws IOException {
+        // Read before writing, so the cached response is at least as recent as its version; every
+        // product is in this response, so any stock move makes it stale
+        long catalogVersion = productService.getCatalogVersion() + productService.getStockVersion();
+        Optional<CatalogResponseCache.CachedResponse> response;
+        try {
+            response = catalogResponseCache.getWritten("all", catalogVersion,
+                    outputStream -> jsonArrayWriter.write(outputStream, productService::getAllProducts, this::writeDto),
+                    () -> {
+                        // Too large to cache: streamed as it is written, without ETag
+                        servletResponse.setStatus(HttpServletResponse.SC_OK);
+                        servletResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                        servletResponse.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+                        return servletResponse.getOutputStream();
+                    });
+        } catch (IOException | RuntimeException e) {
+            if (!servletResponse.isCommitted()) {
+                servletResponse.resetBuffer();
+            }
+            throw e;
+        }
+        // Null when the body was already streamed: the response is complete
+        return response.isPresent() ? toResponseEntity(response, ifNoneMatch) : null;
+    }
+    
+    @GetMapping("/page")
+    public ResponseEntity<byte[]> getProductsPage(@RequestParam(required = false) String after,
+                                                  @RequestParam(required = false) Integer limit,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            return catalogResponse("page:" + after + ":" + limit, ifNoneMatch, () -> {
+                CursorPage<ProductDto> page = productService.getProductsPage(after, limit).map(this::convertToDto);
+                return Optional.of(new PageDto<>(page.getItems(), page.getNextCursor()));
+            }, PageDto::getItems);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
-        return productService.getProductById(id)
-                .map(this::convertToDto)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> getProductById(@PathVariable Long id,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return catalogResponse("id:" + id, ifNoneMatch, () -> productService.getProductById(id).map(this::convertToDto),
+                List::of);
     }
     
     @PostMapping
@@ -49,6 +113,21 @@ public class ProductController {
         }
     }
     
+    /**
+     * Import products from a CSV file (header name,description,price,stockQuantity), read while it is
+     * uploaded; invalid rows are reported and skipped
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportReportDto> importProducts(InputStream body) {
+        try {
+            long start = System.nanoTime();
+            ImportReport report = productService.importProducts(csvImporter.rows(body, IMPORT_COLUMNS, this::convertRowToEntity));
+            return ResponseEntity.ok(csvImporter.toDto(report, System.nanoTime() - start));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<ProductDto> updateProduct(@PathVariable Long id, @Valid @RequestBody ProductDto productDto) {
         try {
@@ -72,12 +151,66 @@ public class ProductController {
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<ProductDto>> searchProductsByName(@RequestParam String name) {
-        List<Product> products = productService.searchProductsByName(name);
-        List<ProductDto> productDtos = products.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(productDtos);
+    public ResponseEntity<byte[]> searchProductsByName(@RequestParam String name,
+                                                       @RequestParam(required = false) Integer limit,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            return catalogResponse("search:" + limit + ":" + name, ifNoneMatch, () -> Optional.of(productService.searchProductsByName(name, limit).stream()
+                    .map(this::convertToDto)
+                    .collect(Collectors.toList())), Function.identity());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Answer a catalog read from the response cache: 304 when the client's ETag is current,
+     * the cached JSON otherwise (built once per catalog version and stock of its products)
+     * @param key identifies the request
+     * @param ifNoneMatch the If-None-Match header of the request
+     * @param body builds the response DTO, empty for 404
+     * @param shownProducts the products of the response DTO
+     */
+    private <T> ResponseEntity<byte[]> catalogResponse(String key, String ifNoneMatch, Supplier<Optional<T>> body,
+                                                       Function<T, Collection<ProductDto>> shownProducts) {
+        // Read before building, so the cached response is at least as recent as its version
+        long catalogVersion = productService.getCatalogVersion();
+        return toResponseEntity(catalogResponseCache.get(key, catalogVersion, body, shownProducts), ifNoneMatch);
+    }
+    
+    /**
+     * @return 304 when the client's ETag is current, the cached JSON otherwise, 404 if there is no response
+     */
+    private ResponseEntity<byte[]> toResponseEntity(Optional<CatalogResponseCache.CachedResponse> cached,
+                                                    String ifNoneMatch) {
+        return cached
+                .map(response -> {
+                    if (response.matches(ifNoneMatch)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(response.getEtag())
+                                .cacheControl(CacheControl.noCache())
+                                .<byte[]>build();
+                    }
+                    return ResponseEntity.ok()
+                            .eTag(response.getEtag())
+                            .cacheControl(CacheControl.noCache())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(response.getBody());
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Write the JSON of convertToDto(product), in the property order of ProductDto
+     */
+    private void writeDto(JsonGenerator generator, Product product) throws IOException {
+        generator.writeStartObject();
+        generator.writePOJOField("id", product.getId());
+        generator.writeStringField("name", product.getName());
+        generator.writeStringField("description", product.getDescription());
+        generator.writePOJOField("price", product.getPrice());
+        generator.writePOJOField("stockQuantity", product.getStockQuantity());
+        generator.writeEndObject();
     }
     
     private ProductDto convertToDto(Product product) {
@@ -98,4 +231,14 @@ public class ProductController {
                 productDto.getStockQuantity()
         );
     }
-} 
\ No newline at end of file
+    
+    private Product convertRowToEntity(CsvImportRows.Row row) {
+        return convertToEntity(csvImporter.validate(new ProductDto(
+                null,
+                row.get("name"),
+                row.get("description"),
+                row.getDecimal("price"),
+                row.getInteger("stockQuantity")
+        )));
+    }
+}
\ No newline at end of file
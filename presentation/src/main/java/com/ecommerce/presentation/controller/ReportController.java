@@ -0,0 +1,99 @@
+package com.ecommerce.presentation.controller;
+
+import com.ecommerce.application.service.OrderService;
+import com.ecommerce.application.service.SalesReportService;
+import com.ecommerce.domain.analytics.DailySales;
+import com.ecommerce.domain.analytics.ProductSales;
+import com.ecommerce.presentation.dto.DailySalesDto;
+import com.ecommerce.presentation.dto.ProductSalesDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "*")
+public class ReportController {
+    
+    @Autowired
+    private SalesReportService salesReportService;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @GetMapping("/sales/daily")
+    public ResponseEntity<List<DailySalesDto>> getDailySales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            List<DailySalesDto> sales = salesReportService.getDailySales(from, to).stream()
+                    .map(this::convertToDto)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(sales);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/sales/products")
+    public ResponseEntity<List<ProductSalesDto>> getTopProducts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<ProductSalesDto> products = salesReportService.getTopProducts(from, to, limit).stream()
+                    .map(this::convertToDto)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(products);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping("/sales/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSalesReports() {
+        long start = System.nanoTime();
+        long days = salesReportService.rebuildSalesReports();
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("days", days);
+        response.put("elapsedMillis", (System.nanoTime() - start) / 1_000_000);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/user-summaries/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildUserOrderSummaries() {
+        long start = System.nanoTime();
+        long users = orderService.rebuildUserOrderSummaries();
+        
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("users", users);
+        response.put("elapsedMillis", (System.nanoTime() - start) / 1_000_000);
+        return ResponseEntity.ok(response);
+    }
+    
+    private DailySalesDto convertToDto(DailySales dailySales) {
+        return new DailySalesDto(
+                dailySales.getDay(),
+                dailySales.getRevenue(),
+                dailySales.getOrderCount(),
+                dailySales.getUnits()
+        );
+    }
+    
+    private ProductSalesDto convertToDto(ProductSales productSales) {
+        return new ProductSalesDto(
+                productSales.getProductId(),
+                productSales.getProductName(),
+                productSales.getUnits(),
+                productSales.getRevenue()
+        );
+    }
+}
@@ -1,8 +1,16 @@
 package com.ecommerce.presentation.controller;
 
+import com.ecommerce.application.pagination.CursorPage;
+import com.ecommerce.application.service.ImportReport;
 import com.ecommerce.application.service.UserService;
 import com.ecommerce.domain.User;
+import com.ecommerce.presentation.csv.CsvImportRows;
+import com.ecommerce.presentation.csv.CsvImporter;
+import com.ecommerce.presentation.dto.ImportReportDto;
+import com.ecommerce.presentation.dto.PageDto;
 import com.ecommerce.presentation.dto.UserDto;
+import com.ecommerce.presentation.json.JsonArrayWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,14 +19,16 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/users")
@@ -29,6 +39,14 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private JsonArrayWriter jsonArrayWriter;
+    
+    @Autowired
+    private CsvImporter csvImporter;
+    
+    private static final List<String> IMPORT_COLUMNS = List.of("email", "name", "password", "address");
+    
     @Operation(
         summary = "Listar todos os usuários",
         description = "Retorna uma lista com todos os usuários cadastrados no sistema"
@@ -40,12 +58,30 @@ public class UserController {
         @ApiResponse(responseCode = "204", description = "Nenhum usuário encontrado")
     })
     @GetMapping
-    public ResponseEntity<List<UserDto>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        List<UserDto> userDtos = users.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(userDtos);
+    public void getAllUsers(HttpServletResponse response) throws IOException {
+        jsonArrayWriter.write(response, userService::getAllUsers, this::writeDto);
+    }
+    
+    @Operation(
+        summary = "Listar usuários paginados",
+        description = "Retorna uma página de usuários ordenada por ID, usando paginação por cursor (keyset)"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de usuários retornada com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    @GetMapping("/page")
+    public ResponseEntity<PageDto<UserDto>> getUsersPage(
+        @Parameter(description = "Cursor retornado pela página anterior (ID do último usuário)", example = "20")
+        @RequestParam(required = false) String after,
+        @Parameter(description = "Tamanho da página (máximo 100)", example = "20")
+        @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<UserDto> page = userService.getUsersPage(after, limit).map(this::convertToDto);
+            return ResponseEntity.ok(new PageDto<>(page.getItems(), page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @Operation(
@@ -88,6 +124,26 @@ public class UserController {
         }
     }
     
+    @Operation(
+        summary = "Importar usuários de CSV",
+        description = "Importa usuários de um arquivo CSV (cabeçalho email,name,password,address), lido durante o envio; "
+                + "linhas inválidas ou com email já cadastrado são ignoradas e listadas no relatório"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importação concluída, com o relatório das linhas"),
+        @ApiResponse(responseCode = "400", description = "Arquivo vazio ou cabeçalho sem as colunas obrigatórias")
+    })
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportReportDto> importUsers(InputStream body) {
+        try {
+            long start = System.nanoTime();
+            ImportReport report = userService.importUsers(csvImporter.rows(body, IMPORT_COLUMNS, this::convertRowToEntity));
+            return ResponseEntity.ok(csvImporter.toDto(report, System.nanoTime() - start));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<UserDto> updateUser(@PathVariable Long id, @Valid @RequestBody UserDto userDto) {
         try {
@@ -128,6 +184,19 @@ public class UserController {
         );
     }
     
+    /**
+     * Write the JSON of convertToDto(user), in the property order of UserDto
+     */
+    private void writeDto(JsonGenerator generator, User user) throws IOException {
+        generator.writeStartObject();
+        generator.writePOJOField("id", user.getId());
+        generator.writeStringField("email", user.getEmail());
+        generator.writeStringField("name", user.getName());
+        generator.writeStringField("password", user.getPassword());
+        generator.writeStringField("address", user.getAddress());
+        generator.writeEndObject();
+    }
+    
     private User convertToEntity(UserDto userDto) {
         return new User(
                 userDto.getEmail(),
@@ -136,4 +205,14 @@ public class UserController {
                 userDto.getAddress()
         );
     }
-} 
\ No newline at end of file
+    
+    private User convertRowToEntity(CsvImportRows.Row row) {
+        return convertToEntity(csvImporter.validate(new UserDto(
+                null,
+                row.get("email"),
+                row.get("name"),
+                row.get("password"),
+                row.get("address")
+        )));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,179 @@
+package com.ecommerce.presentation.csv;
+
+import com.ecommerce.application.service.ImportRow;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * CsvImportRows - the records of a CSV file as import rows, parsed and mapped one at a time as they are read
+ * The first record is the header: columns are found by name (case-insensitive, in any order, other
+ * columns ignored). A record that cannot be parsed, has the wrong number of fields or is rejected by
+ * the mapper becomes an invalid row with its line; blank lines are skipped.
+ */
+public class CsvImportRows<T> implements Iterator<ImportRow<T>> {
+
+    /**
+     * Maps the fields of a record to the imported value
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        /**
+         * @throws IllegalArgumentException if the record is not a valid value, with the reason
+         */
+        T map(Row row);
+    }
+
+    private final CsvReader reader;
+    private final RowMapper<T> mapper;
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final int fieldCount;
+    private ImportRow<T> next;
+    private boolean finished;
+
+    /**
+     * Read the header
+     * @param reader the CSV file
+     * @param columns the columns the mapper reads
+     * @param mapper maps each record
+     * @throws IllegalArgumentException if the file is empty or a column is missing from the header
+     */
+    public CsvImportRows(CsvReader reader, List<String> columns, RowMapper<T> mapper) {
+        this.reader = reader;
+        this.mapper = mapper;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        Map<String, Integer> headerIndexes = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            headerIndexes.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = new ArrayList<>();
+        for (String column : columns) {
+            Integer index = headerIndexes.get(column.toLowerCase(Locale.ROOT));
+            if (index == null) {
+                missing.add(column);
+            } else {
+                indexes.put(column, index);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing columns " + missing);
+        }
+        this.fieldCount = header.size();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            next = readRow();
+        }
+        return next != null;
+    }
+
+    @Override
+    public ImportRow<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ImportRow<T> row = next;
+        next = null;
+        return row;
+    }
+
+    private ImportRow<T> readRow() {
+        while (true) {
+            List<String> fields;
+            try {
+                fields = readRecord();
+            } catch (IllegalArgumentException e) {
+                return ImportRow.invalid(reader.getRecordLine(), e.getMessage());
+            }
+            long line = reader.getRecordLine();
+            if (fields == null) {
+                finished = true;
+                return null;
+            }
+            if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                continue;
+            }
+            if (fields.size() != fieldCount) {
+                return ImportRow.invalid(line, "Expected " + fieldCount + " fields, found " + fields.size());
+            }
+            try {
+                return ImportRow.of(line, mapper.map(new Row(indexes, fields)));
+            } catch (IllegalArgumentException e) {
+                return ImportRow.invalid(line, e.getMessage());
+            }
+        }
+    }
+
+    private List<String> readRecord() {
+        try {
+            return reader.readRecord();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Row - the fields of a record, by column
+     */
+    public static class Row {
+
+        private final Map<String, Integer> indexes;
+        private final List<String> fields;
+
+        private Row(Map<String, Integer> indexes, List<String> fields) {
+            this.indexes = indexes;
+            this.fields = fields;
+        }
+
+        /**
+         * @param column one of the columns given to CsvImportRows
+         * @return the field as read
+         */
+        public String get(String column) {
+            Integer index = indexes.get(column);
+            if (index == null) {
+                throw new IllegalStateException("Column " + column + " was not requested");
+            }
+            return fields.get(index);
+        }
+
+        /**
+         * @return the field as a decimal, null if it is blank
+         * @throws IllegalArgumentException if it is not a number
+         */
+        public BigDecimal getDecimal(String column) {
+            String value = get(column).trim();
+            try {
+                return value.isEmpty() ? null : new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + ": '" + value + "' is not a number");
+            }
+        }
+
+        /**
+         * @return the field as an integer, null if it is blank
+         * @throws IllegalArgumentException if it is not an integer
+         */
+        public Integer getInteger(String column) {
+            String value = get(column).trim();
+            try {
+                return value.isEmpty() ? null : Integer.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(column + ": '" + value + "' is not an integer");
+            }
+        }
+    }
+}
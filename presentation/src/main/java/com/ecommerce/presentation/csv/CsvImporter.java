@@ -0,0 +1,78 @@
+package com.ecommerce.presentation.csv;
+
+import com.ecommerce.application.service.ImportReport;
+import com.ecommerce.application.service.ImportRow;
+import com.ecommerce.presentation.dto.ImportErrorDto;
+import com.ecommerce.presentation.dto.ImportReportDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * CsvImporter - reads CSV uploads for the import endpoints
+ * The request body is parsed while the service imports it, so an upload of any size needs only the
+ * chunk being imported in memory. Rows are mapped to the DTO the create endpoint takes and validated
+ * with the same constraints before they are converted to entities.
+ */
+@Component
+public class CsvImporter {
+
+    private final Validator validator;
+
+    public CsvImporter(Validator validator) {
+        this.validator = validator;
+    }
+
+    /**
+     * Read a UTF-8 CSV body, header first
+     * @param body the request body
+     * @param columns the columns the mapper reads
+     * @param mapper maps each record
+     * @return the rows, read as they are iterated
+     * @throws IllegalArgumentException if the body is empty or a column is missing from the header
+     */
+    public <T> Iterator<ImportRow<T>> rows(InputStream body, List<String> columns, CsvImportRows.RowMapper<T> mapper) {
+        return new CsvImportRows<>(new CsvReader(new InputStreamReader(body, StandardCharsets.UTF_8)), columns, mapper);
+    }
+
+    /**
+     * Validate a DTO built from a row
+     * @param dto the DTO
+     * @return the DTO
+     * @throws IllegalArgumentException with the messages of the violated constraints, by property
+     */
+    public <D> D validate(D dto) {
+        Set<ConstraintViolation<D>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .sorted(Comparator.comparing((ConstraintViolation<D> violation) -> violation.getPropertyPath().toString())
+                            .thenComparing(ConstraintViolation::getMessage))
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .collect(Collectors.joining("; ")));
+        }
+        return dto;
+    }
+
+    /**
+     * @param report the import report
+     * @param elapsedNanos how long the import took
+     * @return the response of an import endpoint
+     */
+    public ImportReportDto toDto(ImportReport report, long elapsedNanos) {
+        List<ImportErrorDto> errors = report.getErrors().stream()
+                .map(error -> new ImportErrorDto(error.getLine(), error.getMessage()))
+                .collect(Collectors.toList());
+        double rowsPerSecond = elapsedNanos > 0 ? report.getRows() * 1_000_000_000.0 / elapsedNanos : 0;
+        return new ImportReportDto(report.getRows(), report.getImported(), report.getFailed(),
+                elapsedNanos / 1_000_000, rowsPerSecond, errors);
+    }
+}
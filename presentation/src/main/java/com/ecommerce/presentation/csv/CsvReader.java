@@ -0,0 +1,143 @@
+package com.ecommerce.presentation.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CsvReader - reads CSV records (RFC 4180) one at a time from a character stream
+ * Fields are separated by commas and may be enclosed in double quotes, which lets them contain commas,
+ * line breaks and doubled quotes. Records end with LF or CRLF; a byte order mark at the start is skipped.
+ * Only the record being read is kept in memory, whatever the size of the input.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder field = new StringBuilder();
+    private int position;
+    private int limit;
+    private boolean started;
+    // Line of the next character, and line the last record started on
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Read the next record
+     * @return the fields of the record, null at the end of the input
+     * @throws IllegalArgumentException if a quoted field is not closed, or is followed by other characters
+     *         (the rest of the record is skipped, so reading can go on with the next one)
+     */
+    public List<String> readRecord() throws IOException {
+        recordLine = line;
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') {
+                c = read();
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        while (true) {
+            field.setLength(0);
+            if (c == '"') {
+                c = readQuoted();
+                if (c != ',' && c != '\r' && c != '\n' && c != -1) {
+                    skipLine(c);
+                    throw new IllegalArgumentException("Unexpected character after the closing quote of field "
+                            + (fields.size() + 1));
+                }
+            } else {
+                while (c != ',' && c != '\r' && c != '\n' && c != -1) {
+                    field.append((char) c);
+                    c = read();
+                }
+            }
+            fields.add(field.toString());
+            if (c != ',') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                return fields;
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * @return the line the last record read starts on (1 for the first)
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Read a quoted field, the opening quote already read
+     * @return the character after the closing quote
+     */
+    private int readQuoted() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IllegalArgumentException("Quoted field is not closed");
+            }
+            if (c == '"') {
+                if (peek() != '"') {
+                    return read();
+                }
+                read();
+            }
+            field.append((char) c);
+        }
+    }
+
+    private void skipLine(int c) throws IOException {
+        while (c != '\n' && c != -1) {
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        char c = buffer[position++];
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
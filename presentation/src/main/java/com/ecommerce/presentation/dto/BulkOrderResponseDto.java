@@ -0,0 +1,74 @@
+package com.ecommerce.presentation.dto;
+
+import java.util.List;
+
+public class BulkOrderResponseDto {
+    
+    private int total;
+    private int succeeded;
+    private int failed;
+    private long elapsedMillis;
+    private double ordersPerSecond;
+    private List<BulkOrderResultDto> results;
+
+    public BulkOrderResponseDto() {}
+
+    public BulkOrderResponseDto(int total, int succeeded, int failed, long elapsedMillis,
+                                double ordersPerSecond, List<BulkOrderResultDto> results) {
+        this.total = total;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.elapsedMillis = elapsedMillis;
+        this.ordersPerSecond = ordersPerSecond;
+        this.results = results;
+    }
+
+    // Getters and Setters
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getOrdersPerSecond() {
+        return ordersPerSecond;
+    }
+
+    public void setOrdersPerSecond(double ordersPerSecond) {
+        this.ordersPerSecond = ordersPerSecond;
+    }
+
+    public List<BulkOrderResultDto> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BulkOrderResultDto> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.presentation.dto;
+
+public class BulkOrderResultDto {
+    
+    private int index;
+    private boolean success;
+    private Long orderId;
+    private String error;
+
+    public BulkOrderResultDto() {}
+
+    public BulkOrderResultDto(int index, boolean success, Long orderId, String error) {
+        this.index = index;
+        this.success = success;
+        this.orderId = orderId;
+        this.error = error;
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.presentation.dto;
+
+import com.ecommerce.domain.Order;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public class BulkStatusUpdateDto {
+    
+    @NotEmpty(message = "IDs dos pedidos são obrigatórios")
+    private List<Long> orderIds;
+    
+    @NotNull(message = "Status é obrigatório")
+    private Order.OrderStatus status;
+    
+    // Optional: only orders currently in this status are moved
+    private Order.OrderStatus expectedStatus;
+
+    public BulkStatusUpdateDto() {}
+
+    public BulkStatusUpdateDto(List<Long> orderIds, Order.OrderStatus status, Order.OrderStatus expectedStatus) {
+        this.orderIds = orderIds;
+        this.status = status;
+        this.expectedStatus = expectedStatus;
+    }
+
+    // Getters and Setters
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Order.OrderStatus status) {
+        this.status = status;
+    }
+
+    public Order.OrderStatus getExpectedStatus() {
+        return expectedStatus;
+    }
+
+    public void setExpectedStatus(Order.OrderStatus expectedStatus) {
+        this.expectedStatus = expectedStatus;
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.presentation.dto;
+
+import com.ecommerce.domain.Order;
+
+import java.util.List;
+
+public class BulkStatusUpdateResponseDto {
+    
+    private Order.OrderStatus status;
+    private int total;
+    private int updated;
+    private int failed;
+    private long elapsedMillis;
+    private List<Long> failedOrderIds;
+
+    public BulkStatusUpdateResponseDto() {}
+
+    public BulkStatusUpdateResponseDto(Order.OrderStatus status, int total, int updated, int failed,
+                                       long elapsedMillis, List<Long> failedOrderIds) {
+        this.status = status;
+        this.total = total;
+        this.updated = updated;
+        this.failed = failed;
+        this.elapsedMillis = elapsedMillis;
+        this.failedOrderIds = failedOrderIds;
+    }
+
+    // Getters and Setters
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Order.OrderStatus status) {
+        this.status = status;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<Long> getFailedOrderIds() {
+        return failedOrderIds;
+    }
+
+    public void setFailedOrderIds(List<Long> failedOrderIds) {
+        this.failedOrderIds = failedOrderIds;
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.presentation.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class DailySalesDto {
+    
+    private LocalDate date;
+    private BigDecimal revenue;
+    private long orders;
+    private long units;
+
+    public DailySalesDto() {}
+
+    public DailySalesDto(LocalDate date, BigDecimal revenue, long orders, long units) {
+        this.date = date;
+        this.revenue = revenue;
+        this.orders = orders;
+        this.units = units;
+    }
+
+    // Getters and Setters
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public void setOrders(long orders) {
+        this.orders = orders;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public void setUnits(long units) {
+        this.units = units;
+    }
+}
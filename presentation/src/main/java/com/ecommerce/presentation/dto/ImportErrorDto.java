@@ -0,0 +1,31 @@
+package com.ecommerce.presentation.dto;
+
+public class ImportErrorDto {
+    
+    private long line;
+    private String message;
+
+    public ImportErrorDto() {}
+
+    public ImportErrorDto(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
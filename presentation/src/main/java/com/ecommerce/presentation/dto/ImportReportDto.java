@@ -0,0 +1,74 @@
+package com.ecommerce.presentation.dto;
+
+import java.util.List;
+
+public class ImportReportDto {
+    
+    private long rows;
+    private long imported;
+    private long failed;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<ImportErrorDto> errors;
+
+    public ImportReportDto() {}
+
+    public ImportReportDto(long rows, long imported, long failed, long elapsedMillis,
+                           double rowsPerSecond, List<ImportErrorDto> errors) {
+        this.rows = rows;
+        this.imported = imported;
+        this.failed = failed;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = rowsPerSecond;
+        this.errors = errors;
+    }
+
+    // Getters and Setters
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public List<ImportErrorDto> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportErrorDto> errors) {
+        this.errors = errors;
+    }
+}
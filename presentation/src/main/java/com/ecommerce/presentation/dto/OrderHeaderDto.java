@@ -0,0 +1,56 @@
+package com.ecommerce.presentation.dto;
+
+import com.ecommerce.domain.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class OrderHeaderDto {
+    
+    private Long id;
+    private LocalDateTime orderDate;
+    private BigDecimal totalAmount;
+    private Order.OrderStatus status;
+
+    public OrderHeaderDto() {}
+
+    public OrderHeaderDto(Long id, LocalDateTime orderDate, BigDecimal totalAmount, Order.OrderStatus status) {
+        this.id = id;
+        this.orderDate = orderDate;
+        this.totalAmount = totalAmount;
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public void setOrderDate(LocalDateTime orderDate) {
+        this.orderDate = orderDate;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Order.OrderStatus status) {
+        this.status = status;
+    }
+}
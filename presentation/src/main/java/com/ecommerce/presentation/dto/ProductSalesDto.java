@@ -0,0 +1,53 @@
+package com.ecommerce.presentation.dto;
+
+import java.math.BigDecimal;
+
+public class ProductSalesDto {
+    
+    private Long productId;
+    private String productName;
+    private long units;
+    private BigDecimal revenue;
+
+    public ProductSalesDto() {}
+
+    public ProductSalesDto(Long productId, String productName, long units, BigDecimal revenue) {
+        this.productId = productId;
+        this.productName = productName;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public void setUnits(long units) {
+        this.units = units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+}
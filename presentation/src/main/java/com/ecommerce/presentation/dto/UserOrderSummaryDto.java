@@ -0,0 +1,68 @@
+package com.ecommerce.presentation.dto;
+
+import com.ecommerce.domain.Order;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+public class UserOrderSummaryDto {
+    
+    private Long userId;
+    private long orderCount;
+    private BigDecimal lifetimeValue;
+    private Map<Order.OrderStatus, Long> ordersByStatus;
+    private List<OrderHeaderDto> recentOrders;
+
+    public UserOrderSummaryDto() {}
+
+    public UserOrderSummaryDto(Long userId, long orderCount, BigDecimal lifetimeValue,
+                               Map<Order.OrderStatus, Long> ordersByStatus, List<OrderHeaderDto> recentOrders) {
+        this.userId = userId;
+        this.orderCount = orderCount;
+        this.lifetimeValue = lifetimeValue;
+        this.ordersByStatus = ordersByStatus;
+        this.recentOrders = recentOrders;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public BigDecimal getLifetimeValue() {
+        return lifetimeValue;
+    }
+
+    public void setLifetimeValue(BigDecimal lifetimeValue) {
+        this.lifetimeValue = lifetimeValue;
+    }
+
+    public Map<Order.OrderStatus, Long> getOrdersByStatus() {
+        return ordersByStatus;
+    }
+
+    public void setOrdersByStatus(Map<Order.OrderStatus, Long> ordersByStatus) {
+        this.ordersByStatus = ordersByStatus;
+    }
+
+    public List<OrderHeaderDto> getRecentOrders() {
+        return recentOrders;
+    }
+
+    public void setRecentOrders(List<OrderHeaderDto> recentOrders) {
+        this.recentOrders = recentOrders;
+    }
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.presentation.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * JsonArrayWriter - writes list responses as a JSON array while the elements are read
+ * Elements come one at a time from a repository cursor and are written field by field by a single
+ * JsonGenerator per response, without DTOs: neither the list of entities, nor the list of DTOs, nor
+ * a buffered body is built, so memory use does not depend on the number of elements.
+ * The generator comes from the application's ObjectMapper, and element writers write dates, decimals
+ * and enums with writePOJOField, i.e. with the same serializers; an element writer that follows the
+ * properties of a DTO in declaration order therefore produces the bytes Jackson writes for the DTO list.
+ */
+@Component
+public class JsonArrayWriter {
+
+    /**
+     * Source of the elements, handing them to the consumer one at a time (a service streaming method)
+     */
+    @FunctionalInterface
+    public interface Source<T> {
+        void forEach(Consumer<T> consumer);
+    }
+
+    /**
+     * Writes one element as a JSON object
+     */
+    @FunctionalInterface
+    public interface ElementWriter<T> {
+        void write(JsonGenerator generator, T element) throws IOException;
+    }
+
+    private final ObjectMapper objectMapper;
+
+    public JsonArrayWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Answer 200 with the elements as a JSON array, written on the request thread while they are read,
+     * so read routing and read-your-writes apply as to any other read.
+     * If reading fails before anything was sent, the buffered output is discarded and the error is
+     * answered as usual; afterwards the response can only be cut short.
+     * @param response the servlet response
+     * @param source the elements
+     * @param elementWriter writes each element
+     */
+    public <T> void write(HttpServletResponse response, Source<T> source, ElementWriter<T> elementWriter)
+            throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try {
+            write(response.getOutputStream(), source, elementWriter);
+        } catch (IOException | RuntimeException e) {
+            if (!response.isCommitted()) {
+                response.resetBuffer();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Write the elements as a JSON array to a stream, which is flushed but not closed
+     * @param outputStream the stream
+     * @param source the elements
+     * @param elementWriter writes each element
+     */
+    public <T> void write(OutputStream outputStream, Source<T> source, ElementWriter<T> elementWriter)
+            throws IOException {
+        JsonGenerator generator = objectMapper.createGenerator(outputStream, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartArray();
+        try {
+            source.forEach(element -> {
+                try {
+                    elementWriter.write(generator, element);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.writeEndArray();
+        generator.close();
+    }
+}
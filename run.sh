@@ -14,9 +14,18 @@ show_help() {
     echo -e "  ${GREEN}./run.sh build${NC}              - Apenas mvn clean install"
     echo -e "  ${GREEN}./run.sh clean${NC}              - Apenas mvn clean"
     echo -e "  ${GREEN}./run.sh test${NC}               - Executa testes"
+    echo -e "  ${GREEN}./run.sh bench${NC}              - Executa os benchmarks JMH (resultado em JSON)"
     echo -e "  ${GREEN}./run.sh docker${NC}             - Apenas inicia Docker (Oracle XE)"
     echo -e "  ${GREEN}./run.sh docker-stop${NC}        - Para containers Docker"
     echo -e "  ${GREEN}./run.sh run${NC}                - Apenas executa a API"
+    echo -e "  ${GREEN}./run.sh replica-local${NC}      - Executa a API com primário e réplica em H2 (sem Oracle)"
+    echo -e "  ${GREEN}./run.sh inmemory${NC}           - Executa a API com persistência em memória (sem banco)"
+    echo -e "  ${GREEN}./run.sh native${NC}             - Gera e executa a imagem nativa GraalVM da API"
+    echo -e "  ${GREEN}./run.sh cds${NC}                - Executa a API na JVM com Spring AOT e arquivo AppCDS"
+    echo -e "  ${GREEN}./run.sh startup-bench${NC}      - Compara o tempo de inicialização (jvm, cds, native)"
+    echo -e "  ${GREEN}./run.sh reactive${NC}           - Executa a API WebFlux/R2DBC (porta 8081) no Oracle"
+    echo -e "  ${GREEN}./run.sh reactive-embedded${NC}  - Executa a API WebFlux/R2DBC com H2 embarcado (sem Oracle)"
+    echo -e "  ${GREEN}./run.sh load-bench${NC}         - Compara MVC e WebFlux com muitas conexões simultâneas"
     echo -e "  ${GREEN}./run.sh stop${NC}               - Para a API"
     echo -e "  ${GREEN}./run.sh status${NC}             - Mostra status da aplicação"
     echo -e "  ${GREEN}./run.sh logs${NC}               - Mostra logs da API"
@@ -173,6 +182,87 @@ case "${1:-}" in
         check_maven
         mvn test
         ;;
+    "bench")
+        echo -e "${BLUE}⏱️  Executando benchmarks JMH...${NC}"
+        check_java
+        check_maven
+        mvn -Pbenchmarks -pl benchmarks -am package -DskipTests
+        # Argumentos extras são repassados ao JMH (ex.: ./run.sh bench OrderDomainBenchmark -f 3)
+        java -jar benchmarks/target/benchmarks.jar -rf json -rff benchmarks/target/jmh-result.json "${@:2}"
+        echo -e "${GREEN}✅ Resultados salvos em benchmarks/target/jmh-result.json${NC}"
+        ;;
+    "replica-local")
+        echo -e "${BLUE}🗄️  Executando a API com primário e réplica em H2...${NC}"
+        check_java
+        check_maven
+        mvn -q install -DskipTests
+        mvn -Plocal-replica spring-boot:run -pl presentation -Dspring-boot.run.profiles=local-replica
+        ;;
+    "inmemory")
+        echo -e "${BLUE}🧠 Executando a API com persistência em memória...${NC}"
+        check_java
+        check_maven
+        mvn -q install -DskipTests
+        mvn spring-boot:run -pl presentation -Dspring-boot.run.profiles=inmemory
+        ;;
+    "reactive")
+        echo -e "${BLUE}🌊 Executando a API WebFlux sobre R2DBC (porta 8081)...${NC}"
+        check_java
+        check_maven
+        mvn -q install -DskipTests
+        # Usa o schema criado pela API MVC; num banco vazio: ./run.sh reactive --spring.sql.init.mode=always
+        mvn spring-boot:run -pl presentation-reactive -Dspring-boot.run.arguments="${*:2}"
+        ;;
+    "reactive-embedded")
+        echo -e "${BLUE}🌊 Executando a API WebFlux com H2 embarcado (porta 8081)...${NC}"
+        check_java
+        check_maven
+        mvn -q install -DskipTests
+        mvn -Pembedded spring-boot:run -pl presentation-reactive -Dspring-boot.run.profiles=embedded
+        ;;
+    "load-bench")
+        echo -e "${BLUE}🔥 Comparando MVC (8080) e WebFlux (8081) sob carga...${NC}"
+        check_java
+        check_maven
+        mvn -Pbenchmarks -pl benchmarks -am package -DskipTests
+        # As duas APIs precisam estar no ar sobre os mesmos dados (ex.: ./run.sh load-bench http://localhost:8080,http://localhost:8081 10000 30)
+        java -cp benchmarks/target/benchmarks.jar com.ecommerce.benchmarks.ConnectionLoadBenchmark "${@:2}"
+        ;;
+    "native")
+        echo -e "${BLUE}⚡ Gerando imagem nativa (GraalVM)...${NC}"
+        check_java
+        check_maven
+        # Perfis e propriedades condicionais são fixados no build (ex.: ./run.sh native inmemory)
+        if [ -n "${2:-}" ]; then
+            mvn -Pnative -DskipTests install -Dspring-boot.aot.jvmArguments="-Dspring.profiles.active=$2"
+            ./presentation/target/ecommerce --spring.profiles.active="$2"
+        else
+            mvn -Pnative -DskipTests install
+            ./presentation/target/ecommerce
+        fi
+        ;;
+    "cds")
+        echo -e "${BLUE}📦 Executando a API com Spring AOT e AppCDS...${NC}"
+        check_java
+        check_maven
+        mvn -Pcds -DskipTests install
+        rm -rf presentation/target/cds
+        java -Djarmode=tools -jar presentation/target/presentation-1.0-SNAPSHOT.jar extract --destination presentation/target/cds
+        cd presentation/target/cds
+        # Execução de treino: sobe o contexto sem alterar o schema e grava as classes carregadas no arquivo
+        echo -e "${YELLOW}🏋️  Criando o arquivo AppCDS...${NC}"
+        java -XX:ArchiveClassesAtExit=application.jsa -Dspring.context.exit=onRefresh -Dspring.aot.enabled=true \
+            -Dspring.jpa.hibernate.ddl-auto=none -jar presentation-1.0-SNAPSHOT.jar
+        java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar presentation-1.0-SNAPSHOT.jar "${@:2}"
+        ;;
+    "startup-bench")
+        echo -e "${BLUE}⏱️  Comparando a inicialização da API...${NC}"
+        check_java
+        check_maven
+        mvn -Pbenchmarks -pl benchmarks -am package -DskipTests
+        # Usa o que já foi gerado por ./run.sh cds e ./run.sh native (ex.: ./run.sh startup-bench 5 -- --spring.profiles.active=inmemory)
+        java -cp benchmarks/target/benchmarks.jar com.ecommerce.benchmarks.StartupBenchmark "${@:2}"
+        ;;
     "docker")
         echo -e "${BLUE}🐳 Iniciando Docker...${NC}"
         check_docker